@@ -1,12 +1,11 @@
 package controllers;
 
+import globalhandlers.MaintenanceState;
 import play.i18n.MessagesApi;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
 import play.mvc.Results;
-import repositories.AccountsRepository;
-import repositories.ConfigurationRepository;
 
 import javax.inject.Inject;
 
@@ -18,10 +17,8 @@ public final class MaintenanceController extends Controller {
 
   /** The injected {@link MessagesApi} instance. */
   private final MessagesApi messagesApi;
-  /** The injected {@link AccountsRepository} instance. */
-  private final AccountsRepository accountsRepository;
-  /** The injected {@link ConfigurationRepository} instance. */
-  private final ConfigurationRepository revisionRepository;
+  /** The injected {@link MaintenanceState} instance. */
+  private final MaintenanceState maintenanceState;
 
   // *******************************************************************************************************************
   // Injected Templates
@@ -42,21 +39,18 @@ public final class MaintenanceController extends Controller {
    * Creates a new instance of {@link GlobalController} by injecting the necessary parameters.
    *
    * @param messagesApi the {@link MessagesApi} instance.
-   * @param accountsRepository the {@link AccountsRepository} instance.
-   * @param revisionRepository the {@link ConfigurationRepository} instance.
+   * @param maintenanceState the {@link MaintenanceState} instance.
    * @param maintenanceView the {@link views.html.errors.maintenance} template.
    * @param badRequestView the {@link views.html.errors.badRequest} template.
    * @param statusView the {@link views.html.status} template.
    */
   @Inject
-  public MaintenanceController(final MessagesApi messagesApi, final AccountsRepository accountsRepository,
-                               final ConfigurationRepository revisionRepository,
+  public MaintenanceController(final MessagesApi messagesApi, final MaintenanceState maintenanceState,
                                final views.html.errors.maintenance maintenanceView,
                                final views.html.errors.badRequest badRequestView,
                                final views.html.status statusView) {
     this.messagesApi = messagesApi;
-    this.accountsRepository = accountsRepository;
-    this.revisionRepository = revisionRepository;
+    this.maintenanceState = maintenanceState;
     this.maintenanceView = maintenanceView;
     this.badRequestView = badRequestView;
     this.statusView = statusView;
@@ -82,17 +76,14 @@ public final class MaintenanceController extends Controller {
    * @return the {@link views.html.status} page.
    */
   public Result status(final Http.Request request) {
-
-    final boolean isDatabaseInitialized = revisionRepository.isDatabaseInitialized();
-    final boolean hasActiveAdministrator = accountsRepository.hasActiveAdministrator();
-    final boolean maintenance = !isDatabaseInitialized || !hasActiveAdministrator;
+    final MaintenanceState.Status status = maintenanceState.getStatus();
 
     final var messages = messagesApi.preferred(request);
-    if (!maintenance)
+    if (!status.isMaintenance())
       return badRequest(badRequestView.render(request, messages));
 
-    return ok(statusView.render(isDatabaseInitialized,
-                                hasActiveAdministrator,
+    return ok(statusView.render(status.databaseInitialized(),
+                                status.hasActiveAdministrator(),
                                 request,
                                 messages));
   }
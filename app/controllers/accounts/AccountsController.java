@@ -1,31 +1,38 @@
 package controllers.accounts;
 
 import controllers.ErrorsController;
+import controllers.auth.PasswordHasher;
 import controllers.auth.SessionHelper;
 import controllers.auth.SignedInAuthenticator;
-import me.gosimple.nbvcxz.Nbvcxz;
-import me.gosimple.nbvcxz.resources.ConfigurationBuilder;
-import me.gosimple.nbvcxz.resources.Dictionary;
-import me.gosimple.nbvcxz.resources.DictionaryBuilder;
+import database.BriventoryDB;
 import models.Account;
+import models.AccountPrincipal;
 import models.BrickLinkTokens;
 import models.BrickSetTokens;
 import models.RebrickableTokens;
+import orm.FetchPlan;
 import play.data.Form;
 import play.data.FormFactory;
 import play.i18n.MessagesApi;
+import play.libs.Json;
+import play.libs.concurrent.ClassLoaderExecutionContext;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
+import play.mvc.Results;
 import play.mvc.Security;
 import play.routing.JavaScriptReverseRouter;
+import play.twirl.api.Content;
 import repositories.AccountsRepository;
 import views.html.accounts.*;
 
 import javax.inject.Inject;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 import static play.mvc.Http.MimeTypes.JAVASCRIPT;
 
@@ -33,6 +40,31 @@ import static play.mvc.Http.MimeTypes.JAVASCRIPT;
 @Security.Authenticated(SignedInAuthenticator.class)
 public final class AccountsController extends Controller {
 
+  /**
+   * A {@code Binding} is a form bound by a database task, for the {@link Account} of the session.
+   *
+   * @param account the {@link Account} of the session.
+   * @param form the bound {@link Form}.
+   * @param valid is the form valid for the {@link Account} ? If so, the update has been applied.
+   * @param session the session re-issued for the updated {@link Account}, or {@code null} if the update does not change
+   * the claims of its token.
+   * @param <F> the type of the form.
+   */
+  private record Binding<F>(Account account, Form<F> form, boolean valid, Http.Session session) {
+
+    /**
+     * Creates a new {@link Binding} whose update does not change the claims of the token of the session.
+     *
+     * @param account the {@link Account} of the session.
+     * @param form the bound {@link Form}.
+     * @param valid is the form valid for the {@link Account} ?
+     */
+    private Binding(final Account account, final Form<F> form, final boolean valid) {
+      this(account, form, valid, null);
+    }
+
+  }
+
   // *******************************************************************************************************************
   // Injected Attributes
   // *******************************************************************************************************************
@@ -41,12 +73,20 @@ public final class AccountsController extends Controller {
   private final MessagesApi messagesApi;
   /** The injected {@link SessionHelper} instance. */
   private final SessionHelper sessionHelper;
+  /** The injected {@link BriventoryDB} instance. */
+  private final BriventoryDB briventoryDB;
+  /** The injected {@link ClassLoaderExecutionContext} instance, running the continuations of the requests. */
+  private final ClassLoaderExecutionContext executionContext;
   /** The injected {@link ErrorsController} instance. */
   private final ErrorsController errorsController;
   /** The injected {@link FormFactory} instance. */
   private final FormFactory formFactory;
   /** The injected {@link AccountsRepository} instance. */
   private final AccountsRepository accountsRepository;
+  /** The injected {@link PasswordHasher} instance. */
+  private final PasswordHasher passwordHasher;
+  /** The injected {@link PasswordStrength} instance. */
+  private final PasswordStrength passwordStrength;
 
   // *******************************************************************************************************************
   // Injected Templates
@@ -67,52 +107,41 @@ public final class AccountsController extends Controller {
    *
    * @param messagesApi the {@link MessagesApi} instance.
    * @param sessionHelper the {@link SessionHelper} instance.
+   * @param briventoryDB the {@link BriventoryDB} instance.
+   * @param executionContext the {@link ClassLoaderExecutionContext} instance.
    * @param errorsController the {@link ErrorsController} instance.
    * @param formFactory the {@link FormFactory} instance.
    * @param accountsRepository the {@link AccountsRepository} instance.
+   * @param passwordHasher the {@link PasswordHasher} instance.
+   * @param passwordStrength the {@link PasswordStrength} instance.
    * @param settings the {@link settings} template.
    * @param activity the {@link activity} template.
    */
   @Inject
   public AccountsController(final MessagesApi messagesApi,
                             final SessionHelper sessionHelper,
+                            final BriventoryDB briventoryDB,
+                            final ClassLoaderExecutionContext executionContext,
                             final ErrorsController errorsController,
                             final FormFactory formFactory,
                             final AccountsRepository accountsRepository,
+                            final PasswordHasher passwordHasher,
+                            final PasswordStrength passwordStrength,
                             final settings settings,
                             final activity activity) {
     this.messagesApi = messagesApi;
     this.sessionHelper = sessionHelper;
+    this.briventoryDB = briventoryDB;
+    this.executionContext = executionContext;
     this.errorsController = errorsController;
     this.formFactory = formFactory;
     this.accountsRepository = accountsRepository;
+    this.passwordHasher = passwordHasher;
+    this.passwordStrength = passwordStrength;
     this.settings = settings;
     this.activity = activity;
   }
 
-  // *******************************************************************************************************************
-  // Password Matters
-  // *******************************************************************************************************************
-  public static Nbvcxz nbvcxz(final String... wordsToExclude) {
-
-    // From https://github.com/GoSimpleLLC/nbvcxz#requires-java
-    // Create a map of excluded words on a per-user basis using a hypothetical "User" object that contains this info
-    final List<Dictionary> dictionaryList = ConfigurationBuilder.getDefaultDictionaries();
-    dictionaryList.add(new DictionaryBuilder().setDictionaryName("exclude")
-                                              .addWords(Arrays.asList(wordsToExclude), 0)
-                                              .setExclusion(true)
-                                              .createDictionary());
-
-    // Create our configuration object and set our custom minimum entropy, and custom dictionary list
-    final var minimumEntry = 40d;
-    var configuration = new ConfigurationBuilder()
-        .setMinimumEntropy(minimumEntry)
-        .setDictionaries(dictionaryList)
-        .createConfiguration();
-
-    return new Nbvcxz(configuration);
-  }
-
   // *******************************************************************************************************************
   // Entry Points related to the activities page
   // *******************************************************************************************************************
@@ -124,13 +153,9 @@ public final class AccountsController extends Controller {
    *
    * @return the {@link activity} page.
    */
-  public Result activity(final Http.Request request) {
-    final Optional<Account> accountOptional = sessionHelper.retrieveAccount(request);
-    if (accountOptional.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
-      return ok(activity.render(accountOptional.get(), preferred));
-    }
-    return errorsController.forbidden(request);
+  public CompletionStage<Result> activity(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    return readingAccount(request, AccountsRepository.WITH_RIGHTS, account -> ok(activity.render(account, preferred)));
   }
 
   // *******************************************************************************************************************
@@ -149,6 +174,7 @@ public final class AccountsController extends Controller {
                                              routes.javascript.AccountsController.updateName(),
                                              routes.javascript.AccountsController.updateEmail(),
                                              routes.javascript.AccountsController.updateCredentials(),
+                                             routes.javascript.AccountsController.estimatePasswordStrength(),
                                              routes.javascript.AccountsController.updateBrickLinkTokens(),
                                              routes.javascript.AccountsController.deleteBrickLinkTokens(),
                                              routes.javascript.AccountsController.updateBrickSetTokens(),
@@ -165,36 +191,31 @@ public final class AccountsController extends Controller {
    *
    * @return the {@link settings} page.
    */
-  public Result settings(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
-    if (optionalAccount.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
-
+  public CompletionStage<Result> settings(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    return readingAccount(request, AccountsRepository.WITH_RIGHTS_AND_TOKENS, account -> {
       final Form<EmailForm> emailForm = formFactory.form(EmailForm.class)
-                                                   .fill(new EmailForm(optionalAccount.get().getId(),
-                                                                       optionalAccount.get().getEmail()));
+                                                   .fill(new EmailForm(account.getId(), account.getEmail()));
 
       final Form<NameForm> nameForm = formFactory.form(NameForm.class)
-                                                 .fill(new NameForm(optionalAccount.get().getFirstname(),
-                                                                    optionalAccount.get().getLastname()));
+                                                 .fill(new NameForm(account.getFirstname(), account.getLastname()));
 
-      final Form<CredentialsForm> credentialsForm =
-          formFactory.form(CredentialsForm.class)
-                     .fill(new CredentialsForm(optionalAccount.get().getId()));
+      final Form<CredentialsForm> credentialsForm = formFactory.form(CredentialsForm.class)
+                                                               .fill(new CredentialsForm(account.getId()));
 
       final Form<BrickLinkTokensForm> brickLinkTokensForm =
           formFactory.form(BrickLinkTokensForm.class)
-                     .fill(new BrickLinkTokensForm(optionalAccount.get().getBrickLinkTokens()));
+                     .fill(new BrickLinkTokensForm(account.getBrickLinkTokens()));
 
       final Form<BrickSetTokensForm> brickSetTokensForm =
           formFactory.form(BrickSetTokensForm.class)
-                     .fill(new BrickSetTokensForm(optionalAccount.get().getBrickSetTokens()));
+                     .fill(new BrickSetTokensForm(account.getBrickSetTokens()));
 
       final Form<RebrickableTokensForm> rebrickableTokensForm =
           formFactory.form(RebrickableTokensForm.class)
-                     .fill(new RebrickableTokensForm(optionalAccount.get().getRebrickableTokens()));
+                     .fill(new RebrickableTokensForm(account.getRebrickableTokens()));
 
-      return ok(settings.render(optionalAccount.get(),
+      return ok(settings.render(account,
                                 emailForm,
                                 nameForm,
                                 credentialsForm,
@@ -203,8 +224,7 @@ public final class AccountsController extends Controller {
                                 rebrickableTokensForm,
                                 request,
                                 preferred));
-    }
-    return errorsController.forbidden(request);
+    });
   }
 
   /**
@@ -214,22 +234,18 @@ public final class AccountsController extends Controller {
    *
    * @return the related form with the new values or the errors.
    */
-  public Result updateEmail(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
-    if (optionalAccount.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
+  public CompletionStage<Result> updateEmail(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    return updatingAccount(request, account -> {
       final Form<EmailForm> emailForm = formFactory.form(EmailForm.class)
                                                    .bindFromRequest(request);
 
-      final Account account = optionalAccount.get();
-      if (!emailForm.hasErrors() && account.getId().equals(emailForm.get().getIdAccount())) {
-        account.setEmail(emailForm.get().getEmail());
-        accountsRepository.persist(account);
-        return ok(emailCard.render(emailForm, request, preferred));
-      }
-      return badRequest(emailCard.render(emailForm, request, preferred));
-    }
-    return errorsController.forbidden(request);
+      final boolean valid = !emailForm.hasErrors() && account.getId().equals(emailForm.get().getIdAccount());
+      if (!valid) return new Binding<>(account, emailForm, false);
+
+      accountsRepository.persist(account.setEmail(emailForm.get().getEmail()));
+      return new Binding<>(account, emailForm, true, sessionHelper.withAccount(account, request));
+    }, binding -> rendered(binding, emailCard.render(binding.form(), request, preferred)));
   }
 
   /**
@@ -239,48 +255,110 @@ public final class AccountsController extends Controller {
    *
    * @return the related form with the new values or the errors.
    */
-  public Result updateName(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
-    if (optionalAccount.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
+  public CompletionStage<Result> updateName(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    return updatingAccount(request, account -> {
       final Form<NameForm> nameForm = formFactory.form(NameForm.class)
                                                  .bindFromRequest(request);
 
-      if (!nameForm.hasErrors()) {
-        final Account account = optionalAccount.get();
-        account.setFirstname(nameForm.get().getFirstname());
-        account.setLastname(nameForm.get().getLastname());
-        accountsRepository.persist(account);
-        return ok(nameCard.render(nameForm, request, preferred));
-      }
-      return badRequest(nameCard.render(nameForm, request, preferred));
-    }
-    return errorsController.forbidden(request);
+      if (nameForm.hasErrors()) return new Binding<>(account, nameForm, false);
+
+      accountsRepository.persist(account.setFirstname(nameForm.get().getFirstname())
+                                        .setLastname(nameForm.get().getLastname()));
+      return new Binding<>(account, nameForm, true, sessionHelper.withAccount(account, request));
+    }, binding -> rendered(binding, nameCard.render(binding.form(), request, preferred)));
   }
 
   /**
-   * update the credentials and returns the related form.
+   * update the credentials and returns the related form. The current password is verified on the pool of the
+   * {@link PasswordHasher}, the form is then bound by a database task, the new password is hashed on the pool of the
+   * {@link PasswordHasher}, and the account is persisted by another database task, that re-issues the session as well.
    *
    * @param request the {@link Http.Request}.
    *
-   * @return the related form with the new values or the errors.
+   * @return the related form with the new values or the errors, or a {@code 503 Service Unavailable} if too many
+   * passwords are being hashed.
    */
-  public Result updateCredentials(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
-    if (optionalAccount.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
-      final Form<CredentialsForm> credentialsForm = formFactory.form(CredentialsForm.class)
-                                                               .bindFromRequest(request);
+  public CompletionStage<Result> updateCredentials(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    final Object sessionKey = sessionHelper.sessionKey(request);
+    final Map<String, String[]> data = request.body().asFormUrlEncoded();
+    final String[] currentPassword = data == null ? null : data.get("currentPassword");
+    return sessionHelper.retrieveAccountAsync(request).thenComposeAsync(optionalAccount -> {
+      if (optionalAccount.isEmpty()) return CompletableFuture.completedFuture(errorsController.forbidden(request));
 
       final Account account = optionalAccount.get();
-      if (!credentialsForm.hasErrors() && account.getId().equals(credentialsForm.get().getIdAccount())) {
-        account.setClearPassword(credentialsForm.get().getNewPassword());
-        accountsRepository.persist(account);
-        return ok(credentialsCard.render(credentialsForm, request, preferred));
+      final CompletionStage<Boolean> verification =
+          currentPassword == null || currentPassword.length == 0 ?
+              CompletableFuture.completedFuture(false) :
+              passwordHasher.verify(currentPassword[0], account.getPassword());
+      return verification.thenCompose(verified -> briventoryDB.supplyAsync(
+                             sessionKey, () -> bindCredentials(request, account, verified)))
+                         .thenCompose(binding -> {
+                           if (!binding.valid()) return CompletableFuture.completedFuture(binding);
+                           return passwordHasher.hash(binding.form().get().getNewPassword())
+                                                .thenCompose(password -> briventoryDB.supplyAsync(sessionKey, () -> {
+                                                  accountsRepository.persist(account.setPassword(password));
+                                                  return new Binding<>(account, binding.form(), true,
+                                                                       sessionHelper.withAccount(account, request));
+                                                }));
+                         })
+                         .handleAsync((binding, throwable) -> {
+                           if (throwable == null)
+                             return rendered(binding, credentialsCard.render(binding.form(), request, preferred));
+                           if (!PasswordHasher.isRejection(throwable)) throw new CompletionException(throwable);
+                           final Form<CredentialsForm> busyForm =
+                               formFactory.form(CredentialsForm.class)
+                                          .fill(new CredentialsForm(account.getId()))
+                                          .withGlobalError("auth.signIn.error.busy");
+                           return Results.status(Http.Status.SERVICE_UNAVAILABLE,
+                                                 credentialsCard.render(busyForm, request, preferred));
+                         }, executionContext.current());
+    }, executionContext.current());
+  }
+
+  /**
+   * Binds the {@link CredentialsForm} of the request, run by a database task as its validation queries the database.
+   *
+   * @param request the {@link Http.Request}.
+   * @param account the {@link Account} of the session.
+   * @param verified has the current password been verified by the {@link PasswordHasher} ?
+   *
+   * @return the {@link Binding}, valid if the form has no errors, the current password matches, and the form is meant
+   * for the {@link Account}.
+   */
+  private Binding<CredentialsForm> bindCredentials(final Http.Request request, final Account account,
+                                                   final boolean verified) {
+    Form<CredentialsForm> credentialsForm = formFactory.form(CredentialsForm.class).bindFromRequest(request);
+    if (!verified && credentialsForm.error("currentPassword").isEmpty())
+      credentialsForm = credentialsForm.withError("currentPassword", "auth.signup.error.currentPassword.mismatch");
+    return new Binding<>(account,
+                         credentialsForm,
+                         !credentialsForm.hasErrors() && account.getId().equals(credentialsForm.get().getIdAccount()));
+  }
+
+  /**
+   * Estimates the strength of the {@code newPassword} field of the request, for the strength meter of the
+   * <em>credentials</em> card. The name and the e-mail address of the current account are excluded from the
+   * dictionaries, as done by the {@link CredentialsForm}.
+   *
+   * @param request the {@link Http.Request}.
+   *
+   * @return the {@link PasswordStrength.Strength} as JSON, or a {@code 400 Bad Request} if the field is missing.
+   */
+  public CompletionStage<Result> estimatePasswordStrength(final Http.Request request) {
+    final Map<String, String[]> data = request.body().asFormUrlEncoded();
+    final String[] values = data == null ? null : data.get("newPassword");
+    if (values == null || values.length == 0) return CompletableFuture.completedFuture(badRequest());
+
+    return sessionHelper.retrievePrincipalAsync(request).thenComposeAsync(optionalPrincipal -> {
+      if (optionalPrincipal.isPresent()) {
+        final AccountPrincipal principal = optionalPrincipal.get();
+        return passwordStrength.estimateAsync(values[0], principal.firstname(), principal.lastname(), principal.email())
+                               .thenApplyAsync(strength -> ok(Json.toJson(strength)), executionContext.current());
       }
-      return badRequest(credentialsCard.render(credentialsForm, request, preferred));
-    }
-    return errorsController.forbidden(request);
+      return CompletableFuture.completedFuture(errorsController.forbidden(request));
+    }, executionContext.current());
   }
 
   /**
@@ -290,16 +368,14 @@ public final class AccountsController extends Controller {
    *
    * @return the related form with the new values or the errors.
    */
-  public Result updateBrickLinkTokens(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
+  public CompletionStage<Result> updateBrickLinkTokens(final Http.Request request) {
     final var preferred = messagesApi.preferred(request);
-
-    if (optionalAccount.isPresent()) {
+    return updatingAccount(request, account -> {
       final Form<BrickLinkTokensForm> brickLinkTokensForm = formFactory.form(BrickLinkTokensForm.class)
                                                                        .bindFromRequest(request);
 
-      final Account account = optionalAccount.get();
-      if (!brickLinkTokensForm.hasErrors()) {
+      final boolean valid = !brickLinkTokensForm.hasErrors();
+      if (valid) {
         final BrickLinkTokensForm form = brickLinkTokensForm.get();
         account.setBrickLinkTokens(new BrickLinkTokens(account,
                                                        form.getConsumerKey(),
@@ -307,12 +383,10 @@ public final class AccountsController extends Controller {
                                                        form.getTokenValue(),
                                                        form.getTokenSecret()));
         accountsRepository.persist(account);
-        brickLinkTokensForm.get().setAsFilled();
-        return ok(brickLinkTokensCard.render(brickLinkTokensForm, request, preferred));
+        form.setAsFilled();
       }
-      return badRequest(brickLinkTokensCard.render(brickLinkTokensForm, request, preferred));
-    }
-    return errorsController.forbidden(request);
+      return new Binding<>(account, brickLinkTokensForm, valid);
+    }, binding -> rendered(binding, brickLinkTokensCard.render(binding.form(), request, preferred)));
   }
 
   /**
@@ -322,19 +396,13 @@ public final class AccountsController extends Controller {
    *
    * @return an empty form, if the deletion succeeds.
    */
-  public Result deleteBrickLinkTokens(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
+  public CompletionStage<Result> deleteBrickLinkTokens(final Http.Request request) {
     final var preferred = messagesApi.preferred(request);
-
-    if (optionalAccount.isPresent()) {
-      final Account account = optionalAccount.get();
+    return updatingAccount(request, account -> {
       account.clearBrickLinkTokens();
       accountsRepository.persist(account);
-      return ok(brickLinkTokensCard.render(formFactory.form(BrickLinkTokensForm.class),
-                                           request,
-                                           preferred));
-    }
-    return errorsController.forbidden(request);
+      return account;
+    }, account -> ok(brickLinkTokensCard.render(formFactory.form(BrickLinkTokensForm.class), request, preferred)));
   }
 
   /**
@@ -344,28 +412,24 @@ public final class AccountsController extends Controller {
    *
    * @return the related form with the new values or the errors.
    */
-  public Result updateBrickSetTokens(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
+  public CompletionStage<Result> updateBrickSetTokens(final Http.Request request) {
     final var preferred = messagesApi.preferred(request);
-
-    if (optionalAccount.isPresent()) {
+    return updatingAccount(request, account -> {
       final Form<BrickSetTokensForm> brickSetTokensForm = formFactory.form(BrickSetTokensForm.class)
                                                                      .bindFromRequest(request);
 
-      final Account account = optionalAccount.get();
-      if (!brickSetTokensForm.hasErrors()) {
+      final boolean valid = !brickSetTokensForm.hasErrors();
+      if (valid) {
         final BrickSetTokensForm form = brickSetTokensForm.get();
         account.setBrickSetTokens(new BrickSetTokens(account,
                                                      form.getApiKey(),
                                                      form.getUsername(),
                                                      form.getPassword()));
         accountsRepository.persist(account);
-        brickSetTokensForm.get().setAsFilled();
-        return ok(brickSetTokensCard.render(brickSetTokensForm, request, preferred));
+        form.setAsFilled();
       }
-      return badRequest(brickSetTokensCard.render(brickSetTokensForm, request, preferred));
-    }
-    return errorsController.forbidden(request);
+      return new Binding<>(account, brickSetTokensForm, valid);
+    }, binding -> rendered(binding, brickSetTokensCard.render(binding.form(), request, preferred)));
   }
 
   /**
@@ -375,19 +439,13 @@ public final class AccountsController extends Controller {
    *
    * @return an empty form, if the deletion succeeds.
    */
-  public Result deleteBrickSetTokens(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
+  public CompletionStage<Result> deleteBrickSetTokens(final Http.Request request) {
     final var preferred = messagesApi.preferred(request);
-
-    if (optionalAccount.isPresent()) {
-      final Account account = optionalAccount.get();
+    return updatingAccount(request, account -> {
       account.clearBrickSetTokens();
       accountsRepository.persist(account);
-      return ok(brickSetTokensCard.render(formFactory.form(BrickSetTokensForm.class),
-                                          request,
-                                          preferred));
-    }
-    return errorsController.forbidden(request);
+      return account;
+    }, account -> ok(brickSetTokensCard.render(formFactory.form(BrickSetTokensForm.class), request, preferred)));
   }
 
   /**
@@ -397,26 +455,22 @@ public final class AccountsController extends Controller {
    *
    * @return the related form with the new values or the errors.
    */
-  public Result updateRebrickableTokens(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
+  public CompletionStage<Result> updateRebrickableTokens(final Http.Request request) {
     final var preferred = messagesApi.preferred(request);
-
-    if (optionalAccount.isPresent()) {
+    return updatingAccount(request, account -> {
       final Form<RebrickableTokensForm> rebrickableTokensForm = formFactory.form(RebrickableTokensForm.class)
                                                                            .bindFromRequest(request);
 
-      final Account account = optionalAccount.get();
-      if (!rebrickableTokensForm.hasErrors()) {
+      final boolean valid = !rebrickableTokensForm.hasErrors();
+      if (valid) {
         final RebrickableTokensForm form = rebrickableTokensForm.get();
         account.setRebrickableTokens(new RebrickableTokens(account,
                                                            form.getKey()));
         accountsRepository.persist(account);
-        rebrickableTokensForm.get().setAsFilled();
-        return ok(rebrickableTokensCard.render(rebrickableTokensForm, request, preferred));
+        form.setAsFilled();
       }
-      return badRequest(rebrickableTokensCard.render(rebrickableTokensForm, request, preferred));
-    }
-    return errorsController.forbidden(request);
+      return new Binding<>(account, rebrickableTokensForm, valid);
+    }, binding -> rendered(binding, rebrickableTokensCard.render(binding.form(), request, preferred)));
   }
 
   /**
@@ -426,19 +480,89 @@ public final class AccountsController extends Controller {
    *
    * @return an empty form, if the deletion succeeds.
    */
-  public Result deleteRebrickableTokens(final Http.Request request) {
-    final Optional<Account> optionalAccount = sessionHelper.retrieveAccount(request);
+  public CompletionStage<Result> deleteRebrickableTokens(final Http.Request request) {
     final var preferred = messagesApi.preferred(request);
-
-    if (optionalAccount.isPresent()) {
-      final Account account = optionalAccount.get();
+    return updatingAccount(request, account -> {
       account.clearRebrickableTokens();
       accountsRepository.persist(account);
-      return ok(rebrickableTokensCard.render(formFactory.form(RebrickableTokensForm.class),
-                                             request,
-                                             preferred));
-    }
-    return errorsController.forbidden(request);
+      return account;
+    }, account -> ok(rebrickableTokensCard.render(formFactory.form(RebrickableTokensForm.class), request,
+                                                  preferred)));
+  }
+
+  // *******************************************************************************************************************
+  // Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Fetches the {@link Account} of the session, with the associations declared by the {@link FetchPlan}, by a single
+   * database task in a read-only connection scope, then builds the {@link Result} on the execution context of the
+   * request. The plan is expected to load everything the rendering needs, so that no lazy loading happens while
+   * rendering.
+   *
+   * @param request the {@link Http.Request}.
+   * @param fetchPlan the {@link FetchPlan} of the {@link Account}.
+   * @param renderer the {@link Function} building the {@link Result} from the {@link Account}.
+   *
+   * @return the {@link Result}, or a {@code 403 Forbidden} if the session does not contain a valid user.
+   */
+  private CompletionStage<Result> readingAccount(final Http.Request request,
+                                                 final FetchPlan<Account> fetchPlan,
+                                                 final Function<Account, Result> renderer) {
+    return rendered(request,
+                    briventoryDB.supplyReadOnlyAsync(sessionHelper.sessionKey(request),
+                                                     () -> sessionHelper.retrieveAccount(request, fetchPlan)),
+                    renderer);
+  }
+
+  /**
+   * Updates the {@link Account} of the session by a single database task, then builds the {@link Result} on the
+   * execution context of the request.
+   *
+   * @param request the {@link Http.Request}.
+   * @param updater the {@link Function} binding the form and persisting the {@link Account}, run by the database task.
+   * @param renderer the {@link Function} building the {@link Result} from the value returned by the updater.
+   * @param <T> the type of the value returned by the updater.
+   *
+   * @return the {@link Result}, or a {@code 403 Forbidden} if the session does not contain a valid user.
+   */
+  private <T> CompletionStage<Result> updatingAccount(final Http.Request request,
+                                                      final Function<Account, T> updater,
+                                                      final Function<T, Result> renderer) {
+    return rendered(request,
+                    briventoryDB.supplyAsync(sessionHelper.sessionKey(request),
+                                             () -> sessionHelper.retrieveAccount(request).map(updater)),
+                    renderer);
+  }
+
+  /**
+   * Builds the {@link Result} on the execution context of the request, once the database task has completed.
+   *
+   * @param request the {@link Http.Request}.
+   * @param task the {@link CompletionStage} of the database task, completed with an empty {@link Optional} if the
+   * session does not contain a valid user.
+   * @param renderer the {@link Function} building the {@link Result} from the value of the task.
+   * @param <T> the type of the value of the task.
+   *
+   * @return the {@link Result}, or a {@code 403 Forbidden} if the session does not contain a valid user.
+   */
+  private <T> CompletionStage<Result> rendered(final Http.Request request,
+                                               final CompletionStage<Optional<T>> task,
+                                               final Function<T, Result> renderer) {
+    return task.thenApplyAsync(value -> value.map(renderer).orElseGet(() -> errorsController.forbidden(request)),
+                               executionContext.current());
+  }
+
+  /**
+   * @param binding the {@link Binding}.
+   * @param card the card rendered with the bound form.
+   *
+   * @return a {@code 200 OK} with the card, and the re-issued session if any, if the form is valid, otherwise a
+   * {@code 400 Bad Request}.
+   */
+  private static Result rendered(final Binding<?> binding, final Content card) {
+    if (!binding.valid()) return badRequest(card);
+    return binding.session() == null ? ok(card) : ok(card).withSession(binding.session());
   }
 
 }
@@ -1,6 +1,5 @@
 package controllers.accounts;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import controllers.forms.ValidatableWithAccountsRepository;
 import controllers.forms.ValidateWithAccountsRepository;
 import database.Constraints;
@@ -15,9 +14,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 
-import static controllers.accounts.AccountsController.nbvcxz;
+import static controllers.accounts.PasswordStrength.score;
 
-/** This {@link play.data.Form} handler is specific to the update of the password. */
+/**
+ * This {@link play.data.Form} handler is specific to the update of the password. The current password is not verified
+ * by the validation: it is verified beforehand, on the pool of the {@link controllers.auth.PasswordHasher}.
+ */
 @ValidateWithAccountsRepository
 public final class CredentialsForm implements ValidatableWithAccountsRepository<List<ValidationError>> {
 
@@ -73,13 +75,8 @@ public final class CredentialsForm implements ValidatableWithAccountsRepository<
       l.add(new ValidationError(null, "account.settings.error.user.invalid"));
     } else {
       final Account account = optionalAccount.get();
-      final boolean passVerified = BCrypt.verifyer().verify(currentPassword.getBytes(),
-                                                            account.getPassword().getBytes()).verified;
-      if (!passVerified)
-        l.add(new ValidationError("currentPassword", "auth.signup.error.currentPassword.mismatch"));
-
-      final var nbvcxz = nbvcxz(account.getFirstname(), account.getLastname(), account.getEmail());
-      if (nbvcxz.estimate(newPassword).getBasicScore() < Constraints.PASSWORD_MIN_STRENGTH)
+      if (score(newPassword, account.getFirstname(), account.getLastname(), account.getEmail())
+          < Constraints.PASSWORD_MIN_STRENGTH)
         l.add(new ValidationError("newPassword", "auth.signup.error.password.weak",
                                   Collections.singletonList(Constraints.PASSWORD_MIN_STRENGTH)));
       if (!newPassword.equals(newPasswordRepeated))
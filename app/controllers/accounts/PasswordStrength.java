@@ -0,0 +1,182 @@
+package controllers.accounts;
+
+import com.typesafe.config.Config;
+import database.Constraints;
+import me.gosimple.nbvcxz.Nbvcxz;
+import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.ConfigurationBuilder;
+import me.gosimple.nbvcxz.resources.Dictionary;
+import me.gosimple.nbvcxz.resources.DictionaryBuilder;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@code PasswordStrength} estimates the strength of the passwords with nbvcxz. The evaluator, i.e. its dictionaries,
+ * its matchers and its keyboard graphs, is built only once, when the class is loaded; the words to exclude (e.g. the
+ * name of the user) are passed for each estimation, as a small dictionary layered on top of it.
+ * <p>The forms use the static {@link PasswordStrength#score(String, String...)} method. The strength meter of the
+ * settings page uses the injected instance, that estimates asynchronously, on the
+ * {@link PasswordStrengthExecutionContext}, and caches the recent estimations, as configured by the
+ * {@code briventory.passwords.strength-cache-size} entry of the configuration. The cache never holds the passwords
+ * themselves, only their digests.</p>
+ */
+@Singleton
+public final class PasswordStrength {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The minimum entropy of the passwords. */
+  private static final double MINIMUM_ENTROPY = 40d;
+  /** The {@link Configuration} of the evaluator, using the default dictionaries, built once. */
+  private static final Configuration CONFIGURATION =
+      new ConfigurationBuilder().setMinimumEntropy(MINIMUM_ENTROPY)
+                                .setDictionaries(ConfigurationBuilder.getDefaultDictionaries())
+                                .createConfiguration();
+  /** The {@link Nbvcxz} evaluator, when there is no word to exclude. */
+  private static final Nbvcxz NBVCXZ = new Nbvcxz(CONFIGURATION);
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The injected {@link PasswordStrengthExecutionContext} instance, running the estimations. */
+  private final PasswordStrengthExecutionContext executionContext;
+  /** The recent estimations, by digest of the password and of the words to exclude. */
+  private final Map<String, Strength> cache;
+
+  /**
+   * A {@code Strength} is the estimated strength of a password.
+   *
+   * @param score the basic score, from {@code 0} to {@code 4}.
+   * @param sufficient is the score at least {@link Constraints#PASSWORD_MIN_STRENGTH}, i.e. would the forms accept the
+   * password ?
+   */
+  public record Strength(int score, boolean sufficient) { }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link PasswordStrength} using the injected parameters.
+   *
+   * @param config the {@link Config} instance.
+   * @param executionContext the {@link PasswordStrengthExecutionContext} instance.
+   */
+  @Inject
+  public PasswordStrength(final Config config, final PasswordStrengthExecutionContext executionContext) {
+    this.executionContext = executionContext;
+    final int cacheSize = config.getInt("briventory.passwords.strength-cache-size");
+    cache = Collections.synchronizedMap(new LinkedHashMap<String, Strength>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Strength> eldest) { return size() > cacheSize; }
+    });
+  }
+
+  // *******************************************************************************************************************
+  // Estimation Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Estimates the basic score of the password provided, synchronously.
+   *
+   * @param password the password.
+   * @param wordsToExclude the words to exclude, e.g. the firstname, the lastname and the e-mail address of the user.
+   *
+   * @return the basic score, from {@code 0} to {@code 4}.
+   */
+  public static int score(final String password, final String... wordsToExclude) {
+    return evaluator(wordsToExclude).estimate(password).getBasicScore();
+  }
+
+  /**
+   * Returns the {@link Nbvcxz} evaluator excluding the words provided. Its {@link Configuration} shares everything with
+   * the one built once, its dictionaries, its matchers and its keyboard graphs, except for the dictionary of the words
+   * to exclude.
+   *
+   * @param wordsToExclude the words to exclude.
+   *
+   * @return the {@link Nbvcxz} evaluator.
+   */
+  private static Nbvcxz evaluator(final String... wordsToExclude) {
+    final List<String> words = Arrays.stream(wordsToExclude).filter(Objects::nonNull).toList();
+    if (words.isEmpty()) return NBVCXZ;
+
+    final List<Dictionary> dictionaries = new ArrayList<>(CONFIGURATION.getDictionaries().size() + 1);
+    dictionaries.addAll(CONFIGURATION.getDictionaries());
+    dictionaries.add(new DictionaryBuilder().setDictionaryName("exclude")
+                                            .addWords(words, 0)
+                                            .setExclusion(true)
+                                            .createDictionary());
+    return new Nbvcxz(new Configuration(CONFIGURATION.getPasswordMatchers(),
+                                        CONFIGURATION.getGuessTypes(),
+                                        dictionaries,
+                                        CONFIGURATION.getAdjacencyGraphs(),
+                                        CONFIGURATION.getLeetTable(),
+                                        CONFIGURATION.getYearPattern(),
+                                        CONFIGURATION.getMinimumEntropy(),
+                                        CONFIGURATION.getMaxLength(),
+                                        CONFIGURATION.getLocale(),
+                                        CONFIGURATION.isDistanceCalc(),
+                                        CONFIGURATION.getCombinationAlgorithmTimeout()));
+  }
+
+  /**
+   * Estimates the strength of the password provided, on the {@link PasswordStrengthExecutionContext}. The recent
+   * estimations are cached.
+   *
+   * @param password the password.
+   * @param wordsToExclude the words to exclude, e.g. the firstname, the lastname and the e-mail address of the user.
+   *
+   * @return a {@link CompletionStage} completed with the {@link Strength} of the password.
+   */
+  public CompletionStage<Strength> estimateAsync(final String password, final String... wordsToExclude) {
+    final String key = digest(password, wordsToExclude);
+    final Strength cached = cache.get(key);
+    if (cached != null) return CompletableFuture.completedFuture(cached);
+
+    return CompletableFuture.supplyAsync(() -> {
+      final int score = score(password, wordsToExclude);
+      final Strength strength = new Strength(score, score >= Constraints.PASSWORD_MIN_STRENGTH);
+      cache.put(key, strength);
+      return strength;
+    }, executionContext);
+  }
+
+  /**
+   * @param password the password.
+   * @param wordsToExclude the words to exclude.
+   *
+   * @return the SHA-256 digest of the password and of the words to exclude.
+   */
+  private static String digest(final String password, final String... wordsToExclude) {
+    try {
+      final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      for (String word : wordsToExclude) {
+        messageDigest.update(String.valueOf(word).getBytes(StandardCharsets.UTF_8));
+        messageDigest.update((byte) 0);
+      }
+      messageDigest.update(password.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(messageDigest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+
+}
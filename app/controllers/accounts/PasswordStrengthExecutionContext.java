@@ -0,0 +1,29 @@
+package controllers.accounts;
+
+import org.apache.pekko.actor.ActorSystem;
+import play.libs.concurrent.CustomExecutionContext;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * {@code PasswordStrengthExecutionContext} runs the estimations of the {@link PasswordStrength}. The estimations are
+ * CPU-bound: they run on a dedicated dispatcher, neither on the threads serving the requests, nor on the common pool of
+ * the JVM.
+ * <p>The dispatcher is configured by the {@code briventory.passwords.strength-dispatcher} entry of the
+ * configuration.</p>
+ */
+@Singleton
+public final class PasswordStrengthExecutionContext extends CustomExecutionContext {
+
+  /**
+   * Creates a new instance of {@link PasswordStrengthExecutionContext} using the injected parameters.
+   *
+   * @param actorSystem the {@link ActorSystem} instance.
+   */
+  @Inject
+  public PasswordStrengthExecutionContext(final ActorSystem actorSystem) {
+    super(actorSystem, "briventory.passwords.strength-dispatcher");
+  }
+
+}
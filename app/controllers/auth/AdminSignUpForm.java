@@ -14,7 +14,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
-import static controllers.accounts.AccountsController.nbvcxz;
+import static controllers.accounts.PasswordStrength.score;
 
 @ValidateWithAccountsRepository
 public final class AdminSignUpForm implements ValidatableWithAccountsRepository<List<ValidationError>> {
@@ -123,8 +123,7 @@ public final class AdminSignUpForm implements ValidatableWithAccountsRepository<
     if (accountsRepository.emailAlreadyExists(email))
       l.add(new ValidationError("email", "auth.signup.error.email.exist"));
 
-    final var nbvcxz = nbvcxz(firstname, lastname, email);
-    if (nbvcxz.estimate(password).getBasicScore() < Constraints.PASSWORD_MIN_STRENGTH)
+    if (score(password, firstname, lastname, email) < Constraints.PASSWORD_MIN_STRENGTH)
       l.add(new ValidationError("password", "auth.signup.error.password.weak",
                                 Collections.singletonList(Constraints.PASSWORD_MIN_STRENGTH)));
 
@@ -0,0 +1,164 @@
+package controllers.auth;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Slf4jReporter;
+import com.codahale.metrics.Timer;
+import com.typesafe.config.Config;
+import models.Account;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * {@code PasswordHasher} hashes and verifies the passwords with BCrypt, away from the threads serving the requests.
+ * Hashing is deliberately expensive: the operations run on a pool bounded to the number of cores, and wait in a bounded
+ * queue. When the queue is full, the operation is rejected, and the caller is expected to answer with a
+ * {@code 503 Service Unavailable}, so that a burst of sign-ins does not slow down the whole App.
+ * <p>The hasher is configured by the {@code briventory.passwords} entry of the configuration:</p>
+ * <ul>
+ *   <li>{@code queue-capacity}: the maximal number of operations waiting for a thread;</li>
+ *   <li>{@code report-interval}: the interval between two reports of the hashing latency in the logs.</li>
+ * </ul>
+ */
+@Singleton
+public final class PasswordHasher {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link ThreadPoolExecutor} running the operations. */
+  private final ThreadPoolExecutor executor;
+  /** The {@link Timer} measuring the hashing of the passwords. */
+  private final Timer hashTimer;
+  /** The {@link Timer} measuring the verification of the passwords. */
+  private final Timer verifyTimer;
+  /** The {@link Meter} counting the rejected operations. */
+  private final Meter rejections;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link PasswordHasher} using the injected parameters.
+   *
+   * @param config the {@link Config} instance.
+   * @param lifecycle the {@link ApplicationLifecycle} instance.
+   */
+  @Inject
+  public PasswordHasher(final Config config, final ApplicationLifecycle lifecycle) {
+    final int threads = Runtime.getRuntime().availableProcessors();
+    final AtomicInteger count = new AtomicInteger();
+    executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                      new ArrayBlockingQueue<>(config.getInt("briventory.passwords.queue-capacity")),
+                                      runnable -> {
+                                        final Thread thread =
+                                            new Thread(runnable, "briventory-passwords-" + count.incrementAndGet());
+                                        thread.setDaemon(true);
+                                        return thread;
+                                      },
+                                      new ThreadPoolExecutor.AbortPolicy());
+
+    final MetricRegistry metrics = new MetricRegistry();
+    hashTimer = metrics.timer("passwords.hash");
+    verifyTimer = metrics.timer("passwords.verify");
+    rejections = metrics.meter("passwords.rejected");
+    final Slf4jReporter reporter = Slf4jReporter.forRegistry(metrics)
+                                                .outputTo(LoggerFactory.getLogger(PasswordHasher.class))
+                                                .convertDurationsTo(TimeUnit.MILLISECONDS)
+                                                .build();
+    reporter.start(config.getDuration("briventory.passwords.report-interval", TimeUnit.SECONDS), TimeUnit.SECONDS);
+
+    lifecycle.addStopHook(() -> {
+      reporter.stop();
+      executor.shutdownNow();
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  // *******************************************************************************************************************
+  // Hashing Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Hashes the password provided.
+   *
+   * @param clearPassword the password as clear text.
+   *
+   * @return a {@link CompletionStage} completed with the hashed password, or failed with a
+   * {@link RejectedExecutionException} if too many operations are pending.
+   */
+  public CompletionStage<String> hash(final String clearPassword) {
+    return submit(hashTimer,
+                  () -> BCrypt.withDefaults().hashToString(Account.BCRYPT_COST, clearPassword.toCharArray()));
+  }
+
+  /**
+   * Verifies the password provided against its hash.
+   *
+   * @param clearPassword the password as clear text.
+   * @param hashedPassword the hashed password.
+   *
+   * @return a {@link CompletionStage} completed with {@code true} if the password matches its hash, otherwise
+   * {@code false}, or failed with a {@link RejectedExecutionException} if too many operations are pending.
+   */
+  public CompletionStage<Boolean> verify(final String clearPassword, final String hashedPassword) {
+    return submit(verifyTimer,
+                  () -> BCrypt.verifyer()
+                              .verify(clearPassword.getBytes(StandardCharsets.UTF_8),
+                                      hashedPassword.getBytes(StandardCharsets.UTF_8))
+                      .verified);
+  }
+
+  /**
+   * @param throwable the {@link Throwable} failing a {@link CompletionStage} of this hasher.
+   *
+   * @return {@code true} if the operation has been rejected because too many operations were pending, otherwise
+   * {@code false}.
+   */
+  public static boolean isRejection(final Throwable throwable) {
+    final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+    return cause instanceof RejectedExecutionException;
+  }
+
+  /**
+   * Submits the operation provided to the {@link ThreadPoolExecutor}, and measures it.
+   *
+   * @param timer the {@link Timer} measuring the operation.
+   * @param operation the operation.
+   * @param <T> the type of the result of the operation.
+   *
+   * @return a {@link CompletionStage} completed with the result of the operation, or failed with a
+   * {@link RejectedExecutionException} if too many operations are pending.
+   */
+  private <T> CompletionStage<T> submit(final Timer timer, final Supplier<T> operation) {
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        final Timer.Context context = timer.time();
+        try {
+          return operation.get();
+        } finally {
+          context.stop();
+        }
+      }, executor);
+    } catch (RejectedExecutionException e) {
+      rejections.mark();
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+}
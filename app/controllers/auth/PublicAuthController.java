@@ -1,18 +1,21 @@
 package controllers.auth;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
+import globalhandlers.MaintenanceState;
 import models.Account;
 import play.data.Form;
 import play.data.FormFactory;
 import play.i18n.MessagesApi;
+import play.libs.concurrent.ClassLoaderExecutionContext;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
+import play.mvc.Results;
 import repositories.AccountsRepository;
 
 import javax.inject.Inject;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -32,6 +35,12 @@ public final class PublicAuthController extends Controller {
   private final SessionHelper sessionHelper;
   /** The injected {@link AccountsRepository} instance. */
   private final AccountsRepository accountsRepository;
+  /** The injected {@link PasswordHasher} instance. */
+  private final PasswordHasher passwordHasher;
+  /** The injected {@link MaintenanceState} instance. */
+  private final MaintenanceState maintenanceState;
+  /** The injected {@link ClassLoaderExecutionContext} instance, running the continuations of the requests. */
+  private final ClassLoaderExecutionContext executionContext;
 
   // *******************************************************************************************************************
   // Injected Templates
@@ -55,18 +64,27 @@ public final class PublicAuthController extends Controller {
    * @param signIn the {@link views.html.auth.signIn} template.
    * @param adminSignUp the {@link views.html.auth.adminSignUp} template.
    * @param accountsRepository the {@link AccountsRepository} instance.
+   * @param passwordHasher the {@link PasswordHasher} instance.
+   * @param maintenanceState the {@link MaintenanceState} instance.
+   * @param executionContext the {@link ClassLoaderExecutionContext} instance.
    */
   @Inject
   public PublicAuthController(final MessagesApi messagesApi, final FormFactory formFactory,
                               final AccountsRepository accountsRepository,
                               final SessionHelper sessionHelper, final views.html.auth.signIn signIn,
-                              final views.html.auth.adminSignUp adminSignUp) {
+                              final views.html.auth.adminSignUp adminSignUp,
+                              final PasswordHasher passwordHasher,
+                              final MaintenanceState maintenanceState,
+                              final ClassLoaderExecutionContext executionContext) {
     this.messagesApi = messagesApi;
     this.formFactory = formFactory;
     this.sessionHelper = sessionHelper;
     this.signIn = signIn;
     this.adminSignUp = adminSignUp;
     this.accountsRepository = accountsRepository;
+    this.passwordHasher = passwordHasher;
+    this.maintenanceState = maintenanceState;
+    this.executionContext = executionContext;
   }
 
   // *******************************************************************************************************************
@@ -97,10 +115,13 @@ public final class PublicAuthController extends Controller {
    * {@link Result} instance depends on the data validation:
    * <ul>
    *   <li>a <em>bad request</em> {@link Result} if the form contains errors or on wrong credentials;</li>
+   *   <li>a <em>service unavailable</em> {@link Result} if too many passwords are being verified;</li>
    *   <li>the redirection to the index page if the authentication succeeded.</li>
    * </ul>
-   * <p><strong>Note:</strong> this methods returns a {@link CompletionStage} due to the database connection to
-   * validate the credentials.</p>
+   * <p><strong>Note:</strong> this methods returns a {@link CompletionStage} due to the verification of the password,
+   * that is performed by the {@link PasswordHasher}. The token of the session is then issued on the executor of the
+   * database, as it reads the revocation version of the account, and the {@link Result} is built back on the execution
+   * context of the request.</p>
    *
    * @param request the {@link Http.Request}.
    *
@@ -122,22 +143,31 @@ public final class PublicAuthController extends Controller {
                                    request)));
     }
 
-    final boolean passVerified = BCrypt.verifyer().verify(form.get().getPassword().getBytes(),
-                                                          optionalAccount.get().getPassword().getBytes()).verified;
-
-    if (!passVerified) {
-      return CompletableFuture.completedStage(
-          badRequest(signIn.render(form.withGlobalError("auth.signIn.error.badCredentials"),
-                                   messagesApi.preferred(request),
-                                   request)));
-    }
-
-    final String redirectUrl = form.get().getRedirectUrl();
-    final Result result = redirectUrl == null || redirectUrl.isBlank() ?
-                              redirect(controllers.routes.GlobalController.index()) :
-                              redirect(redirectUrl);
-    return CompletableFuture.completedStage(
-        result.withSession(sessionHelper.withAccount(optionalAccount.get(), request)));
+    return passwordHasher.verify(form.get().getPassword(), optionalAccount.get().getPassword())
+                         .thenCompose(passVerified -> passVerified ?
+                                          sessionHelper.withAccountAsync(optionalAccount.get(), request)
+                                                       .thenApply(Optional::of) :
+                                          CompletableFuture.completedStage(Optional.<Http.Session>empty()))
+                         .handleAsync((session, throwable) -> {
+                           if (throwable != null) {
+                             if (!PasswordHasher.isRejection(throwable)) throw new CompletionException(throwable);
+                             return Results.status(Http.Status.SERVICE_UNAVAILABLE,
+                                                   signIn.render(form.withGlobalError("auth.signIn.error.busy"),
+                                                                 messagesApi.preferred(request),
+                                                                 request));
+                           }
+                           if (session.isEmpty())
+                             return badRequest(signIn.render(
+                                 form.withGlobalError("auth.signIn.error.badCredentials"),
+                                 messagesApi.preferred(request),
+                                 request));
+
+                           final String redirectUrl = form.get().getRedirectUrl();
+                           final Result result = redirectUrl == null || redirectUrl.isBlank() ?
+                                                     redirect(controllers.routes.GlobalController.index()) :
+                                                     redirect(redirectUrl);
+                           return result.withSession(session.get());
+                         }, executionContext.current());
   }
 
   // *******************************************************************************************************************
@@ -164,28 +194,40 @@ public final class PublicAuthController extends Controller {
    *   <li>a <em>bad request</em> {@link Result} if the form contains errors or on wrong credentials;</li>
    *   <li>the redirection to the index page if the authentication succeeded.</li>
    * </ul>
-   * <p><strong>Note:</strong> this methods returns a {@link CompletionStage} due to the database connection to
-   * validate the credentials.</p>
+   * <p><strong>Note:</strong> this methods returns a {@link CompletionStage} due to the hashing of the password, that
+   * is performed by the {@link PasswordHasher}. The redirection waits for the {@link MaintenanceState} to be refreshed,
+   * so that the App has left the maintenance when the sign in page is requested.</p>
    *
    * @param request the {@link Http.Request}.
    *
    * @return see the description.
    */
-  public Result doAdminSignUp(final Http.Request request) {
+  public CompletionStage<Result> doAdminSignUp(final Http.Request request) {
 
     Form<AdminSignUpForm> form = formFactory.form(AdminSignUpForm.class).bindFromRequest(request);
     if (form.hasErrors())
-      return badRequest(adminSignUp.render(form,
-                                           request,
-                                           messagesApi.preferred(request)));
-
-    final var account = new Account(form.get().getFirstname(),
-                                    form.get().getLastname(),
-                                    form.get().getEmail(),
-                                    form.get().getPassword(),
-                                    true);
-    accountsRepository.persist(account);
-    return redirect(routes.PublicAuthController.signIn(null));
+      return CompletableFuture.completedStage(badRequest(adminSignUp.render(form,
+                                                                            request,
+                                                                            messagesApi.preferred(request))));
+
+    return passwordHasher.hash(form.get().getPassword())
+                         .thenCompose(password -> {
+                           final var account = new Account(form.get().getFirstname(),
+                                                           form.get().getLastname(),
+                                                           form.get().getEmail(),
+                                                           password,
+                                                           true);
+                           return accountsRepository.persistAsync(account);
+                         })
+                         .thenCompose(v -> maintenanceState.refreshAsync())
+                         .handleAsync((v, throwable) -> {
+                           if (throwable == null) return redirect(routes.PublicAuthController.signIn(null));
+                           if (!PasswordHasher.isRejection(throwable)) throw new CompletionException(throwable);
+                           return Results.status(Http.Status.SERVICE_UNAVAILABLE,
+                                                 adminSignUp.render(form.withGlobalError("auth.signIn.error.busy"),
+                                                                    request,
+                                                                    messagesApi.preferred(request)));
+                         }, executionContext.current());
   }
 
 }
@@ -1,31 +1,173 @@
 package controllers.auth;
 
+import controllers.auth.SessionTokens.SessionToken;
 import models.Account;
+import models.AccountPrincipal;
+import orm.FetchPlan;
+import play.libs.typedmap.TypedKey;
 import play.mvc.Http;
+import play.mvc.Result;
 import repositories.AccountsRepository;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
-/** {@code SessionHelper} provides various methods to store or retrieves values from a {@link Http.Session} instance. */
+/**
+ * {@code SessionHelper} provides various methods to store or retrieves values from a {@link Http.Session} instance.
+ * <p>The session holds a signed token, carrying the claims of the signed-in user: while it is valid, the user is
+ * authenticated without querying the database. Once it has expired or has been revoked, the {@link Account} is fetched
+ * and a new token is issued with the response.</p>
+ * <p>The {@link Account} of the session is only fetched once per request, by the first method needing it, and then
+ * reused from the attributes of the request.</p>
+ *
+ * @see SessionHelper#memoising(Http.Request)
+ * @see SessionTokens
+ */
 @Singleton
 public final class SessionHelper {
 
   /** The key into the {@link Http.Session} corresponding to the id of the user. */
   private static final String USER_ID_KEY = "iduser";
+  /** The key into the {@link Http.Session} corresponding to the signed token. */
+  private static final String TOKEN_KEY = "token";
+  /** The key into the attributes of the {@link Http.Request} corresponding to the {@link AccountMemo}. */
+  private static final TypedKey<AccountMemo> ACCOUNT_MEMO_KEY = TypedKey.create("accountMemo");
+
+  /**
+   * An {@code AccountMemo} holds the token, the {@link Account} and the {@link AccountPrincipal} of the session, once
+   * they have been retrieved for a request, and the token to issue with the response, if any. The asynchronous
+   * retrievals memoise their pending fetches, so that the following retrievals wait for them instead of fetching again.
+   */
+  private static final class AccountMemo {
+    /** The verified token of the session, or {@code null} if it has not been verified yet. */
+    private Optional<SessionToken> token;
+    /** The {@link Account} of the session, or {@code null} if it has not been fetched yet. */
+    private Optional<Account> account;
+    /** The pending asynchronous fetch of the {@link Account}, or {@code null} if none has been started. */
+    private CompletableFuture<Optional<Account>> accountFetch;
+    /** The {@link AccountPrincipal} of the session, or {@code null} if it has not been fetched yet. */
+    private Optional<AccountPrincipal> principal;
+    /** The pending asynchronous fetch of the {@link AccountPrincipal}, or {@code null} if none has been started. */
+    private CompletableFuture<Optional<AccountPrincipal>> principalFetch;
+    /** The token to issue with the response, or {@code null} if none. */
+    private String renewedToken;
+
+    /**
+     * @param verifier the {@link Supplier} verifying the token, if it has not been verified yet.
+     *
+     * @return the verified token of the session.
+     */
+    synchronized Optional<SessionToken> token(final Supplier<Optional<SessionToken>> verifier) {
+      if (token == null) token = verifier.get();
+      return token;
+    }
+
+    /**
+     * @param fetcher the {@link Supplier} fetching the {@link Account}, if it has not been fetched yet.
+     *
+     * @return the {@link Account} of the session.
+     */
+    synchronized Optional<Account> get(final Supplier<Optional<Account>> fetcher) {
+      if (account == null) account = fetcher.get();
+      return account;
+    }
+
+    /**
+     * @param fetcher the {@link Supplier} starting the fetch of the {@link Account}, if it has not been fetched or
+     * started yet.
+     *
+     * @return a {@link CompletionStage} completed with the {@link Account} of the session.
+     */
+    synchronized CompletionStage<Optional<Account>> getAsync(
+        final Supplier<CompletionStage<Optional<Account>>> fetcher) {
+      if (account != null) return CompletableFuture.completedFuture(account);
+      if (accountFetch == null) {
+        accountFetch = fetcher.get().toCompletableFuture();
+        accountFetch.thenAccept(this::fetched);
+      }
+      return accountFetch;
+    }
+
+    /** @param fetchedAccount the {@link Account} fetched asynchronously. */
+    private synchronized void fetched(final Optional<Account> fetchedAccount) {
+      if (account == null) account = fetchedAccount;
+    }
+
+    /**
+     * @param fetcher the {@link Supplier} fetching the {@link AccountPrincipal}, if neither it nor the {@link Account}
+     * has been fetched yet.
+     *
+     * @return the {@link AccountPrincipal} of the session.
+     */
+    synchronized Optional<AccountPrincipal> principal(final Supplier<Optional<AccountPrincipal>> fetcher) {
+      if (account != null) return account.map(SessionHelper::principalOf);
+      if (principal == null) principal = fetcher.get();
+      return principal;
+    }
+
+    /**
+     * @param fetcher the {@link Supplier} starting the fetch of the {@link AccountPrincipal}, if neither it nor the
+     * {@link Account} has been fetched or started yet.
+     *
+     * @return a {@link CompletionStage} completed with the {@link AccountPrincipal} of the session.
+     */
+    synchronized CompletionStage<Optional<AccountPrincipal>> principalAsync(
+        final Supplier<CompletionStage<Optional<AccountPrincipal>>> fetcher) {
+      if (account != null) return CompletableFuture.completedFuture(account.map(SessionHelper::principalOf));
+      if (principal != null) return CompletableFuture.completedFuture(principal);
+      if (accountFetch != null) return accountFetch.thenApply(fetched -> fetched.map(SessionHelper::principalOf));
+      if (principalFetch == null) {
+        principalFetch = fetcher.get().toCompletableFuture();
+        principalFetch.thenAccept(this::fetchedPrincipal);
+      }
+      return principalFetch;
+    }
+
+    /** @param fetchedPrincipal the {@link AccountPrincipal} fetched asynchronously. */
+    private synchronized void fetchedPrincipal(final Optional<AccountPrincipal> fetchedPrincipal) {
+      if (principal == null) principal = fetchedPrincipal;
+    }
+
+    /** @param renewedToken the token to issue with the response. */
+    synchronized void renew(final String renewedToken) { this.renewedToken = renewedToken; }
+
+    /** @return the token to issue with the response, or {@code null} if none. */
+    synchronized String renewedToken() { return renewedToken; }
+  }
 
   /** The injected {@link AccountsRepository} instance. */
   private final AccountsRepository accountsRepository;
+  /** The injected {@link SessionTokens} instance. */
+  private final SessionTokens sessionTokens;
 
   /**
    * Creates a new instance of {@link SessionHelper} by injecting the necessary parameters.
    *
    * @param accountsRepository the {@link AccountsRepository} instance.
+   * @param sessionTokens the {@link SessionTokens} instance.
    */
   @Inject
-  private SessionHelper(final AccountsRepository accountsRepository) {
+  private SessionHelper(final AccountsRepository accountsRepository, final SessionTokens sessionTokens) {
     this.accountsRepository = accountsRepository;
+    this.sessionTokens = sessionTokens;
+  }
+
+  /**
+   * Prepares the {@link Http.Request} provided to memoise the {@link Account} of its session, so that the following
+   * retrievals of the request reuse it instead of fetching it again.
+   *
+   * @param request the {@link Http.Request}.
+   *
+   * @return the {@link Http.Request} memoising its {@link Account}.
+   */
+  public Http.Request memoising(final Http.Request request) {
+    if (request.attrs().containsKey(ACCOUNT_MEMO_KEY)) return request;
+    return request.addAttr(ACCOUNT_MEMO_KEY, new AccountMemo());
   }
 
   /**
@@ -37,9 +179,118 @@ public final class SessionHelper {
    * @return the modified {@link Http.Session} instance.
    */
   public Http.Session withAccount(final Account account, final Http.Request request) {
-    return request.session().adding(USER_ID_KEY, account.getId().toString());
+    final Http.Session session = request.session().adding(USER_ID_KEY, account.getId().toString());
+    return sessionTokens.issue(account).map(token -> session.adding(TOKEN_KEY, token)).orElse(session);
+  }
+
+  /**
+   * Adds the {@link Account} id into the session, without blocking the calling thread: the token is issued on the
+   * executor of the database.
+   *
+   * @param account the {@link Account} to get the id.
+   * @param request the {@link Http.Request} containing the {@link Http.Session} to modify.
+   *
+   * @return a {@link CompletionStage} completed with the modified {@link Http.Session} instance.
+   *
+   * @see SessionHelper#withAccount(Account, Http.Request)
+   */
+  public CompletionStage<Http.Session> withAccountAsync(final Account account, final Http.Request request) {
+    final String userId = account.getId().toString();
+    final Http.Session session = request.session().adding(USER_ID_KEY, userId);
+    return sessionTokens.issueAsync(userId, account)
+                        .thenApply(token -> token.map(t -> session.adding(TOKEN_KEY, t)).orElse(session));
+  }
+
+  /**
+   * Authenticates the user of the session. While the token of the session is valid, no database query is performed.
+   * Otherwise, the {@link Account} is fetched, and a new token is prepared to be issued with the response.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the {@link AccountPrincipal} of the user, or an empty one if the
+   * session does not contain a valid user, or if the user is locked.
+   *
+   * @see SessionHelper#renewing(Http.Request, Result)
+   */
+  public Optional<AccountPrincipal> authenticate(final Http.Request request) {
+    final Optional<SessionToken> token = retrieveToken(request);
+    if (token.isPresent()) return token.filter(t -> !t.locked()).map(SessionToken::principal);
+
+    final Optional<Account> account = retrieveAccount(request).filter(a -> !a.isLocked());
+    if (account.isEmpty()) return Optional.empty();
+    request.attrs().getOptional(ACCOUNT_MEMO_KEY)
+           .ifPresent(memo -> sessionTokens.issue(account.get()).ifPresent(memo::renew));
+    return account.map(SessionHelper::principalOf);
+  }
+
+  /**
+   * Adds the token renewed by {@link SessionHelper#authenticate(Http.Request)} to the session of the {@link Result},
+   * unless the action has set its own session.
+   *
+   * @param request the {@link Http.Request}, as prepared by {@link SessionHelper#memoising(Http.Request)}.
+   * @param result the {@link Result} of the action.
+   *
+   * @return the {@link Result}, with the renewed token if any.
+   */
+  public Result renewing(final Http.Request request, final Result result) {
+    if (result.session() != null) return result;
+    final Optional<String> renewedToken =
+        request.attrs().getOptional(ACCOUNT_MEMO_KEY).map(AccountMemo::renewedToken);
+    return renewedToken.map(token -> result.addingToSession(request, TOKEN_KEY, token)).orElse(result);
+  }
+
+  /**
+   * Retrieves and verifies the token of the session.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the verified token, or an empty one if the session does not contain
+   * a valid token.
+   */
+  private Optional<SessionToken> retrieveToken(final Http.Request request) {
+    final Optional<AccountMemo> memo = request.attrs().getOptional(ACCOUNT_MEMO_KEY);
+    if (memo.isPresent()) return memo.get().token(() -> verifyToken(request));
+    return verifyToken(request);
   }
 
+  /**
+   * Verifies the token of the session, and checks that it belongs to the user of the session.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the verified token, or an empty one if it is not valid.
+   */
+  private Optional<SessionToken> verifyToken(final Http.Request request) {
+    final Optional<String> userId = retrieveUserId(request);
+    if (userId.isEmpty()) return Optional.empty();
+    return request.session().get(TOKEN_KEY)
+                  .flatMap(sessionTokens::verify)
+                  .filter(token -> userId.get().equals(Long.toString(token.principal().id())));
+  }
+
+  /**
+   * Retrieves the id of the user from the session, without checking it against the database.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the id of the user, or an empty one if the session does not
+   * contain any user.
+   */
+  public Optional<String> retrieveUserId(final Http.Request request) { return request.session().get(USER_ID_KEY); }
+
+  /**
+   * Returns the key binding the database operations of the request to its session, i.e. the id of the user. The key
+   * has to be captured by the request, and given explicitly to the database tasks started from the continuations of
+   * the request, as no connection scope is bound to their threads.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return the key of the session, or {@code null} if the session does not contain any user.
+   *
+   * @see database.BriventoryDB#supplyAsync(Object, Supplier)
+   */
+  public Object sessionKey(final Http.Request request) { return retrieveUserId(request).orElse(null); }
+
   /**
    * Retrieves the {@link Account} instance from the session.
    *
@@ -49,36 +300,188 @@ public final class SessionHelper {
    * not contain a valid user.
    */
   public Optional<Account> retrieveAccount(final Http.Request request) {
-    Optional<String> userIdValue = request.session().get(USER_ID_KEY);
+    final Optional<AccountMemo> memo = request.attrs().getOptional(ACCOUNT_MEMO_KEY);
+    if (memo.isPresent()) return memo.get().get(() -> fetchAccount(request));
+    return fetchAccount(request);
+  }
+
+  /**
+   * Retrieves the {@link Account} instance from the session, together with the associations declared by the
+   * {@link FetchPlan}, in a single query. The {@link Account} is always fetched, so that the associations are loaded
+   * even if the request has already memoised its {@link Account}; otherwise, it is memoised.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   * @param fetchPlan the {@link FetchPlan}, e.g. {@link AccountsRepository#WITH_RIGHTS}.
+   *
+   * @return an {@link Optional} instance containing the {@link Account} instance or an empty one if the session does
+   * not contain a valid user.
+   */
+  public Optional<Account> retrieveAccount(final Http.Request request, final FetchPlan<Account> fetchPlan) {
+    final Optional<Account> account = fetchAccount(request, userId -> accountsRepository.findById(userId, fetchPlan));
+    request.attrs().getOptional(ACCOUNT_MEMO_KEY).ifPresent(memo -> memo.get(() -> account));
+    return account;
+  }
+
+  /**
+   * Fetches the {@link Account} instance of the session.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the {@link Account} instance or an empty one if the session does
+   * not contain a valid user.
+   */
+  private Optional<Account> fetchAccount(final Http.Request request) {
+    return fetchAccount(request, accountsRepository::findById);
+  }
+
+  /**
+   * Fetches the {@link Account} instance of the session with the finder provided.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   * @param finder the {@link LongFunction} finding the {@link Account} by its identifier.
+   *
+   * @return an {@link Optional} instance containing the {@link Account} instance or an empty one if the session does
+   * not contain a valid user.
+   */
+  private Optional<Account> fetchAccount(final Http.Request request, final LongFunction<Optional<Account>> finder) {
+    Optional<String> userIdValue = retrieveUserId(request);
     if (userIdValue.isEmpty()) return Optional.empty();
 
     try {
       final var userId = Long.parseLong(userIdValue.get());
-      return accountsRepository.findById(userId);
+      return finder.apply(userId);
     } catch (Exception e) {
       return Optional.empty();
     }
   }
 
   /**
-   * Retrieves the e-mail address from the {@link Account} stored into the session.
+   * Retrieves the {@link Account} instance from the session, without blocking the calling thread.
    *
    * @param request the {@link Http.Request} holding the session.
    *
-   * @return an {@link Optional} instance containing the e-mail address or an empty one if the session does not contains
-   * a valid user.
+   * @return a {@link CompletionStage} completed with an {@link Optional} instance containing the {@link Account}
+   * instance or an empty one if the session does not contain a valid user.
    */
-  public Optional<String> retrieveEmail(final Http.Request request) {
-    Optional<String> userIdValue = request.session().get(USER_ID_KEY);
+  public CompletionStage<Optional<Account>> retrieveAccountAsync(final Http.Request request) {
+    final Optional<AccountMemo> memo = request.attrs().getOptional(ACCOUNT_MEMO_KEY);
+    if (memo.isPresent()) return memo.get().getAsync(() -> fetchAccountAsync(request));
+    return fetchAccountAsync(request);
+  }
+
+  /**
+   * Fetches the {@link Account} instance of the session, without blocking the calling thread.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} instance containing the {@link Account}
+   * instance or an empty one if the session does not contain a valid user.
+   */
+  private CompletionStage<Optional<Account>> fetchAccountAsync(final Http.Request request) {
+    Optional<String> userIdValue = retrieveUserId(request);
+    if (userIdValue.isEmpty()) return CompletableFuture.completedFuture(Optional.empty());
+
+    try {
+      final var userId = Long.parseLong(userIdValue.get());
+      return accountsRepository.findByIdAsync(userId).exceptionally(e -> Optional.empty());
+    } catch (Exception e) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+  }
+
+  /**
+   * Retrieves the {@link AccountPrincipal} of the account stored into the session. Unlike
+   * {@link SessionHelper#retrieveAccount(Http.Request)}, no {@link Account} is materialised.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the {@link AccountPrincipal} or an empty one if the session does
+   * not contain a valid user.
+   */
+  public Optional<AccountPrincipal> retrievePrincipal(final Http.Request request) {
+    final Optional<SessionToken> token = retrieveToken(request);
+    if (token.isPresent()) return token.map(SessionToken::principal);
+
+    final Optional<AccountMemo> memo = request.attrs().getOptional(ACCOUNT_MEMO_KEY);
+    if (memo.isPresent()) return memo.get().principal(() -> fetchPrincipal(request));
+    return fetchPrincipal(request);
+  }
+
+  /**
+   * Fetches the {@link AccountPrincipal} of the account stored into the session.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the {@link AccountPrincipal} or an empty one if the session does
+   * not contain a valid user.
+   */
+  private Optional<AccountPrincipal> fetchPrincipal(final Http.Request request) {
+    Optional<String> userIdValue = retrieveUserId(request);
     if (userIdValue.isEmpty()) return Optional.empty();
 
     try {
       final var userId = Long.parseLong(userIdValue.get());
-      final Optional<Account> accountOptional = accountsRepository.findById(userId);
-      return accountOptional.map(Account::getEmail);
+      return accountsRepository.findPrincipalById(userId);
     } catch (Exception e) {
       return Optional.empty();
     }
   }
 
+  /**
+   * Retrieves the {@link AccountPrincipal} of the account stored into the session, without blocking the calling thread.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} instance containing the
+   * {@link AccountPrincipal} or an empty one if the session does not contain a valid user.
+   */
+  public CompletionStage<Optional<AccountPrincipal>> retrievePrincipalAsync(final Http.Request request) {
+    final Optional<AccountMemo> memo = request.attrs().getOptional(ACCOUNT_MEMO_KEY);
+    if (memo.isPresent()) return memo.get().principalAsync(() -> fetchPrincipalAsync(request));
+    return fetchPrincipalAsync(request);
+  }
+
+  /**
+   * Fetches the {@link AccountPrincipal} of the account stored into the session, without blocking the calling thread.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} instance containing the
+   * {@link AccountPrincipal} or an empty one if the session does not contain a valid user.
+   */
+  private CompletionStage<Optional<AccountPrincipal>> fetchPrincipalAsync(final Http.Request request) {
+    Optional<String> userIdValue = retrieveUserId(request);
+    if (userIdValue.isEmpty()) return CompletableFuture.completedFuture(Optional.empty());
+
+    try {
+      final var userId = Long.parseLong(userIdValue.get());
+      // The id of the user is the key of the session, see sessionKey(Http.Request).
+      return accountsRepository.findPrincipalByIdAsync(userIdValue.get(), userId)
+                               .exceptionally(e -> Optional.empty());
+    } catch (Exception e) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+  }
+
+  /**
+   * Retrieves the e-mail address from the {@link Account} stored into the session.
+   *
+   * @param request the {@link Http.Request} holding the session.
+   *
+   * @return an {@link Optional} instance containing the e-mail address or an empty one if the session does not contains
+   * a valid user.
+   */
+  public Optional<String> retrieveEmail(final Http.Request request) {
+    return retrievePrincipal(request).map(AccountPrincipal::email);
+  }
+
+  /**
+   * @param account the {@link Account}.
+   *
+   * @return the {@link AccountPrincipal} of the {@link Account}.
+   */
+  private static AccountPrincipal principalOf(final Account account) {
+    return new AccountPrincipal(account.getId(), account.getEmail(), account.getFirstname(), account.getLastname());
+  }
+
 }
@@ -0,0 +1,254 @@
+package controllers.auth;
+
+import com.typesafe.config.Config;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import models.Account;
+import models.AccountPrincipal;
+import repositories.AccountsRepository;
+
+import javax.crypto.SecretKey;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code SessionTokens} issues and verifies the signed session tokens. A token is short-lived, and carries the claims
+ * identifying the signed-in user, so that the authenticated requests do not query the database to know who they come
+ * from.
+ * <p>Each token also carries the revocation version of its account, changing with its password, its e-mail address,
+ * its name, its administration rights and its locked status, i.e. whatever the token claims. The current versions
+ * are cached, so that a change takes effect, at the latest, once the cached version has expired. A change performed
+ * through the {@link AccountsRepository} of this instance takes effect immediately.</p>
+ * <p>The tokens are configured by the {@code briventory.session.token} entry of the configuration:</p>
+ * <ul>
+ *   <li>{@code time-to-live}: how long a token is valid after its issue;</li>
+ *   <li>{@code revocation-check-interval}: how long a revocation version is cached.</li>
+ * </ul>
+ * <p>The tokens are signed with a key derived from {@code play.http.secret.key}.</p>
+ */
+@Singleton
+public final class SessionTokens {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The claim of the e-mail address. */
+  private static final String EMAIL_CLAIM = "email";
+  /** The claim of the firstname. */
+  private static final String FIRSTNAME_CLAIM = "firstname";
+  /** The claim of the lastname. */
+  private static final String LASTNAME_CLAIM = "lastname";
+  /** The claim of the administration rights. */
+  private static final String ADMINISTRATOR_CLAIM = "administrator";
+  /** The claim of the locked status. */
+  private static final String LOCKED_CLAIM = "locked";
+  /** The claim of the revocation version. */
+  private static final String VERSION_CLAIM = "version";
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The injected {@link AccountsRepository} instance. */
+  private final AccountsRepository accountsRepository;
+  /** The key signing the tokens. */
+  private final SecretKey key;
+  /** How long a token is valid after its issue, in milliseconds. */
+  private final long timeToLive;
+  /** How long a revocation version is cached, in nanoseconds. */
+  private final long revocationCheckInterval;
+  /** The cached revocation versions, by account identifier. */
+  private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+  /**
+   * A {@code SessionToken} holds the verified claims of a token.
+   *
+   * @param principal the {@link AccountPrincipal} of the signed-in user.
+   * @param administrator has the signed-in user administration rights ?
+   * @param locked is the signed-in user locked ?
+   * @param version the revocation version of the account, when the token has been issued.
+   */
+  public record SessionToken(AccountPrincipal principal, boolean administrator, boolean locked, int version) { }
+
+  /**
+   * A {@code CachedVersion} is a revocation version, and the instant it expires.
+   *
+   * @param version the revocation version.
+   * @param expiresAt the instant, from {@link System#nanoTime()}, when the version expires.
+   */
+  private record CachedVersion(int version, long expiresAt) { }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link SessionTokens} using the injected parameters.
+   *
+   * @param accountsRepository the {@link AccountsRepository} instance.
+   * @param config the {@link Config} instance.
+   */
+  @Inject
+  public SessionTokens(final AccountsRepository accountsRepository, final Config config) {
+    this.accountsRepository = accountsRepository;
+    key = Keys.hmacShaKeyFor(sha256(config.getString("play.http.secret.key")));
+    timeToLive = config.getDuration("briventory.session.token.time-to-live", TimeUnit.MILLISECONDS);
+    revocationCheckInterval =
+        config.getDuration("briventory.session.token.revocation-check-interval", TimeUnit.NANOSECONDS);
+    accountsRepository.addRevocationListener(versions::remove);
+  }
+
+  /**
+   * @param secret the secret.
+   *
+   * @return the SHA-256 digest of the secret, long enough to sign the tokens whatever the length of the secret.
+   */
+  private static byte[] sha256(final String secret) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+
+  // *******************************************************************************************************************
+  // Tokens Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Issues a new token for the {@link Account} provided.
+   *
+   * @param account the {@link Account}.
+   *
+   * @return the signed token, or an empty {@link Optional} if the account does not exist anymore.
+   */
+  public Optional<String> issue(final Account account) {
+    return fetchVersion(account.getId()).map(version -> sign(account, version));
+  }
+
+  /**
+   * Issues a new token for the {@link Account} provided, without blocking the calling thread: its revocation version is
+   * fetched on the executor of the database.
+   *
+   * @param sessionKey the key of the session the token is issued for, see {@link SessionHelper#sessionKey}.
+   * @param account the {@link Account}.
+   *
+   * @return a {@link CompletionStage} completed with the signed token, or an empty {@link Optional} if the account does
+   * not exist anymore.
+   */
+  public CompletionStage<Optional<String>> issueAsync(final Object sessionKey, final Account account) {
+    return accountsRepository.findRevocationVersionAsync(sessionKey, account.getId())
+                             .thenApply(version -> cacheVersion(account.getId(), version)
+                                 .map(v -> sign(account, v)));
+  }
+
+  /**
+   * @param account the {@link Account}.
+   * @param version the current revocation version of the account.
+   *
+   * @return the signed token.
+   */
+  private String sign(final Account account, final int version) {
+    final long now = System.currentTimeMillis();
+    return Jwts.builder()
+               .subject(account.getId().toString())
+               .claim(EMAIL_CLAIM, account.getEmail())
+               .claim(FIRSTNAME_CLAIM, account.getFirstname())
+               .claim(LASTNAME_CLAIM, account.getLastname())
+               .claim(ADMINISTRATOR_CLAIM, account.isAdministrator())
+               .claim(LOCKED_CLAIM, account.isLocked())
+               .claim(VERSION_CLAIM, version)
+               .issuedAt(new Date(now))
+               .expiration(new Date(now + timeToLive))
+               .signWith(key)
+               .compact();
+  }
+
+  /**
+   * Verifies the token provided: its signature, its expiration, and its revocation version.
+   *
+   * @param token the token.
+   *
+   * @return the {@link SessionToken}, or an empty {@link Optional} if the token is not valid anymore.
+   */
+  public Optional<SessionToken> verify(final String token) {
+    final Claims claims;
+    try {
+      claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    } catch (JwtException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+
+    final SessionToken sessionToken;
+    try {
+      sessionToken = new SessionToken(new AccountPrincipal(Long.parseLong(claims.getSubject()),
+                                                           claims.get(EMAIL_CLAIM, String.class),
+                                                           claims.get(FIRSTNAME_CLAIM, String.class),
+                                                           claims.get(LASTNAME_CLAIM, String.class)),
+                                      Boolean.TRUE.equals(claims.get(ADMINISTRATOR_CLAIM, Boolean.class)),
+                                      Boolean.TRUE.equals(claims.get(LOCKED_CLAIM, Boolean.class)),
+                                      claims.get(VERSION_CLAIM, Integer.class));
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+
+    final Optional<Integer> currentVersion = currentVersion(sessionToken.principal().id());
+    if (currentVersion.isEmpty() || currentVersion.get() != sessionToken.version()) return Optional.empty();
+    return Optional.of(sessionToken);
+  }
+
+  // *******************************************************************************************************************
+  // Revocation Matters
+  // *******************************************************************************************************************
+
+  /**
+   * @param id the identifier of the account.
+   *
+   * @return the current revocation version of the account, cached, or an empty {@link Optional} if the account does
+   * not exist anymore.
+   */
+  private Optional<Integer> currentVersion(final long id) {
+    final CachedVersion cached = versions.get(id);
+    if (cached != null && cached.expiresAt() - System.nanoTime() > 0) return Optional.of(cached.version());
+    return fetchVersion(id);
+  }
+
+  /**
+   * Fetches the current revocation version of the account, and caches it.
+   *
+   * @param id the identifier of the account.
+   *
+   * @return the current revocation version of the account, or an empty {@link Optional} if the account does not exist
+   * anymore.
+   */
+  private Optional<Integer> fetchVersion(final long id) {
+    return cacheVersion(id, accountsRepository.findRevocationVersion(id));
+  }
+
+  /**
+   * Caches the current revocation version of the account, or forgets it if the account does not exist anymore.
+   *
+   * @param id the identifier of the account.
+   * @param version the current revocation version of the account, or an empty {@link Optional}.
+   *
+   * @return the version.
+   */
+  private Optional<Integer> cacheVersion(final long id, final Optional<Integer> version) {
+    if (version.isPresent())
+      versions.put(id, new CachedVersion(version.get(), System.nanoTime() + revocationCheckInterval));
+    else
+      versions.remove(id);
+    return version;
+  }
+
+}
@@ -1,5 +1,6 @@
 package controllers.auth;
 
+import models.AccountPrincipal;
 import play.mvc.Http;
 import play.mvc.Result;
 import play.mvc.Security;
@@ -26,15 +27,19 @@ public final class SignedInAuthenticator extends Security.Authenticator {
   }
 
   /**
-   * Retrieves the e-mail address from the session stored in the {@link Http.Request}.
+   * Retrieves the e-mail address of the user of the session stored in the {@link Http.Request}. While the token of the
+   * session is valid, no database query is performed.
    *
    * @param request the {@link Http.Request}.
    *
-   * @return the e-mail address or an empty {@link Optional} instance.
+   * @return the e-mail address or an empty {@link Optional} instance, if the session is not valid or the user is
+   * locked.
+   *
+   * @see SessionHelper#authenticate(Http.Request)
    */
   @Override
   public Optional<String> getUsername(final Http.Request request) {
-    return sessionHelper.retrieveEmail(request);
+    return sessionHelper.authenticate(request).map(AccountPrincipal::email);
   }
 
   /**
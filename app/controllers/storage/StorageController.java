@@ -3,28 +3,47 @@ package controllers.storage;
 import controllers.ErrorsController;
 import controllers.auth.SessionHelper;
 import controllers.auth.SignedInAuthenticator;
+import database.BriventoryDB;
 import models.Account;
-import models.Container;
+import models.ContainerType;
+import models.LockerSize;
 import play.data.FormFactory;
 import play.i18n.MessagesApi;
+import play.libs.concurrent.ClassLoaderExecutionContext;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
 import play.mvc.Security;
 import play.routing.JavaScriptReverseRouter;
+import repositories.AccountsRepository;
 import repositories.ContainerTypesRepository;
 import repositories.ContainersRepository;
 import repositories.LockerSizesRepository;
 
 import javax.inject.Inject;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 import static play.mvc.Http.MimeTypes.JAVASCRIPT;
 
 @Security.Authenticated(SignedInAuthenticator.class)
 public final class StorageController extends Controller {
 
+  /**
+   * The data of the <em>storage</em> page, loaded by a single database task.
+   *
+   * @param account the {@link Account} of the session, fetched with {@link AccountsRepository#WITH_RIGHTS}.
+   * @param containerTypes all the {@link ContainerType}s.
+   * @param unusedContainerTypes the unused {@link ContainerType}s.
+   * @param lockerSizes all the {@link LockerSize}s.
+   * @param unusedLockerSizes the unused {@link LockerSize}s.
+   */
+  private record StoragePage(Account account,
+                             List<ContainerType> containerTypes,
+                             List<ContainerType> unusedContainerTypes,
+                             List<LockerSize> lockerSizes,
+                             List<LockerSize> unusedLockerSizes) { }
+
   // *******************************************************************************************************************
   // Injected Attributes
   // *******************************************************************************************************************
@@ -34,6 +53,10 @@ public final class StorageController extends Controller {
   private final FormFactory formFactory;
   /** The injected instance of {@link SessionHelper}. */
   private final SessionHelper sessionHelper;
+  /** The injected instance of {@link BriventoryDB}. */
+  private final BriventoryDB briventoryDB;
+  /** The injected instance of {@link ClassLoaderExecutionContext}, running the continuations of the requests. */
+  private final ClassLoaderExecutionContext executionContext;
   /** The injected instance of {@link ErrorsController}. */
   private final ErrorsController errorsController;
   /** The injected instance of {@link ContainerTypesRepository}. */
@@ -55,6 +78,8 @@ public final class StorageController extends Controller {
    * @param messagesApi the {@link MessagesApi}.
    * @param formFactory the {@link FormFactory}.
    * @param sessionHelper the {@link SessionHelper}.
+   * @param briventoryDB the {@link BriventoryDB}.
+   * @param executionContext the {@link ClassLoaderExecutionContext}.
    * @param errorsController the {@link ErrorsController}.
    * @param containerTypesRepository the {@link ContainersRepository}.
    * @param lockerSizesRepository the {@link LockerSizesRepository}.
@@ -65,6 +90,8 @@ public final class StorageController extends Controller {
   public StorageController(final MessagesApi messagesApi,
                            final FormFactory formFactory,
                            final SessionHelper sessionHelper,
+                           final BriventoryDB briventoryDB,
+                           final ClassLoaderExecutionContext executionContext,
                            final ErrorsController errorsController,
                            final ContainerTypesRepository containerTypesRepository,
                            final LockerSizesRepository lockerSizesRepository,
@@ -73,6 +100,8 @@ public final class StorageController extends Controller {
     this.messagesApi = messagesApi;
     this.formFactory = formFactory;
     this.sessionHelper = sessionHelper;
+    this.briventoryDB = briventoryDB;
+    this.executionContext = executionContext;
     this.errorsController = errorsController;
     this.containerTypesRepository = containerTypesRepository;
     this.lockerSizesRepository = lockerSizesRepository;
@@ -97,39 +126,61 @@ public final class StorageController extends Controller {
         .as(JAVASCRIPT);
   }
 
-  public Result storage(final Http.Request request) {
-    final Optional<Account> accountOptional = sessionHelper.retrieveAccount(request);
-    if (accountOptional.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
-      return ok(storage.render(accountOptional.get(),
-                               formFactory.form(FilterForm.class),
-                               containerTypesRepository.getAll(),
-                               containerTypesRepository.getUnused(),
-                               lockerSizesRepository.getAll(),
-                               lockerSizesRepository.getUnused(),
-                               preferred));
-    }
-    return errorsController.forbidden(request);
+  /**
+   * Returns the <em>storage</em> page. The account and the lists of the page are loaded by a single database task,
+   * i.e. on a single connection, and the page is rendered back on the execution context of the request.
+   *
+   * @param request the {@link Http.Request}.
+   *
+   * @return the <em>storage</em> page.
+   */
+  public CompletionStage<Result> storage(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    return briventoryDB.supplyReadOnlyAsync(
+        sessionHelper.sessionKey(request),
+        () -> sessionHelper.retrieveAccount(request, AccountsRepository.WITH_RIGHTS)
+                           .map(account -> new StoragePage(account,
+                                                           containerTypesRepository.getAll(),
+                                                           containerTypesRepository.getUnused(),
+                                                           lockerSizesRepository.getAll(),
+                                                           lockerSizesRepository.getUnused())))
+                       .thenApplyAsync(page -> page.map(p -> ok(storage.render(p.account(),
+                                                                               formFactory.form(FilterForm.class),
+                                                                               p.containerTypes(),
+                                                                               p.unusedContainerTypes(),
+                                                                               p.lockerSizes(),
+                                                                               p.unusedLockerSizes(),
+                                                                               preferred)))
+                                                   .orElseGet(() -> errorsController.forbidden(request)),
+                                       executionContext.current());
   }
 
-  public Result containers(final Http.Request request) {
-    final Optional<Account> accountOptional = sessionHelper.retrieveAccount(request);
-    if (accountOptional.isPresent()) {
-      final var preferred = messagesApi.preferred(request);
-      FilterForm filterForm = formFactory.form(FilterForm.class)
-                                         .bindFromRequest(request)
-                                         .get();
-
-      final Account account = accountOptional.get();
-      final List<Container> containers = containersRepository.findAll(account,
-                                                                      filterForm.getSharedContainers(),
-                                                                      filterForm.getPrivateContainers(),
-                                                                      filterForm.getIdContainerType(),
-                                                                      filterForm.getIdLockerSize());
-
-      return ok(views.html.storage.containers.render(containers, preferred));
-    }
-    return errorsController.forbidden(request);
+  /**
+   * Returns the containers matching the filter of the request. They are fetched by a single database task, and
+   * rendered back on the execution context of the request.
+   *
+   * @param request the {@link Http.Request}.
+   *
+   * @return the list of the containers.
+   */
+  public CompletionStage<Result> containers(final Http.Request request) {
+    final var preferred = messagesApi.preferred(request);
+    final FilterForm filterForm = formFactory.form(FilterForm.class)
+                                             .bindFromRequest(request)
+                                             .get();
+
+    final Object sessionKey = sessionHelper.sessionKey(request);
+    return briventoryDB.supplyReadOnlyAsync(sessionKey, () -> sessionHelper.retrieveAccount(request).map(
+        account -> containersRepository.findAll(account,
+                                                filterForm.getSharedContainers(),
+                                                filterForm.getPrivateContainers(),
+                                                filterForm.getIdContainerType(),
+                                                filterForm.getIdLockerSize(),
+                                                ContainersRepository.WITH_TYPE_AND_LOCKERS)))
+                       .thenApplyAsync(containers -> containers.map(
+                                           c -> ok(views.html.storage.containers.render(c, preferred)))
+                                           .orElseGet(() -> errorsController.forbidden(request)),
+                                       executionContext.current());
   }
 
   public Result lockerSizes(final Http.Request request) {
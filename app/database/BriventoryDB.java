@@ -1,5 +1,10 @@
 package database;
 
+import com.typesafe.config.Config;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
@@ -7,15 +12,24 @@ import orm.PersistenceContext;
 import play.db.ConnectionCallable;
 import play.db.ConnectionRunnable;
 import play.db.Database;
+import reactor.core.publisher.Mono;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * {@code BriventoryDB} is the entry point to perform database manipulations. This class is intends to be used in a
  * dependency injected environment.
+ * <p>The reads are routed to the read replicas, if any are configured.</p>
+ * <p>The reactive operations are executed over R2DBC when the {@code briventory.database.r2dbc} entry of the
+ * configuration is enabled, otherwise over JDBC, on the {@link DatabaseExecutor}.</p>
+ *
+ * @see ReplicaRouter
  */
 @Singleton
 public final class BriventoryDB extends PersistenceContext {
@@ -25,6 +39,12 @@ public final class BriventoryDB extends PersistenceContext {
   // *******************************************************************************************************************
   /** The injected {@link Database} instance. */
   private final Database database;
+  /** The {@link DatabaseExecutor} running the asynchronous operations. */
+  private final DatabaseExecutor executor;
+  /** The {@link ReplicaRouter} routing the reads. */
+  private final ReplicaRouter replicaRouter;
+  /** The R2DBC {@link ConnectionFactory}, or {@code null} if R2DBC is disabled. */
+  private final ConnectionFactory connectionFactory;
 
   // *******************************************************************************************************************
   // Construction & Initialization
@@ -34,10 +54,41 @@ public final class BriventoryDB extends PersistenceContext {
    * Creates a new instance of {@link BriventoryDB} instance using the injected parameters.
    *
    * @param database the {@link Database} instance.
+   * @param config the {@link Config} instance.
    */
   @Inject
-  public BriventoryDB(final Database database) {
+  public BriventoryDB(final Database database, final Config config) {
     this.database = database;
+    executor = new DatabaseExecutor(config);
+    replicaRouter = new ReplicaRouter(config);
+    connectionFactory = createConnectionFactory(config.getConfig("briventory.database.r2dbc"));
+  }
+
+  /**
+   * Creates the R2DBC {@link ConnectionFactory}, pooled if its URL uses the {@code pool} driver.
+   *
+   * @param r2dbcConfig the {@link Config} of R2DBC.
+   *
+   * @return the {@link ConnectionFactory}, or {@code null} if R2DBC is disabled.
+   */
+  private static ConnectionFactory createConnectionFactory(final Config r2dbcConfig) {
+    if (!r2dbcConfig.getBoolean("enabled")) return null;
+    return ConnectionFactories.get(
+        ConnectionFactoryOptions.parse(r2dbcConfig.getString("url"))
+                                .mutate()
+                                .option(ConnectionFactoryOptions.USER, r2dbcConfig.getString("username"))
+                                .option(ConnectionFactoryOptions.PASSWORD, r2dbcConfig.getString("password"))
+                                .build());
+  }
+
+  /**
+   * Stops the {@link DatabaseExecutor}, the pending operations are completed, shuts the replicas down and closes the
+   * R2DBC connections.
+   */
+  public void shutdown() {
+    executor.shutdown();
+    replicaRouter.shutdown();
+    if (connectionFactory instanceof Closeable closeable) Mono.from(closeable.close()).block();
   }
 
   // *******************************************************************************************************************
@@ -62,22 +113,56 @@ public final class BriventoryDB extends PersistenceContext {
 
   /** {@inheritDoc} */
   @Override
-  protected void consumeInTransaction(final Consumer<DSLContext> usingTransaction) {
+  protected Connection acquireConnection() { return database.getConnection(); }
+
+  /** {@inheritDoc} */
+  @Override
+  protected Connection acquireReadConnection(final Object sessionKey) {
+    return replicaRouter.acquireConnection(sessionKey);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected <T> T produceInNewReadConnection(final Object sessionKey, final Function<DSLContext, T> usingConnection) {
+    final Connection connection = replicaRouter.acquireConnection(sessionKey);
+    if (connection == null) return produceInNewConnection(usingConnection);
+    try (connection) {
+      return usingConnection.apply(DSL.using(connection, getDialect()));
+    } catch (SQLException e) {
+      throw new BriventoryDBException("Unable to release the connection to the replica", e);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void written(final Object sessionKey) { replicaRouter.written(sessionKey); }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void consumeInNewTransaction(final Consumer<DSLContext> usingTransaction) {
     database.withTransaction((ConnectionRunnable) c -> usingTransaction.accept(DSL.using(c, getDialect())));
   }
 
   /** {@inheritDoc} */
   @Override
-  protected <T> T produceInConnection(final Function<DSLContext, T> usingConnection) {
+  protected <T> T produceInNewConnection(final Function<DSLContext, T> usingConnection) {
     return database.withConnection(
         (ConnectionCallable<T>) c -> usingConnection.apply(DSL.using(c, getDialect())));
   }
 
   /** {@inheritDoc} */
   @Override
-  protected <T> T produceInTransaction(final Function<DSLContext, T> usingTransaction) {
+  protected <T> T produceInNewTransaction(final Function<DSLContext, T> usingTransaction) {
     return database.withTransaction(
         (ConnectionCallable<T>) c -> usingTransaction.apply(DSL.using(c, getDialect())));
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected Executor getExecutor() { return executor; }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ConnectionFactory getConnectionFactory() { return connectionFactory; }
+
 }
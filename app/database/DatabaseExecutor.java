@@ -0,0 +1,101 @@
+package database;
+
+import com.typesafe.config.Config;
+import play.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code DatabaseExecutor} is the {@link Executor} running the asynchronous database operations. It is bounded to the
+ * number of connections of the pool, so that the pending operations wait in its queue instead of blocking in the pool,
+ * and so that they never run on the threads serving the requests.
+ * <p>The executor is configured by the {@code briventory.database.executor} entry of the configuration:</p>
+ * <ul>
+ *   <li>{@code threads}: the maximal number of operations running at once, by default the size of the pool;</li>
+ *   <li>{@code virtual-threads}: runs each operation on a virtual thread, still bounded by {@code threads}. This
+ *   option requires JDK 21, otherwise platform threads are used.</li>
+ * </ul>
+ */
+final class DatabaseExecutor implements Executor {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link play.Logger.ALogger} to display what is happening. */
+  private static final Logger.ALogger LOGGER = Logger.of(DatabaseExecutor.class);
+
+  /** The underlying {@link ExecutorService}. */
+  private final ExecutorService executorService;
+  /** The permits bounding the operations running on virtual threads, or {@code null} for platform threads. */
+  private final Semaphore permits;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link DatabaseExecutor}.
+   *
+   * @param config the {@link Config} instance.
+   */
+  DatabaseExecutor(final Config config) {
+    final int threads = config.getInt("briventory.database.executor.threads");
+    final ExecutorService virtualThreadsExecutor =
+        config.getBoolean("briventory.database.executor.virtual-threads") ? createVirtualThreadsExecutor() : null;
+
+    if (virtualThreadsExecutor == null) {
+      final AtomicInteger count = new AtomicInteger();
+      executorService = Executors.newFixedThreadPool(threads, runnable -> {
+        final Thread thread = new Thread(runnable, "briventory-database-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      permits = null;
+    } else {
+      executorService = virtualThreadsExecutor;
+      permits = new Semaphore(threads, true);
+    }
+  }
+
+  /**
+   * @return an {@link ExecutorService} starting a virtual thread per task, or {@code null} if the JDK does not provide
+   * virtual threads.
+   */
+  private static ExecutorService createVirtualThreadsExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      LOGGER.warn("Virtual threads are not available, the database executor falls back to platform threads.");
+      return null;
+    }
+  }
+
+  // *******************************************************************************************************************
+  // Executor Implementation
+  // *******************************************************************************************************************
+
+  /** {@inheritDoc} */
+  @Override
+  public void execute(final Runnable command) {
+    if (permits == null) {
+      executorService.execute(command);
+      return;
+    }
+    executorService.execute(() -> {
+      permits.acquireUninterruptibly();
+      try {
+        command.run();
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  /** Stops accepting new operations, the running ones are completed. */
+  void shutdown() { executorService.shutdown(); }
+
+}
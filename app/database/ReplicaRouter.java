@@ -0,0 +1,242 @@
+package database;
+
+import com.typesafe.config.Config;
+import play.Logger;
+import play.db.Database;
+import play.db.Databases;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code ReplicaRouter} routes the reads to the read replicas of the database, in a round-robin fashion. The replicas
+ * are checked periodically: a replica failing its health check, or failing to provide a connection, is skipped until
+ * it passes a health check again. When no replica is available, the reads go to the primary database.
+ * <p>After a session has written, its reads stick to the primary database for a while, so that they see the writes of
+ * the session despite the replication lag. The reads without session cannot tell which writes they must see: they
+ * stick to the primary database for a while after any write.</p>
+ * <p>The router is configured by the {@code briventory.database.replicas} entry of the configuration:</p>
+ * <ul>
+ *   <li>{@code databases}: the replicas, each one with its JDBC {@code url}, and optionally its {@code username},
+ *   {@code password} and {@code pool-size}. Without any replica, all the reads go to the primary database;</li>
+ *   <li>{@code health-check-interval}: the delay between two health checks of the replicas;</li>
+ *   <li>{@code sticky-primary-window}: how long the reads of a session stick to the primary database after a
+ *   write.</li>
+ * </ul>
+ */
+final class ReplicaRouter {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The {@link play.Logger.ALogger} to display what is happening. */
+  private static final Logger.ALogger LOGGER = Logger.of(ReplicaRouter.class);
+  /** The JDBC driver of the replicas. */
+  private static final String DRIVER = "org.postgresql.Driver";
+  /** The timeout of a health check, in seconds. */
+  private static final int HEALTH_CHECK_TIMEOUT = 2;
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The replicas. */
+  private final List<Replica> replicas;
+  /** The counter choosing the next replica. */
+  private final AtomicInteger next = new AtomicInteger();
+  /** How long the reads of a session stick to the primary database after a write, in nanoseconds. */
+  private final long stickyPrimaryWindow;
+  /** The instants, from {@link System#nanoTime()}, until which the reads of the sessions stick to the primary. */
+  private final Map<Object, Long> stickyUntil = new ConcurrentHashMap<>();
+  /** The instant, from {@link System#nanoTime()}, until which the reads without session stick to the primary. */
+  private final AtomicLong unscopedStickyUntil = new AtomicLong(System.nanoTime());
+  /** The {@link ScheduledExecutorService} running the health checks, or {@code null} if there is no replica. */
+  private final ScheduledExecutorService healthChecker;
+
+  /** A {@code Replica} is a read replica of the database, with its health. */
+  private static final class Replica {
+    /** The {@link Database} of the replica. */
+    private final Database database;
+    /** Has the replica passed its last health check ? */
+    private volatile boolean healthy = true;
+
+    /**
+     * Creates a new instance of {@link Replica}.
+     *
+     * @param database the {@link Database} of the replica.
+     */
+    Replica(final Database database) { this.database = database; }
+  }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link ReplicaRouter}.
+   *
+   * @param config the {@link Config} instance.
+   */
+  ReplicaRouter(final Config config) {
+    this(databasesOf(config.getConfig("briventory.database.replicas")),
+         config.getDuration("briventory.database.replicas.sticky-primary-window", TimeUnit.NANOSECONDS),
+         config.getDuration("briventory.database.replicas.health-check-interval", TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Creates a new instance of {@link ReplicaRouter}.
+   *
+   * @param databases the {@link Database}s of the replicas.
+   * @param stickyPrimaryWindow how long the reads of a session stick to the primary database after a write, in
+   * nanoseconds.
+   * @param healthCheckInterval the delay between two health checks of the replicas, in milliseconds.
+   */
+  ReplicaRouter(final List<Database> databases, final long stickyPrimaryWindow, final long healthCheckInterval) {
+    this.stickyPrimaryWindow = stickyPrimaryWindow;
+    replicas = databases.stream().map(Replica::new).toList();
+
+    if (replicas.isEmpty()) {
+      healthChecker = null;
+    } else {
+      healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "briventory-database-replicas");
+        thread.setDaemon(true);
+        return thread;
+      });
+      healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval, healthCheckInterval,
+                                           TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Creates the {@link Database}s of the replicas.
+   *
+   * @param replicasConfig the {@link Config} of the replicas.
+   *
+   * @return the {@link Database}s.
+   */
+  private static List<Database> databasesOf(final Config replicasConfig) {
+    final List<Database> databases = new ArrayList<>();
+    for (Config replicaConfig : replicasConfig.getConfigList("databases"))
+      databases.add(createDatabase("replica" + databases.size(), replicaConfig));
+    return databases;
+  }
+
+  /**
+   * Creates the {@link Database} of a replica.
+   *
+   * @param name the name of the replica.
+   * @param replicaConfig the {@link Config} of the replica.
+   *
+   * @return the {@link Database}.
+   */
+  private static Database createDatabase(final String name, final Config replicaConfig) {
+    final Map<String, Object> properties = new HashMap<>();
+    if (replicaConfig.hasPath("username")) properties.put("username", replicaConfig.getString("username"));
+    if (replicaConfig.hasPath("password")) properties.put("password", replicaConfig.getString("password"));
+    if (replicaConfig.hasPath("pool-size"))
+      properties.put("hikaricp.maximumPoolSize", replicaConfig.getInt("pool-size"));
+    return Databases.createFrom(name, DRIVER, replicaConfig.getString("url"), properties);
+  }
+
+  /** Stops the health checks and shuts the replicas down. */
+  void shutdown() {
+    if (healthChecker != null) healthChecker.shutdownNow();
+    for (Replica replica : replicas)
+      replica.database.shutdown();
+  }
+
+  // *******************************************************************************************************************
+  // Routing Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Acquires a connection to a healthy replica, unless the reads of the session stick to the primary database.
+   *
+   * @param sessionKey the key of the session reading, or {@code null}.
+   *
+   * @return a new connection to a replica, or {@code null} if the read has to be routed to the primary database.
+   */
+  Connection acquireConnection(final Object sessionKey) {
+    if (replicas.isEmpty() || sticksToPrimary(sessionKey)) return null;
+    final int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      final Replica replica = replicas.get((start + i) % replicas.size());
+      if (!replica.healthy) continue;
+      try {
+        return replica.database.getConnection();
+      } catch (Exception e) { // The SQLException of the pool is thrown, while not declared.
+        LOGGER.warn("The replica " + replica.database.getName() + " is unavailable, its reads are rerouted.", e);
+        replica.healthy = false;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Notifies that a session has just written: its reads, and the reads without session, stick to the primary
+   * database for the configured window.
+   *
+   * @param sessionKey the key of the session, or {@code null}.
+   */
+  void written(final Object sessionKey) {
+    if (replicas.isEmpty()) return;
+    final long until = System.nanoTime() + stickyPrimaryWindow;
+    unscopedStickyUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    if (sessionKey != null) stickyUntil.put(sessionKey, until);
+  }
+
+  /**
+   * @param sessionKey the key of the session, or {@code null}.
+   *
+   * @return {@code true} if the reads of the session, or the reads without session, stick to the primary database,
+   * otherwise {@code false}.
+   */
+  private boolean sticksToPrimary(final Object sessionKey) {
+    if (sessionKey == null) return unscopedStickyUntil.get() - System.nanoTime() > 0;
+    final Long until = stickyUntil.get(sessionKey);
+    if (until == null) return false;
+    if (until - System.nanoTime() > 0) return true;
+    stickyUntil.remove(sessionKey, until);
+    return false;
+  }
+
+  // *******************************************************************************************************************
+  // Health Checks
+  // *******************************************************************************************************************
+
+  /** Checks the health of each replica, and forgets the sessions whose window has elapsed. */
+  private void checkHealth() {
+    for (Replica replica : replicas) {
+      final boolean healthy = isHealthy(replica);
+      if (healthy != replica.healthy)
+        LOGGER.info("The replica " + replica.database.getName() + " is " + (healthy ? "back." : "unavailable."));
+      replica.healthy = healthy;
+    }
+    final long now = System.nanoTime();
+    stickyUntil.values().removeIf(until -> until - now <= 0);
+  }
+
+  /**
+   * @param replica the {@link Replica}.
+   *
+   * @return {@code true} if a connection to the replica can be acquired and is valid, otherwise {@code false}.
+   */
+  private static boolean isHealthy(final Replica replica) {
+    try (Connection connection = replica.database.getConnection()) {
+      return connection.isValid(HEALTH_CHECK_TIMEOUT);
+    } catch (SQLException | RuntimeException e) {
+      return false;
+    }
+  }
+
+}
@@ -1,5 +1,7 @@
 package globalhandlers;
 
+import database.BriventoryDB;
+import orm.caches.RecordsCaches;
 import play.db.DBApi;
 import play.inject.ApplicationLifecycle;
 
@@ -21,10 +23,17 @@ public final class ApplicationStart {
    *
    * @param lifecycle the {@link ApplicationLifecycle} instance.
    * @param dbApi the {@link DBApi} instance.
+   * @param recordsCaches the {@link RecordsCaches} instance.
+   * @param briventoryDB the {@link BriventoryDB} instance.
    */
   @Inject
-  public ApplicationStart(final ApplicationLifecycle lifecycle, final DBApi dbApi) {
+  public ApplicationStart(final ApplicationLifecycle lifecycle,
+                          final DBApi dbApi,
+                          final RecordsCaches recordsCaches,
+                          final BriventoryDB briventoryDB) {
     lifecycle.addStopHook(() -> {
+      briventoryDB.shutdown();
+      recordsCaches.close();
       dbApi.shutdown();
       return null;
     });
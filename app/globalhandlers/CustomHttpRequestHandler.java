@@ -8,15 +8,16 @@ import play.libs.streams.Accumulator;
 import play.mvc.EssentialAction;
 import play.mvc.Http;
 import play.routing.Router;
-import repositories.ConfigurationRepository;
-import repositories.AccountsRepository;
 
 import javax.inject.Inject;
+import java.util.regex.Pattern;
 
 /**
  * {@code CustomHttpRequestHandler} detects the initialization of the database. If it is correctly initialized, the App
  * routes are used as usual. Otherwise, only some routes are provided and every thing else will be redirected to a
  * maintenance page.
+ * <p>The maintenance state is held in memory by the {@link MaintenanceState}: no request queries the database to know
+ * it.</p>
  * <p>In maintenance mode, the following routes are allowed:</p>
  * <ul>
  *   <li>{@code /maintenance}</li>
@@ -29,38 +30,27 @@ import javax.inject.Inject;
  */
 public final class CustomHttpRequestHandler extends DefaultHttpRequestHandler {
 
+  /** The routes allowed in maintenance mode. */
+  private static final Pattern MAINTENANCE_ROUTES =
+      Pattern.compile("^/(maintenance|status|auth|assets|webjars|robots.txt).*");
+
   /** The injected {@link controllers.MaintenanceController} instance. */
   private final MaintenanceController maintenanceController;
-  /** The injected {@link ConfigurationRepository} instance. */
-  private final ConfigurationRepository revisionRepository;
-  /** The injected {@link AccountsRepository} instance. */
-  private final AccountsRepository usersRepository;
+  /** The injected {@link MaintenanceState} instance. */
+  private final MaintenanceState maintenanceState;
 
   @Inject
   public CustomHttpRequestHandler(final JavaCompatibleHttpRequestHandler underlying,
                                   final MaintenanceController maintenanceController,
-                                  final ConfigurationRepository revisionRepository,
-                                  final AccountsRepository usersRepository) {
+                                  final MaintenanceState maintenanceState) {
     super(underlying);
     this.maintenanceController = maintenanceController;
-    this.revisionRepository = revisionRepository;
-    this.usersRepository = usersRepository;
+    this.maintenanceState = maintenanceState;
   }
 
   @Override
   public HandlerForRequest handlerForRequest(final Http.RequestHeader requestHeader) {
-
-    boolean maintenance = false;
-
-    try {
-      final boolean isDatabaseInitialized = revisionRepository.isDatabaseInitialized();
-      final boolean hasActiveAdministrator = usersRepository.hasActiveAdministrator();
-      maintenance = !isDatabaseInitialized || !hasActiveAdministrator;
-    } catch (Exception e) {
-      maintenance = true;
-    }
-
-    if (maintenance && !requestHeader.uri().matches("^/(maintenance|status|auth|assets|webjars|robots.txt).*")) {
+    if (maintenanceState.isMaintenance() && !MAINTENANCE_ROUTES.matcher(requestHeader.uri()).matches()) {
       var minimalRouter = Router.empty();
       var request = requestHeader.withBody(null);
       var handler = minimalRouter.route(requestHeader).orElseGet(
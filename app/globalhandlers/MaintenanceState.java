@@ -0,0 +1,186 @@
+package globalhandlers;
+
+import com.typesafe.config.Config;
+import database.BriventoryDB;
+import play.Logger;
+import play.inject.ApplicationLifecycle;
+import repositories.AccountsRepository;
+import repositories.ConfigurationRepository;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * {@code MaintenanceState} holds in memory whether the App is in maintenance, i.e. whether the database is not
+ * initialized or has no active administrator. The requests only read this state, they never query the database to
+ * know it.
+ * <p>The state is refreshed each time the administration rights or the locked status of an account are changed through
+ * the {@link AccountsRepository}, and periodically by a background probe, as configured by the
+ * {@code briventory.maintenance.probe-interval} entry of the configuration. Both refreshes run on the thread of the
+ * probe, not on the thread that has written, and read from the primary database, as a replica may lag behind the
+ * write.</p>
+ * <p>Each probe is numbered when it starts: a probe only replaces the state if no newer probe has already done it, so
+ * that a slow probe never overwrites a newer state.</p>
+ */
+@Singleton
+public final class MaintenanceState {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The {@link play.Logger.ALogger} to display what is happening. */
+  private static final Logger.ALogger LOGGER = Logger.of(MaintenanceState.class);
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The probe of the database, reading from the primary database. */
+  private final Supplier<Status> probe;
+  /** The {@link ScheduledExecutorService} running the probe. */
+  private final ScheduledExecutorService prober;
+  /** The number of the last probe started. */
+  private final AtomicLong probes = new AtomicLong();
+  /** The newest {@link Probe} completed. */
+  private final AtomicReference<Probe> lastProbe = new AtomicReference<>(new Probe(0L, new Status(false, false)));
+
+  /**
+   * A {@code Status} is the state of the database, as probed.
+   *
+   * @param databaseInitialized is the database initialized ?
+   * @param hasActiveAdministrator does the database contain at least one active administrator ?
+   */
+  public record Status(boolean databaseInitialized, boolean hasActiveAdministrator) {
+
+    /** @return {@code true} if the App is in maintenance, otherwise {@code false}. */
+    public boolean isMaintenance() { return !databaseInitialized || !hasActiveAdministrator; }
+
+  }
+
+  /**
+   * A {@code Probe} is a {@link Status}, with the number of the probe that has produced it.
+   *
+   * @param number the number of the probe, increasing with the start of the probes.
+   * @param status the {@link Status} probed.
+   */
+  private record Probe(long number, Status status) { }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link MaintenanceState} using the injected parameters, and probes the database.
+   *
+   * @param briventoryDB the {@link BriventoryDB} instance.
+   * @param configurationRepository the {@link ConfigurationRepository} instance.
+   * @param accountsRepository the {@link AccountsRepository} instance.
+   * @param config the {@link Config} instance.
+   * @param lifecycle the {@link ApplicationLifecycle} instance.
+   */
+  @Inject
+  public MaintenanceState(final BriventoryDB briventoryDB,
+                          final ConfigurationRepository configurationRepository,
+                          final AccountsRepository accountsRepository,
+                          final Config config,
+                          final ApplicationLifecycle lifecycle) {
+    this(() -> briventoryDB.withinPrimaryConnectionScope(() -> new Status(
+             configurationRepository.isDatabaseInitialized(), accountsRepository.hasActiveAdministrator())),
+         config.getDuration("briventory.maintenance.probe-interval", TimeUnit.MILLISECONDS),
+         lifecycle);
+    accountsRepository.addAdministrationListener(this::requestRefresh);
+  }
+
+  /**
+   * Creates a new instance of {@link MaintenanceState} using the probe provided, and probes the database.
+   *
+   * @param probe the probe of the database.
+   * @param probeInterval the delay between two periodic probes, in milliseconds.
+   * @param lifecycle the {@link ApplicationLifecycle} instance.
+   */
+  MaintenanceState(final Supplier<Status> probe, final long probeInterval, final ApplicationLifecycle lifecycle) {
+    this.probe = probe;
+
+    refresh();
+
+    prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "briventory-maintenance");
+      thread.setDaemon(true);
+      return thread;
+    });
+    prober.scheduleWithFixedDelay(this::refresh, probeInterval, probeInterval, TimeUnit.MILLISECONDS);
+    lifecycle.addStopHook(() -> {
+      prober.shutdownNow();
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  // *******************************************************************************************************************
+  // Getters & Setters
+  // *******************************************************************************************************************
+
+  /** @return the newest {@link Status} probed. */
+  public Status getStatus() { return lastProbe.get().status(); }
+
+  /** @return {@code true} if the App is in maintenance, otherwise {@code false}. */
+  public boolean isMaintenance() { return getStatus().isMaintenance(); }
+
+  // *******************************************************************************************************************
+  // Probe Matters
+  // *******************************************************************************************************************
+
+  /** Requests a refresh of the state, performed on the thread of the probe. */
+  private void requestRefresh() {
+    try {
+      prober.execute(this::refresh);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("The probe has been stopped, the state is not refreshed.", e);
+    }
+  }
+
+  /**
+   * Refreshes the state on the thread of the probe, e.g. once a request has written what the next one depends on.
+   *
+   * @return a {@link CompletionStage} completed with the newest {@link Status} once the state has been refreshed.
+   */
+  public CompletionStage<Status> refreshAsync() {
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        refresh();
+        return getStatus();
+      }, prober);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("The probe has been stopped, the state is not refreshed.", e);
+      return CompletableFuture.completedFuture(getStatus());
+    }
+  }
+
+  /**
+   * Probes the primary database and refreshes the state, unless a newer probe has already refreshed it. If the
+   * database cannot be reached, the App is in maintenance.
+   */
+  public void refresh() {
+    final long number = probes.incrementAndGet();
+    Status probed;
+    try {
+      probed = probe.get();
+    } catch (Exception e) {
+      LOGGER.warn("Unable to probe the database, the App is in maintenance.", e);
+      probed = new Status(false, false);
+    }
+
+    final Probe probe = new Probe(number, probed);
+    final Probe replaced = lastProbe.getAndUpdate(last -> last.number() < number ? probe : last);
+    if (replaced.number() < number && probed.isMaintenance() != replaced.status().isMaintenance())
+      LOGGER.info(probed.isMaintenance() ? "The App enters in maintenance." : "The App leaves the maintenance.");
+  }
+
+}
@@ -0,0 +1,74 @@
+package globalhandlers;
+
+import controllers.auth.SessionHelper;
+import database.BriventoryDB;
+import orm.caches.EntitiesCache;
+import play.http.ActionCreator;
+import play.mvc.Action;
+import play.mvc.Http;
+import play.mvc.Result;
+
+import javax.inject.Inject;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@code UnitOfWorkActionCreator} binds every request to a unit of work: within a request, a row of the database is
+ * materialised only once, the following fetches reuse the same model instance.
+ * <p>The request is also bound to a connection scope: all the database operations of the request share one connection,
+ * acquired by the first of them, instead of checking out a connection from the pool for each of them.</p>
+ * <p>The unit of work and the connection scope cover the synchronous part of the action, authenticators included, as
+ * this creator is executed before the annotated actions.</p>
+ * <p>The connection scope belongs to the session of the signed-in user, so that the reads following a write of the
+ * user are routed to the primary database. The request memoises the account of the session, fetched at most once,
+ * and the session token renewed during the request is added to the response.</p>
+ *
+ * @see EntitiesCache
+ * @see BriventoryDB#withinConnectionScope(Object, java.util.function.Supplier)
+ */
+public final class UnitOfWorkActionCreator implements ActionCreator {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The injected {@link BriventoryDB} instance. */
+  private final BriventoryDB briventoryDB;
+  /** The injected {@link SessionHelper} instance. */
+  private final SessionHelper sessionHelper;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link UnitOfWorkActionCreator} using the injected parameters.
+   *
+   * @param briventoryDB the {@link BriventoryDB} instance.
+   * @param sessionHelper the {@link SessionHelper} instance.
+   */
+  @Inject
+  public UnitOfWorkActionCreator(final BriventoryDB briventoryDB, final SessionHelper sessionHelper) {
+    this.briventoryDB = briventoryDB;
+    this.sessionHelper = sessionHelper;
+  }
+
+  // *******************************************************************************************************************
+  // ActionCreator Implementation
+  // *******************************************************************************************************************
+
+  /** {@inheritDoc} */
+  @Override
+  public Action<?> createAction(final Http.Request request, final Method actionMethod) {
+    return new Action.Simple() {
+      @Override
+      public CompletionStage<Result> call(final Http.Request req) {
+        final Object sessionKey = sessionHelper.sessionKey(req);
+        final Http.Request memoising = sessionHelper.memoising(req);
+        final CompletionStage<Result> result = EntitiesCache.within(
+            () -> briventoryDB.withinConnectionScope(sessionKey, () -> delegate.call(memoising)));
+        return result.thenApply(r -> sessionHelper.renewing(memoising, r));
+      }
+    };
+  }
+
+}
@@ -40,8 +40,8 @@ public final class Account
   // *******************************************************************************************************************
   // Constants
   // *******************************************************************************************************************
-  /** The cost for BCrypt. */
-  private static final int BCRYPT_COST = 13;
+  /** The cost for BCrypt, shared with {@link controllers.auth.PasswordHasher}. */
+  public static final int BCRYPT_COST = 13;
 
   // *******************************************************************************************************************
   // Attributes
@@ -61,30 +61,20 @@ public final class Account
   /** The password. */
   private String password;
 
-  /** Does this account has administrator rights ? */
-  private final RecordLoader<Account, Boolean> administratorLoader =
-      RepositoriesHandler.of(AccountsRepository.class)
-                         .createAdministratorLoader(this);
+  /** The loader of the administrator rights of this account, created on first access. */
+  private RecordLoader<Account, Boolean> administratorLoader;
 
-  /** Does this account is locked. */
-  private final RecordLoader<Account, Boolean> isLockedLoader =
-      RepositoriesHandler.of(AccountsRepository.class)
-                         .createLockedAccountLoader(this);
+  /** The loader of the locked status of this account, created on first access. */
+  private RecordLoader<Account, Boolean> isLockedLoader;
 
-  /** The {@link BrickLinkTokens} instance loader. */
-  private final OptionalModelLoader<Account, BrickLinkTokens> brickLinkTokensLoader =
-      RepositoriesHandler.of(BrickLinkTokensRepository.class)
-                         .createBrickLinkTokensLoader(this);
+  /** The {@link BrickLinkTokens} instance loader, created on first access. */
+  private OptionalModelLoader<Account, BrickLinkTokens> brickLinkTokensLoader;
 
-  /** The {@link BrickSetTokens} instance loader. */
-  private final OptionalModelLoader<Account, BrickSetTokens> brickSetTokensLoader =
-      RepositoriesHandler.of(BrickSetTokensRepository.class)
-                         .createBrickSetTokensLoader(this);
+  /** The {@link BrickSetTokens} instance loader, created on first access. */
+  private OptionalModelLoader<Account, BrickSetTokens> brickSetTokensLoader;
 
-  /** The {@link RebrickableTokens} instance loader. */
-  private final OptionalModelLoader<Account, RebrickableTokens> rebrickableTokensLoader =
-      RepositoriesHandler.of(RebrickableTokensRepository.class)
-                         .createRebrickableLoader(this);
+  /** The {@link RebrickableTokens} instance loader, created on first access. */
+  private OptionalModelLoader<Account, RebrickableTokens> rebrickableTokensLoader;
 
   // *******************************************************************************************************************
   // Construction & Initialization
@@ -136,7 +126,7 @@ public final class Account
   public Account(final String firstname, final String lastname, final String email, final String password,
                  final boolean isAdministrator) {
     this(firstname, lastname, email, password);
-    administratorLoader.setValue(isAdministrator);
+    administratorLoader().setValue(isAdministrator);
   }
 
   /**
@@ -156,6 +146,45 @@ public final class Account
     this.id = id;
   }
 
+  // *******************************************************************************************************************
+  // Lazy Loaders
+  // *******************************************************************************************************************
+
+  /** @return the {@link RecordLoader} of {@link Account#administratorLoader}, created if needed. */
+  private RecordLoader<Account, Boolean> administratorLoader() {
+    if (administratorLoader == null)
+      administratorLoader = RepositoriesHandler.of(AccountsRepository.class).createAdministratorLoader(this);
+    return administratorLoader;
+  }
+
+  /** @return the {@link RecordLoader} of {@link Account#isLockedLoader}, created if needed. */
+  private RecordLoader<Account, Boolean> isLockedLoader() {
+    if (isLockedLoader == null)
+      isLockedLoader = RepositoriesHandler.of(AccountsRepository.class).createLockedAccountLoader(this);
+    return isLockedLoader;
+  }
+
+  /** @return the {@link OptionalModelLoader} of {@link Account#brickLinkTokensLoader}, created if needed. */
+  private OptionalModelLoader<Account, BrickLinkTokens> brickLinkTokensLoader() {
+    if (brickLinkTokensLoader == null)
+      brickLinkTokensLoader = RepositoriesHandler.of(BrickLinkTokensRepository.class).createBrickLinkTokensLoader(this);
+    return brickLinkTokensLoader;
+  }
+
+  /** @return the {@link OptionalModelLoader} of {@link Account#brickSetTokensLoader}, created if needed. */
+  private OptionalModelLoader<Account, BrickSetTokens> brickSetTokensLoader() {
+    if (brickSetTokensLoader == null)
+      brickSetTokensLoader = RepositoriesHandler.of(BrickSetTokensRepository.class).createBrickSetTokensLoader(this);
+    return brickSetTokensLoader;
+  }
+
+  /** @return the {@link OptionalModelLoader} of {@link Account#rebrickableTokensLoader}, created if needed. */
+  private OptionalModelLoader<Account, RebrickableTokens> rebrickableTokensLoader() {
+    if (rebrickableTokensLoader == null)
+      rebrickableTokensLoader = RepositoriesHandler.of(RebrickableTokensRepository.class).createRebrickableLoader(this);
+    return rebrickableTokensLoader;
+  }
+
   // *******************************************************************************************************************
   // Object Overrides
   // *******************************************************************************************************************
@@ -211,11 +240,17 @@ public final class Account
   public List<Action> getPostPersistenceActions(final DSLContext dslContext) {
     final List<Action> actions = new LinkedList<>();
 
-    actions.addAll(ModelActions.fromLazyLoader(dslContext, administratorLoader));
-    actions.addAll(ModelActions.fromLazyLoader(dslContext, isLockedLoader));
-    actions.addAll(ModelActions.fromLazyLoader(dslContext, brickLinkTokensLoader));
-    actions.addAll(ModelActions.fromLazyLoader(dslContext, brickSetTokensLoader));
-    actions.addAll(ModelActions.fromLazyLoader(dslContext, rebrickableTokensLoader));
+    /* The loaders that have never been created have nothing to persist. */
+    if (administratorLoader != null)
+      actions.addAll(ModelActions.fromLazyLoader(dslContext, administratorLoader));
+    if (isLockedLoader != null)
+      actions.addAll(ModelActions.fromLazyLoader(dslContext, isLockedLoader));
+    if (brickLinkTokensLoader != null)
+      actions.addAll(ModelActions.fromLazyLoader(dslContext, brickLinkTokensLoader));
+    if (brickSetTokensLoader != null)
+      actions.addAll(ModelActions.fromLazyLoader(dslContext, brickSetTokensLoader));
+    if (rebrickableTokensLoader != null)
+      actions.addAll(ModelActions.fromLazyLoader(dslContext, rebrickableTokensLoader));
 
     return actions;
   }
@@ -373,7 +408,8 @@ public final class Account
 
   /**
    * Sets the password using the clear text. The hash will be performed before setting the password to this
-   * {@link Account}.
+   * {@link Account}, synchronously: the controllers hash the passwords with {@link controllers.auth.PasswordHasher}
+   * instead.
    *
    * @param clearPassword the password as clear text.
    *
@@ -394,7 +430,7 @@ public final class Account
 
   /** @return {@code true} if this user is locked, otherwise {@code false}. */
   public boolean isLocked() {
-    final var isLocked = isLockedLoader.getValue();
+    final var isLocked = isLockedLoader().getValue();
     if (isLocked != null) return isLocked;
     return false;
   }
@@ -403,7 +439,7 @@ public final class Account
    * @return an {@link Optional} instance to determine if the value has been fetch ({@code true} or {@code false}) or is
    * not present if it has not been fetch.
    */
-  public Optional<Boolean> isLockedOptional() { return Optional.ofNullable(isLockedLoader.getValue()); }
+  public Optional<Boolean> isLockedOptional() { return Optional.ofNullable(isLockedLoader().getValue()); }
 
   /**
    * Sets the locked status for this account.
@@ -413,17 +449,24 @@ public final class Account
    * @return this instance.
    */
   public Account setLocked(final boolean isLocked) {
-    isLockedLoader.setValue(isLocked);
+    isLockedLoader().setValue(isLocked);
     return this;
   }
 
+  /**
+   * Sets the locked status, as fetched from the database, unless it has already been loaded.
+   *
+   * @param isLocked {@code true} if this account is locked, otherwise {@code false}.
+   */
+  public void setFetchedLocked(final Boolean isLocked) { isLockedLoader().offerFetchedValue(isLocked); }
+
   // *******************************************************************************************************************
   // Administrators Matter
   // *******************************************************************************************************************
 
   /** @return {@code true} if this user is an administrator, otherwise {@code false}. */
   public boolean isAdministrator() {
-    final var isAdministrator = administratorLoader.getValue();
+    final var isAdministrator = administratorLoader().getValue();
     if (isAdministrator != null) return isAdministrator;
     return false;
   }
@@ -433,7 +476,7 @@ public final class Account
    * not present if it has not been fetch.
    */
   public Optional<Boolean> isAdministratorOptional() {
-    return Optional.ofNullable(administratorLoader.getValue());
+    return Optional.ofNullable(administratorLoader().getValue());
   }
 
   /**
@@ -444,16 +487,45 @@ public final class Account
    * @return this instance.
    */
   public Account setAdministrator(final boolean isAdministrator) {
-    administratorLoader.setValue(isAdministrator);
+    administratorLoader().setValue(isAdministrator);
     return this;
   }
 
+  /**
+   * Sets the administration rights, as fetched from the database, unless they have already been loaded.
+   *
+   * @param isAdministrator {@code true} if this account has administration rights, otherwise {@code false}.
+   */
+  public void setFetchedAdministrator(final Boolean isAdministrator) {
+    administratorLoader().offerFetchedValue(isAdministrator);
+  }
+
+  /**
+   * @return {@code true} if the administration rights or the locked status of this account have been changed since they
+   * have been fetched, otherwise {@code false}.
+   */
+  public boolean hasAdministrationChanged() {
+    return (administratorLoader != null && administratorLoader.hasChanged())
+           || (isLockedLoader != null && isLockedLoader.hasChanged());
+  }
+
+  /**
+   * @return {@code true} if the password, the e-mail address or the name of this account have been changed since they
+   * have been fetched or stored, or if they have never been, otherwise {@code false}.
+   */
+  public boolean hasIdentityChanged() {
+    return hasChanged(ACCOUNT.PASSWORD, password)
+           || hasChanged(ACCOUNT.EMAIL, email)
+           || hasChanged(ACCOUNT.FIRSTNAME, firstname)
+           || hasChanged(ACCOUNT.LASTNAME, lastname);
+  }
+
   // *******************************************************************************************************************
   // BrickLink Synchronisation Matters
   // *******************************************************************************************************************
 
   /** @return the {@link Optional} instance, containing the {@link BrickLinkTokens}. */
-  public Optional<BrickLinkTokens> getBrickLinkTokens() { return brickLinkTokensLoader.getValue(); }
+  public Optional<BrickLinkTokens> getBrickLinkTokens() { return brickLinkTokensLoader().getValue(); }
 
   /**
    * Sets the {@link BrickLinkTokens}.
@@ -461,12 +533,21 @@ public final class Account
    * @param brickLinkTokens the {@link BrickLinkTokens}.
    */
   public void setBrickLinkTokens(final BrickLinkTokens brickLinkTokens) {
-    brickLinkTokensLoader.setValue(Optional.of(brickLinkTokens));
+    brickLinkTokensLoader().setValue(Optional.of(brickLinkTokens));
   }
 
   /** Clears the {@link BrickLinkTokens}. */
   public void clearBrickLinkTokens() {
-    brickLinkTokensLoader.setValue(Optional.empty());
+    brickLinkTokensLoader().setValue(Optional.empty());
+  }
+
+  /**
+   * Sets the {@link BrickLinkTokens}, as fetched from the database, unless they have already been loaded.
+   *
+   * @param brickLinkTokens the {@link Optional} instance, containing the {@link BrickLinkTokens}.
+   */
+  public void setFetchedBrickLinkTokens(final Optional<BrickLinkTokens> brickLinkTokens) {
+    brickLinkTokensLoader().offerFetchedValue(brickLinkTokens);
   }
 
   // *******************************************************************************************************************
@@ -474,7 +555,7 @@ public final class Account
   // *******************************************************************************************************************
 
   /** @return the {@link Optional} instance, containing the {@link BrickSetTokens}. */
-  public Optional<BrickSetTokens> getBrickSetTokens() { return brickSetTokensLoader.getValue(); }
+  public Optional<BrickSetTokens> getBrickSetTokens() { return brickSetTokensLoader().getValue(); }
 
   /**
    * Sets the {@link BrickSetTokens}.
@@ -482,12 +563,21 @@ public final class Account
    * @param brickSetTokens the {@link BrickSetTokens}.
    */
   public void setBrickSetTokens(final BrickSetTokens brickSetTokens) {
-    brickSetTokensLoader.setValue(Optional.of(brickSetTokens));
+    brickSetTokensLoader().setValue(Optional.of(brickSetTokens));
   }
 
   /** Clears the {@link BrickSetTokens}. */
   public void clearBrickSetTokens() {
-    brickSetTokensLoader.setValue(Optional.empty());
+    brickSetTokensLoader().setValue(Optional.empty());
+  }
+
+  /**
+   * Sets the {@link BrickSetTokens}, as fetched from the database, unless they have already been loaded.
+   *
+   * @param brickSetTokens the {@link Optional} instance, containing the {@link BrickSetTokens}.
+   */
+  public void setFetchedBrickSetTokens(final Optional<BrickSetTokens> brickSetTokens) {
+    brickSetTokensLoader().offerFetchedValue(brickSetTokens);
   }
 
   // *******************************************************************************************************************
@@ -495,7 +585,7 @@ public final class Account
   // *******************************************************************************************************************
 
   /** @return the {@link Optional} instance, containing the {@link RebrickableTokens}. */
-  public Optional<RebrickableTokens> getRebrickableTokens() { return rebrickableTokensLoader.getValue(); }
+  public Optional<RebrickableTokens> getRebrickableTokens() { return rebrickableTokensLoader().getValue(); }
 
   /**
    * Sets the {@link RebrickableTokens}.
@@ -503,12 +593,21 @@ public final class Account
    * @param rebrickableTokens the {@link RebrickableTokens}.
    */
   public void setRebrickableTokens(final RebrickableTokens rebrickableTokens) {
-    rebrickableTokensLoader.setValue(Optional.of(rebrickableTokens));
+    rebrickableTokensLoader().setValue(Optional.of(rebrickableTokens));
   }
 
   /** Clears the {@link RebrickableTokens}. */
   public void clearRebrickableTokens() {
-    rebrickableTokensLoader.setValue(Optional.empty());
+    rebrickableTokensLoader().setValue(Optional.empty());
+  }
+
+  /**
+   * Sets the {@link RebrickableTokens}, as fetched from the database, unless they have already been loaded.
+   *
+   * @param rebrickableTokens the {@link Optional} instance, containing the {@link RebrickableTokens}.
+   */
+  public void setFetchedRebrickableTokens(final Optional<RebrickableTokens> rebrickableTokens) {
+    rebrickableTokensLoader().offerFetchedValue(rebrickableTokens);
   }
 
 }
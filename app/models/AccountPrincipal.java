@@ -0,0 +1,13 @@
+package models;
+
+/**
+ * An {@code AccountPrincipal} is a lightweight and immutable projection of an {@link Account}, holding what identifies
+ * the signed-in user. Unlike an {@link Account}, it is built from a narrow set of columns (the password hash is never
+ * read) and does not carry any loader.
+ *
+ * @param id the identifier of the account.
+ * @param email the e-mail address.
+ * @param firstname the firstname.
+ * @param lastname the lastname.
+ */
+public record AccountPrincipal(long id, String email, String firstname, String lastname) {}
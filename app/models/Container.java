@@ -33,11 +33,11 @@ public abstract class Container
   private final ModelLoader<Long, ContainerType> containerTypeLoader =
       RepositoriesHandler.of(ContainerTypesRepository.class)
                          .createModelLoader();
-  /** The {@link ManyModelsLoader} instance to retrieve the associated {@link Locker} instances. */
-  @SuppressWarnings("this-escape")
-  private final ManyModelsLoader<Container, Locker> lockersLoader =
-      RepositoriesHandler.of(LockersRepository.class)
-                         .createLockersLoader(this);
+  /**
+   * The {@link ManyModelsLoader} instance to retrieve the associated {@link Locker} instances, created on first
+   * access.
+   */
+  private ManyModelsLoader<Container, Locker> lockersLoader;
 
   // *******************************************************************************************************************
   // Construction & Initialization
@@ -55,9 +55,8 @@ public abstract class Container
   protected Container(final long id, final long idContainerType, final List<Locker> lockers) {
     this.id = id;
     containerTypeLoader.setKey(idContainerType);
-    lockersLoader.setKey(this);
     if (lockers != null) {
-      lockersLoader.setValue(lockers);
+      lockersLoader().setFetchedValue(lockers);
     }
   }
 
@@ -82,6 +81,17 @@ public abstract class Container
     this.id = id;
   }
 
+  // *******************************************************************************************************************
+  // Lazy Loaders
+  // *******************************************************************************************************************
+
+  /** @return the {@link ManyModelsLoader} of {@link Container#lockersLoader}, created if needed. */
+  private ManyModelsLoader<Container, Locker> lockersLoader() {
+    if (lockersLoader == null)
+      lockersLoader = RepositoriesHandler.of(LockersRepository.class).createLockersLoader(this);
+    return lockersLoader;
+  }
+
   // *******************************************************************************************************************
   // PersistableModel1 Overrides
   // *******************************************************************************************************************
@@ -156,14 +166,30 @@ public abstract class Container
     return (C) this;
   }
 
+  /**
+   * Sets the {@link ContainerType}, as fetched from the database, unless it has already been loaded.
+   *
+   * @param containerType the {@link ContainerType}.
+   */
+  public final void setFetchedContainerType(final ContainerType containerType) {
+    containerTypeLoader.offerFetchedValue(containerType);
+  }
+
   @SuppressWarnings("unchecked")
   public final <C extends Container> C setLockers(final List<Locker> lockers) {
-    lockersLoader.setValue(lockers == null ? new LinkedList<>() : lockers);
+    lockersLoader().setValue(lockers == null ? new LinkedList<>() : lockers);
     return (C) this;
   }
 
+  /**
+   * Sets the {@link List} of {@link Locker} instances, as fetched from the database, unless it has already been loaded.
+   *
+   * @param lockers the {@link List} of {@link Locker} instances.
+   */
+  public final void setFetchedLockers(final List<Locker> lockers) { lockersLoader().offerFetchedValue(lockers); }
+
   public final List<Locker> getLockers() {
-    final var lockers = lockersLoader.getValue();
+    final var lockers = lockersLoader().getValue();
     if (lockers == null) return Collections.emptyList();
     return Collections.unmodifiableList(lockers);
   }
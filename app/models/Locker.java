@@ -24,10 +24,10 @@ public final class Locker extends Model implements
   /** The identifier of this {@link Locker}. */
   private Long id;
 
-  /** The {@link ModelLoader} that will handle the instance of {@link LockerSize}. */
-  private final ModelLoader<Long, LockerSize> lockerSizeLoader =
-      RepositoriesHandler.of(LockerSizesRepository.class)
-                         .createModelLoader();
+  /** The identifier of the {@link LockerSize}. */
+  private Long idLockerSize;
+  /** The {@link ModelLoader} that will handle the instance of {@link LockerSize}, created on first access. */
+  private ModelLoader<Long, LockerSize> lockerSizeLoader;
 
   /** The position of the locker in its container. */
   private Short position;
@@ -48,10 +48,23 @@ public final class Locker extends Model implements
    */
   public Locker(final long id, final long idLockerSize, final short position) {
     this.id = id;
-    lockerSizeLoader.setKey(idLockerSize);
+    this.idLockerSize = idLockerSize;
     this.position = position;
   }
 
+  // *******************************************************************************************************************
+  // Lazy Loaders
+  // *******************************************************************************************************************
+
+  /** @return the {@link ModelLoader} of {@link Locker#lockerSizeLoader}, created if needed. */
+  private ModelLoader<Long, LockerSize> lockerSizeLoader() {
+    if (lockerSizeLoader == null) {
+      lockerSizeLoader = RepositoriesHandler.of(LockerSizesRepository.class).createModelLoader();
+      lockerSizeLoader.setKey(idLockerSize);
+    }
+    return lockerSizeLoader;
+  }
+
   // *******************************************************************************************************************
   // PersistableModel1 Overrides
   // *******************************************************************************************************************
@@ -60,7 +73,7 @@ public final class Locker extends Model implements
   public LockerRecord createRecord1(final DSLContext dslContext) {
     final LockerRecord lockerRecord = dslContext.newRecord(LOCKER);
     return lockerRecord.setId(id)
-                       .setIdLockerSize(lockerSizeLoader.getKey());
+                       .setIdLockerSize(idLockerSize);
   }
 
   public void refresh1(final LockerRecord lockerRecord) { id = lockerRecord.getId(); }
@@ -83,7 +96,26 @@ public final class Locker extends Model implements
   // Getters & Setters
   // *******************************************************************************************************************
 
-  public void setIdLockerSize(final Long idLockerSize) { lockerSizeLoader.setKey(idLockerSize); }
+  /** @return the identifier of this {@link Locker}, or {@code null} if it has not been persisted yet. */
+  public Long getId() { return id; }
+
+  public void setIdLockerSize(final Long idLockerSize) {
+    this.idLockerSize = idLockerSize;
+    if (lockerSizeLoader != null) lockerSizeLoader.setKey(idLockerSize);
+  }
+
+  /** @return the identifier of the {@link LockerSize}. */
+  public Long getIdLockerSize() { return idLockerSize; }
+
+  /** @return the {@link LockerSize} instance, or {@code null}. */
+  public LockerSize getLockerSize() { return lockerSizeLoader().getValue(); }
+
+  /**
+   * Sets the {@link LockerSize}, as fetched from the database, unless it has already been loaded.
+   *
+   * @param lockerSize the {@link LockerSize}.
+   */
+  public void setFetchedLockerSize(final LockerSize lockerSize) { lockerSizeLoader().offerFetchedValue(lockerSize); }
 
   public void setPosition(final Short position) { this.position = position; }
 
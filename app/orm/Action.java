@@ -10,4 +10,14 @@ public abstract class Action {
    */
   abstract void perform(DSLContext dslContext);
 
+  /**
+   * Contributes the corresponding action to the {@link Flush} provided. By default, the action cannot be batched: the
+   * pending writes are executed, then the action is performed.
+   *
+   * @param flush the {@link Flush}.
+   */
+  void contribute(final Flush flush) {
+    flush.run(() -> perform(flush.getDSLContext()));
+  }
+
 }
@@ -0,0 +1,163 @@
+package orm;
+
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * A {@code ConnectionScope} holds the connections shared by all the operations of a {@link PersistenceContext}
+ * performed within the scope. The connections are only acquired by the first operation needing them, and released when
+ * the scope is closed.
+ * <p>The reads and the writes may be routed to different databases: the reads use a read connection until the first
+ * write of the scope; from then on, the reads use the write connection, so that they see the writes of the scope.
+ * When the reads are not routed (the read connection supplier returns {@code null}), the reads use the write
+ * connection from the start, so that the scope never holds two connections of the primary database.</p>
+ * <p>A read-only scope runs all its operations on a single read connection, in a single read-only transaction, rolled
+ * back when the scope is closed.</p>
+ *
+ * @see PersistenceContext#withinConnectionScope(Supplier)
+ * @see PersistenceContext#withinReadOnlyConnectionScope(Supplier)
+ */
+final class ConnectionScope implements AutoCloseable {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link Supplier} acquiring the write connection. */
+  private final Supplier<Connection> connectionSupplier;
+  /** The {@link Supplier} acquiring the read connection, or returning {@code null} to read on the write connection. */
+  private final Supplier<Connection> readConnectionSupplier;
+  /** The {@link SQLDialect}. */
+  private final SQLDialect dialect;
+  /** Is this scope read-only ? */
+  private final boolean readOnly;
+  /** The key of the session this scope belongs to, or {@code null} if it does not belong to any session. */
+  private final Object sessionKey;
+  /** The write connection, or {@code null} if it has not been acquired yet. */
+  private Connection connection;
+  /** The {@link DSLContext} using the write connection, or {@code null} if it has not been acquired yet. */
+  private DSLContext dslContext;
+  /** The read connection, or {@code null} if it has not been acquired yet. */
+  private Connection readConnection;
+  /** The {@link DSLContext} using the read connection, or {@code null} if it has not been acquired yet. */
+  private DSLContext readDSLContext;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link ConnectionScope}.
+   *
+   * @param connectionSupplier the {@link Supplier} acquiring the write connection.
+   * @param readConnectionSupplier the {@link Supplier} acquiring the read connection, or returning {@code null} if the
+   * reads are performed on the primary database.
+   * @param dialect the {@link SQLDialect}.
+   * @param readOnly is this scope read-only ?
+   * @param sessionKey the key of the session this scope belongs to, or {@code null}.
+   */
+  ConnectionScope(final Supplier<Connection> connectionSupplier,
+                  final Supplier<Connection> readConnectionSupplier,
+                  final SQLDialect dialect,
+                  final boolean readOnly,
+                  final Object sessionKey) {
+    this.connectionSupplier = connectionSupplier;
+    this.readConnectionSupplier = readConnectionSupplier;
+    this.dialect = dialect;
+    this.readOnly = readOnly;
+    this.sessionKey = sessionKey;
+  }
+
+  // *******************************************************************************************************************
+  // Getters & Setters
+  // *******************************************************************************************************************
+
+  /** @return {@code true} if this scope is read-only, otherwise {@code false}. */
+  boolean isReadOnly() { return readOnly; }
+
+  /** @return the key of the session this scope belongs to, or {@code null}. */
+  Object getSessionKey() { return sessionKey; }
+
+  /**
+   * @return the {@link DSLContext} using the write connection of this scope. The connection is acquired if needed. In a
+   * read-only scope, the read connection is returned.
+   */
+  DSLContext getDSLContext() {
+    if (readOnly) return getReadDSLContext();
+    if (dslContext == null) {
+      connection = connectionSupplier.get();
+      dslContext = DSL.using(connection, dialect);
+    }
+    return dslContext;
+  }
+
+  /**
+   * @return the {@link DSLContext} using the read connection of this scope, or the write connection if it has already
+   * been acquired or if the reads are performed on the primary database. The connection is acquired if needed.
+   */
+  DSLContext getReadDSLContext() {
+    if (dslContext != null) return dslContext;
+    if (readDSLContext == null) {
+      final Connection routedConnection = readConnectionSupplier.get();
+      if (routedConnection == null && !readOnly) return getDSLContext();
+      readConnection = routedConnection == null ? connectionSupplier.get() : routedConnection;
+      try {
+        if (readOnly) {
+          readConnection.setReadOnly(true);
+          readConnection.setAutoCommit(false);
+        }
+      } catch (SQLException e) {
+        close();
+        throw new DataAccessException("Unable to prepare the connection of the scope", e);
+      }
+      readDSLContext = DSL.using(readConnection, dialect);
+    }
+    return readDSLContext;
+  }
+
+  // *******************************************************************************************************************
+  // AutoCloseable Implementation
+  // *******************************************************************************************************************
+
+  /** Releases the connections of this scope, if they have been acquired. */
+  @Override
+  public void close() {
+    try {
+      try {
+        release(readConnection, readOnly);
+      } finally {
+        release(connection, false);
+      }
+    } catch (SQLException e) {
+      throw new DataAccessException("Unable to release the connection of the scope", e);
+    } finally {
+      connection = null;
+      dslContext = null;
+      readConnection = null;
+      readDSLContext = null;
+    }
+  }
+
+  /**
+   * Releases the connection provided.
+   *
+   * @param acquiredConnection the connection, or {@code null} if it has not been acquired.
+   * @param rollback should the ongoing transaction be rolled back ?
+   *
+   * @throws SQLException if the connection cannot be released.
+   */
+  private static void release(final Connection acquiredConnection, final boolean rollback) throws SQLException {
+    if (acquiredConnection == null) return;
+    try {
+      if (rollback) acquiredConnection.rollback();
+    } finally {
+      acquiredConnection.close();
+    }
+  }
+
+}
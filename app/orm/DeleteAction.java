@@ -52,7 +52,20 @@ public final class DeleteAction<M extends Model,
    */
   @Override
   public void perform(final DSLContext dslContext) {
-    getRepository().deleteAllInTransaction(deletableModels);
+    final Flush flush = new Flush(dslContext);
+    contribute(flush);
+    flush.execute();
+  }
+
+  /**
+   * Adds the deletion of all {@link DeletableModel} instances stored in {@link DeleteAction#deletableModels} to the
+   * {@link Flush}. The deletion takes part in the ongoing transaction.
+   *
+   * @param flush the {@link Flush}.
+   */
+  @Override
+  void contribute(final Flush flush) {
+    getRepository().deleteAll(flush, deletableModels);
   }
 
 }
@@ -40,4 +40,10 @@ public final class DeleteRecordAction<R extends UpdatableRecord<R>> extends Acti
     dslContext.executeDelete(updatableRecord);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  void contribute(final Flush flush) {
+    flush.delete(updatableRecord, null);
+  }
+
 }
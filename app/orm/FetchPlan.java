@@ -0,0 +1,117 @@
+package orm;
+
+import org.jooq.Field;
+import org.jooq.Record;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@code FetchPlan} declares the associations of a {@link Model} to fetch together with the model itself. Each
+ * association is a {@link Field} correlated to the main query (e.g. a {@code multiset} or an {@code exists}
+ * sub-query), and a {@link BiConsumer} that gives the fetched value to the corresponding {@link LazyLoader} of the
+ * model, through {@link LazyLoader#offerFetchedValue(Object)}.
+ * <p>The {@link Repository} compiles the plan into the main query, so that the whole graph is fetched in a single
+ * round trip. A plan is immutable, and is intended to be declared once, as a constant of the repository:</p>
+ * <pre><code>
+ *   public static final FetchPlan&lt;Foo&gt; WITH_BARS =
+ *       FetchPlan.&lt;Foo&gt;empty().with(multiset(...).convertFrom(...), Foo::setFetchedBars);
+ * </code></pre>
+ *
+ * @param <M> the specific type of {@link Model}.
+ */
+public final class FetchPlan<M extends Model> {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The prefix of the aliases of the fields of the associations. */
+  private static final String ASSOCIATION_ALIAS = "fetch_plan_";
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link List} of the associations of this plan. */
+  private final List<Association<M, ?>> associations;
+
+  /**
+   * An {@code Association} is an aliased {@link Field} and the {@link BiConsumer} that gives its value to the model.
+   *
+   * @param field the aliased {@link Field}.
+   * @param loader the {@link BiConsumer} that gives the value to the model.
+   * @param <M> the specific type of {@link Model}.
+   * @param <T> the type of the value.
+   */
+  private record Association<M, T>(Field<T> field, BiConsumer<? super M, ? super T> loader) {
+
+    /**
+     * Gives the value of the association, read from the record provided, to the model.
+     *
+     * @param model the model.
+     * @param record the {@link Record} fetched.
+     */
+    void load(final M model, final Record record) { loader.accept(model, record.get(field)); }
+
+  }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link FetchPlan}.
+   *
+   * @param associations the {@link List} of the associations.
+   */
+  private FetchPlan(final List<Association<M, ?>> associations) {
+    this.associations = Collections.unmodifiableList(associations);
+  }
+
+  /**
+   * @param <M> the specific type of {@link Model}.
+   *
+   * @return a {@link FetchPlan} without any association.
+   */
+  public static <M extends Model> FetchPlan<M> empty() { return new FetchPlan<>(Collections.emptyList()); }
+
+  /**
+   * Returns a new {@link FetchPlan}, adding an association to the ones of this plan.
+   *
+   * @param field the {@link Field} fetching the association, correlated to the main query.
+   * @param loader the {@link BiConsumer} that gives the fetched value to the model.
+   * @param <T> the type of the value.
+   *
+   * @return the new {@link FetchPlan}.
+   */
+  public <T> FetchPlan<M> with(final Field<T> field, final BiConsumer<? super M, ? super T> loader) {
+    final List<Association<M, ?>> newAssociations = new ArrayList<>(associations);
+    newAssociations.add(new Association<>(field.as(ASSOCIATION_ALIAS + associations.size()), loader));
+    return new FetchPlan<>(newAssociations);
+  }
+
+  // *******************************************************************************************************************
+  // Compilation Matters
+  // *******************************************************************************************************************
+
+  /** @return the {@link List} of the aliased {@link Field} instances to add to the main query. */
+  List<Field<?>> getFields() {
+    final List<Field<?>> fields = new ArrayList<>(associations.size());
+    for (Association<M, ?> association : associations)
+      fields.add(association.field());
+    return fields;
+  }
+
+  /**
+   * Gives the values of all the associations, read from the record provided, to the model.
+   *
+   * @param model the model.
+   * @param record the {@link Record} fetched by the main query.
+   */
+  void load(final M model, final Record record) {
+    for (Association<M, ?> association : associations)
+      association.load(model, record);
+  }
+
+}
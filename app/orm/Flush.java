@@ -0,0 +1,288 @@
+package orm;
+
+import org.jooq.DSLContext;
+import org.jooq.ForeignKey;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.UpdatableRecord;
+import org.jooq.exception.DataChangedException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.val;
+
+/**
+ * A {@code Flush} collects the writes contributed by the {@link Action} instances of a persistence or a deletion
+ * process, and executes them as JDBC batches.
+ * <p>Consecutive writes of the same kind (merges and updates, or deletions) are grouped by table and executed with one
+ * {@link DSLContext#batchMerge(UpdatableRecord[])} per table for the merges, one
+ * {@link DSLContext#batchUpdate(UpdatableRecord[])} per table for the updates of the changed columns, and with one
+ * {@code DELETE ... WHERE key = ANY(?)} per table for the deletions (or a
+ * {@link DSLContext#batchDelete(UpdatableRecord[])} if the primary key is composite). The tables are ordered by their
+ * foreign keys: the referenced tables are merged first and deleted last.</p>
+ * <p>The writes that cannot be batched (e.g. an insertion that needs the generated identifier) are executed
+ * immediately, after the execution of the pending writes, so that the order of the actions is kept.</p>
+ */
+final class Flush {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The depth of each table in the graph of the foreign keys, a table being deeper than the tables it references. */
+  private static final Map<Table<?>, Integer> TABLES_DEPTHS = new ConcurrentHashMap<>();
+
+  /** The {@link DSLContext}. */
+  private final DSLContext dslContext;
+  /** Are the pending writes deletions ({@code true}) or merges and updates ({@code false}) ? */
+  private boolean pendingDeletions;
+  /** The pending writes, by table. */
+  private final Map<Table<?>, List<PendingWrite>> pendingWrites;
+  /** The callbacks to run once the pending writes have been executed. */
+  private final List<Runnable> afterExecution = new ArrayList<>();
+
+  /**
+   * A {@code PendingWrite} is a record waiting to be written, with the callback to run once it has been written.
+   *
+   * @param updatableRecord the {@link UpdatableRecord} to write.
+   * @param update is the write an update of the changed columns, rather than a merge ?
+   * @param afterWrite the callback, or {@code null}.
+   */
+  private record PendingWrite(UpdatableRecord<?> updatableRecord, boolean update, Runnable afterWrite) { }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link Flush}.
+   *
+   * @param dslContext the {@link DSLContext}.
+   */
+  Flush(final DSLContext dslContext) {
+    this.dslContext = dslContext;
+    pendingWrites = new LinkedHashMap<>();
+  }
+
+  // *******************************************************************************************************************
+  // Getters & Setters
+  // *******************************************************************************************************************
+
+  /** @return the {@link DSLContext}. */
+  DSLContext getDSLContext() { return dslContext; }
+
+  // *******************************************************************************************************************
+  // Writes Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Adds the {@link Action} instances provided to this flush.
+   *
+   * @param actions the {@link Action} instances.
+   */
+  void addAll(final List<? extends Action> actions) {
+    for (Action action : actions)
+      action.contribute(this);
+  }
+
+  /**
+   * Adds a record to merge.
+   *
+   * @param updatableRecord the {@link UpdatableRecord} to merge.
+   * @param afterMerge the callback to run once the record has been merged, or {@code null}.
+   */
+  void merge(final UpdatableRecord<?> updatableRecord, final Runnable afterMerge) {
+    add(false, new PendingWrite(updatableRecord, false, afterMerge));
+  }
+
+  /**
+   * Adds a record to update: only its changed columns are written, and the flush fails if its row does not exist any
+   * longer.
+   *
+   * @param updatableRecord the {@link UpdatableRecord} to update.
+   * @param afterUpdate the callback to run once the record has been updated, or {@code null}.
+   */
+  void update(final UpdatableRecord<?> updatableRecord, final Runnable afterUpdate) {
+    add(false, new PendingWrite(updatableRecord, true, afterUpdate));
+  }
+
+  /**
+   * Adds a record to delete.
+   *
+   * @param updatableRecord the {@link UpdatableRecord} to delete.
+   * @param afterDeletion the callback to run once the record has been deleted, or {@code null}.
+   */
+  void delete(final UpdatableRecord<?> updatableRecord, final Runnable afterDeletion) {
+    add(true, new PendingWrite(updatableRecord, false, afterDeletion));
+  }
+
+  /**
+   * Adds a callback, to run once all the writes added so far have been executed.
+   *
+   * @param callback the callback.
+   */
+  void afterExecution(final Runnable callback) {
+    afterExecution.add(callback);
+  }
+
+  /**
+   * Executes the pending writes, then the {@link Runnable} provided.
+   *
+   * @param write the {@link Runnable} that performs a write which cannot be batched.
+   */
+  void run(final Runnable write) {
+    execute();
+    write.run();
+  }
+
+  /** Executes the pending writes, then the callbacks waiting for them. */
+  void execute() {
+    executePendingWrites();
+
+    final List<Runnable> callbacks = new ArrayList<>(afterExecution);
+    afterExecution.clear();
+    for (Runnable callback : callbacks)
+      callback.run();
+  }
+
+  /** Executes the pending writes. */
+  private void executePendingWrites() {
+    if (pendingWrites.isEmpty()) return;
+
+    final List<Table<?>> tables = new ArrayList<>(pendingWrites.keySet());
+    final Comparator<Table<?>> byDepth = Comparator.comparingInt(Flush::depthOf);
+    tables.sort(pendingDeletions ? byDepth.reversed() : byDepth);
+
+    for (Table<?> table : tables) {
+      final List<PendingWrite> writes = pendingWrites.get(table);
+      final List<UpdatableRecord<?>> records = new ArrayList<>(writes.size());
+      final List<UpdatableRecord<?>> updatedRecords = new ArrayList<>();
+      for (PendingWrite pendingWrite : writes)
+        (pendingWrite.update() ? updatedRecords : records).add(pendingWrite.updatableRecord());
+
+      if (!pendingDeletions) {
+        if (!records.isEmpty()) dslContext.batchMerge(records).execute();
+        if (!updatedRecords.isEmpty()) checkUpdated(table, dslContext.batchUpdate(updatedRecords).execute());
+      } else if (table.getPrimaryKey() != null && table.getPrimaryKey().getFields().size() == 1)
+        deleteByKeys(table.getPrimaryKey().getFields().get(0), records);
+      else dslContext.batchDelete(records).execute();
+
+      for (PendingWrite pendingWrite : writes)
+        if (pendingWrite.afterWrite() != null) pendingWrite.afterWrite().run();
+    }
+
+    pendingWrites.clear();
+  }
+
+  /**
+   * Checks that the updates of the changed columns have all matched a row: an update only writes the columns that
+   * differ from the values loaded, so an update that matches no row would silently lose them.
+   *
+   * @param table the updated {@link Table}.
+   * @param updateCounts the update counts.
+   *
+   * @throws DataChangedException if a row does not exist any longer.
+   */
+  static void checkUpdated(final Table<?> table, final int... updateCounts) {
+    for (int updateCount : updateCounts)
+      if (updateCount == 0)
+        throw new DataChangedException("A row of " + table.getName() + " has been deleted before being updated.");
+  }
+
+  /**
+   * Adds a write. If the pending writes are not of the same kind, they are executed first.
+   *
+   * @param deletion is the write a deletion ({@code true}) or a merge or an update ({@code false}) ?
+   * @param pendingWrite the {@link PendingWrite}.
+   */
+  private void add(final boolean deletion, final PendingWrite pendingWrite) {
+    if (pendingDeletions != deletion) {
+      executePendingWrites();
+      pendingDeletions = deletion;
+    }
+    pendingWrites.computeIfAbsent(pendingWrite.updatableRecord().getTable(), t -> new LinkedList<>())
+                 .add(pendingWrite);
+  }
+
+  /**
+   * Deletes the records provided with a single {@code DELETE ... WHERE key = ANY(?)}, the keys being bound as one
+   * array.
+   *
+   * @param keyField the {@link TableField} of the primary key.
+   * @param records the {@link UpdatableRecord} instances to delete.
+   * @param <T> the type of the primary key.
+   */
+  private <T> void deleteByKeys(final TableField<?, T> keyField, final List<UpdatableRecord<?>> records) {
+    final List<T> keys = new ArrayList<>(records.size());
+    for (UpdatableRecord<?> updatableRecord : records)
+      keys.add(updatableRecord.get(keyField));
+    dslContext.deleteFrom(keyField.getTable())
+              .where(keyField.eq(any(val(keys.toArray(), keyField.getDataType().getArrayDataType()))))
+              .execute();
+  }
+
+  // *******************************************************************************************************************
+  // Foreign Keys Matters
+  // *******************************************************************************************************************
+
+  /**
+   * A {@code Depth} is the depth of a table, as computed while walking the graph of the foreign keys.
+   *
+   * @param value the depth.
+   * @param complete has the depth been computed without cutting a cycle below the table ?
+   */
+  private record Depth(int value, boolean complete) { }
+
+  /**
+   * @param table the {@link Table}.
+   *
+   * @return the depth of the {@link Table} in the graph of the foreign keys.
+   */
+  static int depthOf(final Table<?> table) {
+    final Integer depth = TABLES_DEPTHS.get(table);
+    if (depth != null) return depth;
+    // The walk caches the complete depths it meets, it cannot run within a computeIfAbsent.
+    final int computedDepth = depthOf(table, new HashSet<>()).value();
+    final Integer concurrentDepth = TABLES_DEPTHS.putIfAbsent(table, computedDepth);
+    return concurrentDepth == null ? computedDepth : concurrentDepth;
+  }
+
+  /**
+   * Computes the depth of the {@link Table} in the graph of the foreign keys. A cycle is cut when the walk comes back
+   * to a table being computed: the depths computed below it are then partial, and only the complete depths are
+   * cached.
+   *
+   * @param table the {@link Table}.
+   * @param visiting the tables being computed, to stop on cycles.
+   *
+   * @return the {@link Depth} of the {@link Table}.
+   */
+  private static Depth depthOf(final Table<?> table, final Set<Table<?>> visiting) {
+    final Integer cached = TABLES_DEPTHS.get(table);
+    if (cached != null) return new Depth(cached, true);
+    if (!visiting.add(table)) return new Depth(0, false);
+
+    int depth = 0;
+    boolean complete = true;
+    for (ForeignKey<?, ?> foreignKey : table.getReferences()) {
+      final Table<?> referencedTable = foreignKey.getKey().getTable();
+      if (referencedTable.equals(table)) continue;
+      final Depth referencedDepth = depthOf(referencedTable, visiting);
+      depth = Math.max(depth, referencedDepth.value() + 1);
+      complete &= referencedDepth.complete();
+    }
+    visiting.remove(table);
+
+    if (complete) TABLES_DEPTHS.put(table, depth);
+    return new Depth(depth, complete);
+  }
+
+}
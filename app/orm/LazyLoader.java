@@ -3,8 +3,14 @@ package orm;
 import org.jooq.DSLContext;
 import org.jooq.Function3;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiFunction;
 
 /**
@@ -15,6 +21,11 @@ import java.util.function.BiFunction;
  * <p><strong>Note</strong>: if the key is {@code null}, no fetch will be performed and
  * {@link LazyLoader#getValue(DSLContext)} will always return {@code null}.</p>
  * <p>The fetch of a {@code null} value is handled by an internal state.</p>
+ * <p>When the value is fetched, a snapshot of it is kept in memory. The change detection, performed during the
+ * persistence process, compares the actual value with this snapshot, without any access to the database. Once the
+ * value has been stored, a new snapshot is taken, so that a second persistence does not write it again.</p>
+ * <p>A {@code LazyLoader} can join a {@link LoadingBatch}: in this case, its key is registered in the batch and the
+ * value is resolved, in one query, together with the keys of all the other loaders of the same batch.</p>
  *
  * @param <K> the key.
  * @param <V> the value.
@@ -36,12 +47,21 @@ public abstract class LazyLoader<K, V> {
    * real value or not.
    */
   private V value;
+  /** The internal state that will determine if a snapshot of the fetched value has been taken or not. */
+  private boolean snapshotTaken = false;
+  /**
+   * The snapshot of the value, as it has been fetched. As for {@link LazyLoader#value}, it can be {@code null}, the
+   * internal state, represented by {@link LazyLoader#snapshotTaken}, need to be used to know if it is a real snapshot.
+   */
+  private V snapshot;
   /** The {@link BiFunction} that will perform the data fetch. */
   private final BiFunction<DSLContext, K, V> fetcher;
   /**
    * The function that will produce the corresponding {@link Action} instances, depending on the key and the value.
    */
   private final Function3<DSLContext, K, V, List<Action>> actionsCreator;
+  /** The {@link LoadingBatch} this loader belongs to, or {@code null} if the value is fetched on its own. */
+  private LoadingBatch<K, V> loadingBatch;
 
   // *******************************************************************************************************************
   // Construction & Initialization
@@ -92,9 +112,24 @@ public abstract class LazyLoader<K, V> {
    * @return a {@link List} of {@link Action} instances.
    */
   final List<Action> createActions(final DSLContext dslContext) {
-    if (isFetched() && hasChanged(dslContext))
-      return actionsCreator.apply(dslContext, getKey(), getValue());
-    return Collections.emptyList();
+    if (!hasChanged()) return Collections.emptyList();
+    final List<Action> actions = new ArrayList<>(actionsOf(dslContext, getKey(), getValue()));
+    actions.add(new SnapshotAction(this));
+    return actions;
+  }
+
+  /**
+   * Creates the {@link Action} instances corresponding to the key and the value, once a change has been detected. By
+   * default, the {@code actionsCreator} provided at construction is applied.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param key the key.
+   * @param value the actual value.
+   *
+   * @return a {@link List} of {@link Action} instances.
+   */
+  protected List<Action> actionsOf(final DSLContext dslContext, final K key, final V value) {
+    return actionsCreator.apply(dslContext, key, value);
   }
 
   // *******************************************************************************************************************
@@ -117,13 +152,27 @@ public abstract class LazyLoader<K, V> {
     if (this.key == null || !this.key.equals(key)) {
       this.value = null;
       fetched = false;
+      snapshot = null;
+      snapshotTaken = false;
       this.key = key;
+      if (loadingBatch != null) loadingBatch.register(key);
     }
   }
 
+  /**
+   * Makes this loader join the {@link LoadingBatch} provided. The actual key, if any, is registered in the batch.
+   *
+   * @param loadingBatch the {@link LoadingBatch}, or {@code null} if the value has to be fetched on its own.
+   */
+  final void joinLoadingBatch(final LoadingBatch<K, V> loadingBatch) {
+    this.loadingBatch = loadingBatch;
+    if (loadingBatch != null && !fetched) loadingBatch.register(key);
+  }
+
   /**
    * Retrieves the value. If the data fetch has already been performed, the value is directly returned (acting as a
    * singleton value). Otherwise, the data fetch is performed and the value is returned after it.
+   * <p>If this loader belongs to a {@link LoadingBatch}, the data fetch resolves all the pending keys of the batch.</p>
    *
    * @param dslContext the {@link DSLContext}.
    *
@@ -131,20 +180,21 @@ public abstract class LazyLoader<K, V> {
    */
   public final V getValue(final DSLContext dslContext) {
     if (key == null) return null;
-    if (!fetched) {
-      value = fetcher.apply(dslContext, key);
-      fetched = true;
-    }
+    if (!fetched)
+      setFetchedValue(loadingBatch == null ? fetcher.apply(dslContext, key) : loadingBatch.resolve(dslContext, key));
     return value;
   }
 
   /**
    * Retrieves the value. If the data fetch has already been performed, the value is directly returned (acting as a
    * singleton value). Otherwise, the data fetch is performed and the value is returned after it.
+   * <p>A connection is only acquired if a data fetch is really needed.</p>
    *
    * @return the value.
    */
   public final V getValue() {
+    if (key == null || fetched) return value;
+    if (loadingBatch != null && loadingBatch.isResolved(key)) return getValue(null);
     return persistenceContext.produceInConnection(this::getValue);
   }
 
@@ -160,6 +210,74 @@ public abstract class LazyLoader<K, V> {
     fetched = true;
   }
 
+  /**
+   * Sets the value, as it is stored into the database. A snapshot of the value is taken.
+   * <p>When this method is called, the next call to {@link LazyLoader#getValue(DSLContext)} will return the value
+   * without performing a data fetch.</p>
+   *
+   * @param value the value, as it is stored into the database.
+   */
+  public final void setFetchedValue(final V value) {
+    setValue(value);
+    snapshot = snapshotOf(value);
+    snapshotTaken = true;
+  }
+
+  /**
+   * Sets the value, as it is stored into the database, unless the value has already been fetched or set: a value
+   * modified in memory is never overwritten by the value of the database.
+   *
+   * @param value the value, as it is stored into the database.
+   *
+   * @see FetchPlan
+   */
+  public final void offerFetchedValue(final V value) {
+    if (!fetched) setFetchedValue(value);
+  }
+
+  /**
+   * Creates the snapshot of a fetched value. By default, a {@link List}, a {@link Set} or a {@link Map} is copied, so
+   * that the elements added or removed in place are detected; any other value is its own snapshot. Subclasses handling
+   * other mutable values have to return a copy of them.
+   *
+   * @param fetchedValue the fetched value.
+   *
+   * @return the snapshot of the fetched value.
+   */
+  @SuppressWarnings("unchecked")
+  protected V snapshotOf(final V fetchedValue) {
+    if (fetchedValue instanceof List<?> list) return (V) new ArrayList<>(list);
+    if (fetchedValue instanceof Set<?> set) return (V) new LinkedHashSet<>(set);
+    if (fetchedValue instanceof Map<?, ?> map) return (V) new LinkedHashMap<>(map);
+    return fetchedValue;
+  }
+
+  /**
+   * Takes a new snapshot of the actual value, once it has been stored into the database: the next change detection
+   * compares the value with what has been written, instead of what has been fetched.
+   */
+  final void persisted() {
+    if (!fetched) return;
+    snapshot = snapshotOf(value);
+    snapshotTaken = true;
+  }
+
+  /** @return {@code true} if a snapshot of the fetched value has been taken, otherwise {@code false}. */
+  protected final boolean hasSnapshot() { return snapshotTaken; }
+
+  /**
+   * Compares the actual value with the snapshot of the fetched value. By default, they are compared using
+   * {@link Objects#equals(Object, Object)}.
+   *
+   * @param actualValue the actual value.
+   * @param snapshotValue the snapshot of the fetched value.
+   *
+   * @return {@code true} if the actual value differs from the snapshot, otherwise {@code false}.
+   */
+  protected boolean differs(final V actualValue, final V snapshotValue) {
+    return !Objects.equals(actualValue, snapshotValue);
+  }
+
   /**
    * Fetches the value from the database.
    *
@@ -172,14 +290,53 @@ public abstract class LazyLoader<K, V> {
   }
 
   /**
-   * @param dslContext the {@link DSLContext}.
+   * Detects if the value has changed since it has been fetched. The actual value is compared, using
+   * {@link LazyLoader#differs(Object, Object)}, with the snapshot taken during the fetch. A value that has been set
+   * without being fetched is always considered as changed.
+   * <p><strong>Note</strong>: by default, the modifications performed directly on the value instance are not
+   * detected, unless the value defines {@code equals} on its content.</p>
    *
    * @return {@code false} if the actual value correspond to the fetched value or the value has not been fetched.
    * Otherwise, this method returns {@code true}.
    */
-  public final boolean hasChanged(final DSLContext dslContext) {
+  public final boolean hasChanged() {
     if (!fetched) return false;
-    return !value.equals(fetchValue(dslContext));
+    if (!snapshotTaken) return true;
+    return differs(value, snapshot);
+  }
+
+  // *******************************************************************************************************************
+  // Snapshot Action
+  // *******************************************************************************************************************
+
+  /**
+   * The {@code SnapshotAction} closes the actions of a {@link LazyLoader}: once the writes of these actions have been
+   * executed, a new snapshot of the value is taken.
+   */
+  private static final class SnapshotAction extends Action {
+    /** The {@link LazyLoader} whose value has been written. */
+    private final LazyLoader<?, ?> lazyLoader;
+
+    /**
+     * Creates a new instance of {@link SnapshotAction}.
+     *
+     * @param lazyLoader the {@link LazyLoader} whose value is written.
+     */
+    SnapshotAction(final LazyLoader<?, ?> lazyLoader) {
+      this.lazyLoader = lazyLoader;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void perform(final DSLContext dslContext) {
+      lazyLoader.persisted();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void contribute(final Flush flush) {
+      flush.afterExecution(lazyLoader::persisted);
+    }
   }
 
 }
@@ -0,0 +1,93 @@
+package orm;
+
+import org.jooq.DSLContext;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * A {@code LoadingBatch} groups the keys of all {@link LazyLoader} instances that have been created while mapping the
+ * same result set. The first loader that needs its value resolves the pending keys of all its siblings with a single
+ * query, the other loaders will then pick their value from this batch without any database access.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ *
+ * @see LoadingBatches
+ */
+final class LoadingBatch<K, V> {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link BiFunction} that will fetch all values corresponding to the pending keys. */
+  private final BiFunction<DSLContext, Set<K>, Map<K, V>> batchFetcher;
+  /** The value given to the keys that have not been returned by the {@link LoadingBatch#batchFetcher}. */
+  private final V absentValue;
+  /** The keys that are waiting to be resolved. */
+  private final Set<K> pendingKeys;
+  /** The values, already resolved, by key. */
+  private final Map<K, V> resolvedValues;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link LoadingBatch}.
+   *
+   * @param batchFetcher the {@link BiFunction} that will fetch all values corresponding to the pending keys.
+   * @param absentValue the value given to the keys that have not been returned by the {@code batchFetcher}.
+   */
+  LoadingBatch(final BiFunction<DSLContext, Set<K>, Map<K, V>> batchFetcher, final V absentValue) {
+    this.batchFetcher = batchFetcher;
+    this.absentValue = absentValue;
+    pendingKeys = new LinkedHashSet<>();
+    resolvedValues = new HashMap<>();
+  }
+
+  // *******************************************************************************************************************
+  // Batch Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Registers a key that will be resolved during the next data fetch.
+   *
+   * @param key the key.
+   */
+  synchronized void register(final K key) {
+    if (key != null && !resolvedValues.containsKey(key)) pendingKeys.add(key);
+  }
+
+  /**
+   * @param key the key.
+   *
+   * @return {@code true} if the value corresponding to the key has already been resolved, otherwise {@code false}.
+   */
+  synchronized boolean isResolved(final K key) { return resolvedValues.containsKey(key); }
+
+  /**
+   * Retrieves the value corresponding to the key provided. If the key has not been resolved yet, all pending keys are
+   * resolved using only one query.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param key the key.
+   *
+   * @return the value corresponding to the key.
+   */
+  synchronized V resolve(final DSLContext dslContext, final K key) {
+    if (!resolvedValues.containsKey(key)) {
+      pendingKeys.add(key);
+      final Set<K> keys = new LinkedHashSet<>(pendingKeys);
+      final Map<K, V> values = batchFetcher.apply(dslContext, keys);
+      for (K k : keys)
+        resolvedValues.put(k, values.getOrDefault(k, absentValue));
+      pendingKeys.clear();
+    }
+    return resolvedValues.get(key);
+  }
+
+}
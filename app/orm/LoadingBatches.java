@@ -0,0 +1,83 @@
+package orm;
+
+import org.jooq.DSLContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * {@code LoadingBatches} is the scope, bound to the current thread, in which the {@link LazyLoader} instances created
+ * while mapping a result set are grouped into {@link LoadingBatch} instances.
+ * <p>A scope is opened by the {@link Repository} around the mapping of a result set. Outside of a scope, the
+ * {@link LazyLoader} instances are not grouped and will fetch their value one by one.</p>
+ */
+final class LoadingBatches {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The scope bound to the current thread, or {@code null} if there is none. */
+  private static final ThreadLocal<LoadingBatches> CURRENT_SCOPE = new ThreadLocal<>();
+
+  /** The {@link LoadingBatch} instances of this scope, by batch key. */
+  private final Map<Object, LoadingBatch<?, ?>> batches;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /** Creates a new instance of {@link LoadingBatches}. */
+  private LoadingBatches() {
+    batches = new HashMap<>();
+  }
+
+  // *******************************************************************************************************************
+  // Scope Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Executes the {@link Supplier} provided in a scope. If a scope is already bound to the current thread, it will be
+   * reused.
+   *
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   */
+  static <T> T within(final Supplier<T> supplier) {
+    if (CURRENT_SCOPE.get() != null) return supplier.get();
+    CURRENT_SCOPE.set(new LoadingBatches());
+    try {
+      return supplier.get();
+    } finally {
+      CURRENT_SCOPE.remove();
+    }
+  }
+
+  /**
+   * Retrieves the {@link LoadingBatch} of the current scope, corresponding to the batch key given. If no scope is bound
+   * to the current thread, {@code null} is returned.
+   *
+   * @param batchKey the key identifying the batch. It must be a stable instance, the same instance has to be given by
+   * all the loaders that have to be grouped.
+   * @param batchFetcher the {@link BiFunction} that will fetch all values corresponding to a set of keys.
+   * @param absentValue the value given to the keys that are not returned by the {@code batchFetcher}.
+   * @param <K> the type of the keys.
+   * @param <V> the type of the values.
+   *
+   * @return the {@link LoadingBatch} or {@code null}.
+   */
+  @SuppressWarnings("unchecked")
+  static <K, V> LoadingBatch<K, V> join(final Object batchKey,
+                                        final BiFunction<DSLContext, Set<K>, Map<K, V>> batchFetcher,
+                                        final V absentValue) {
+    final LoadingBatches scope = CURRENT_SCOPE.get();
+    if (scope == null) return null;
+    return (LoadingBatch<K, V>) scope.batches.computeIfAbsent(batchKey,
+                                                              k -> new LoadingBatch<>(batchFetcher, absentValue));
+  }
+
+}
@@ -3,16 +3,160 @@ package orm;
 import org.jooq.DSLContext;
 import org.jooq.Function3;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
+/**
+ * A {@code ManyModelsLoader} is a {@link LazyLoader} handling a collection of models.
+ * <p>The models are keyed by their identity (e.g. their identifier, {@code null} for a new model). When the collection
+ * is fetched, the state of each model is recorded; the change detection compares the actual collection with those
+ * states, so that the modifications performed directly on the models are detected. The actions are then created from
+ * a {@link ModelsDiff}, holding only the models to insert, update or delete.</p>
+ *
+ * @param <K> the key.
+ * @param <M> the specific type of {@link Model}.
+ */
 public final class ManyModelsLoader<K, M extends Model> extends LazyLoader<K, List<M>> {
 
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link Function} returning the identity of a model, or {@code null} if the model is new. */
+  private final Function<? super M, ?> identity;
+  /** The {@link Function} returning the state of a model, compared with {@link Objects#equals(Object, Object)}. */
+  private final Function<? super M, ?> state;
+  /** The function that will produce the {@link Action} instances, depending on the key and the {@link ModelsDiff}. */
+  private final Function3<DSLContext, K, ModelsDiff<M>, List<Action>> diffActionsCreator;
+  /** The snapshots of the fetched models, by identity. */
+  private Map<Object, Snapshot<M>> snapshots = Collections.emptyMap();
+
+  /**
+   * A {@code Snapshot} is a fetched model, with its state at fetch time.
+   *
+   * @param model the model.
+   * @param state the state of the model.
+   * @param <M> the specific type of {@link Model}.
+   */
+  private record Snapshot<M>(M model, Object state) { }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new {@link ManyModelsLoader} instance.
+   *
+   * @param persistenceContext the {@link PersistenceContext}.
+   * @param key the key.
+   * @param fetcher the {@link BiFunction} that will perform the data fetch.
+   * @param identity the {@link Function} returning the identity of a model, or {@code null} if the model is new.
+   * @param state the {@link Function} returning the state of a model. The state must not be modified afterwards by
+   * the model (e.g. a {@link List} of values).
+   * @param diffActionsCreator the {@link Function3} that will return a {@link List} of {@link Action} instances from
+   * the {@link ModelsDiff}, that will be executed during the persistence process.
+   */
   ManyModelsLoader(final PersistenceContext persistenceContext,
                    final K key,
                    final BiFunction<DSLContext, K, List<M>> fetcher,
-                   final Function3<DSLContext, K, List<M>, List<Action>> actionsCreator) {
-    super(persistenceContext, key, fetcher, actionsCreator);
+                   final Function<? super M, ?> identity,
+                   final Function<? super M, ?> state,
+                   final Function3<DSLContext, K, ModelsDiff<M>, List<Action>> diffActionsCreator) {
+    super(persistenceContext, key, fetcher, null);
+    this.identity = identity;
+    this.state = state;
+    this.diffActionsCreator = diffActionsCreator;
+  }
+
+  // *******************************************************************************************************************
+  // LazyLoader Overrides
+  // *******************************************************************************************************************
+
+  /** {@inheritDoc} */
+  @Override
+  protected List<M> snapshotOf(final List<M> fetchedValue) {
+    snapshots = snapshotsOf(fetchedValue);
+    return fetchedValue == null ? null : new ArrayList<>(fetchedValue);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected boolean differs(final List<M> actualValue, final List<M> snapshotValue) {
+    return !diff(actualValue, snapshots).isEmpty();
+  }
+
+  /**
+   * Creates the {@link Action} instances from the {@link ModelsDiff} between the fetched models and the actual ones.
+   * If the value has been set without being fetched, the models stored into the database are fetched to compute the
+   * difference.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param key the key.
+   * @param value the actual value.
+   *
+   * @return a {@link List} of {@link Action} instances.
+   */
+  @Override
+  protected List<Action> actionsOf(final DSLContext dslContext, final K key, final List<M> value) {
+    final Map<Object, Snapshot<M>> base = hasSnapshot() ? snapshots : snapshotsOf(fetchValue(dslContext));
+    return diffActionsCreator.apply(dslContext, key, diff(value, base));
+  }
+
+  // *******************************************************************************************************************
+  // Difference Matters
+  // *******************************************************************************************************************
+
+  /** @return the {@link ModelsDiff} between the fetched models and the actual value. */
+  public ModelsDiff<M> diff() {
+    return diff(getValue(), snapshots);
+  }
+
+  /**
+   * @param models the models, or {@code null}.
+   *
+   * @return the snapshots of the models, by identity.
+   */
+  private Map<Object, Snapshot<M>> snapshotsOf(final List<M> models) {
+    if (models == null) return Collections.emptyMap();
+    final Map<Object, Snapshot<M>> modelsSnapshots = new LinkedHashMap<>();
+    for (M model : models) {
+      final Object modelIdentity = identity.apply(model);
+      if (modelIdentity != null) modelsSnapshots.put(modelIdentity, new Snapshot<>(model, state.apply(model)));
+    }
+    return modelsSnapshots;
+  }
+
+  /**
+   * Computes the difference between the snapshots and the actual models. The models are matched by identity: a model
+   * without a matching snapshot is inserted, a matched model whose state differs is updated, and a snapshot without a
+   * matching model is deleted.
+   *
+   * @param models the actual models, or {@code null}.
+   * @param base the snapshots, by identity.
+   *
+   * @return the {@link ModelsDiff}.
+   */
+  private ModelsDiff<M> diff(final List<M> models, final Map<Object, Snapshot<M>> base) {
+    final List<M> inserted = new ArrayList<>();
+    final List<M> updated = new ArrayList<>();
+    final Map<Object, Snapshot<M>> remaining = new LinkedHashMap<>(base);
+    if (models != null) {
+      for (M model : models) {
+        final Object modelIdentity = identity.apply(model);
+        final Snapshot<M> snapshot = modelIdentity == null ? null : remaining.remove(modelIdentity);
+        if (snapshot == null) inserted.add(model);
+        else if (!Objects.equals(state.apply(model), snapshot.state())) updated.add(model);
+      }
+    }
+    final List<M> deleted = new ArrayList<>(remaining.size());
+    for (Snapshot<M> snapshot : remaining.values())
+      deleted.add(snapshot.model());
+    return new ModelsDiff<>(inserted, updated, deleted);
   }
 
 }
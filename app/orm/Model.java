@@ -1,8 +1,25 @@
 package orm;
 
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.TableRecord;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
 /** {@code Entity} is the base class for every entity handled by the ORM. */
 public abstract class Model {
 
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /**
+   * The values of the records of this model, as they are stored into the database, by table. It is {@code null} until
+   * a record has been fetched or stored.
+   */
+  private Map<Table<?>, Object[]> storedValues;
+
   // *******************************************************************************************************************
   // Construction & Initialization
   // *******************************************************************************************************************
@@ -10,4 +27,42 @@ public abstract class Model {
   /** Creates a new instance of {@link Model}. */
   protected Model() { /* No-op */ }
 
+  // *******************************************************************************************************************
+  // Changes Tracking
+  // *******************************************************************************************************************
+
+  /**
+   * Records the original values of the {@link TableRecord} provided, i.e. the values read from or written into the
+   * database, whatever has been changed in the record since.
+   *
+   * @param tableRecord the {@link TableRecord} that has been fetched from the database or stored into it.
+   */
+  final void stored(final TableRecord<?> tableRecord) {
+    if (storedValues == null) storedValues = new HashMap<>(2);
+    storedValues.put(tableRecord.getTable(), tableRecord.original().intoArray());
+  }
+
+  /**
+   * @param table the {@link Table}.
+   *
+   * @return the values of the record of the {@link Table}, as they are stored into the database, in the order of the
+   * fields of the table, or {@code null} if they are unknown.
+   */
+  final Object[] storedValuesOf(final Table<?> table) {
+    return storedValues == null ? null : storedValues.get(table);
+  }
+
+  /**
+   * @param field the {@link TableField} of a record of this model.
+   * @param value the current value of the field in this model.
+   *
+   * @return {@code true} if the value differs from the one stored into the database, or if the stored one is unknown,
+   * otherwise {@code false}.
+   */
+  protected final boolean hasChanged(final TableField<?, ?> field, final Object value) {
+    final Object[] stored = storedValuesOf(field.getTable());
+    final int index = field.getTable().indexOf(field);
+    return stored == null || index < 0 || !Objects.equals(stored[index], value);
+  }
+
 }
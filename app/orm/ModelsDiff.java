@@ -0,0 +1,28 @@
+package orm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code ModelsDiff} is the difference between a collection of models, as it has been fetched, and its actual
+ * content, computed by a {@link ManyModelsLoader}: only the models that really have to be written are kept.
+ *
+ * @param inserted the models that were not fetched, and have to be inserted.
+ * @param updated the fetched models whose state has been modified, and have to be updated.
+ * @param deleted the fetched models that have been removed, and have to be deleted.
+ * @param <M> the specific type of {@link Model}.
+ */
+public record ModelsDiff<M extends Model>(List<M> inserted, List<M> updated, List<M> deleted) {
+
+  /** @return {@code true} if there is nothing to write, otherwise {@code false}. */
+  public boolean isEmpty() { return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty(); }
+
+  /** @return the models to insert, followed by the models to update. */
+  public List<M> merged() {
+    final List<M> merged = new ArrayList<>(inserted.size() + updated.size());
+    merged.addAll(inserted);
+    merged.addAll(updated);
+    return merged;
+  }
+
+}
@@ -0,0 +1,164 @@
+package orm;
+
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Param;
+import org.jooq.Record;
+import org.jooq.Record1;
+import org.jooq.ResultQuery;
+import org.jooq.SQLDialect;
+import org.jooq.Select;
+import org.jooq.Table;
+import org.jooq.TableRecord;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@code NamedQuery} is a query built once, whose SQL is rendered once per {@link SQLDialect}, and then only re-bound
+ * with the values of its parameters. The hot queries of the repositories skip the construction of the query tree and
+ * its rendering, and always send the same SQL, so that the prepared statements cached by the driver are reused.
+ * <p>The parameters of the query are declared with {@link DSL#param(String, Class)}, and are bound in the order of
+ * their first occurrence in the query. A named query is immutable, and is intended to be declared once, as a constant
+ * of the repository:</p>
+ * <pre><code>
+ *   private static final NamedQuery&lt;FooRecord&gt; FOO_BY_NAME =
+ *       NamedQuery.selectFrom("foo.byName", FOO, FOO.NAME.eq(DSL.param("name", String.class)));
+ * </code></pre>
+ *
+ * @param <R> the specific type of {@link Record} returned by the query.
+ */
+public final class NamedQuery<R extends Record> {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The name of the query. */
+  private final String name;
+  /** The query, never attached nor modified. */
+  private final Select<?> query;
+  /** The parameters of the query, in the order of their binding. */
+  private final List<Param<?>> parameters;
+  /** The {@link Function} typing the records returned by the rendered query. */
+  private final Function<ResultQuery<Record>, ResultQuery<R>> coercion;
+  /** The last rendering of the query, or {@code null} if it has not been rendered yet. */
+  private volatile Rendering rendering;
+
+  /**
+   * A {@code Rendering} is the SQL of the query, rendered for a {@link SQLDialect}.
+   *
+   * @param dialect the {@link SQLDialect}.
+   * @param sql the SQL.
+   */
+  private record Rendering(SQLDialect dialect, String sql) { }
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link NamedQuery}.
+   *
+   * @param name the name of the query.
+   * @param query the query.
+   * @param coercion the {@link Function} typing the records returned by the rendered query.
+   *
+   * @throws IllegalArgumentException if a value of the query is bound without being a named parameter.
+   */
+  private NamedQuery(final String name,
+                     final Select<?> query,
+                     final Function<ResultQuery<Record>, ResultQuery<R>> coercion) {
+    this.name = name;
+    this.query = query;
+    this.coercion = coercion;
+
+    final List<Param<?>> queryParameters = new ArrayList<>();
+    for (Param<?> param : query.getParams().values()) {
+      if (param.isInline()) continue;
+      if (param.getParamName() == null)
+        throw new IllegalArgumentException("The values of the named query " + name + " must be named parameters.");
+      queryParameters.add(param);
+    }
+    if (queryParameters.size() != query.getBindValues().size())
+      throw new IllegalArgumentException("Each parameter of the named query " + name + " must occur only once.");
+    parameters = Collections.unmodifiableList(queryParameters);
+  }
+
+  /**
+   * Creates a {@link NamedQuery} selecting the rows of the {@link Table} matching the {@link Condition}.
+   *
+   * @param name the name of the query.
+   * @param table the {@link Table}.
+   * @param condition the {@link Condition}, declaring its parameters with {@link DSL#param(String, Class)}.
+   * @param <R> the specific type of {@link TableRecord}.
+   *
+   * @return the {@link NamedQuery}.
+   */
+  public static <R extends TableRecord<R>> NamedQuery<R> selectFrom(final String name,
+                                                                    final Table<R> table,
+                                                                    final Condition condition) {
+    return new NamedQuery<>(name, DSL.selectFrom(table).where(condition), result -> result.coerce(table));
+  }
+
+  /**
+   * Creates a {@link NamedQuery} checking if the sub-query provided exports at least one record.
+   *
+   * @param name the name of the query.
+   * @param subQuery the sub-query, declaring its parameters with {@link DSL#param(String, Class)}.
+   *
+   * @return the {@link NamedQuery}.
+   */
+  public static NamedQuery<Record1<Boolean>> exists(final String name, final Select<?> subQuery) {
+    final Field<Boolean> exists = DSL.field(DSL.exists(subQuery));
+    return new NamedQuery<>(name, DSL.select(exists), result -> result.coerce(exists));
+  }
+
+  // *******************************************************************************************************************
+  // Getters & Setters
+  // *******************************************************************************************************************
+
+  /** @return the name of the query. */
+  public String getName() { return name; }
+
+  // *******************************************************************************************************************
+  // Execution Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Binds the values provided to the parameters of the query, without rebuilding nor re-rendering it.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param values the values of the parameters, in the order of their first occurrence in the query.
+   *
+   * @return the {@link ResultQuery}, ready to be fetched.
+   *
+   * @throws IllegalArgumentException if the number of values does not match the number of parameters.
+   */
+  public ResultQuery<R> bind(final DSLContext dslContext, final Object... values) {
+    if (values.length != parameters.size())
+      throw new IllegalArgumentException("The named query " + name + " expects " + parameters.size() + " values.");
+    final Object[] bindings = new Object[values.length];
+    for (int i = 0; i < values.length; i++)
+      bindings[i] = DSL.val(values[i], parameters.get(i).getDataType());
+    return coercion.apply(dslContext.resultQuery(sqlOf(dslContext), bindings));
+  }
+
+  /**
+   * @param dslContext the {@link DSLContext}.
+   *
+   * @return the SQL of the query, rendered for the dialect of the {@link DSLContext}. It is only rendered once per
+   * dialect.
+   */
+  private String sqlOf(final DSLContext dslContext) {
+    final Rendering current = rendering;
+    if (current != null && current.dialect() == dslContext.dialect()) return current.sql();
+    final String sql = dslContext.render(query);
+    rendering = new Rendering(dslContext.dialect(), sql);
+    return sql;
+  }
+
+}
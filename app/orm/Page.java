@@ -0,0 +1,114 @@
+package orm;
+
+import org.jooq.Field;
+import org.jooq.exception.DataTypeException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * A {@code Page} is a slice of the instances of a {@link Model}, fetched by keyset pagination: the slice starts right
+ * after the last key of the previous page, so that all pages cost the same, whatever their depth.
+ * <p>The position of the next page is carried by an opaque continuation token, to give back to the {@link Repository}
+ * to fetch the next page. The token of the first page is {@code null}.</p>
+ *
+ * @param <M> the specific type of {@link Model}.
+ */
+public final class Page<M extends Model> {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The separator of the values of the keys, within a token. */
+  private static final String SEPARATOR = ".";
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link List} of the instances of {@link M} of this page. */
+  private final List<M> items;
+  /** The continuation token of the next page, or {@code null} if this page is the last one. */
+  private final String nextToken;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link Page}.
+   *
+   * @param items the {@link List} of the instances of {@link M} of this page.
+   * @param nextToken the continuation token of the next page, or {@code null} if this page is the last one.
+   */
+  Page(final List<M> items, final String nextToken) {
+    this.items = Collections.unmodifiableList(items);
+    this.nextToken = nextToken;
+  }
+
+  // *******************************************************************************************************************
+  // Getters & Setters
+  // *******************************************************************************************************************
+
+  /** @return the {@link List} of the instances of {@link M} of this page. */
+  public List<M> getItems() { return items; }
+
+  /** @return the continuation token of the next page, or {@code null} if this page is the last one. */
+  public String getNextToken() { return nextToken; }
+
+  /** @return {@code true} if there is a page after this one, otherwise {@code false}. */
+  public boolean hasNext() { return nextToken != null; }
+
+  // *******************************************************************************************************************
+  // Tokens Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Encodes the values of the keys of the last instance of a page into a continuation token.
+   *
+   * @param values the values of the keys.
+   *
+   * @return the continuation token.
+   */
+  static String encode(final Object... values) {
+    final StringJoiner token = new StringJoiner(SEPARATOR);
+    for (Object value : values)
+      token.add(Base64.getUrlEncoder()
+                      .withoutPadding()
+                      .encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8)));
+    return token.toString();
+  }
+
+  /**
+   * Decodes a continuation token into the values of the keys provided.
+   *
+   * @param token the continuation token, or {@code null} for the first page.
+   * @param keyFields the {@link Field} instances of the keys, used to convert the values.
+   *
+   * @return the values of the keys, or {@code null} if the token is {@code null}.
+   *
+   * @throws IllegalArgumentException if the token is not a valid continuation token for those keys.
+   */
+  static Object[] decode(final String token, final Field<?>... keyFields) {
+    if (token == null) return null;
+    final String[] parts = token.split("\\" + SEPARATOR, -1);
+    if (parts.length != keyFields.length)
+      throw new IllegalArgumentException("Invalid continuation token: " + token);
+
+    final Object[] values = new Object[keyFields.length];
+    try {
+      for (int i = 0; i < parts.length; i++) {
+        values[i] = keyFields[i].getDataType()
+                                .convert(new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8));
+        // jOOQ converts the values it cannot parse to null, and the keys of a page are never null
+        if (values[i] == null) throw new IllegalArgumentException("Invalid continuation token: " + token);
+      }
+    } catch (IllegalArgumentException | DataTypeException e) {
+      throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+    }
+    return values;
+  }
+
+}
@@ -65,4 +65,11 @@ public final class PersistAction1<M extends Model,
       getRepository().persist(dslContext, persistableModel);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  void contribute(final Flush flush) {
+    for (P persistableModel : persistableModels)
+      getRepository().persist(flush, persistableModel);
+  }
+
 }
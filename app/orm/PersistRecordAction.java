@@ -19,4 +19,14 @@ public final class PersistRecordAction<R extends UpdatableRecord<R>> extends Act
     updatableRecord.merge();
   }
 
+  /**
+   * Adds the record to the merges of the {@link Flush}.
+   *
+   * @param flush the {@link Flush}.
+   */
+  @Override
+  void contribute(final Flush flush) {
+    flush.merge(updatableRecord, null);
+  }
+
 }
@@ -1,17 +1,48 @@
 package orm;
 
+import io.r2dbc.spi.ConnectionFactory;
+import org.jooq.ConnectionProvider;
 import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.RowCountQuery;
 import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.reactivestreams.Publisher;
+import orm.caches.EntitiesCache;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * {@code PersistenceContext} provides the helper methods to query, persist, delete and migrate data. The connections,
  * transactions and pools are handled by the implementation.
+ * <p>The reads performed outside a transaction may be routed by the implementation to other databases than the writes
+ * (e.g. read replicas): see {@link PersistenceContext#acquireReadConnection(Object)}. The operations can be bound to a
+ * session, so that the implementation routes the reads of a session that has just written to the primary database.</p>
+ * <p>The queries can also be executed reactively, through {@link Publisher} instances. When the implementation
+ * provides an R2DBC {@link ConnectionFactory}, they are executed without blocking any thread; otherwise, they are
+ * executed over JDBC on the {@link Executor} of the context. Within a connection scope, they are executed at once in
+ * the scope, like the other operations.</p>
  */
 public abstract class PersistenceContext {
 
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The connection scope bound to the current thread, or {@code null} if there is none. */
+  private final ThreadLocal<ConnectionScope> currentScope = new ThreadLocal<>();
+
   // *******************************************************************************************************************
   // Abstract Methods for the DSL Context configuration
   // *******************************************************************************************************************
@@ -33,31 +64,549 @@ public abstract class PersistenceContext {
   // Abstract methods, relative to connections and transactions
   // *******************************************************************************************************************
 
+  /** @return a new connection, in auto-commit mode. The caller is responsible for closing it. */
+  protected abstract Connection acquireConnection();
+
   /**
-   * Provides a {@link Consumer} to execute queries in a transaction.
+   * Provides a {@link Consumer} to execute queries in a new transaction, on its own connection.
    *
    * @param usingTransaction the {@link Consumer} that will provide a {@link DSLContext}.
    */
-  protected abstract void consumeInTransaction(Consumer<DSLContext> usingTransaction);
+  protected abstract void consumeInNewTransaction(Consumer<DSLContext> usingTransaction);
+
+  /**
+   * Provides a {@link Function} to execute queries in a new transaction, on its own connection. Those queries return a
+   * result of type {@link T}.
+   *
+   * @param usingTransaction the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return an instance of {@link T}.
+   */
+  protected abstract <T> T produceInNewTransaction(Function<DSLContext, T> usingTransaction);
+
+  /**
+   * Provides a {@link Function} to execute queries in a new connection. Those queries return a result of type
+   * {@link T}.
+   *
+   * @param usingConnection the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return an instance of {@link T}.
+   */
+  protected abstract <T> T produceInNewConnection(Function<DSLContext, T> usingConnection);
+
+  /**
+   * @return the {@link Executor} running the asynchronous operations. It should be bounded to the number of connections
+   * of the pool.
+   */
+  protected abstract Executor getExecutor();
+
+  // *******************************************************************************************************************
+  // Methods relative to the routing of the reads
+  // *******************************************************************************************************************
+
+  /**
+   * Acquires a connection for reads, performed outside a transaction, when the reads are routed away from the primary
+   * database. By default, the reads are not routed, and {@code null} is returned.
+   * <p>When {@code null} is returned, a connection scope performs its reads on its write connection, so that a scope
+   * reading then writing never holds two connections of the primary database at once.</p>
+   *
+   * @param sessionKey the key of the session reading, or {@code null}.
+   *
+   * @return a new connection, in auto-commit mode, or {@code null} if the reads must be performed on the primary
+   * database. The caller is responsible for closing it.
+   */
+  protected Connection acquireReadConnection(final Object sessionKey) { return null; }
+
+  /**
+   * Provides a {@link Function} to execute reads in a new connection. By default, the function is executed with
+   * {@link PersistenceContext#produceInNewConnection(Function)}.
+   *
+   * @param sessionKey the key of the session reading, or {@code null}.
+   * @param usingConnection the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return an instance of {@link T}.
+   */
+  protected <T> T produceInNewReadConnection(final Object sessionKey, final Function<DSLContext, T> usingConnection) {
+    return produceInNewConnection(usingConnection);
+  }
+
+  /**
+   * Notifies that a session has just committed a transaction. By default, nothing is done.
+   *
+   * @param sessionKey the key of the session, or {@code null}.
+   */
+  protected void written(final Object sessionKey) { /* No-op */ }
+
+  // *******************************************************************************************************************
+  // Connections and Transactions
+  // *******************************************************************************************************************
+
+  /**
+   * Provides a {@link Consumer} to execute queries in a transaction. Within a connection scope, the transaction runs on
+   * the connection of the scope, nested in the ongoing transaction if there is one.
+   *
+   * @param usingTransaction the {@link Consumer} that will provide a {@link DSLContext}.
+   */
+  protected final void consumeInTransaction(final Consumer<DSLContext> usingTransaction) {
+    final ConnectionScope scope = currentScope.get();
+    if (scope == null) consumeInNewTransaction(usingTransaction);
+    else scope.getDSLContext().transaction(configuration -> usingTransaction.accept(configuration.dsl()));
+    written(scope == null ? null : scope.getSessionKey());
+  }
 
   /**
    * Provides a {@link Function} to execute queries in a transaction. Those queries return a result of type {@link T}.
+   * Within a connection scope, the transaction runs on the connection of the scope, nested in the ongoing transaction
+   * if there is one.
    *
    * @param usingTransaction the {@link Function} that will provide a {@link DSLContext}.
    * @param <T> the return type of the {@link Function}.
    *
    * @return an instance of {@link T}.
    */
-  protected abstract <T> T produceInTransaction(Function<DSLContext, T> usingTransaction);
+  protected final <T> T produceInTransaction(final Function<DSLContext, T> usingTransaction) {
+    final ConnectionScope scope = currentScope.get();
+    final T result = scope == null
+                     ? produceInNewTransaction(usingTransaction)
+                     : scope.getDSLContext().transactionResult(
+                         configuration -> usingTransaction.apply(configuration.dsl()));
+    written(scope == null ? null : scope.getSessionKey());
+    return result;
+  }
 
   /**
    * Provides a {@link Function} to execute queries in a connection. Those queries return a result of type {@link T}.
+   * Within a connection scope, the read connection of the scope is used. The queries must not write anything, as they
+   * may be routed to a read replica.
    *
    * @param usingConnection the {@link Function} that will provide a {@link DSLContext}.
    * @param <T> the return type of the {@link Function}.
    *
    * @return an instance of {@link T}.
    */
-  protected abstract <T> T produceInConnection(Function<DSLContext, T> usingConnection);
+  protected final <T> T produceInConnection(final Function<DSLContext, T> usingConnection) {
+    final ConnectionScope scope = currentScope.get();
+    return scope == null
+           ? produceInNewReadConnection(null, usingConnection)
+           : usingConnection.apply(scope.getReadDSLContext());
+  }
+
+  // *******************************************************************************************************************
+  // Connection Scopes
+  // *******************************************************************************************************************
+
+  /**
+   * Executes the {@link Supplier} provided in a connection scope: all the operations of this context performed by the
+   * {@link Supplier} share the same connection, acquired by the first of them and released at the end of the scope.
+   * If a scope is already bound to the current thread, it will be reused.
+   *
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   *
+   * @throws IllegalStateException if the scope bound to the current thread is read-only.
+   */
+  public final <T> T withinConnectionScope(final Supplier<T> supplier) {
+    return withinConnectionScope(false, sessionKey(), supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided in a connection scope bound to a session: the reads of the session are
+   * routed to the primary database for a while after it has written. If a scope is already bound to the current
+   * thread, it will be reused.
+   *
+   * @param sessionKey the key of the session, e.g. the identifier of the signed-in user, or {@code null}.
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   *
+   * @throws IllegalStateException if the scope bound to the current thread is read-only.
+   * @see PersistenceContext#withinConnectionScope(Supplier)
+   */
+  public final <T> T withinConnectionScope(final Object sessionKey, final Supplier<T> supplier) {
+    return withinConnectionScope(false, sessionKey, supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided in a read-only connection scope: all the operations of this context
+   * performed by the {@link Supplier} share the same connection and the same read-only transaction. If a scope is
+   * already bound to the current thread, it will be reused.
+   *
+   * @param supplier the {@link Supplier} to execute, that must not write anything.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   */
+  public final <T> T withinReadOnlyConnectionScope(final Supplier<T> supplier) {
+    return withinConnectionScope(true, sessionKey(), supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided in a connection scope reading from the primary database: all the operations
+   * of this context performed by the {@link Supplier} share the write connection, whatever the routing of the reads.
+   * It is meant to read what another thread has just written, e.g. to refresh a state held in memory. If a scope is
+   * already bound to the current thread, it will be reused.
+   *
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   *
+   * @throws IllegalStateException if the scope bound to the current thread is read-only.
+   */
+  public final <T> T withinPrimaryConnectionScope(final Supplier<T> supplier) {
+    return withinConnectionScope(false, null, () -> null, supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided in a connection scope.
+   *
+   * @param readOnly is the scope read-only ?
+   * @param sessionKey the key of the session, or {@code null}.
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   */
+  private <T> T withinConnectionScope(final boolean readOnly, final Object sessionKey, final Supplier<T> supplier) {
+    return withinConnectionScope(readOnly, sessionKey, () -> acquireReadConnection(sessionKey), supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided in a connection scope, acquiring its read connection with the
+   * {@link Supplier} provided.
+   *
+   * @param readOnly is the scope read-only ?
+   * @param sessionKey the key of the session, or {@code null}.
+   * @param readConnectionSupplier the {@link Supplier} acquiring the read connection, or returning {@code null} to
+   * read on the write connection.
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   */
+  private <T> T withinConnectionScope(final boolean readOnly,
+                                      final Object sessionKey,
+                                      final Supplier<Connection> readConnectionSupplier,
+                                      final Supplier<T> supplier) {
+    final ConnectionScope existingScope = currentScope.get();
+    if (existingScope != null) {
+      if (existingScope.isReadOnly() && !readOnly)
+        throw new IllegalStateException("A writable connection scope cannot be nested in a read-only one.");
+      return supplier.get();
+    }
+
+    try (ConnectionScope scope = new ConnectionScope(this::acquireConnection,
+                                                     readConnectionSupplier,
+                                                     getDialect(),
+                                                     readOnly,
+                                                     sessionKey)) {
+      currentScope.set(scope);
+      return supplier.get();
+    } finally {
+      currentScope.remove();
+    }
+  }
+
+  /** @return the key of the session of the scope bound to the current thread, or {@code null}. */
+  private Object sessionKey() {
+    final ConnectionScope scope = currentScope.get();
+    return scope == null ? null : scope.getSessionKey();
+  }
+
+  // *******************************************************************************************************************
+  // Asynchronous Operations
+  // *******************************************************************************************************************
+
+  /**
+   * Executes the {@link Supplier} provided on the {@link Executor} of this context, in its own unit of work and its own
+   * connection scope. This method is the way to move blocking database operations away from the threads serving the
+   * requests.
+   *
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   *
+   * @see EntitiesCache#within(Supplier)
+   * @see PersistenceContext#withinConnectionScope(Supplier)
+   */
+  public final <T> CompletionStage<T> supplyAsync(final Supplier<T> supplier) {
+    return supplyAsync(sessionKey(), supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided on the {@link Executor} of this context, in its own unit of work and its own
+   * connection scope, bound to the session provided. The callers running outside the scope of the request, e.g. in a
+   * continuation of a {@link CompletionStage}, must use this method with the session key captured by the request, as
+   * no scope is bound to their thread.
+   *
+   * @param sessionKey the key of the session, e.g. the identifier of the signed-in user, or {@code null}.
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   *
+   * @see PersistenceContext#withinConnectionScope(Object, Supplier)
+   */
+  public final <T> CompletionStage<T> supplyAsync(final Object sessionKey, final Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(
+        () -> EntitiesCache.within(() -> withinConnectionScope(false, sessionKey, supplier)), getExecutor());
+  }
+
+  /**
+   * Executes the {@link Supplier} provided on the {@link Executor} of this context, in its own unit of work and its own
+   * read-only connection scope.
+   *
+   * @param supplier the {@link Supplier} to execute, that must not write anything.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   *
+   * @see PersistenceContext#withinReadOnlyConnectionScope(Supplier)
+   */
+  public final <T> CompletionStage<T> supplyReadOnlyAsync(final Supplier<T> supplier) {
+    return supplyReadOnlyAsync(sessionKey(), supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided on the {@link Executor} of this context, in its own unit of work and its own
+   * read-only connection scope, bound to the session provided.
+   *
+   * @param sessionKey the key of the session, e.g. the identifier of the signed-in user, or {@code null}.
+   * @param supplier the {@link Supplier} to execute, that must not write anything.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   *
+   * @see PersistenceContext#supplyAsync(Object, Supplier)
+   */
+  public final <T> CompletionStage<T> supplyReadOnlyAsync(final Object sessionKey, final Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(
+        () -> EntitiesCache.within(() -> withinConnectionScope(true, sessionKey, supplier)), getExecutor());
+  }
+
+  /**
+   * Asynchronous counterpart of {@link PersistenceContext#consumeInTransaction(Consumer)}.
+   *
+   * @param usingTransaction the {@link Consumer} that will provide a {@link DSLContext}.
+   *
+   * @return a {@link CompletionStage} completed once the transaction has been committed.
+   */
+  protected final CompletionStage<Void> consumeInTransactionAsync(final Consumer<DSLContext> usingTransaction) {
+    return supplyAsync(() -> {
+      consumeInTransaction(usingTransaction);
+      return null;
+    });
+  }
+
+  /**
+   * Asynchronous counterpart of {@link PersistenceContext#produceInTransaction(Function)}.
+   *
+   * @param usingTransaction the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return a {@link CompletionStage} completed with the instance of {@link T}.
+   */
+  protected final <T> CompletionStage<T> produceInTransactionAsync(final Function<DSLContext, T> usingTransaction) {
+    return supplyAsync(() -> produceInTransaction(usingTransaction));
+  }
+
+  /**
+   * Asynchronous counterpart of {@link PersistenceContext#produceInConnection(Function)}.
+   *
+   * @param usingConnection the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return a {@link CompletionStage} completed with the instance of {@link T}.
+   */
+  protected final <T> CompletionStage<T> produceInConnectionAsync(final Function<DSLContext, T> usingConnection) {
+    return supplyAsync(() -> produceInConnection(usingConnection));
+  }
+
+  // *******************************************************************************************************************
+  // Reactive Operations
+  // *******************************************************************************************************************
+
+  /**
+   * The implementation may override this method to execute the reactive operations over R2DBC.
+   *
+   * @return the R2DBC {@link ConnectionFactory}, or {@code null} if the reactive operations are executed over JDBC, on
+   * the {@link Executor} of this context.
+   */
+  protected ConnectionFactory getConnectionFactory() { return null; }
+
+  /** @return {@code true} if the reactive operations are executed over R2DBC, otherwise {@code false}. */
+  public final boolean isReactive() { return getConnectionFactory() != null; }
+
+  /**
+   * @param sessionKey the key of the session, or {@code null}.
+   * @param read is the {@link DSLContext} only reading ?
+   *
+   * @return the {@link DSLContext} executing the reactive operations. Over JDBC, each query acquires its own
+   * connection, routed like the reads of the session if it only reads, and is executed on the {@link Executor} of this
+   * context. Over R2DBC, the queries are executed on the primary database.
+   */
+  private DSLContext getReactiveDSLContext(final Object sessionKey, final boolean read) {
+    final ConnectionFactory connectionFactory = getConnectionFactory();
+    if (connectionFactory != null) return DSL.using(connectionFactory, getDialect());
+    return DSL.using(new DefaultConfiguration().set(getDialect())
+                                               .set(new JdbcConnectionProvider(sessionKey, read))
+                                               .set(getExecutor()));
+  }
+
+  /**
+   * Completes a {@link CompletionStage} with the value produced by the {@link Supplier} provided, or with its failure.
+   *
+   * @param supplier the {@link Supplier}.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the completed {@link CompletionStage}.
+   */
+  private static <T> CompletionStage<T> completed(final Supplier<T> supplier) {
+    try {
+      return CompletableFuture.completedFuture(supplier.get());
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Executes reactively the statement provided, in its own transaction, then notifies that the session of the scope
+   * bound to the current thread has written.
+   * <p>Within a connection scope, the statement is executed at once, in a transaction on the connection of the scope,
+   * like {@link PersistenceContext#produceInTransaction(Function)}.</p>
+   *
+   * @param statement the {@link Function} building the statement with the {@link DSLContext} provided.
+   *
+   * @return a {@link CompletionStage} completed with the number of rows affected.
+   */
+  protected final CompletionStage<Integer> executeReactive(final Function<DSLContext, RowCountQuery> statement) {
+    if (currentScope.get() != null)
+      return completed(() -> produceInTransaction(dslContext -> statement.apply(dslContext).execute()));
+
+    final Object sessionKey = sessionKey();
+    return Publishers.single(statement.apply(getReactiveDSLContext(sessionKey, false))).thenApply(rows -> {
+      written(sessionKey);
+      return rows.orElse(0);
+    });
+  }
+
+  /**
+   * Collects the records of the query provided, without blocking the calling thread.
+   *
+   * @param query the {@link Function} building the query with the {@link DSLContext} provided.
+   * @param <R> the specific type of {@link Record}.
+   *
+   * @return a {@link CompletionStage} completed with the {@link List} of the records.
+   *
+   * @see PersistenceContext#fetchReactive(Object, Function)
+   */
+  protected final <R extends Record> CompletionStage<List<R>> fetchReactive(
+      final Function<DSLContext, ResultQuery<R>> query) {
+    return fetchReactive(sessionKey(), query);
+  }
+
+  /**
+   * Collects the records of the query provided, read on behalf of the session provided, without blocking the calling
+   * thread. The callers running outside the scope of the request must provide the session key captured by the
+   * request, so that the reads of a session that has just written are routed to the primary database.
+   * <p>Within a connection scope, the query is executed at once, on the read connection of the scope, like
+   * {@link PersistenceContext#produceInConnection(Function)}.</p>
+   *
+   * @param sessionKey the key of the session, or {@code null}.
+   * @param query the {@link Function} building the query with the {@link DSLContext} provided.
+   * @param <R> the specific type of {@link Record}.
+   *
+   * @return a {@link CompletionStage} completed with the {@link List} of the records.
+   */
+  protected final <R extends Record> CompletionStage<List<R>> fetchReactive(
+      final Object sessionKey, final Function<DSLContext, ResultQuery<R>> query) {
+    if (currentScope.get() != null)
+      return completed(() -> produceInConnection(dslContext -> query.apply(dslContext).fetch()));
+    return Publishers.collect(query.apply(getReactiveDSLContext(sessionKey, true)));
+  }
+
+  /**
+   * Fetches the only one record of the query provided, without blocking the calling thread.
+   *
+   * @param query the {@link Function} building the query with the {@link DSLContext} provided.
+   * @param <R> the specific type of {@link Record}.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the record, or an empty one if the
+   * query has no row.
+   *
+   * @see PersistenceContext#fetchOptionalReactive(Object, Function)
+   */
+  protected final <R extends Record> CompletionStage<Optional<R>> fetchOptionalReactive(
+      final Function<DSLContext, ResultQuery<R>> query) {
+    return fetchOptionalReactive(sessionKey(), query);
+  }
+
+  /**
+   * Fetches the only one record of the query provided, read on behalf of the session provided, without blocking the
+   * calling thread.
+   *
+   * @param sessionKey the key of the session, or {@code null}.
+   * @param query the {@link Function} building the query with the {@link DSLContext} provided.
+   * @param <R> the specific type of {@link Record}.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the record, or an empty one if the
+   * query has no row.
+   *
+   * @see PersistenceContext#fetchReactive(Object, Function)
+   */
+  protected final <R extends Record> CompletionStage<Optional<R>> fetchOptionalReactive(
+      final Object sessionKey, final Function<DSLContext, ResultQuery<R>> query) {
+    if (currentScope.get() != null)
+      return completed(() -> produceInConnection(dslContext -> query.apply(dslContext).fetchOptional()));
+    return Publishers.single(query.apply(getReactiveDSLContext(sessionKey, true)));
+  }
+
+  /**
+   * {@code JdbcConnectionProvider} provides the JDBC connections to the reactive operations, when this context does not
+   * provide an R2DBC {@link ConnectionFactory}.
+   */
+  private final class JdbcConnectionProvider implements ConnectionProvider {
+
+    /** The key of the session, or {@code null}. */
+    private final Object sessionKey;
+    /** Are the connections only reading ? */
+    private final boolean read;
+
+    /**
+     * Creates a new instance of {@link JdbcConnectionProvider}.
+     *
+     * @param sessionKey the key of the session, or {@code null}.
+     * @param read are the connections only reading ?
+     */
+    JdbcConnectionProvider(final Object sessionKey, final boolean read) {
+      this.sessionKey = sessionKey;
+      this.read = read;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Connection acquire() {
+      final Connection readConnection = read ? acquireReadConnection(sessionKey) : null;
+      return readConnection == null ? acquireConnection() : readConnection;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void release(final Connection connection) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        throw new DataAccessException("Unable to release the connection", e);
+      }
+    }
+
+  }
 
 }
@@ -0,0 +1,77 @@
+package orm;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@code Publishers} bridges the {@link Publisher} instances returned by the reactive queries to the
+ * {@link CompletionStage} instances used by the controllers, without depending on any reactive library.
+ */
+final class Publishers {
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /** Hidden constructor of the utility class. */
+  private Publishers() { }
+
+  // *******************************************************************************************************************
+  // Conversion Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Subscribes to the {@link Publisher} provided, and collects all its elements.
+   *
+   * @param publisher the {@link Publisher}.
+   * @param <T> the type of the elements.
+   *
+   * @return a {@link CompletionStage} completed with the {@link List} of the elements, once the {@link Publisher} has
+   * completed.
+   */
+  static <T> CompletionStage<List<T>> collect(final Publisher<? extends T> publisher) {
+    final CompletableFuture<List<T>> future = new CompletableFuture<>();
+    publisher.subscribe(new Subscriber<T>() {
+      /** The elements received so far, the signals of a {@link Publisher} being serialized. */
+      private final List<T> elements = new ArrayList<>();
+
+      @Override
+      public void onSubscribe(final Subscription subscription) { subscription.request(Long.MAX_VALUE); }
+
+      @Override
+      public void onNext(final T element) { elements.add(element); }
+
+      @Override
+      public void onError(final Throwable throwable) { future.completeExceptionally(throwable); }
+
+      @Override
+      public void onComplete() { future.complete(elements); }
+    });
+    return future;
+  }
+
+  /**
+   * Subscribes to the {@link Publisher} provided, and returns its only element.
+   *
+   * @param publisher the {@link Publisher}, publishing at most one element.
+   * @param <T> the type of the element.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the element, or an empty one if
+   * the {@link Publisher} has not published anything. The stage fails with an {@link IllegalStateException} if more
+   * than one element has been published.
+   */
+  static <T> CompletionStage<Optional<T>> single(final Publisher<? extends T> publisher) {
+    return Publishers.<T>collect(publisher).thenApply(elements -> {
+      if (elements.size() > 1) throw new IllegalStateException("The publisher has published more than one element.");
+      return elements.stream().findFirst();
+    });
+  }
+
+}
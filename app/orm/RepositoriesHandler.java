@@ -4,8 +4,6 @@ import com.google.inject.Injector;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * {@code RepositoryHandler} acts as a dictionary of {@link Repository} instances. {@code RepositoryHandler} is also the
@@ -31,11 +29,13 @@ public final class RepositoriesHandler {
    * The unique instance of {@link RepositoriesHandler}. Even if set as {@link Singleton}, this will ensure that only
    * one instance exists.
    */
-  private static RepositoriesHandler uniqueInstance = null;
+  private static final RepositoriesHandler UNIQUE_INSTANCE = new RepositoriesHandler();
 
   /**
    * Retrieves the {@link Repository} instance, of specific type {@link R}. If no repository corresponding to the type
    * given has been found in this handler, it will be injected into the dictionary and returned to the caller.
+   * <p>This method is called each time a model is constructed, so it does not take any lock once the repository has
+   * been injected.</p>
    *
    * @param repositoryType the specific type of {@link Repository} to retrieve.
    * @param <R> the specific type of {@link Repository}.
@@ -46,10 +46,7 @@ public final class RepositoriesHandler {
    * argument.
    */
   public static <R extends Repository<?>> R of(final Class<R> repositoryType) {
-    if (uniqueInstance == null) {
-      uniqueInstance = new RepositoriesHandler();
-    }
-    return uniqueInstance.injectAndReturn(repositoryType);
+    return UNIQUE_INSTANCE.injectAndReturn(repositoryType);
   }
 
   // *******************************************************************************************************************
@@ -58,8 +55,11 @@ public final class RepositoriesHandler {
   /** The {@link Injector} to create instances of {@link Repository}. */
   @Inject
   private static Injector injector;
-  /** The dictionary of repositories. */
-  private final Map<Class<? extends Repository<?>>, Repository<?>> repositories;
+  /**
+   * The dictionary of repositories. A {@link ClassValue} is bound to the type of the repository itself, so that the
+   * lookups are lock-free and resolved once per type.
+   */
+  private final ClassValue<Repository<?>> repositories;
 
   // *******************************************************************************************************************
   // Construction & Initialization
@@ -70,7 +70,12 @@ public final class RepositoriesHandler {
    * outside the single instance.
    */
   private RepositoriesHandler() {
-    repositories = new HashMap<>();
+    repositories = new ClassValue<>() {
+      @Override
+      protected Repository<?> computeValue(final Class<?> repositoryType) {
+        return inject(repositoryType);
+      }
+    };
   }
 
   // *******************************************************************************************************************
@@ -83,10 +88,8 @@ public final class RepositoriesHandler {
       "PersistenceContext argument";
 
   /**
-   * Retrieves the {@link Repository} instance, of specific type {@link R}, that is linked with the
-   * {@link PersistenceContext} given.
-   * <p>If the {@link PersistenceContext} is met for the first time, a new entry will be created in the dictionary.</p>
-   * <p>If no {@link Repository} instance exists, a new instance will be created.</p>
+   * Retrieves the {@link Repository} instance, of specific type {@link R}.
+   * <p>If no {@link Repository} instance exists, a new instance will be injected.</p>
    *
    * @param repositoryType the specific type of {@link Repository} to retrieve.
    * @param <R> the specific type of {@link Repository}.
@@ -96,19 +99,27 @@ public final class RepositoriesHandler {
    * @throws RepositoryException if {@link R} does not provide a constructor that take a {@link PersistenceContext}
    * argument.
    */
-  @SuppressWarnings("unchecked")
   private <R extends Repository<?>> R injectAndReturn(final Class<R> repositoryType) {
+    return repositoryType.cast(repositories.get(repositoryType));
+  }
+
+  /**
+   * Injects a new instance of the repository type provided. If two threads inject the same type at once, only one of
+   * the instances is kept by {@link RepositoriesHandler#repositories}.
+   *
+   * @param repositoryType the specific type of {@link Repository} to inject.
+   *
+   * @return the new {@link Repository} instance.
+   *
+   * @throws RepositoryException if the type cannot be injected.
+   */
+  private static Repository<?> inject(final Class<?> repositoryType) {
     if (injector == null) throw new RepositoryException(String.format(INSTANTIATION_ERROR, Injector.class.getName()));
-    synchronized (repositories) {
-      try {
-        repositories.computeIfAbsent(repositoryType, injector::getInstance);
-        /* Return the existing repository, if it exists. */
-        if (repositories.containsKey(repositoryType)) return (R) repositories.get(repositoryType);
-      } catch (Exception e) {
-        throw new RepositoryException(String.format(INSTANTIATION_ERROR, repositoryType.getName()), e);
-      }
+    try {
+      return (Repository<?>) injector.getInstance(repositoryType);
+    } catch (Exception e) {
+      throw new RepositoryException(String.format(INSTANTIATION_ERROR, repositoryType.getName()), e);
     }
-    throw new RepositoryException(String.format(INSTANTIATION_ERROR, repositoryType.getName()));
   }
 
 }
@@ -2,15 +2,35 @@ package orm;
 
 import org.jooq.Record;
 import org.jooq.*;
+import org.jooq.impl.SQLDataType;
 import org.jooq.lambda.function.Consumer0;
 import org.jooq.lambda.tuple.Tuple2;
+import orm.caches.EntitiesCache;
+import orm.caches.RecordsCache;
 import orm.models.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.castNull;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.param;
 
 /**
  * The {@code Repository} class is the base class for all repositories. In the GORM architecture, a repository is the
@@ -28,11 +48,38 @@ import java.util.function.Function;
  */
 public abstract class Repository<M extends Model> {
 
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The prefix of the aliases of the derived tables and of the columns composing a {@code UNION ALL}. */
+  private static final String UNION_ALL_ALIAS = "union_";
+  /** The name of the column holding the index of the query that produced a row of a {@code UNION ALL}. */
+  private static final String UNION_ALL_DISCRIMINATOR = "union_discriminator";
+  /** The name of the column holding the key shared by the queries of a paged {@code UNION ALL}. */
+  private static final String UNION_ALL_KEY = "union_key";
+
+  /** The {@link NamedQuery} instances fetching a row by its identifier, by identifier field. */
+  private static final Map<TableField<?, ?>, NamedQuery<?>> BY_ID_QUERIES = new ConcurrentHashMap<>();
+  /** The {@link NamedQuery} instances fetching rows by their identifiers, by identifier field. */
+  private static final Map<TableField<?, ?>, NamedQuery<?>> BY_IDS_QUERIES = new ConcurrentHashMap<>();
+
+  /** The ways of storing the record of a model. */
+  private enum StoreMode {
+    /** The row may not exist, or its stored values are unknown: the record is merged. */
+    MERGE,
+    /** The row exists and some columns have changed: only those are updated. */
+    UPDATE,
+    /** The row exists and nothing has changed: nothing is written. */
+    NONE
+  }
+
   // *******************************************************************************************************************
   // Attributes
   // *******************************************************************************************************************
   /** The {@link PersistenceContext} instance. */
   private final PersistenceContext persistenceContext;
+  /** The second-level cache of the records of the main table, or {@code null} if it has not been enabled. */
+  private RecordsCache recordsCache;
 
   // *******************************************************************************************************************
   // Construction & Initialization
@@ -47,6 +94,18 @@ public abstract class Repository<M extends Model> {
     this.persistenceContext = persistenceContext;
   }
 
+  /**
+   * Enables the second-level cache of the records of the main table of this repository. Once enabled, the lookups by
+   * primary key ({@code fetchById} and {@code fetchByIds}) go through the cache, and each record written by this
+   * repository is invalidated.
+   * <p>This method is intended to be called by the constructor of the repository.</p>
+   *
+   * @param recordsCache the {@link RecordsCache}.
+   */
+  protected final void enableRecordsCache(final RecordsCache recordsCache) {
+    this.recordsCache = recordsCache;
+  }
+
   // *******************************************************************************************************************
   // Queries Helper Methods
   // *******************************************************************************************************************
@@ -66,7 +125,7 @@ public abstract class Repository<M extends Model> {
       final F factory, final Function<DSLContext, ResultQuery<R>> query) {
     return persistenceContext.produceInConnection(dslContext -> {
       ResultQuery<R> resultQuery = query.apply(dslContext);
-      return resultQuery.fetch(factory::map);
+      return LoadingBatches.within(() -> resultQuery.fetch(identityMapped(factory)));
     });
   }
 
@@ -87,7 +146,7 @@ public abstract class Repository<M extends Model> {
       final DSLContext dslContext,
       final Function<DSLContext, ResultQuery<R>> query) {
     ResultQuery<R> resultQuery = query.apply(dslContext);
-    return resultQuery.fetch(factory::map);
+    return LoadingBatches.within(() -> resultQuery.fetch(identityMapped(factory)));
   }
 
   /**
@@ -101,36 +160,868 @@ public abstract class Repository<M extends Model> {
    * @return a {@link List} of {@link M} instances.
    */
   protected final <R extends Record, F extends Mapper<R, M>> List<M> fetch(
-      final Function<DSLContext, Tuple2<F, ResultQuery<R>>> query) {
+      final Function<DSLContext, Tuple2<F, ? extends ResultQuery<R>>> query) {
     return persistenceContext.produceInConnection(dslContext -> {
-      final Tuple2<F, ResultQuery<R>> result = query.apply(dslContext);
-      return result.v2.fetch(result.v1::map);
+      final Tuple2<F, ? extends ResultQuery<R>> result = query.apply(dslContext);
+      return LoadingBatches.within(() -> result.v2.fetch(identityMapped(result.v1)));
     });
   }
 
   /**
-   * Fetches all the queries provided and returns a {@link List}, containing all instances.
+   * Fetches the instances of type {@link M} corresponding to the identifiers given and returns them as a {@link Map},
+   * indexed by identifier. The instances already materialised in the current unit of work, or whose records are held
+   * by the second-level cache, are not fetched again.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param dslContext the {@link DSLContext}.
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param ids the identifiers.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return a {@link Map} of {@link M} instances.
+   *
+   * @see EntitiesCache
+   */
+  protected final <K, R extends TableRecord<R>, F extends Mapper<R, M>> Map<K, M> fetchByIds(
+      final F factory,
+      final DSLContext dslContext,
+      final TableField<R, K> idField,
+      final Set<K> ids) {
+    final Map<K, M> models = new HashMap<>();
+    final List<K> idsToFetch = new LinkedList<>();
+    for (K id : ids) {
+      final M cached = findInCaches(factory, idField, id);
+      if (cached == null) idsToFetch.add(id);
+      else models.put(id, cached);
+    }
+    if (!idsToFetch.isEmpty()) {
+      final Result<R> records = byIds(idField).bind(dslContext, (Object) idsToFetch.toArray()).fetch();
+      LoadingBatches.within(() -> {
+        records.forEach(r -> models.put(r.get(idField), mapAndCache(factory, idField, r)));
+        return models;
+      });
+    }
+    return models;
+  }
+
+  /**
+   * Fetches the instance of type {@link M} corresponding to the identifier given. If the instance has already been
+   * materialised in the current unit of work, or if its record is held by the second-level cache, it is returned
+   * without any access to the database.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param id the identifier.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return the instance of type {@link M}, or {@code null} if the identifier does not correspond to any row.
+   *
+   * @see EntitiesCache
+   */
+  protected final <K, R extends TableRecord<R>, F extends Mapper<R, M>> M fetchById(
+      final F factory, final TableField<R, K> idField, final K id) {
+    if (id == null) return null;
+    final M cached = findInCaches(factory, idField, id);
+    if (cached != null) return cached;
+    return persistenceContext.produceInConnection(dslContext -> fetchAndCache(factory, dslContext, idField, id));
+  }
+
+  /**
+   * Fetches the instance of type {@link M} corresponding to the identifier given. If the instance has already been
+   * materialised in the current unit of work, or if its record is held by the second-level cache, it is returned
+   * without any access to the database.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param dslContext the {@link DSLContext}.
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param id the identifier.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return the instance of type {@link M}, or {@code null} if the identifier does not correspond to any row.
+   *
+   * @see EntitiesCache
+   */
+  protected final <K, R extends TableRecord<R>, F extends Mapper<R, M>> M fetchById(
+      final F factory, final DSLContext dslContext, final TableField<R, K> idField, final K id) {
+    if (id == null) return null;
+    final M cached = findInCaches(factory, idField, id);
+    if (cached != null) return cached;
+    return fetchAndCache(factory, dslContext, idField, id);
+  }
+
+  /**
+   * Fetches the instance of type {@link M} corresponding to the identifier given from the database, once it has been
+   * looked for into the caches, and stores its record into the second-level cache.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param dslContext the {@link DSLContext}.
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param id the identifier.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   *
+   * @return the instance of type {@link M}, or {@code null} if the identifier does not correspond to any row.
+   */
+  private <K, R extends TableRecord<R>> M fetchAndCache(final Mapper<R, M> factory,
+                                                        final DSLContext dslContext,
+                                                        final TableField<R, K> idField,
+                                                        final K id) {
+    final R r = byId(idField).bind(dslContext, id).fetchOne();
+    if (r == null) return null;
+    return LoadingBatches.within(() -> mapAndCache(factory, idField, r));
+  }
+
+  /**
+   * Looks for the instance of type {@link M} corresponding to the identifier given into the {@link EntitiesCache} of
+   * the current unit of work, then into the second-level cache.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param id the identifier.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   *
+   * @return the instance of type {@link M}, or {@code null} if it is not cached.
+   */
+  private <K, R extends TableRecord<R>> M findInCaches(final Mapper<R, M> factory,
+                                                       final TableField<R, K> idField,
+                                                       final K id) {
+    final M model = EntitiesCache.find(idField.getTable(), id);
+    if (model != null || recordsCache == null || !recordsCache.covers(idField.getTable())) return model;
+    final R r = recordsCache.get(id);
+    // The cached record may be stale: the model does not track its values, and is merged as a whole when persisted.
+    return r == null ? null : EntitiesCache.map(r, factory);
+  }
+
+  /**
+   * Stores the record provided into the second-level cache, if enabled, and maps it.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param r the record fetched.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   *
+   * @return the instance of type {@link M}.
+   */
+  private <K, R extends TableRecord<R>> M mapAndCache(final Mapper<R, M> factory,
+                                                      final TableField<R, K> idField,
+                                                      final R r) {
+    if (recordsCache != null && recordsCache.covers(idField.getTable())) {
+      r.detach();
+      recordsCache.put(r.get(idField), r);
+    }
+    return EntitiesCache.map(r, tracking(factory));
+  }
+
+  /**
+   * Fetches all the queries provided in a single {@code UNION ALL} and returns a {@link List}, containing all
+   * instances.
+   * <p>As the queries may have different columns, each of them is wrapped in a derived table and widened to the columns
+   * of all the queries: the columns of the other queries are filled with {@code NULL}. A discriminator column holds
+   * the index of the query that produced the row, so that the row is narrowed back to the columns of its query and
+   * given to the corresponding {@link Mapper}.</p>
+   * <p>The columns of each query must have distinct names.</p>
    *
    * @param queries the queries that will be executed into the database.
    *
    * @return a {@link List} of {@link M} instances.
    */
   @SafeVarargs
-  @SuppressWarnings({"varargs", "unchecked"})
+  @SuppressWarnings("varargs")
   protected final List<M> unionAll(
       final Function<DSLContext,
           Tuple2<? extends Mapper<? extends Record, ? extends M>,
-              ? extends ResultQuery<? extends Record>>>... queries) {
-    return persistenceContext.produceInTransaction(dslContext -> {
-      final List<M> models = new LinkedList<>();
+              ? extends Select<? extends Record>>>... queries) {
+    return unionAll(FetchPlan.empty(), Arrays.asList(queries));
+  }
+
+  /**
+   * Fetches all the queries provided, together with the associations declared by the {@link FetchPlan}, in a single
+   * {@code UNION ALL} and returns a {@link List}, containing all instances.
+   * <p>The fields of the associations are appended to the fields selected by each query, inside its derived table, so
+   * that they are correlated to the tables of the query. They are the last columns of the widened row, shared by all
+   * the queries, and are given to the lazy loaders of the models.</p>
+   * <p>The columns of each query must have distinct names.</p>
+   *
+   * @param fetchPlan the {@link FetchPlan}.
+   * @param queries the queries that will be executed into the database.
+   *
+   * @return a {@link List} of {@link M} instances.
+   */
+  @SafeVarargs
+  @SuppressWarnings("varargs")
+  protected final List<M> unionAll(
+      final FetchPlan<? super M> fetchPlan,
+      final Function<DSLContext,
+          Tuple2<? extends Mapper<? extends Record, ? extends M>,
+              ? extends SelectFinalStep<? extends Record>>>... queries) {
+    final List<Function<DSLContext, Tuple2<? extends Mapper<? extends Record, ? extends M>,
+        ? extends Select<? extends Record>>>> planned = new ArrayList<>(queries.length);
+    for (var query : queries)
+      planned.add(dslContext -> {
+        final var result = query.apply(dslContext);
+        result.v2.getQuery().addSelect(fetchPlan.getFields());
+        return result;
+      });
+    return unionAll(fetchPlan, planned);
+  }
+
+  /**
+   * Fetches all the queries provided in a single {@code UNION ALL}, the fields of the {@link FetchPlan} being the last
+   * fields selected by each query.
+   *
+   * @param fetchPlan the {@link FetchPlan}.
+   * @param queries the queries that will be executed into the database.
+   *
+   * @return a {@link List} of {@link M} instances.
+   */
+  private List<M> unionAll(
+      final FetchPlan<? super M> fetchPlan,
+      final List<? extends Function<DSLContext,
+          ? extends Tuple2<? extends Mapper<? extends Record, ? extends M>,
+              ? extends Select<? extends Record>>>> queries) {
+    return persistenceContext.produceInConnection(dslContext -> {
+      final Union<M> union = Union.of(dslContext, fetchPlan, queries, null);
+      if (union == null) return new ArrayList<>();
 
+      final Result<Record> result = dslContext.fetch(union.select());
+      return LoadingBatches.within(() -> {
+        final List<M> models = new ArrayList<>(result.size());
+        for (Record r : result)
+          models.add(union.map(dslContext, fetchPlan, r));
+        return models;
+      });
+    });
+  }
+
+  /**
+   * A {@code Union} is the {@code UNION ALL} of queries widened to the columns of all of them, see
+   * {@link Repository#unionAll(Function[])}.
+   * <p>The widened row holds the discriminator, then the key shared by the queries if there is one, then the columns
+   * of each query, and finally the associations of the fetch plan.</p>
+   *
+   * @param select the {@code UNION ALL}.
+   * @param mappers the {@link Mapper} of each query.
+   * @param selects the queries.
+   * @param offsets the offset of the columns of each query within the widened row.
+   * @param widths the number of columns of each query, without the associations of the fetch plan.
+   * @param <M> the specific type of {@link Model}.
+   */
+  private record Union<M extends Model>(Select<Record> select,
+                                        List<Mapper<Record, M>> mappers,
+                                        List<Select<Record>> selects,
+                                        int[] offsets,
+                                        int[] widths) {
+
+    /**
+     * Widens the queries provided and combines them in a {@code UNION ALL}.
+     *
+     * @param dslContext the {@link DSLContext}.
+     * @param fetchPlan the {@link FetchPlan}, whose fields are the last fields selected by each query.
+     * @param queries the queries.
+     * @param keyField the {@link Field} of the key shared by the queries, selected by each of them in the column
+     * {@link Repository#UNION_ALL_KEY}, or {@code null}.
+     * @param <M> the specific type of {@link Model}.
+     *
+     * @return the {@link Union}, or {@code null} if there is no query.
+     */
+    @SuppressWarnings("unchecked")
+    static <M extends Model> Union<M> of(
+        final DSLContext dslContext,
+        final FetchPlan<? super M> fetchPlan,
+        final List<? extends Function<DSLContext,
+            ? extends Tuple2<? extends Mapper<? extends Record, ? extends M>,
+                ? extends Select<? extends Record>>>> queries,
+        final Field<?> keyField) {
+      final List<Mapper<Record, M>> mappers = new ArrayList<>(queries.size());
+      final List<Select<Record>> selects = new ArrayList<>(queries.size());
       for (var query : queries) {
+        final Tuple2<Mapper<Record, M>, Select<Record>> result =
+            (Tuple2<Mapper<Record, M>, Select<Record>>) query.apply(dslContext);
+        mappers.add(result.v1);
+        selects.add(result.v2);
+      }
+
+      // The offset of the columns of each query within the widened row, after the discriminator and the key.
+      final List<Field<?>> planFields = fetchPlan.getFields();
+      final int[] offsets = new int[selects.size()];
+      final int[] widths = new int[selects.size()];
+      int width = keyField == null ? 1 : 2;
+      for (int i = 0; i < selects.size(); i++) {
+        offsets[i] = width;
+        widths[i] = selects.get(i).getSelect().size() - planFields.size();
+        width += widths[i];
+      }
+
+      Select<Record> union = null;
+      for (int i = 0; i < selects.size(); i++) {
+        final Table<Record> derivedTable = selects.get(i).asTable(UNION_ALL_ALIAS + i);
+        final List<SelectField<?>> columns = new ArrayList<>(width + planFields.size());
+        columns.add(inline(i).as(UNION_ALL_DISCRIMINATOR));
+        if (keyField != null) columns.add(derivedTable.field(keyField).as(UNION_ALL_KEY));
+        for (int j = 0; j < selects.size(); j++) {
+          final List<Field<?>> fields = selects.get(j).getSelect();
+          for (int k = 0; k < widths[j]; k++)
+            columns.add((i == j ? derivedTable.field(k) : typedNull(dslContext.dialect(), fields.get(k).getDataType()))
+                            .as(UNION_ALL_ALIAS + j + "_" + k));
+        }
+        for (int m = 0; m < planFields.size(); m++)
+          columns.add(derivedTable.field(widths[i] + m).as(planFields.get(m).getName()));
+        final Select<Record> branch = dslContext.select(columns).from(derivedTable);
+        union = union == null ? branch : union.unionAll(branch);
+      }
+      return union == null ? null : new Union<>(union, mappers, selects, offsets, widths);
+    }
+
+    /**
+     * Narrows a widened row back to the columns of its query, and gives it to the {@link Mapper} of the query.
+     *
+     * @param dslContext the {@link DSLContext}.
+     * @param fetchPlan the {@link FetchPlan}.
+     * @param r the widened row.
+     *
+     * @return the model.
+     */
+    M map(final DSLContext dslContext, final FetchPlan<? super M> fetchPlan, final Record r) {
+      final int i = r.get(0, Integer.class);
+      final Record narrowed =
+          dslContext.newRecord(selects.get(i).getSelect().subList(0, widths[i]).toArray(new Field<?>[0]));
+      narrowed.fromArray(Arrays.copyOfRange(r.intoArray(), offsets[i], offsets[i] + widths[i]));
+      narrowed.changed(false);
+      return loaded(EntitiesCache.map(narrowed, tracking(mappers.get(i))), fetchPlan, r);
+    }
+
+  }
+
+  /**
+   * Creates the {@code NULL} filling a column of another query, in a branch of a {@code UNION ALL}. The {@code NULL} is
+   * cast to the SQL type of the column, so that the database does not have to infer it in each branch, while the
+   * field keeps the data type of the column, and thus its converter, to read the values back.
+   * <p>A multiset is emulated by a JSON document, and an untyped column, e.g. a {@code NULL} placeholder, is resolved
+   * as text by the database: their {@code NULL} is cast accordingly.</p>
+   *
+   * @param dialect the {@link SQLDialect} of the query.
+   * @param type the {@link DataType} of the column.
+   * @param <T> the type of the column.
+   *
+   * @return the {@code NULL} field.
+   */
+  private static <T> Field<T> typedNull(final SQLDialect dialect, final DataType<T> type) {
+    final DataType<?> sqlType;
+    if (type.isMultiset())
+      sqlType = dialect.family() == SQLDialect.POSTGRES ? SQLDataType.JSONB : SQLDataType.JSON;
+    else if (type.isOther())
+      sqlType = SQLDataType.VARCHAR;
+    else
+      sqlType = type.getSQLDataType();
+    return castNull(sqlType).coerce(type);
+  }
+
+  // *******************************************************************************************************************
+  // Fetch Plans Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Fetches the rows of the {@link Table} matching the {@link Condition}, together with the associations declared by
+   * the {@link FetchPlan}, in a single query. The fetched associations are given to the lazy loaders of the models.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param table the main {@link Table}.
+   * @param condition the {@link Condition} filtering the rows of the main table.
+   * @param fetchPlan the {@link FetchPlan}.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return a {@link List} of {@link M} instances.
+   */
+  protected final <R extends TableRecord<R>, F extends Mapper<R, M>> List<M> fetch(
+      final F factory, final Table<R> table, final Condition condition, final FetchPlan<? super M> fetchPlan) {
+    return persistenceContext.produceInConnection(dslContext -> {
+      final Result<Record> rows = dslContext.select(table.fields())
+                                            .select(fetchPlan.getFields())
+                                            .from(table)
+                                            .where(condition)
+                                            .fetch();
+      return LoadingBatches.within(() -> {
+        final List<M> models = new ArrayList<>(rows.size());
+        for (Record row : rows)
+          models.add(loaded(EntitiesCache.map(row.into(table), tracking(factory)), fetchPlan, row));
+        return models;
+      });
+    });
+  }
+
+  /**
+   * Fetches the query provided, together with the associations declared by the {@link FetchPlan}, in a single query:
+   * the fields of the associations are appended to the fields selected by the query. Each row is narrowed back to the
+   * fields of the query, by position, before being given to the {@link Mapper}.
+   *
+   * @param query the query that will be executed into the database, with its {@link Mapper}.
+   * @param fetchPlan the {@link FetchPlan}.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return a {@link List} of {@link M} instances.
+   */
+  @SuppressWarnings("unchecked")
+  protected final <R extends Record, F extends Mapper<R, M>> List<M> fetch(
+      final Function<DSLContext, Tuple2<F, ? extends SelectFinalStep<R>>> query,
+      final FetchPlan<? super M> fetchPlan) {
+    return persistenceContext.produceInConnection(dslContext -> {
+      final Tuple2<F, ? extends SelectFinalStep<R>> result = query.apply(dslContext);
+      final SelectQuery<R> selectQuery = result.v2.getQuery();
+      final Field<?>[] fields = selectQuery.getSelect().toArray(new Field<?>[0]);
+      selectQuery.addSelect(fetchPlan.getFields());
+      final Result<R> rows = selectQuery.fetch();
+      return LoadingBatches.within(() -> {
+        final List<M> models = new ArrayList<>(rows.size());
+        for (R row : rows) {
+          final Record narrowed = dslContext.newRecord(fields);
+          narrowed.fromArray(Arrays.copyOf(row.intoArray(), fields.length));
+          narrowed.changed(false);
+          models.add(loaded(EntitiesCache.map((R) narrowed, tracking(result.v1)), fetchPlan, row));
+        }
+        return models;
+      });
+    });
+  }
+
+  /**
+   * Gives the associations of the {@link FetchPlan}, read from the row provided, to the model.
+   *
+   * @param model the model, or {@code null}.
+   * @param fetchPlan the {@link FetchPlan}.
+   * @param row the {@link Record} fetched.
+   * @param <T> the specific type of {@link Model}.
+   *
+   * @return the model.
+   */
+  private static <T extends Model> T loaded(final T model, final FetchPlan<? super T> fetchPlan, final Record row) {
+    if (model != null) fetchPlan.load(model, row);
+    return model;
+  }
+
+  // *******************************************************************************************************************
+  // Named Queries Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Fetches the only one record of the {@link NamedQuery} and returns it as an {@link Optional}.
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param query the {@link NamedQuery}.
+   * @param values the values of the parameters of the query.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return the instance of type {@link M}, or an empty {@link Optional} if the query has no row.
+   *
+   * @throws org.jooq.exception.TooManyRowsException if the query returned more than one record.
+   */
+  protected final <R extends Record, F extends Mapper<R, M>> Optional<M> fetchOptional(
+      final F factory, final NamedQuery<R> query, final Object... values) {
+    return persistenceContext.produceInConnection(
+        dslContext -> query.bind(dslContext, values).fetchOptional(identityMapped(factory)));
+  }
+
+  /**
+   * Executes a {@link NamedQuery} created by {@link NamedQuery#exists(String, Select)}.
+   *
+   * @param query the {@link NamedQuery}.
+   * @param values the values of the parameters of the query.
+   *
+   * @return {@code true} if the sub-query exports at least one record, otherwise {@code false}.
+   */
+  protected final boolean exists(final NamedQuery<Record1<Boolean>> query, final Object... values) {
+    return persistenceContext.produceInConnection(dslContext -> exists(dslContext, query, values));
+  }
+
+  /**
+   * Executes a {@link NamedQuery} created by {@link NamedQuery#exists(String, Select)}.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param query the {@link NamedQuery}.
+   * @param values the values of the parameters of the query.
+   *
+   * @return {@code true} if the sub-query exports at least one record, otherwise {@code false}.
+   */
+  protected final boolean exists(final DSLContext dslContext,
+                                 final NamedQuery<Record1<Boolean>> query,
+                                 final Object... values) {
+    return Boolean.TRUE.equals(query.bind(dslContext, values).fetchSingle().value1());
+  }
+
+  /**
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   *
+   * @return the {@link NamedQuery} fetching the row of the identifier given as its only parameter.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, R extends TableRecord<R>> NamedQuery<R> byId(final TableField<R, K> idField) {
+    return (NamedQuery<R>) BY_ID_QUERIES.computeIfAbsent(
+        idField, f -> NamedQuery.selectFrom(idField.getTable().getName() + ".byId",
+                                            idField.getTable(),
+                                            idField.eq(param("id", idField.getDataType()))));
+  }
+
+  /**
+   * @param idField the {@link TableField} representing the primary key of the table.
+   * @param <K> the type of the identifier.
+   * @param <R> the specific implementation, extending {@link TableRecord}.
+   *
+   * @return the {@link NamedQuery} fetching the rows of the array of identifiers given as its only parameter.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, R extends TableRecord<R>> NamedQuery<R> byIds(final TableField<R, K> idField) {
+    return (NamedQuery<R>) BY_IDS_QUERIES.computeIfAbsent(
+        idField, f -> NamedQuery.selectFrom(idField.getTable().getName() + ".byIds",
+                                            idField.getTable(),
+                                            idField.eq(any(param("ids",
+                                                                 idField.getDataType().getArrayDataType())))));
+  }
+
+  // *******************************************************************************************************************
+  // Projections Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Fetches a projection of the query provided: each row is mapped into a plain value, e.g. an immutable record built
+   * from a narrow set of columns. Unlike the models, the projections are neither cached nor wired with lazy loaders,
+   * hence they are suited to the hot read paths that do not need the whole model.
+   *
+   * @param mapper the {@link RecordMapper} creating the projections, e.g. {@code Records.mapping(Foo::new)}.
+   * @param query the query that will be executed into the database.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the type of the projection.
+   *
+   * @return a {@link List} of projections.
+   */
+  protected final <R extends Record, T> List<T> project(final RecordMapper<? super R, T> mapper,
+                                                        final Function<DSLContext, ResultQuery<R>> query) {
+    return persistenceContext.produceInConnection(dslContext -> query.apply(dslContext).fetch(mapper));
+  }
+
+  /**
+   * Fetches the projection of the only one record of the query and returns it as an {@link Optional}.
+   *
+   * @param mapper the {@link RecordMapper} creating the projection, e.g. {@code Records.mapping(Foo::new)}.
+   * @param query the query that will be executed into the database.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the type of the projection.
+   *
+   * @return an {@link Optional} containing the projection, or an empty one if the query has no row.
+   *
+   * @throws org.jooq.exception.TooManyRowsException if the query returned more than one record.
+   * @see Repository#project(RecordMapper, Function)
+   */
+  protected final <R extends Record, T> Optional<T> projectOptional(final RecordMapper<? super R, T> mapper,
+                                                                    final Function<DSLContext, ResultQuery<R>> query) {
+    return persistenceContext.produceInConnection(dslContext -> query.apply(dslContext).fetchOptional(mapper));
+  }
+
+  // *******************************************************************************************************************
+  // Reactive Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Reactive counterpart of {@link Repository#project(RecordMapper, Function)}: the projections are fetched without
+   * blocking the calling thread, nor any thread if the {@link PersistenceContext} executes the query over R2DBC.
+   *
+   * @param mapper the {@link RecordMapper} creating the projections, e.g. {@code Records.mapping(Foo::new)}.
+   * @param query the query that will be executed into the database.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the type of the projection.
+   *
+   * @return a {@link CompletionStage} completed with the {@link List} of projections.
+   */
+  protected final <R extends Record, T> CompletionStage<List<T>> projectAsync(
+      final RecordMapper<? super R, T> mapper,
+      final Function<DSLContext, ResultQuery<R>> query) {
+    return persistenceContext.fetchReactive(query).thenApply(records -> {
+      final List<T> projections = new ArrayList<>(records.size());
+      for (R r : records)
+        projections.add(mapper.map(r));
+      return projections;
+    });
+  }
+
+  /**
+   * Reactive counterpart of {@link Repository#projectOptional(RecordMapper, Function)}.
+   *
+   * @param mapper the {@link RecordMapper} creating the projection, e.g. {@code Records.mapping(Foo::new)}.
+   * @param query the query that will be executed into the database.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the type of the projection.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the projection, or an empty one if
+   * the query has no row.
+   *
+   * @see Repository#projectAsync(RecordMapper, Function)
+   */
+  protected final <R extends Record, T> CompletionStage<Optional<T>> projectOptionalAsync(
+      final RecordMapper<? super R, T> mapper,
+      final Function<DSLContext, ResultQuery<R>> query) {
+    return persistenceContext.fetchOptionalReactive(query).thenApply(r -> r.map(mapper::map));
+  }
+
+  /**
+   * Reactive counterpart of {@link Repository#projectOptional(RecordMapper, Function)}, reading on behalf of the
+   * session provided, so that the reads of the session are routed to the primary database once it has written.
+   *
+   * @param sessionKey the key of the session, captured by the request, or {@code null}.
+   * @param mapper the {@link RecordMapper} creating the projection, e.g. {@code Records.mapping(Foo::new)}.
+   * @param query the query that will be executed into the database.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the type of the projection.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the projection, or an empty one if
+   * the query has no row.
+   *
+   * @see PersistenceContext#fetchOptionalReactive(Object, Function)
+   */
+  protected final <R extends Record, T> CompletionStage<Optional<T>> projectOptionalAsync(
+      final Object sessionKey,
+      final RecordMapper<? super R, T> mapper,
+      final Function<DSLContext, ResultQuery<R>> query) {
+    return persistenceContext.fetchOptionalReactive(sessionKey, query).thenApply(r -> r.map(mapper::map));
+  }
+
+  // *******************************************************************************************************************
+  // Asynchronous Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Executes the {@link Supplier} provided on the executor of the {@link PersistenceContext}, so that the calling
+   * thread is not blocked by the database. The {@link Supplier} runs in its own unit of work and connection scope.
+   *
+   * @param supplier the {@link Supplier}, usually calling the blocking helpers of this repository.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   */
+  protected final <T> CompletionStage<T> async(final Supplier<T> supplier) {
+    return persistenceContext.supplyAsync(supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided on the executor of the {@link PersistenceContext}, in a connection scope
+   * bound to the session provided, so that the reads of the session are routed to the primary database once it has
+   * written.
+   *
+   * @param sessionKey the key of the session, captured by the request, or {@code null}.
+   * @param supplier the {@link Supplier}, usually calling the blocking helpers of this repository.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   *
+   * @see PersistenceContext#supplyAsync(Object, Supplier)
+   */
+  protected final <T> CompletionStage<T> async(final Object sessionKey, final Supplier<T> supplier) {
+    return persistenceContext.supplyAsync(sessionKey, supplier);
+  }
+
+  /**
+   * Executes the {@link Supplier} provided on the executor of the {@link PersistenceContext}, in a read-only connection
+   * scope: all its queries share one connection and one read-only transaction.
+   *
+   * @param supplier the {@link Supplier}, usually calling the blocking fetching helpers of this repository.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return a {@link CompletionStage} completed with the value produced by the {@link Supplier}.
+   */
+  protected final <T> CompletionStage<T> asyncReadOnly(final Supplier<T> supplier) {
+    return persistenceContext.supplyReadOnlyAsync(supplier);
+  }
+
+  // *******************************************************************************************************************
+  // Pagination Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Fetches a {@link Page} of the query provided, using keyset pagination: the query is ordered by the keys provided,
+   * and the page starts right after the keys carried by the continuation token. Unlike an {@code OFFSET}, the cost of
+   * a page does not depend on its depth.
+   * <p>The keys must identify a row, and should be covered by an index.</p>
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param query the query that will be executed into the database, without any ordering.
+   * @param pageSize the maximal number of instances of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   * @param keyFields the {@link Field} instances of the keys, in ascending order.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   *
+   * @return the {@link Page} of {@link M} instances.
+   *
+   * @throws IllegalArgumentException if the page size is not positive or if the token is invalid.
+   */
+  protected final <R extends Record, F extends Mapper<R, M>> Page<M> fetchPage(
+      final F factory,
+      final Function<DSLContext, ? extends SelectOrderByStep<R>> query,
+      final int pageSize,
+      final String token,
+      final Field<?>... keyFields) {
+    checkPageSize(pageSize);
+    final Object[] seekValues = Page.decode(token, keyFields);
+    return persistenceContext.produceInConnection(dslContext -> {
+      final SelectSeekStepN<R> ordered = query.apply(dslContext).orderBy(keyFields);
+      final SelectForUpdateStep<R> limited = seekValues == null
+                                             ? ordered.limit(pageSize + 1)
+                                             : ordered.seek(seekValues).limit(pageSize + 1);
+      final Result<R> result = limited.fetch();
+
+      final boolean hasNext = result.size() > pageSize;
+      final List<R> records = hasNext ? result.subList(0, pageSize) : result;
+      final List<M> models = LoadingBatches.within(() -> {
+        final List<M> mapped = new ArrayList<>(records.size());
+        for (R r : records)
+          mapped.add(EntitiesCache.map(r, tracking(factory)));
+        return mapped;
+      });
+
+      if (!hasNext) return new Page<>(models, null);
+      final R last = records.get(pageSize - 1);
+      final Object[] lastValues = new Object[keyFields.length];
+      for (int i = 0; i < keyFields.length; i++)
+        lastValues[i] = last.get(keyFields[i]);
+      return new Page<>(models, Page.encode(lastValues));
+    });
+  }
+
+  /**
+   * Fetches a {@link Page} of all the queries provided, using keyset pagination on a single key, shared by all the
+   * queries. The queries are combined in a single {@code UNION ALL}, see {@link Repository#unionAll(Function[])}, and
+   * the outer query is ordered by the key, starts right after the key carried by the continuation token, and keeps a
+   * single row for each key, with {@code DISTINCT ON} the key.
+   * <p>The rows sharing the same key are only mapped once, the row of the first query being kept, so that a query
+   * joining a one-to-many relationship, or two queries returning the same row, do not produce the same instance twice,
+   * nor a shorter page.</p>
+   *
+   * @param pageSize the maximal number of instances of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   * @param keyField the {@link Field} of the key, selected by each query.
+   * @param queries the queries that will be executed into the database, without any ordering.
+   * @param <K> the type of the key.
+   *
+   * @return the {@link Page} of {@link M} instances.
+   *
+   * @throws IllegalArgumentException if the page size is not positive or if the token is invalid.
+   */
+  @SafeVarargs
+  @SuppressWarnings({"varargs", "unchecked"})
+  protected final <K> Page<M> unionAllPage(
+      final int pageSize,
+      final String token,
+      final Field<K> keyField,
+      final Function<DSLContext,
+          Tuple2<? extends Mapper<? extends Record, ? extends M>,
+              ? extends Select<? extends Record>>>... queries) {
+    checkPageSize(pageSize);
+    final Object[] seekValues = Page.decode(token, keyField);
+    return persistenceContext.produceInConnection(dslContext -> {
+      final Union<M> union = Union.of(dslContext, FetchPlan.empty(), Arrays.asList(queries), keyField);
+      if (union == null) return new Page<>(new ArrayList<>(), null);
+
+      final Table<Record> page = union.select().asTable(UNION_ALL_ALIAS + "page");
+      final Field<K> key = page.field(UNION_ALL_KEY, keyField.getDataType());
+      final Result<Record> result =
+          dslContext.selectDistinct(page.fields())
+                    .on(key)
+                    .from(page)
+                    .where(seekValues == null ? noCondition() : key.gt((K) seekValues[0]))
+                    .orderBy(key, page.field(UNION_ALL_DISCRIMINATOR))
+                    .limit(pageSize + 1)
+                    .fetch();
+
+      final boolean hasNext = result.size() > pageSize;
+      final List<Record> records = hasNext ? result.subList(0, pageSize) : result;
+      final List<M> models = LoadingBatches.within(() -> {
+        final List<M> mapped = new ArrayList<>(records.size());
+        for (Record r : records)
+          mapped.add(union.map(dslContext, FetchPlan.empty(), r));
+        return mapped;
+      });
+      return new Page<>(models, hasNext ? Page.encode(records.get(pageSize - 1).get(key)) : null);
+    });
+  }
+
+  /**
+   * Checks the size of a page.
+   *
+   * @param pageSize the maximal number of instances of a page.
+   *
+   * @throws IllegalArgumentException if the page size is not positive.
+   */
+  private static void checkPageSize(final int pageSize) {
+    if (pageSize < 1) throw new IllegalArgumentException("The size of a page must be positive: " + pageSize);
+  }
+
+  // *******************************************************************************************************************
+  // Streaming Helper Methods
+  // *******************************************************************************************************************
+
+  /**
+   * Streams the result of the query provided to the {@link Consumer}, instead of materialising it as a {@link List}.
+   * <p>The query is executed in a transaction, so that the database can use a server-side cursor: only
+   * {@code fetchSize} rows are held in memory at once. The {@link Stream} is only valid during the call of the
+   * {@link Consumer}, it is closed afterwards, as are the cursor and the transaction.</p>
+   * <p>The streamed instances bypass the identity map and the batching of the lazy loaders, as both would hold every
+   * instance until the end of the stream.</p>
+   *
+   * @param factory the {@link Mapper} that will create instances of type {@link M}.
+   * @param fetchSize the number of rows fetched per round trip.
+   * @param query the query that will be executed into the database.
+   * @param consumer the {@link Consumer} of the {@link Stream} of {@link M} instances.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <F> the specific implementation, extending {@link Mapper}.
+   */
+  protected final <R extends Record, F extends Mapper<R, M>> void stream(
+      final F factory,
+      final int fetchSize,
+      final Function<DSLContext, ResultQuery<R>> query,
+      final Consumer<? super Stream<M>> consumer) {
+    persistenceContext.consumeInTransaction(dslContext -> {
+      try (Stream<R> records = query.apply(dslContext).fetchSize(fetchSize).fetchStream()) {
+        consumer.accept(records.map(tracking(factory)::map));
+      }
+    });
+  }
+
+  /**
+   * Streams the results of all the queries provided, one after the other, to the {@link Consumer}. Only one cursor is
+   * open at once.
+   *
+   * @param fetchSize the number of rows fetched per round trip.
+   * @param consumer the {@link Consumer} of the {@link Stream} of {@link M} instances.
+   * @param queries the queries that will be executed into the database.
+   *
+   * @see Repository#stream(Mapper, int, Function, Consumer)
+   */
+  @SafeVarargs
+  @SuppressWarnings({"varargs", "unchecked"})
+  protected final void streamAll(
+      final int fetchSize,
+      final Consumer<? super Stream<M>> consumer,
+      final Function<DSLContext,
+          Tuple2<? extends Mapper<? extends Record, ? extends M>,
+              ? extends ResultQuery<? extends Record>>>... queries) {
+    persistenceContext.consumeInTransaction(dslContext -> {
+      try (Stream<M> models = Stream.of(queries).flatMap(query -> {
         final Tuple2<Mapper<Record, M>, ResultQuery<Record>> result =
             (Tuple2<Mapper<Record, M>, ResultQuery<Record>>) query.apply(dslContext);
-        models.addAll(result.v2.fetch(result.v1::map));
+        return result.v2.fetchSize(fetchSize).fetchStream().map(tracking(result.v1)::map);
+      })) {
+        consumer.accept(models);
       }
-
-      return models;
     });
   }
 
@@ -151,7 +1042,8 @@ public abstract class Repository<M extends Model> {
   protected final <R extends Record, F extends Mapper<R, M>> M fetchOne(
       final F factory,
       final Function<DSLContext, ResultQuery<R>> query) {
-    return persistenceContext.produceInConnection(dslContext -> query.apply(dslContext).fetchOne(factory::map));
+    return persistenceContext.produceInConnection(
+        dslContext -> query.apply(dslContext).fetchOne(identityMapped(factory)));
   }
 
   /**
@@ -173,7 +1065,7 @@ public abstract class Repository<M extends Model> {
       final F factory,
       final DSLContext dslContext,
       final Function<DSLContext, ResultQuery<R>> query) {
-    return query.apply(dslContext).fetchOne(factory::map);
+    return query.apply(dslContext).fetchOne(identityMapped(factory));
   }
 
   /**
@@ -193,7 +1085,8 @@ public abstract class Repository<M extends Model> {
   protected final <R extends Record, F extends Mapper<R, M>> Optional<M> fetchOptional(
       final F factory,
       final Function<DSLContext, ResultQuery<R>> query) {
-    return persistenceContext.produceInConnection(dslContext -> query.apply(dslContext).fetchOptional(factory::map));
+    return persistenceContext.produceInConnection(
+        dslContext -> query.apply(dslContext).fetchOptional(identityMapped(factory)));
   }
 
   /**
@@ -215,7 +1108,7 @@ public abstract class Repository<M extends Model> {
       final F factory,
       final DSLContext dslContext,
       final Function<DSLContext, ResultQuery<R>> query) {
-    return query.apply(dslContext).fetchOptional(factory::map);
+    return query.apply(dslContext).fetchOptional(identityMapped(factory));
   }
 
   /**
@@ -236,7 +1129,8 @@ public abstract class Repository<M extends Model> {
    */
   protected final <R extends Record, F extends Mapper<R, M>> M fetchSingle(
       final F factory, final Function<DSLContext, ResultQuery<R>> query) {
-    return persistenceContext.produceInConnection(dslContext -> query.apply(dslContext).fetchSingle(factory::map));
+    return persistenceContext.produceInConnection(
+        dslContext -> query.apply(dslContext).fetchSingle(identityMapped(factory)));
   }
 
   /**
@@ -287,6 +1181,92 @@ public abstract class Repository<M extends Model> {
     return dslContext.fetchExists(query);
   }
 
+  /**
+   * Wraps the {@link Mapper} provided, in order to go through the {@link EntitiesCache} of the current unit of work.
+   *
+   * @param mapper the {@link Mapper}.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the specific type of {@link Model}.
+   *
+   * @return the {@link RecordMapper}.
+   */
+  private static <R extends Record, T extends Model> RecordMapper<R, T> identityMapped(final Mapper<R, T> mapper) {
+    return r -> EntitiesCache.map(r, tracking(mapper));
+  }
+
+  /**
+   * Wraps the {@link Mapper} provided, in order to record the stored values of the models it creates from a
+   * {@link TableRecord} loaded from the database. Those values are used to write only the columns that have changed:
+   * it must not wrap the mapping of a record held by the second-level cache, as it may be stale.
+   *
+   * @param mapper the {@link Mapper}.
+   * @param <R> the specific implementation, extending {@link Record}.
+   * @param <T> the specific type of {@link Model}.
+   *
+   * @return the wrapping {@link Mapper}.
+   */
+  private static <R extends Record, T extends Model> Mapper<R, T> tracking(final Mapper<R, T> mapper) {
+    return r -> {
+      final T model = mapper.map(r);
+      if (model != null && r instanceof TableRecord<?> tableRecord) model.stored(tableRecord);
+      return model;
+    };
+  }
+
+  // *******************************************************************************************************************
+  // Unit of Work
+  // *******************************************************************************************************************
+
+  /**
+   * Executes the {@link Consumer} in a transaction, bound to a unit of work. The second-level cache entries
+   * invalidated by the transaction are invalidated again once it has ended.
+   *
+   * @param usingTransaction the {@link Consumer} that will provide a {@link DSLContext}.
+   *
+   * @see EntitiesCache#within(java.util.function.Supplier)
+   */
+  private void consumeInUnitOfWork(final Consumer<DSLContext> usingTransaction) {
+    EntitiesCache.within(() -> RecordsCache.invalidatingAfterTransaction(() -> {
+      persistenceContext.consumeInTransaction(usingTransaction);
+      return null;
+    }));
+  }
+
+  /**
+   * Executes the {@link Function} in a transaction, bound to a unit of work. The second-level cache entries
+   * invalidated by the transaction are invalidated again once it has ended.
+   *
+   * @param usingTransaction the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return an instance of {@link T}.
+   *
+   * @see EntitiesCache#within(java.util.function.Supplier)
+   */
+  private <T> T produceInUnitOfWork(final Function<DSLContext, T> usingTransaction) {
+    return EntitiesCache.within(() -> RecordsCache.invalidatingAfterTransaction(
+        () -> persistenceContext.produceInTransaction(usingTransaction)));
+  }
+
+  /**
+   * Invalidates, in the second-level cache, the record provided, as it has just been written.
+   *
+   * @param tableRecord the {@link TableRecord} that has been written.
+   */
+  private void invalidate(final TableRecord<?> tableRecord) {
+    if (recordsCache != null) recordsCache.invalidate(tableRecord);
+  }
+
+  /**
+   * Invalidates, in the second-level cache, the records provided, as they have just been written.
+   *
+   * @param tableRecords the {@link TableRecord} instances that have been written.
+   */
+  private void invalidateAll(final TableRecord<?>... tableRecords) {
+    for (TableRecord<?> tableRecord : tableRecords)
+      invalidate(tableRecord);
+  }
+
   // *******************************************************************************************************************
   // Persistence
   // *******************************************************************************************************************
@@ -308,13 +1288,11 @@ public abstract class Repository<M extends Model> {
       throw new PersistenceException(persistableModel.getClass());
     }
 
-    for (Action action : persistableModel.getPrePersistenceActions(dslContext))
-      action.perform(dslContext);
-
-    persistenceConsumer.accept();
-
-    for (Action action : persistableModel.getPostPersistenceActions(dslContext))
-      action.perform(dslContext);
+    final Flush flush = new Flush(dslContext);
+    flush.addAll(persistableModel.getPrePersistenceActions(dslContext));
+    flush.run(persistenceConsumer::accept);
+    flush.addAll(persistableModel.getPostPersistenceActions(dslContext));
+    flush.execute();
   }
 
   /**
@@ -330,8 +1308,93 @@ public abstract class Repository<M extends Model> {
       P extends PersistableModel1<M, R> & ValidatableModel<V>> void persist(
       final DSLContext dslContext, final P persistableModel) {
     final R r = persistableModel.createRecord1(dslContext);
-    r.merge();
+    switch (storeModeOf(persistableModel, r)) {
+      case MERGE -> r.merge();
+      case UPDATE -> Flush.checkUpdated(r.getTable(), r.update());
+      case NONE -> {
+        return;
+      }
+    }
+    persisted(persistableModel, r);
+  }
+
+  /**
+   * Adds the storage of the {@link P} to the {@link Flush} provided. The record is merged in batch, unless its identity
+   * has to be generated by the database: in this case, it is merged immediately to retrieve the generated value. If
+   * the stored values of the model are known, only the changed columns are updated, and a clean model is skipped.
+   *
+   * @param flush the {@link Flush}.
+   * @param persistableModel the {@link orm.models.PersistableModel} going to be persisted.
+   * @param <V> the type of the errors instances, produced during the validation of the entity.
+   * @param <P> the precise subtype of {@link orm.models.PersistableModel}.
+   * @param <R> the precise subtype of the {@link UpdatableRecord}.
+   */
+  final <V, R extends UpdatableRecord<R>,
+      P extends PersistableModel1<M, R> & ValidatableModel<V>> void persist(
+      final Flush flush, final P persistableModel) {
+    final R r = persistableModel.createRecord1(flush.getDSLContext());
+    final Identity<R, ?> identity = r.getTable().getIdentity();
+    if (identity != null && r.get(identity.getField()) == null)
+      flush.run(() -> {
+        r.merge();
+        persisted(persistableModel, r);
+      });
+    else switch (storeModeOf(persistableModel, r)) {
+      case MERGE -> flush.merge(r, () -> persisted(persistableModel, r));
+      case UPDATE -> flush.update(r, () -> persisted(persistableModel, r));
+      case NONE -> { /* Nothing has changed */ }
+    }
+  }
+
+  /**
+   * Determines how the record of the model provided has to be stored. If the values of the same row, as they were
+   * loaded from the database, are known, the fields of the record set to their loaded value are marked as unchanged,
+   * so that only the changed columns are updated. The model of a record held by the second-level cache has no known
+   * values, and is merged.
+   *
+   * @param persistableModel the model going to be persisted.
+   * @param r the record of the model.
+   *
+   * @return the {@link StoreMode} of the record.
+   */
+  private static StoreMode storeModeOf(final Object persistableModel, final UpdatableRecord<?> r) {
+    if (!(persistableModel instanceof Model model)) return StoreMode.MERGE;
+    final Object[] storedValues = model.storedValuesOf(r.getTable());
+    final UniqueKey<?> primaryKey = r.getTable().getPrimaryKey();
+    if (storedValues == null || storedValues.length != r.size() || primaryKey == null) return StoreMode.MERGE;
+
+    for (TableField<?, ?> field : primaryKey.getFields()) {
+      final int index = r.indexOf(field);
+      if (index < 0 || r.get(index) == null || !Objects.equals(r.get(index), storedValues[index]))
+        return StoreMode.MERGE;
+    }
+
+    boolean changed = false;
+    for (int i = 0; i < storedValues.length; i++) {
+      if (!r.changed(i)) continue;
+      if (Objects.equals(r.get(i), storedValues[i])) r.changed(i, false);
+      else changed = true;
+    }
+    return changed ? StoreMode.UPDATE : StoreMode.NONE;
+  }
+
+  /**
+   * Refreshes the {@link P} with the record that has just been stored, and updates the caches accordingly.
+   *
+   * @param persistableModel the {@link orm.models.PersistableModel} that has been persisted.
+   * @param r the stored record.
+   * @param <V> the type of the errors instances, produced during the validation of the entity.
+   * @param <P> the precise subtype of {@link orm.models.PersistableModel}.
+   * @param <R> the precise subtype of the {@link UpdatableRecord}.
+   */
+  private <V, R extends UpdatableRecord<R>,
+      P extends PersistableModel1<M, R> & ValidatableModel<V>> void persisted(final P persistableModel, final R r) {
     persistableModel.refresh1(r);
+    invalidate(r);
+    if (persistableModel instanceof Model model) {
+      model.stored(r);
+      EntitiesCache.put(r, model);
+    }
   }
 
   /**
@@ -345,13 +1408,14 @@ public abstract class Repository<M extends Model> {
    */
   protected final <V, R extends UpdatableRecord<R>,
       P extends PersistableModel1<M, R> & ValidatableModel<V>> void persist(final P persistableModel) {
-    persistenceContext.consumeInTransaction(dslContext ->
-                                                executePersistenceProcess(dslContext, persistableModel,
-                                                                          () -> persist(dslContext, persistableModel)));
+    consumeInUnitOfWork(dslContext ->
+                            executePersistenceProcess(dslContext, persistableModel,
+                                                      () -> persist(dslContext, persistableModel)));
   }
 
   /**
-   * Stores the {@link P} into the database.
+   * Stores the {@link P} into the database. All its records are merged by a single statement, see
+   * {@link WriteChain}.
    *
    * @param dslContext the {@link DSLContext}.
    * @param persistableModel the {@link orm.models.PersistableModel} going to be persisted.
@@ -364,12 +1428,12 @@ public abstract class Repository<M extends Model> {
       R2 extends UpdatableRecord<R2>,
       P extends PersistableModel2<M, R1, R2> & ValidatableModel<V>> void persist(
       final DSLContext dslContext, final P persistableModel) {
-
-    persist((PersistableModel1<M, R1> & ValidatableModel<V>) persistableModel);
-
+    final R1 r1 = persistableModel.createRecord1(dslContext);
     final R2 r2 = persistableModel.createRecord2(dslContext);
-    r2.merge();
+    new WriteChain(dslContext).merge(r1).merge(r2).execute();
+    persisted(persistableModel, r1);
     persistableModel.refresh2(r2);
+    invalidateAll(r2);
   }
 
   /**
@@ -386,9 +1450,9 @@ public abstract class Repository<M extends Model> {
       R2 extends UpdatableRecord<R2>,
       P extends PersistableModel2<M, R1, R2> & ValidatableModel<V>> void persist(
       final P persistableModel) {
-    persistenceContext.consumeInTransaction(dslContext ->
-                                                executePersistenceProcess(dslContext, persistableModel,
-                                                                          () -> persist(dslContext, persistableModel)));
+    consumeInUnitOfWork(dslContext ->
+                            executePersistenceProcess(dslContext, persistableModel,
+                                                      () -> persist(dslContext, persistableModel)));
   }
 
   /**
@@ -407,10 +1471,14 @@ public abstract class Repository<M extends Model> {
       R3 extends UpdatableRecord<R3>,
       P extends PersistableModel3<M, R1, R2, R3> & ValidatableModel<V>> void persist(
       final DSLContext dslContext, final P persistableModel) {
-    persist((PersistableModel2<M, R1, R2> & ValidatableModel<V>) persistableModel);
+    final R1 r1 = persistableModel.createRecord1(dslContext);
+    final R2 r2 = persistableModel.createRecord2(dslContext);
     final R3 r3 = persistableModel.createRecord3(dslContext);
-    r3.merge();
+    new WriteChain(dslContext).merge(r1).merge(r2).merge(r3).execute();
+    persisted(persistableModel, r1);
+    persistableModel.refresh2(r2);
     persistableModel.refresh3(r3);
+    invalidateAll(r2, r3);
   }
 
   /**
@@ -429,9 +1497,9 @@ public abstract class Repository<M extends Model> {
       R3 extends UpdatableRecord<R3>,
       P extends PersistableModel3<M, R1, R2, R3> & ValidatableModel<V>> void persist(
       final P persistableModel) {
-    persistenceContext.consumeInTransaction(dslContext ->
-                                                executePersistenceProcess(dslContext, persistableModel,
-                                                                          () -> persist(dslContext, persistableModel)));
+    consumeInUnitOfWork(dslContext ->
+                            executePersistenceProcess(dslContext, persistableModel,
+                                                      () -> persist(dslContext, persistableModel)));
   }
 
   /**
@@ -452,10 +1520,16 @@ public abstract class Repository<M extends Model> {
       R4 extends UpdatableRecord<R4>,
       P extends PersistableModel4<M, R1, R2, R3, R4> & ValidatableModel<V>> void persist(
       final DSLContext dslContext, final P persistableModel) {
-    persist((PersistableModel3<M, R1, R2, R3> & ValidatableModel<V>) persistableModel);
+    final R1 r1 = persistableModel.createRecord1(dslContext);
+    final R2 r2 = persistableModel.createRecord2(dslContext);
+    final R3 r3 = persistableModel.createRecord3(dslContext);
     final R4 r4 = persistableModel.createRecord4(dslContext);
-    r4.merge();
+    new WriteChain(dslContext).merge(r1).merge(r2).merge(r3).merge(r4).execute();
+    persisted(persistableModel, r1);
+    persistableModel.refresh2(r2);
+    persistableModel.refresh3(r3);
     persistableModel.refresh4(r4);
+    invalidateAll(r2, r3, r4);
   }
 
   /**
@@ -476,9 +1550,9 @@ public abstract class Repository<M extends Model> {
       R4 extends UpdatableRecord<R4>,
       P extends PersistableModel4<M, R1, R2, R3, R4> & ValidatableModel<V>> void persist(
       final P persistableModel) {
-    persistenceContext.consumeInTransaction(dslContext ->
-                                                executePersistenceProcess(dslContext, persistableModel,
-                                                                          () -> persist(dslContext, persistableModel)));
+    consumeInUnitOfWork(dslContext ->
+                            executePersistenceProcess(dslContext, persistableModel,
+                                                      () -> persist(dslContext, persistableModel)));
   }
 
   /**
@@ -501,10 +1575,18 @@ public abstract class Repository<M extends Model> {
       R5 extends UpdatableRecord<R5>,
       P extends PersistableModel5<M, R1, R2, R3, R4, R5> & ValidatableModel<V>> void persist(
       final DSLContext dslContext, final P persistableModel) {
-    persist((PersistableModel4<M, R1, R2, R3, R4> & ValidatableModel<V>) persistableModel);
+    final R1 r1 = persistableModel.createRecord1(dslContext);
+    final R2 r2 = persistableModel.createRecord2(dslContext);
+    final R3 r3 = persistableModel.createRecord3(dslContext);
+    final R4 r4 = persistableModel.createRecord4(dslContext);
     final R5 r5 = persistableModel.createRecord5(dslContext);
-    r5.merge();
+    new WriteChain(dslContext).merge(r1).merge(r2).merge(r3).merge(r4).merge(r5).execute();
+    persisted(persistableModel, r1);
+    persistableModel.refresh2(r2);
+    persistableModel.refresh3(r3);
+    persistableModel.refresh4(r4);
     persistableModel.refresh5(r5);
+    invalidateAll(r2, r3, r4, r5);
   }
 
   /**
@@ -527,9 +1609,9 @@ public abstract class Repository<M extends Model> {
       R5 extends UpdatableRecord<R5>,
       P extends PersistableModel5<M, R1, R2, R3, R4, R5> & ValidatableModel<V>> void persist(
       final P persistableModel) {
-    persistenceContext.consumeInTransaction(dslContext ->
-                                                executePersistenceProcess(dslContext, persistableModel,
-                                                                          () -> persist(dslContext, persistableModel)));
+    consumeInUnitOfWork(dslContext ->
+                            executePersistenceProcess(dslContext, persistableModel,
+                                                      () -> persist(dslContext, persistableModel)));
   }
 
   // *******************************************************************************************************************
@@ -538,39 +1620,76 @@ public abstract class Repository<M extends Model> {
 
   protected final <V, R extends UpdatableRecord<R>, D extends DeletableModel<M, V, R>> void deleteInTransaction(
       final D deletableModel) {
-    persistenceContext.consumeInTransaction(dslContext -> delete(dslContext, deletableModel));
+    deleteAllInTransaction(List.of(deletableModel));
   }
 
   protected final <V, R extends UpdatableRecord<R>, D extends DeletableModel<M, V, R>> void deleteAllInTransaction(
       final List<D> deletableModels) {
-    persistenceContext.consumeInTransaction(
-        dslContext -> deletableModels.forEach(deletableModel ->
-                                                  delete(dslContext, deletableModel)));
+    consumeInUnitOfWork(dslContext -> {
+      final Flush flush = new Flush(dslContext);
+      deleteAll(flush, deletableModels);
+      flush.execute();
+    });
   }
 
   /**
-   * Deletes the provided {@link List} of {@link D} instances, using a transaction.
+   * Adds the deletion of the provided {@link List} of {@link D} instances to the {@link Flush}. All the instances are
+   * validated before any deletion is added, so that an invalid instance aborts the whole deletion.
+   *
+   * @param flush the {@link Flush}.
+   * @param deletableModels the {@link D} instances to delete.
+   * @param <V> the type of the errors instances, produced during the validation of the model.
+   * @param <R> the precise subtype of {@link UpdatableRecord}.
+   * @param <D> the precise subtype of {@link DeletableModel}.
+   */
+  final <V, R extends UpdatableRecord<R>, D extends DeletableModel<M, V, R>> void deleteAll(
+      final Flush flush, final List<D> deletableModels) {
+    if (!validateForDeletion(flush.getDSLContext(), deletableModels).isEmpty())
+      throw new DeletionException(deletableModels.get(0).getClass());
+
+    for (D deletableModel : deletableModels)
+      delete(flush, deletableModel);
+  }
+
+  /**
+   * Validates the deletion of all the provided {@link DeletableModel} instances, before any of them is deleted. The
+   * repositories may override this method to check each of their rules for all the models with a single query. By
+   * default, each model is validated on its own, with {@link DeletableModel#validateForDeletion(DSLContext)}.
    *
    * @param dslContext the {@link DSLContext}.
+   * @param deletableModels the {@link DeletableModel} instances to delete.
+   *
+   * @return a {@link List} containing all the errors found, or an empty list if the deletion can go on.
+   */
+  protected List<?> validateForDeletion(final DSLContext dslContext,
+                                        final List<? extends DeletableModel<M, ?, ?>> deletableModels) {
+    final List<Object> errors = new ArrayList<>();
+    for (DeletableModel<M, ?, ?> deletableModel : deletableModels)
+      errors.addAll(deletableModel.validateForDeletion(dslContext));
+    return errors;
+  }
+
+  /**
+   * Adds the deletion of the {@link D} instance, already validated, to the {@link Flush}.
+   *
+   * @param flush the {@link Flush}.
    * @param deletableModel the {@link D} to delete.
    * @param <V> the type of the errors instances, produced during the validation of the model.
    * @param <R> the precise subtype of {@link UpdatableRecord}.
    * @param <D> the precise subtype of {@link DeletableModel}.
    */
-  private <V, R extends UpdatableRecord<R>, D extends DeletableModel<M, V, R>> void delete(final DSLContext dslContext,
+  private <V, R extends UpdatableRecord<R>, D extends DeletableModel<M, V, R>> void delete(final Flush flush,
                                                                                            final D deletableModel) {
-    final List<V> deletionErrors = deletableModel.validateForDeletion(dslContext);
-    if (!deletionErrors.isEmpty()) {
-      throw new DeletionException(deletableModel.getClass());
-    }
-
-    for (ModelAction<M> modelAction : deletableModel.getPreDeletionActions(dslContext))
-      modelAction.perform(dslContext);
+    final DSLContext dslContext = flush.getDSLContext();
+    flush.addAll(deletableModel.getPreDeletionActions(dslContext));
 
-    deletableModel.createDeletionRecord(dslContext).delete();
+    final R deletionRecord = deletableModel.createDeletionRecord(dslContext);
+    flush.delete(deletionRecord, () -> {
+      invalidate(deletionRecord);
+      EntitiesCache.evict(deletionRecord);
+    });
 
-    for (ModelAction<M> modelAction : deletableModel.getPostDeletionActions(dslContext))
-      modelAction.perform(dslContext);
+    flush.addAll(deletableModel.getPostDeletionActions(dslContext));
   }
   // *******************************************************************************************************************
   // Migration
@@ -583,10 +1702,16 @@ public abstract class Repository<M extends Model> {
       RT2 extends UpdatableRecord<RT2>,
       T extends PersistableModel2<M, RT1, RT2> & ValidatableModel<V>> T migrate(
       final Function<DSLContext, RF2> recordToDelete, final T resultingModel) {
-    return persistenceContext.produceInTransaction(dslContext -> {
+    return produceInUnitOfWork(dslContext -> {
       final RF2 toDelete = recordToDelete.apply(dslContext);
-      toDelete.delete();
-      persist(dslContext, resultingModel);
+      final RT1 rt1 = resultingModel.createRecord1(dslContext);
+      final RT2 rt2 = resultingModel.createRecord2(dslContext);
+      new WriteChain(dslContext).delete(toDelete).merge(rt1).merge(rt2).execute();
+      invalidate(toDelete);
+      EntitiesCache.evict(toDelete);
+      persisted(resultingModel, rt1);
+      resultingModel.refresh2(rt2);
+      invalidateAll(rt2);
       return resultingModel;
     });
   }
@@ -617,8 +1742,10 @@ public abstract class Repository<M extends Model> {
    *
    * @param key the key.
    * @param fetcher the {@link BiFunction} that will be used to fetch.
-   * @param actionsCreator the {@link Function3} that will return a {@link List} of {@link Action} instances, that will
-   * be executed during the persistence process.
+   * @param identity the {@link Function} returning the identity of a model, or {@code null} if the model is new.
+   * @param state the {@link Function} returning the state of a model, i.e. the values written by its persistence.
+   * @param actionsCreator the {@link Function3} that will return a {@link List} of {@link Action} instances from the
+   * {@link ModelsDiff}, that will be executed during the persistence process.
    * @param <K> the type of the key.
    *
    * @return an instance of {@link ManyModelsLoader}.
@@ -626,8 +1753,10 @@ public abstract class Repository<M extends Model> {
   protected final <K> ManyModelsLoader<K, M> createManyModelsLoader(
       final K key,
       final BiFunction<DSLContext, K, List<M>> fetcher,
-      final Function3<DSLContext, K, List<M>, List<Action>> actionsCreator) {
-    return new ManyModelsLoader<>(persistenceContext, key, fetcher, actionsCreator);
+      final Function<? super M, ?> identity,
+      final Function<? super M, ?> state,
+      final Function3<DSLContext, K, ModelsDiff<M>, List<Action>> actionsCreator) {
+    return new ManyModelsLoader<>(persistenceContext, key, fetcher, identity, state, actionsCreator);
   }
 
   /**
@@ -664,6 +1793,28 @@ public abstract class Repository<M extends Model> {
     return new ModelLoader<>(persistenceContext, key, fetcher, actionsCreator);
   }
 
+  /**
+   * Constructs an instance of {@link ModelLoader} that joins the {@link LoadingBatch} of the result set being mapped,
+   * if any. All the loaders sharing the same {@code batchFetcher} are resolved with a single query.
+   *
+   * @param fetcher the {@link BiFunction} that will be used to fetch, when the loader does not belong to a batch.
+   * @param batchFetcher the {@link BiFunction} that will be used to fetch all the keys of a batch. It also identifies
+   * the batch, so it must be a stable instance (e.g. held by a {@code final} field of the repository).
+   * @param actionsCreator the {@link Function3} that will return a {@link List} of {@link Action} instances, that will
+   * be executed during the persistence process.
+   * @param <K> the type of the key.
+   *
+   * @return an instance of {@link ModelLoader}.
+   */
+  protected final <K> ModelLoader<K, M> createModelLoader(
+      final BiFunction<DSLContext, K, M> fetcher,
+      final BiFunction<DSLContext, Set<K>, Map<K, M>> batchFetcher,
+      final Function3<DSLContext, K, M, List<Action>> actionsCreator) {
+    final ModelLoader<K, M> modelLoader = new ModelLoader<>(persistenceContext, fetcher, actionsCreator);
+    modelLoader.joinLoadingBatch(LoadingBatches.join(batchFetcher, batchFetcher, null));
+    return modelLoader;
+  }
+
   /**
    * Constructs an instance of {@link OptionalModelLoader}.
    *
@@ -698,6 +1849,37 @@ public abstract class Repository<M extends Model> {
     return new OptionalModelLoader<>(persistenceContext, key, fetcher, actionsCreator);
   }
 
+  /**
+   * Constructs an instance of {@link OptionalModelLoader} that joins the {@link LoadingBatch} of the result set being
+   * mapped, if any. All the loaders sharing the same {@code batchFetcher} are resolved with a single query.
+   *
+   * @param fetcher the {@link BiFunction} that will be used to fetch, when the loader does not belong to a batch.
+   * @param batchFetcher the {@link BiFunction} that will be used to fetch all the keys of a batch. It also identifies
+   * the batch, so it must be a stable instance (e.g. held by a {@code final} field of the repository).
+   * @param actionsCreator the {@link Function3} that will return a {@link List} of {@link Action} instances, that will
+   * be executed during the persistence process.
+   * @param <K> the type of the key.
+   *
+   * @return an instance of {@link OptionalModelLoader}.
+   */
+  protected final <K> OptionalModelLoader<K, M> createOptionalModelLoader(
+      final BiFunction<DSLContext, K, Optional<M>> fetcher,
+      final BiFunction<DSLContext, Set<K>, Map<K, M>> batchFetcher,
+      final Function3<DSLContext, K, Optional<M>, List<Action>> actionsCreator) {
+    final OptionalModelLoader<K, M> optionalModelLoader =
+        new OptionalModelLoader<>(persistenceContext, fetcher, actionsCreator);
+    optionalModelLoader.joinLoadingBatch(
+        LoadingBatches.join(batchFetcher,
+                            (dslContext, keys) -> {
+                              final Map<K, Optional<M>> values = new HashMap<>();
+                              batchFetcher.apply(dslContext, keys)
+                                          .forEach((k, m) -> values.put(k, Optional.ofNullable(m)));
+                              return values;
+                            },
+                            Optional.empty()));
+    return optionalModelLoader;
+  }
+
   /**
    * Constructs an instance of {@link RecordLoader}.
    *
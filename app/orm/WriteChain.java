@@ -0,0 +1,238 @@
+package orm;
+
+import org.jooq.CommonTableExpression;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.ForeignKey;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.SelectFieldOrAsterisk;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.UpdatableRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.jooq.impl.DSL.excluded;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.val;
+
+/**
+ * A {@code WriteChain} writes a chain of records with a single statement: each write is rendered as a data-modifying
+ * common table expression, e.g.
+ * {@code WITH merge_0 AS (INSERT ... RETURNING *), merge_1 AS (INSERT ... SELECT merge_0.id ... RETURNING *) SELECT
+ * ...}.
+ * <p>The merges are rendered as {@code INSERT ... ON CONFLICT DO UPDATE}, like {@link UpdatableRecord#merge()}. When
+ * the table of a merged record references the table of a record merged before it, the values of the foreign key are
+ * taken from the row returned by the previous merge, so that the generated identifiers flow down the chain. Once the
+ * statement has been executed, the merged records are refreshed with the returned rows.</p>
+ * <p>A record having no changed value, and referencing none of the records merged before it, is not written: its
+ * stored row is selected instead, so that it still flows down the chain and is refreshed. Such a record must have
+ * been stored.</p>
+ * <p>The deletions are rendered as {@code DELETE ... RETURNING *}, and are not visible to the merges of the same
+ * statement: they must not target the rows being merged.</p>
+ */
+final class WriteChain {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The prefix of the names of the common table expressions of the deletions. */
+  private static final String DELETION_ALIAS = "deletion_";
+  /** The prefix of the names of the common table expressions of the merges. */
+  private static final String MERGE_ALIAS = "merge_";
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link DSLContext}. */
+  private final DSLContext dslContext;
+  /** The records to delete. */
+  private final List<UpdatableRecord<?>> deletions;
+  /** The records to merge, in the order of the chain. */
+  private final List<UpdatableRecord<?>> merges;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link WriteChain}.
+   *
+   * @param dslContext the {@link DSLContext}.
+   */
+  WriteChain(final DSLContext dslContext) {
+    this.dslContext = dslContext;
+    deletions = new ArrayList<>();
+    merges = new ArrayList<>();
+  }
+
+  // *******************************************************************************************************************
+  // Writes Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Adds a record to delete, by its primary key.
+   *
+   * @param updatableRecord the {@link UpdatableRecord} to delete.
+   *
+   * @return this instance.
+   */
+  WriteChain delete(final UpdatableRecord<?> updatableRecord) {
+    deletions.add(updatableRecord);
+    return this;
+  }
+
+  /**
+   * Adds a record to merge, at the end of the chain.
+   *
+   * @param updatableRecord the {@link UpdatableRecord} to merge.
+   *
+   * @return this instance.
+   */
+  WriteChain merge(final UpdatableRecord<?> updatableRecord) {
+    merges.add(updatableRecord);
+    return this;
+  }
+
+  /**
+   * Executes the chain in a single statement, then refreshes the merged records with the returned rows.
+   * <p>Each merge returns exactly one row: an {@code INSERT ... ON CONFLICT DO UPDATE} of a single row returns the
+   * inserted or the updated row, a merge referencing previous merges selects its values from their single rows, and
+   * an unchanged record selects its stored row by primary key. The rows of the merges are thus read from their cross
+   * join, which is a single row.</p>
+   *
+   * @throws org.jooq.exception.NoDataFoundException if an unchanged record has not been stored.
+   */
+  void execute() {
+    if (merges.isEmpty()) {
+      for (UpdatableRecord<?> deletion : deletions)
+        deletion.delete();
+      return;
+    }
+
+    final List<CommonTableExpression<?>> commonTableExpressions = new ArrayList<>();
+    for (int i = 0; i < deletions.size(); i++)
+      commonTableExpressions.add(name(DELETION_ALIAS + i).as(deletionOf(deletions.get(i))));
+
+    final List<CommonTableExpression<?>> mergeExpressions = new ArrayList<>();
+    final List<SelectFieldOrAsterisk> returnedFields = new ArrayList<>();
+    for (int i = 0; i < merges.size(); i++) {
+      final UpdatableRecord<?> updatableRecord = merges.get(i);
+      final CommonTableExpression<?> mergeExpression =
+          name(MERGE_ALIAS + i).as(mergeOf(updatableRecord, mergeExpressions));
+      for (Field<?> field : updatableRecord.fields())
+        returnedFields.add(mergeExpression.field(field));
+      mergeExpressions.add(mergeExpression);
+      commonTableExpressions.add(mergeExpression);
+    }
+
+    // Each merge returns exactly one row, so does their cross join.
+    final Object[] returnedValues = dslContext.with(commonTableExpressions.toArray(new CommonTableExpression<?>[0]))
+                                              .select(returnedFields)
+                                              .from(mergeExpressions)
+                                              .fetchSingle()
+                                              .intoArray();
+
+    int offset = 0;
+    for (UpdatableRecord<?> updatableRecord : merges) {
+      updatableRecord.fromArray(Arrays.copyOfRange(returnedValues, offset, offset + updatableRecord.size()));
+      updatableRecord.changed(false);
+      offset += updatableRecord.size();
+    }
+  }
+
+  // *******************************************************************************************************************
+  // Rendering Matters
+  // *******************************************************************************************************************
+
+  /**
+   * @param updatableRecord the {@link UpdatableRecord} to delete.
+   * @param <R> the precise subtype of {@link UpdatableRecord}.
+   *
+   * @return the {@code DELETE ... RETURNING *} statement of the record.
+   */
+  private <R extends UpdatableRecord<R>> ResultQuery<R> deletionOf(final UpdatableRecord<R> updatableRecord) {
+    return dslContext.deleteFrom(updatableRecord.getTable())
+                     .where(keyOf(updatableRecord))
+                     .returning();
+  }
+
+  /**
+   * @param updatableRecord the {@link UpdatableRecord} to merge.
+   * @param previousMerges the common table expressions of the records merged before this one.
+   * @param <R> the precise subtype of {@link UpdatableRecord}.
+   *
+   * @return the {@code INSERT ... ON CONFLICT DO UPDATE ... RETURNING *} statement of the record, or the
+   * {@code SELECT} of its stored row if it is unchanged.
+   */
+  private <R extends UpdatableRecord<R>> ResultQuery<R> mergeOf(
+      final UpdatableRecord<R> updatableRecord, final List<CommonTableExpression<?>> previousMerges) {
+    final Table<R> table = updatableRecord.getTable();
+
+    final Map<Field<?>, Field<?>> values = new LinkedHashMap<>();
+    for (Field<?> field : table.fields())
+      if (updatableRecord.changed(field)) values.put(field, val(updatableRecord.get(field), field));
+
+    final Set<CommonTableExpression<?>> referencedMerges = new LinkedHashSet<>();
+    for (int i = 0; i < previousMerges.size(); i++) {
+      for (ForeignKey<R, ?> foreignKey : table.getReferencesTo(merges.get(i).getTable())) {
+        final List<TableField<R, ?>> fields = foreignKey.getFields();
+        final List<? extends TableField<?, ?>> keyFields = foreignKey.getKeyFields();
+        for (int j = 0; j < fields.size(); j++)
+          values.put(fields.get(j), previousMerges.get(i).field(keyFields.get(j)));
+        referencedMerges.add(previousMerges.get(i));
+      }
+    }
+
+    if (values.isEmpty())
+      return dslContext.selectFrom(table).where(keyOf(updatableRecord));
+
+    final Map<Field<?>, Field<?>> updates = new LinkedHashMap<>();
+    for (Field<?> field : values.keySet())
+      updates.put(field, excluded(field));
+
+    return dslContext.insertInto(table)
+                     .columns(values.keySet())
+                     .select(referencedMerges.isEmpty()
+                             ? select(values.values())
+                             : select(values.values()).from(referencedMerges))
+                     .onConflict(table.getPrimaryKey().getFields())
+                     .doUpdate()
+                     .set(updates)
+                     .returning();
+  }
+
+  /**
+   * @param updatableRecord the {@link UpdatableRecord}.
+   * @param <R> the precise subtype of {@link UpdatableRecord}.
+   *
+   * @return the {@link Condition}s matching the row of the record, by primary key.
+   */
+  private static <R extends UpdatableRecord<R>> List<Condition> keyOf(final UpdatableRecord<R> updatableRecord) {
+    final List<Condition> conditions = new ArrayList<>();
+    for (TableField<R, ?> field : updatableRecord.getTable().getPrimaryKey().getFields())
+      conditions.add(equalTo(field, updatableRecord));
+    return conditions;
+  }
+
+  /**
+   * @param field the {@link Field}.
+   * @param record the {@link Record} holding the value of the field.
+   * @param <T> the type of the field.
+   *
+   * @return the {@link Condition} comparing the field to its value in the record.
+   */
+  private static <T> Condition equalTo(final Field<T> field, final Record record) {
+    return field.eq(record.get(field));
+  }
+
+}
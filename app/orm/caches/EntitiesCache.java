@@ -2,16 +2,152 @@ package orm.caches;
 
 import org.jooq.Record;
 import org.jooq.Table;
+import org.jooq.TableRecord;
+import orm.Mapper;
+import orm.Model;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * The {@code EntitiesCache} is the identity map of a unit of work (a request or a transaction). Within a unit of work,
+ * a row, identified by its {@link Table} and its primary key, is materialised only once: the next fetches of the same
+ * row will return the same {@link Model} instance.
+ * <p>A unit of work is bound to the current thread and is opened by {@link EntitiesCache#within(Supplier)}. Outside
+ * a unit of work, no caching is performed.</p>
+ * <p>Only the {@link TableRecord} instances of tables having a primary key can be identified. The other records are
+ * always mapped. A {@link Table} is expected to be always mapped to the same type of {@link Model}.</p>
+ */
 public final class EntitiesCache {
 
-  private final Map<Table<Record>, Record> entitiesPerType;
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The unit of work bound to the current thread, or {@code null} if there is none. */
+  private static final ThreadLocal<EntitiesCache> CURRENT_UNIT_OF_WORK = new ThreadLocal<>();
 
+  /** The {@link EntitiesCacheEntry} instances, by {@link Table}. */
+  private final Map<Table<?>, EntitiesCacheEntry> entitiesPerType;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /** Creates a new instance of {@link EntitiesCache}. */
   EntitiesCache() {
     entitiesPerType = new HashMap<>();
   }
 
+  // *******************************************************************************************************************
+  // Unit of Work Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Executes the {@link Supplier} provided in a unit of work. If a unit of work is already bound to the current thread,
+   * it will be reused.
+   *
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   */
+  public static <T> T within(final Supplier<T> supplier) {
+    if (CURRENT_UNIT_OF_WORK.get() != null) return supplier.get();
+    CURRENT_UNIT_OF_WORK.set(new EntitiesCache());
+    try {
+      return supplier.get();
+    } finally {
+      CURRENT_UNIT_OF_WORK.remove();
+    }
+  }
+
+  // *******************************************************************************************************************
+  // Cache Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Maps the {@link Record} provided, unless the row it represents has already been materialised in the current unit
+   * of work. In this case, the existing {@link Model} instance is returned.
+   *
+   * @param r the {@link Record}.
+   * @param mapper the {@link Mapper} that will create the {@link Model} instance.
+   * @param <R> the specific type of {@link Record}.
+   * @param <M> the specific type of {@link Model}.
+   *
+   * @return the {@link Model} instance.
+   */
+  @SuppressWarnings("unchecked")
+  public static <R extends Record, M extends Model> M map(final R r, final Mapper<R, M> mapper) {
+    final EntitiesCache entitiesCache = CURRENT_UNIT_OF_WORK.get();
+    if (entitiesCache == null || !(r instanceof TableRecord<?> tableRecord)) return mapper.map(r);
+
+    final Object primaryKey = PrimaryKeys.of(tableRecord);
+    if (primaryKey == null) return mapper.map(r);
+
+    final EntitiesCacheEntry entry = entitiesCache.entryOf(tableRecord.getTable());
+    final Model cached = entry.get(primaryKey);
+    if (cached != null) return (M) cached;
+
+    final M model = mapper.map(r);
+    if (model != null) entry.put(primaryKey, model);
+    return model;
+  }
+
+  /**
+   * Finds the {@link Model} instance, corresponding to the primary key given, materialised in the current unit of
+   * work.
+   *
+   * @param table the {@link Table}.
+   * @param primaryKey the value of the primary key.
+   * @param <M> the specific type of {@link Model}.
+   *
+   * @return the {@link Model} instance, or {@code null} if the row has not been materialised yet or if there is no
+   * unit of work.
+   */
+  @SuppressWarnings("unchecked")
+  public static <M extends Model> M find(final Table<?> table, final Object primaryKey) {
+    final EntitiesCache entitiesCache = CURRENT_UNIT_OF_WORK.get();
+    if (entitiesCache == null || primaryKey == null) return null;
+    final EntitiesCacheEntry entry = entitiesCache.entitiesPerType.get(table);
+    return entry == null ? null : (M) entry.get(primaryKey);
+  }
+
+  /**
+   * Registers, in the current unit of work, the {@link Model} instance that has just been stored with the
+   * {@link TableRecord} provided.
+   *
+   * @param tableRecord the {@link TableRecord} that has been stored.
+   * @param model the {@link Model} instance.
+   */
+  public static void put(final TableRecord<?> tableRecord, final Model model) {
+    final EntitiesCache entitiesCache = CURRENT_UNIT_OF_WORK.get();
+    if (entitiesCache == null) return;
+    final Object primaryKey = PrimaryKeys.of(tableRecord);
+    if (primaryKey != null) entitiesCache.entryOf(tableRecord.getTable()).put(primaryKey, model);
+  }
+
+  /**
+   * Removes, from the current unit of work, the {@link Model} instance corresponding to the {@link TableRecord} that
+   * has just been deleted.
+   *
+   * @param tableRecord the {@link TableRecord} that has been deleted.
+   */
+  public static void evict(final TableRecord<?> tableRecord) {
+    final EntitiesCache entitiesCache = CURRENT_UNIT_OF_WORK.get();
+    if (entitiesCache == null) return;
+    final Object primaryKey = PrimaryKeys.of(tableRecord);
+    final EntitiesCacheEntry entry = entitiesCache.entitiesPerType.get(tableRecord.getTable());
+    if (primaryKey != null && entry != null) entry.remove(primaryKey);
+  }
+
+  /**
+   * @param table the {@link Table}.
+   *
+   * @return the {@link EntitiesCacheEntry} corresponding to the {@link Table}. It is created if needed.
+   */
+  private EntitiesCacheEntry entryOf(final Table<?> table) {
+    return entitiesPerType.computeIfAbsent(table, t -> new EntitiesCacheEntry());
+  }
+
 }
@@ -0,0 +1,47 @@
+package orm.caches;
+
+import org.jooq.TableField;
+import org.jooq.TableRecord;
+import org.jooq.UniqueKey;
+
+import java.util.List;
+
+/** {@code PrimaryKeys} provides the helpers to identify a {@link TableRecord} by the value of its primary key. */
+final class PrimaryKeys {
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /** Hides the default constructor of this utility class. */
+  private PrimaryKeys() { /* No-op. */ }
+
+  // *******************************************************************************************************************
+  // Primary Keys Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Extracts the value of the primary key of the {@link TableRecord} provided. For a primary key composed of a single
+   * field, the value of the field is returned, otherwise the {@link List} of the values is returned.
+   *
+   * @param tableRecord the {@link TableRecord}.
+   *
+   * @return the value of the primary key, or {@code null} if the table has no primary key or if the primary key is
+   * not set.
+   */
+  static Object of(final TableRecord<?> tableRecord) {
+    final UniqueKey<?> primaryKey = tableRecord.getTable().getPrimaryKey();
+    if (primaryKey == null) return null;
+
+    final List<? extends TableField<?, ?>> fields = primaryKey.getFields();
+    if (fields.size() == 1) return tableRecord.get(fields.get(0));
+
+    final Object[] values = new Object[fields.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = tableRecord.get(fields.get(i));
+      if (values[i] == null) return null;
+    }
+    return List.of(values);
+  }
+
+}
@@ -0,0 +1,150 @@
+package orm.caches;
+
+import org.ehcache.Cache;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.TableRecord;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A {@code RecordsCache} is the second-level cache of a {@link Table}: it keeps, across requests and transactions, the
+ * records of the table, indexed by the value of their primary key. The records are stored, not the models, so that a
+ * new model instance is created on every unit of work.
+ * <p>The cache is read-through: the {@link orm.Repository} looks into it before querying the database, and stores the
+ * records it has fetched. It is invalidated by the {@link orm.Repository} each time a record is written. As a
+ * concurrent reader could store the previous version of the record before the transaction is committed, the
+ * invalidation is performed a second time when the transaction ends, see
+ * {@link RecordsCache#invalidatingAfterTransaction(Supplier)}.</p>
+ *
+ * @see RecordsCaches
+ */
+public final class RecordsCache {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The invalidations to perform again when the transaction bound to the current thread ends. */
+  private static final ThreadLocal<List<Runnable>> PENDING_INVALIDATIONS = new ThreadLocal<>();
+
+  /** The {@link Table} cached. */
+  private final Table<?> table;
+  /** The underlying {@link Cache}. */
+  private final Cache<Object, Record> cache;
+  /** The number of lookups that have found a record. */
+  private final LongAdder hits;
+  /** The number of lookups that have not found any record. */
+  private final LongAdder misses;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link RecordsCache}.
+   *
+   * @param table the {@link Table} cached.
+   * @param cache the underlying {@link Cache}.
+   */
+  RecordsCache(final Table<?> table, final Cache<Object, Record> cache) {
+    this.table = table;
+    this.cache = cache;
+    hits = new LongAdder();
+    misses = new LongAdder();
+  }
+
+  // *******************************************************************************************************************
+  // Cache Matters
+  // *******************************************************************************************************************
+
+  /**
+   * @param t the {@link Table}.
+   *
+   * @return {@code true} if this cache holds the records of the {@link Table} provided, otherwise {@code false}.
+   */
+  public boolean covers(final Table<?> t) { return table.equals(t); }
+
+  /**
+   * Retrieves the record corresponding to the primary key given.
+   *
+   * @param primaryKey the value of the primary key.
+   * @param <R> the specific type of {@link Record}.
+   *
+   * @return the record, or {@code null} if it is not cached.
+   */
+  @SuppressWarnings("unchecked")
+  public <R extends Record> R get(final Object primaryKey) {
+    final Record r = cache.get(primaryKey);
+    if (r == null) misses.increment();
+    else hits.increment();
+    return (R) r;
+  }
+
+  /**
+   * Stores the record corresponding to the primary key given.
+   *
+   * @param primaryKey the value of the primary key.
+   * @param r the record.
+   */
+  public void put(final Object primaryKey, final Record r) { cache.put(primaryKey, r); }
+
+  /**
+   * Invalidates the record identified by the {@link TableRecord} provided, if it belongs to the cached {@link Table}.
+   *
+   * @param tableRecord the {@link TableRecord} that has been written.
+   */
+  public void invalidate(final TableRecord<?> tableRecord) {
+    if (!covers(tableRecord.getTable())) return;
+    final Object primaryKey = PrimaryKeys.of(tableRecord);
+    if (primaryKey == null) return;
+
+    cache.remove(primaryKey);
+    final List<Runnable> pendingInvalidations = PENDING_INVALIDATIONS.get();
+    if (pendingInvalidations != null) pendingInvalidations.add(() -> cache.remove(primaryKey));
+  }
+
+  /**
+   * Executes the {@link Supplier} provided, which is expected to run a transaction. When it ends, all the
+   * invalidations performed by the transaction are performed again. Nested calls are bound to the outermost one.
+   *
+   * @param supplier the {@link Supplier} to execute.
+   * @param <T> the return type of the {@link Supplier}.
+   *
+   * @return the value produced by the {@link Supplier}.
+   */
+  public static <T> T invalidatingAfterTransaction(final Supplier<T> supplier) {
+    if (PENDING_INVALIDATIONS.get() != null) return supplier.get();
+    final List<Runnable> pendingInvalidations = new LinkedList<>();
+    PENDING_INVALIDATIONS.set(pendingInvalidations);
+    try {
+      return supplier.get();
+    } finally {
+      PENDING_INVALIDATIONS.remove();
+      pendingInvalidations.forEach(Runnable::run);
+    }
+  }
+
+  // *******************************************************************************************************************
+  // Statistics
+  // *******************************************************************************************************************
+
+  /** @return the name of the cached {@link Table}. */
+  public String getName() { return table.getName(); }
+
+  /** @return the number of lookups that have found a record. */
+  public long getHits() { return hits.sum(); }
+
+  /** @return the number of lookups that have not found any record. */
+  public long getMisses() { return misses.sum(); }
+
+  /** @return the ratio of lookups that have found a record, between {@code 0} and {@code 1}. */
+  public double getHitRatio() {
+    final long h = getHits();
+    final long total = h + getMisses();
+    return total == 0 ? 0 : (double) h / total;
+  }
+
+}
@@ -0,0 +1,91 @@
+package orm.caches;
+
+import com.typesafe.config.Config;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.jooq.Record;
+import org.jooq.Table;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code RecordsCaches} holds the {@link RecordsCache} instances, one per {@link Table}, all backed by the same Ehcache
+ * {@link CacheManager}.
+ * <p>The caches are configured by the {@code briventory.caches.records} entry of the configuration:</p>
+ * <ul>
+ *   <li>{@code heap-entries}: the maximal number of records kept per table;</li>
+ *   <li>{@code time-to-live}: the maximal duration a record is kept.</li>
+ * </ul>
+ */
+@Singleton
+public final class RecordsCaches {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The Ehcache {@link CacheManager}. */
+  private final CacheManager cacheManager;
+  /** The maximal number of records kept per table. */
+  private final long heapEntries;
+  /** The maximal duration a record is kept. */
+  private final Duration timeToLive;
+  /** The {@link RecordsCache} instances, by {@link Table}. */
+  private final Map<Table<?>, RecordsCache> recordsCaches;
+
+  // *******************************************************************************************************************
+  // Construction & Initialization
+  // *******************************************************************************************************************
+
+  /**
+   * Creates a new instance of {@link RecordsCaches} using the injected parameters.
+   *
+   * @param config the {@link Config} instance.
+   */
+  @Inject
+  public RecordsCaches(final Config config) {
+    heapEntries = config.getLong("briventory.caches.records.heap-entries");
+    timeToLive = config.getDuration("briventory.caches.records.time-to-live");
+    cacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true);
+    recordsCaches = new LinkedHashMap<>();
+  }
+
+  // *******************************************************************************************************************
+  // Caches Matters
+  // *******************************************************************************************************************
+
+  /**
+   * Retrieves the {@link RecordsCache} of the {@link Table} provided. It is created if needed.
+   *
+   * @param table the {@link Table}.
+   *
+   * @return the {@link RecordsCache}.
+   */
+  public synchronized RecordsCache of(final Table<?> table) {
+    return recordsCaches.computeIfAbsent(table, t -> new RecordsCache(
+        t,
+        cacheManager.createCache(t.getName(),
+                                 CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                                                              Object.class,
+                                                              Record.class,
+                                                              ResourcePoolsBuilder.heap(heapEntries))
+                                                          .withExpiry(
+                                                              ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))
+                                                          .build())));
+  }
+
+  /** @return all the {@link RecordsCache} instances, mainly to read their statistics. */
+  public synchronized List<RecordsCache> getRecordsCaches() { return new ArrayList<>(recordsCaches.values()); }
+
+  /** Closes the underlying {@link CacheManager}. */
+  public void close() { cacheManager.close(); }
+
+}
@@ -4,16 +4,35 @@ import database.BriventoryDB;
 import jooq.tables.records.AdministratorRecord;
 import jooq.tables.records.LockedAccountRecord;
 import models.Account;
+import models.AccountPrincipal;
+import models.BrickLinkTokens;
+import models.BrickSetTokens;
+import models.RebrickableTokens;
 import org.jooq.DSLContext;
-import org.jooq.Select;
+import org.jooq.Field;
+import org.jooq.Record1;
+import org.jooq.Record6;
+import org.jooq.Records;
+import org.jooq.ResultQuery;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.TableRecord;
+import org.jooq.impl.DSL;
 import orm.*;
+import orm.caches.RecordsCaches;
 import play.data.validation.ValidationError;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static jooq.Tables.*;
 
@@ -24,6 +43,90 @@ import static jooq.Tables.*;
 @Singleton
 public final class AccountsRepository extends Repository<Account> {
 
+  // *******************************************************************************************************************
+  // Fetch Plans
+  // *******************************************************************************************************************
+  /** The {@link FetchPlan} loading the administration rights and the locked status of the accounts. */
+  public static final FetchPlan<Account> WITH_RIGHTS =
+      FetchPlan.<Account>empty()
+               .with(DSL.field(DSL.exists(DSL.selectOne()
+                                             .from(ADMINISTRATOR)
+                                             .where(ADMINISTRATOR.ID_ACCOUNT.eq(ACCOUNT.ID)))),
+                     Account::setFetchedAdministrator)
+               .with(DSL.field(DSL.exists(DSL.selectOne()
+                                             .from(LOCKED_ACCOUNT)
+                                             .where(LOCKED_ACCOUNT.ID_ACCOUNT.eq(ACCOUNT.ID)))),
+                     Account::setFetchedLocked);
+
+  /**
+   * The {@link FetchPlan} loading the administration rights, the locked status and the BrickLink, BrickSet and
+   * Rebrickable tokens of the accounts.
+   */
+  public static final FetchPlan<Account> WITH_RIGHTS_AND_TOKENS =
+      WITH_RIGHTS.with(tokensOf(BRICKLINK_TOKENS, BRICKLINK_TOKENS.ID_ACCOUNT, BrickLinkTokens.BRICKLINK_TOKENS_MAPPER),
+                       Account::setFetchedBrickLinkTokens)
+                 .with(tokensOf(BRICKSET_TOKENS, BRICKSET_TOKENS.ID_ACCOUNT, BrickSetTokens.BRICKSET_TOKENS_MAPPER),
+                       Account::setFetchedBrickSetTokens)
+                 .with(tokensOf(REBRICKABLE_TOKENS, REBRICKABLE_TOKENS.ID_ACCOUNT,
+                                RebrickableTokens.REBRICKABLE_TOKENS_MAPPER),
+                       Account::setFetchedRebrickableTokens);
+
+  /**
+   * Creates the {@code multiset} field fetching the tokens of an account.
+   *
+   * @param table the {@link Table} of the tokens.
+   * @param idAccount the {@link TableField} referencing the account.
+   * @param mapper the {@link Mapper} creating the tokens.
+   * @param <R> the specific type of {@link TableRecord}.
+   * @param <T> the specific type of {@link Model}.
+   *
+   * @return the {@link Field} of the tokens, correlated to {@link jooq.tables.Account}.
+   */
+  private static <R extends TableRecord<R>, T extends Model> Field<Optional<T>> tokensOf(
+      final Table<R> table, final TableField<R, Long> idAccount, final Mapper<R, T> mapper) {
+    return DSL.multiset(DSL.selectFrom(table).where(idAccount.eq(ACCOUNT.ID)))
+              .convertFrom(tokens -> tokens.stream().findFirst().map(mapper::map));
+  }
+
+  // *******************************************************************************************************************
+  // Named Queries
+  // *******************************************************************************************************************
+  /** The {@link NamedQuery} checking if an account, given by its identifier, is locked. */
+  private static final NamedQuery<Record1<Boolean>> IS_LOCKED =
+      NamedQuery.exists("accounts.isLocked",
+                        DSL.selectOne()
+                           .from(LOCKED_ACCOUNT)
+                           .where(LOCKED_ACCOUNT.ID_ACCOUNT.eq(DSL.param("idAccount", Long.class))));
+  /** The {@link NamedQuery} checking if an account, given by its identifier, has administrator rights. */
+  private static final NamedQuery<Record1<Boolean>> IS_ADMINISTRATOR =
+      NamedQuery.exists("accounts.isAdministrator",
+                        DSL.selectOne()
+                           .from(ADMINISTRATOR)
+                           .where(ADMINISTRATOR.ID_ACCOUNT.eq(DSL.param("idAccount", Long.class))));
+  /** The {@link NamedQuery} checking if an administrator, other than the account given, is not locked. */
+  private static final NamedQuery<Record1<Boolean>> HAS_OTHER_ACTIVE_ADMINISTRATOR =
+      NamedQuery.exists("accounts.hasOtherActiveAdministrator",
+                        DSL.selectOne()
+                           .from(ADMINISTRATOR)
+                           .leftJoin(LOCKED_ACCOUNT).on(ADMINISTRATOR.ID_ACCOUNT.eq(LOCKED_ACCOUNT.ID_ACCOUNT))
+                           .where(ADMINISTRATOR.ID_ACCOUNT.ne(DSL.param("idAccount", Long.class))
+                                                          .and(LOCKED_ACCOUNT.ID_ACCOUNT.isNull())));
+  /** The {@link NamedQuery} checking if at least one administrator is not locked. */
+  private static final NamedQuery<Record1<Boolean>> HAS_ACTIVE_ADMINISTRATOR =
+      NamedQuery.exists("accounts.hasActiveAdministrator",
+                        DSL.selectOne()
+                           .from(ADMINISTRATOR)
+                           .leftJoin(LOCKED_ACCOUNT).on(ADMINISTRATOR.ID_ACCOUNT.eq(LOCKED_ACCOUNT.ID_ACCOUNT))
+                           .where(LOCKED_ACCOUNT.ID_ACCOUNT.isNull()));
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The listeners notified when the administration rights or the locked status of an account may have changed. */
+  private final List<Runnable> administrationListeners = new CopyOnWriteArrayList<>();
+  /** The listeners notified, with its identifier, when the claims of the session tokens of an account may change. */
+  private final List<Consumer<Long>> revocationListeners = new CopyOnWriteArrayList<>();
+
   // *******************************************************************************************************************
   // Construction & Initialization
   // *******************************************************************************************************************
@@ -32,10 +135,12 @@ public final class AccountsRepository extends Repository<Account> {
    * Creates a new {@link AccountsRepository} using injection.
    *
    * @param briventoryDB the {@link BriventoryDB} instance.
+   * @param recordsCaches the {@link RecordsCaches} instance.
    */
   @Inject
-  public AccountsRepository(final BriventoryDB briventoryDB) {
+  public AccountsRepository(final BriventoryDB briventoryDB, final RecordsCaches recordsCaches) {
     super(briventoryDB);
+    enableRecordsCache(recordsCaches.of(ACCOUNT));
   }
 
   // *******************************************************************************************************************
@@ -43,20 +148,110 @@ public final class AccountsRepository extends Repository<Account> {
   // *******************************************************************************************************************
 
   /**
-   * Persists the provided {@link Account} into the database.
+   * Persists the provided {@link Account} into the database. The administration listeners are notified if its
+   * administration rights or its locked status have changed, the revocation listeners if they or its password, its
+   * e-mail address or its name have changed.
+   *
+   * @param account the {@link Account} to persist.
+   */
+  public void persist(final Account account) {
+    final boolean administrationChanged = account.hasAdministrationChanged();
+    final boolean identityChanged = account.hasIdentityChanged();
+    super.persist(account);
+    if (administrationChanged) notifyAdministrationListeners();
+    if (administrationChanged || identityChanged) notifyRevocationListeners(account);
+  }
+
+  /**
+   * Persists the {@link Account} provided, without blocking the calling thread.
    *
    * @param account the {@link Account} to persist.
+   *
+   * @return a {@link CompletionStage} completed once the {@link Account} has been persisted.
    */
-  public void persist(final Account account) { super.persist(account); }
+  public CompletionStage<Void> persistAsync(final Account account) {
+    return async(() -> {
+      persist(account);
+      return null;
+    });
+  }
 
   /**
-   * Deletes the provided {@link Account} from the database.
+   * Persists the {@link Account} provided, without blocking the calling thread, on behalf of the session provided: its
+   * next reads are routed to the primary database, so that they see the write.
+   *
+   * @param sessionKey the key of the session, captured by the request, see {@link controllers.auth.SessionHelper}.
+   * @param account the {@link Account} to persist.
+   *
+   * @return a {@link CompletionStage} completed once the {@link Account} has been persisted.
+   */
+  public CompletionStage<Void> persistAsync(final Object sessionKey, final Account account) {
+    return async(sessionKey, () -> {
+      persist(account);
+      return null;
+    });
+  }
+
+  /**
+   * Deletes the provided {@link Account} from the database, and notifies the administration and revocation listeners.
    *
    * @param account the {@link Account} to delete.
    */
-  public void delete(final Account account) { deleteInTransaction(account); }
+  public void delete(final Account account) {
+    deleteInTransaction(account);
+    notifyAdministrationListeners();
+    notifyRevocationListeners(account);
+  }
+
+  /**
+   * Deletes the provided {@link Account} instances from the database, and notifies the administration and revocation
+   * listeners.
+   *
+   * @param accounts the {@link List} of {@link Account} instances to delete.
+   */
+  public void delete(final List<Account> accounts) {
+    deleteAllInTransaction(accounts);
+    notifyAdministrationListeners();
+    for (Account account : accounts)
+      notifyRevocationListeners(account);
+  }
+
+  // *******************************************************************************************************************
+  // Administration Listeners
+  // *******************************************************************************************************************
+
+  /**
+   * Adds a listener, notified each time the administration rights or the locked status of an account may have changed
+   * through this repository.
+   *
+   * @param listener the listener.
+   */
+  public void addAdministrationListener(final Runnable listener) { administrationListeners.add(listener); }
 
-  public void delete(final List<Account> accounts) { deleteAllInTransaction(accounts); }
+  /** Notifies the administration listeners. */
+  private void notifyAdministrationListeners() {
+    for (Runnable listener : administrationListeners)
+      listener.run();
+  }
+
+  /**
+   * Adds a listener, notified with the identifier of an account each time its password, its e-mail address, its name,
+   * its administration rights or its locked status may have changed through this repository, i.e. whatever its session
+   * tokens claim.
+   *
+   * @param listener the listener, accepting the identifier of the account.
+   */
+  public void addRevocationListener(final Consumer<Long> listener) { revocationListeners.add(listener); }
+
+  /**
+   * Notifies the revocation listeners of the account provided.
+   *
+   * @param account the {@link Account}.
+   */
+  private void notifyRevocationListeners(final Account account) {
+    for (Consumer<Long> listener : revocationListeners)
+      listener.accept(account.getId());
+  }
 
   // *******************************************************************************************************************
   // Locked Users Matters
@@ -71,7 +266,7 @@ public final class AccountsRepository extends Repository<Account> {
    */
   public RecordLoader<Account, Boolean> createLockedAccountLoader(final Account account) {
     return createRecordLoader(account,
-                              (dslContext, a) -> exists(dslContext, isLocked(dslContext, account)),
+                              (dslContext, a) -> exists(dslContext, IS_LOCKED, a.getId()),
                               (dslContext, a, isLocked) -> {
                                 final LockedAccountRecord lockedAccountRecord = dslContext.newRecord(LOCKED_ACCOUNT)
                                                                                           .setIdAccount(a.getId());
@@ -84,19 +279,6 @@ public final class AccountsRepository extends Repository<Account> {
                               });
   }
 
-  /**
-   * Checks into the database, if the provided {@link Account} is locked.
-   *
-   * @param dslContext the {@link DSLContext}.
-   * @param account the {@link Account} concerned.
-   *
-   * @return {@code true} if the {@link Account} is locked, otherwise {@code false}.
-   */
-  private Select<?> isLocked(final DSLContext dslContext, final Account account) {
-    return dslContext.selectFrom(LOCKED_ACCOUNT)
-                     .where(LOCKED_ACCOUNT.ID_ACCOUNT.eq(account.getId()));
-  }
-
   /**
    * Checks into the database, if the provided {@link Account} is locked.
    *
@@ -105,7 +287,7 @@ public final class AccountsRepository extends Repository<Account> {
    * @return {@code true} if the {@link Account} is locked, otherwise {@code false}.
    */
   public boolean isLocked(final Account account) {
-    return exists(dslContext -> isLocked(dslContext, account));
+    return exists(IS_LOCKED, account.getId());
   }
 
   /** @return a {@link List} containing all locked accounts. */
@@ -131,7 +313,7 @@ public final class AccountsRepository extends Repository<Account> {
    */
   public RecordLoader<Account, Boolean> createAdministratorLoader(final Account account) {
     return createRecordLoader(account,
-                              (dslContext, a) -> exists(dslContext, isAdministrator(dslContext, a)),
+                              (dslContext, a) -> exists(dslContext, IS_ADMINISTRATOR, a.getId()),
                               (dslContext, a, isAdministrator) -> {
                                 final AdministratorRecord administratorRecord = dslContext.newRecord(ADMINISTRATOR)
                                                                                           .setIdAccount(a.getId());
@@ -144,19 +326,6 @@ public final class AccountsRepository extends Repository<Account> {
                               });
   }
 
-  /**
-   * Checks into the database, if the provided {@link Account} has administrator rights.
-   *
-   * @param dslContext the {@link DSLContext}.
-   * @param account the {@link Account} concerned.
-   *
-   * @return {@code true} if the {@link Account} is locked, otherwise {@code false}.
-   */
-  private Select<?> isAdministrator(final DSLContext dslContext, final Account account) {
-    return dslContext.selectFrom(ADMINISTRATOR)
-                     .where(ADMINISTRATOR.ID_ACCOUNT.eq(account.getId()));
-  }
-
   /**
    * Checks into the database if the provided {@link Account} has administrator rights.
    *
@@ -165,7 +334,7 @@ public final class AccountsRepository extends Repository<Account> {
    * @return {@code true} if the {@link Account} has administrator rights, otherwise {@code false}.
    */
   public boolean isAdministrator(final Account account) {
-    return exists(dslContext -> isAdministrator(dslContext, account));
+    return exists(IS_ADMINISTRATOR, account.getId());
   }
 
   /** @return a {@link List} containing all administrators. */
@@ -186,12 +355,7 @@ public final class AccountsRepository extends Repository<Account> {
    * @return {@code true} the {@link Account} is the last active administrator, otherwise {@code false}.
    */
   public boolean isLastActiveAdministrator(final Account account) {
-    return exists(dslContext ->
-                      dslContext.select(ADMINISTRATOR.asterisk())
-                                .from(ADMINISTRATOR)
-                                .leftJoin(LOCKED_ACCOUNT).on(ADMINISTRATOR.ID_ACCOUNT.eq(LOCKED_ACCOUNT.ID_ACCOUNT))
-                                .where(ADMINISTRATOR.ID_ACCOUNT.ne(account.getId())
-                                                               .and(LOCKED_ACCOUNT.ID_ACCOUNT.isNull())));
+    return exists(HAS_OTHER_ACTIVE_ADMINISTRATOR, account.getId());
   }
 
   /**
@@ -203,24 +367,12 @@ public final class AccountsRepository extends Repository<Account> {
    * @return {@code true} the {@link Account} is the last active administrator, otherwise {@code false}.
    */
   public boolean isLastActiveAdministrator(final DSLContext dslContext, final Account account) {
-    final Integer count = dslContext.selectCount()
-                                    .from(ADMINISTRATOR)
-                                    .leftJoin(LOCKED_ACCOUNT).on(ADMINISTRATOR.ID_ACCOUNT.eq(LOCKED_ACCOUNT.ID_ACCOUNT))
-                                    .where(ADMINISTRATOR.ID_ACCOUNT.ne(account.getId())
-                                                                   .and(LOCKED_ACCOUNT.ID_ACCOUNT.isNull()))
-                                    .fetchOneInto(Integer.class);
-    if (count == null) return false;
-    return count == 0;
+    return !exists(dslContext, HAS_OTHER_ACTIVE_ADMINISTRATOR, account.getId());
   }
 
   /** @return {@code true} if the database contains at least one active administrator, otherwise {@code false}. */
   public boolean hasActiveAdministrator() {
-    return exists(dslContext ->
-                      dslContext.select(ADMINISTRATOR.asterisk())
-                                .from(ADMINISTRATOR)
-                                .leftJoin(LOCKED_ACCOUNT).on(ADMINISTRATOR.ID_ACCOUNT.eq(LOCKED_ACCOUNT.ID_ACCOUNT))
-                                .where(LOCKED_ACCOUNT.ID_ACCOUNT.isNull())
-    );
+    return exists(HAS_ACTIVE_ADMINISTRATOR);
   }
 
   // *******************************************************************************************************************
@@ -230,6 +382,39 @@ public final class AccountsRepository extends Repository<Account> {
   /** @return all {@link Account}s in the database. */
   public List<Account> getAll() { return fetch(Account.ACCOUNT_MAPPER, dslContext -> dslContext.selectFrom(ACCOUNT)); }
 
+  /**
+   * Retrieves all {@link Account}s in the database, with the associations declared by the {@link FetchPlan}.
+   *
+   * @param fetchPlan the {@link FetchPlan}, e.g. {@link AccountsRepository#WITH_RIGHTS_AND_TOKENS}.
+   *
+   * @return all {@link Account}s in the database.
+   */
+  public List<Account> getAll(final FetchPlan<Account> fetchPlan) {
+    return fetch(Account.ACCOUNT_MAPPER, ACCOUNT, DSL.noCondition(), fetchPlan);
+  }
+
+  /**
+   * Retrieves a {@link Page} of {@link Account}s, ordered by identifier.
+   *
+   * @param pageSize the maximal number of {@link Account}s of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   *
+   * @return the {@link Page} of {@link Account}s.
+   */
+  public Page<Account> getPage(final int pageSize, final String token) {
+    return fetchPage(Account.ACCOUNT_MAPPER, dslContext -> dslContext.selectFrom(ACCOUNT), pageSize, token, ACCOUNT.ID);
+  }
+
+  /**
+   * Streams all {@link Account}s in the database, without materialising them all in memory.
+   *
+   * @param fetchSize the number of accounts fetched per round trip.
+   * @param consumer the {@link Consumer} of the {@link Stream} of {@link Account}s, only valid during its call.
+   */
+  public void streamAll(final int fetchSize, final Consumer<? super Stream<Account>> consumer) {
+    stream(Account.ACCOUNT_MAPPER, fetchSize, dslContext -> dslContext.selectFrom(ACCOUNT), consumer);
+  }
+
   /**
    * Retrieves the {@link Account} corresponding to the id provided.
    *
@@ -238,9 +423,133 @@ public final class AccountsRepository extends Repository<Account> {
    * @return an {@link Optional} containing the user.
    */
   public Optional<Account> findById(final long id) {
-    return fetchOptional(Account.ACCOUNT_MAPPER,
-                         dslContext -> dslContext.selectFrom(ACCOUNT)
-                                                 .where(ACCOUNT.ID.eq(id)));
+    return Optional.ofNullable(fetchById(Account.ACCOUNT_MAPPER, ACCOUNT.ID, id));
+  }
+
+  /**
+   * Retrieves the {@link Account} corresponding to the id provided, with the associations declared by the
+   * {@link FetchPlan}.
+   *
+   * @param id the id of the {@link Account} to search for.
+   * @param fetchPlan the {@link FetchPlan}, e.g. {@link AccountsRepository#WITH_RIGHTS_AND_TOKENS}.
+   *
+   * @return an {@link Optional} containing the user.
+   */
+  public Optional<Account> findById(final long id, final FetchPlan<Account> fetchPlan) {
+    return fetch(Account.ACCOUNT_MAPPER, ACCOUNT, ACCOUNT.ID.eq(id), fetchPlan).stream().findFirst();
+  }
+
+  /**
+   * Retrieves the {@link Account} corresponding to the id provided, without blocking the calling thread.
+   *
+   * @param id the id of the {@link Account} to search for.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the user.
+   */
+  public CompletionStage<Optional<Account>> findByIdAsync(final long id) { return asyncReadOnly(() -> findById(id)); }
+
+  /**
+   * Retrieves the {@link AccountPrincipal} of the account corresponding to the id provided. Only the identifying
+   * columns are read, and no {@link Account} is materialised.
+   *
+   * @param id the id of the account to search for.
+   *
+   * @return an {@link Optional} containing the principal.
+   */
+  public Optional<AccountPrincipal> findPrincipalById(final long id) {
+    return projectOptional(Records.mapping(AccountPrincipal::new),
+                           dslContext -> dslContext.select(ACCOUNT.ID, ACCOUNT.EMAIL,
+                                                           ACCOUNT.FIRSTNAME, ACCOUNT.LASTNAME)
+                                                   .from(ACCOUNT)
+                                                   .where(ACCOUNT.ID.eq(id)));
+  }
+
+  /**
+   * Retrieves the {@link AccountPrincipal} of the account corresponding to the id provided, without blocking the
+   * calling thread.
+   *
+   * @param id the id of the account to search for.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the principal.
+   *
+   * @see AccountsRepository#findPrincipalById(long)
+   */
+  public CompletionStage<Optional<AccountPrincipal>> findPrincipalByIdAsync(final long id) {
+    return findPrincipalByIdAsync(null, id);
+  }
+
+  /**
+   * Retrieves the {@link AccountPrincipal} of the account corresponding to the id provided, on behalf of the session
+   * provided, without blocking the calling thread.
+   *
+   * @param sessionKey the key of the session, captured by the request, or {@code null}.
+   * @param id the id of the account to search for.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the principal.
+   *
+   * @see AccountsRepository#findPrincipalById(long)
+   */
+  public CompletionStage<Optional<AccountPrincipal>> findPrincipalByIdAsync(final Object sessionKey, final long id) {
+    return projectOptionalAsync(sessionKey,
+                                Records.mapping(AccountPrincipal::new),
+                                dslContext -> dslContext.select(ACCOUNT.ID, ACCOUNT.EMAIL,
+                                                                ACCOUNT.FIRSTNAME, ACCOUNT.LASTNAME)
+                                                        .from(ACCOUNT)
+                                                        .where(ACCOUNT.ID.eq(id)));
+  }
+
+  /**
+   * Retrieves the revocation version of the account corresponding to the id provided. The version changes each time
+   * the password, the e-mail address, the name, the administration rights or the locked status of the account change.
+   *
+   * @param id the id of the account.
+   *
+   * @return an {@link Optional} containing the revocation version, or an empty one if the account does not exist.
+   */
+  public Optional<Integer> findRevocationVersion(final long id) {
+    return projectOptional(AccountsRepository::revocationVersion, revocationVersionQuery(id));
+  }
+
+  /**
+   * Retrieves the revocation version of the account corresponding to the id provided, on behalf of the session
+   * provided, without blocking the calling thread.
+   *
+   * @param sessionKey the key of the session, captured by the request, or {@code null}.
+   * @param id the id of the account.
+   *
+   * @return a {@link CompletionStage} completed with an {@link Optional} containing the revocation version, or an
+   * empty one if the account does not exist.
+   *
+   * @see AccountsRepository#findRevocationVersion(long)
+   */
+  public CompletionStage<Optional<Integer>> findRevocationVersionAsync(final Object sessionKey, final long id) {
+    return projectOptionalAsync(sessionKey, AccountsRepository::revocationVersion, revocationVersionQuery(id));
+  }
+
+  /**
+   * @param id the id of the account.
+   *
+   * @return the query selecting the columns of the account its revocation version is computed from.
+   */
+  private static Function<DSLContext, ResultQuery<Record6<String, String, String, String, Boolean, Boolean>>>
+      revocationVersionQuery(final long id) {
+    final Field<Boolean> administrator =
+        DSL.field(DSL.exists(DSL.selectOne().from(ADMINISTRATOR).where(ADMINISTRATOR.ID_ACCOUNT.eq(ACCOUNT.ID))));
+    final Field<Boolean> locked =
+        DSL.field(DSL.exists(DSL.selectOne().from(LOCKED_ACCOUNT).where(LOCKED_ACCOUNT.ID_ACCOUNT.eq(ACCOUNT.ID))));
+    return dslContext -> dslContext.select(ACCOUNT.PASSWORD, ACCOUNT.EMAIL, ACCOUNT.FIRSTNAME, ACCOUNT.LASTNAME,
+                                           administrator, locked)
+                                   .from(ACCOUNT)
+                                   .where(ACCOUNT.ID.eq(id));
+  }
+
+  /**
+   * @param r the row selected by {@link AccountsRepository#revocationVersionQuery(long)}.
+   *
+   * @return the revocation version of the account.
+   */
+  private static Integer revocationVersion(final Record6<String, String, String, String, Boolean, Boolean> r) {
+    return Objects.hash(r.intoArray());
   }
 
   /**
@@ -72,10 +72,10 @@ public final class BrickLinkTokensRepository extends Repository<BrickLinkTokens>
    * @return an {@link Optional} instance, containing the existing {@link BrickLinkTokens}.
    */
   private Optional<BrickLinkTokens> findByAccount(final DSLContext dslContext, final Account account) {
-    return fetchOptional(BrickLinkTokens.BRICKLINK_TOKENS_MAPPER,
-                         dslContext,
-                         ctx -> ctx.selectFrom(BRICKLINK_TOKENS)
-                                   .where(BRICKLINK_TOKENS.ID_ACCOUNT.eq(account.getId())));
+    return Optional.ofNullable(fetchById(BrickLinkTokens.BRICKLINK_TOKENS_MAPPER,
+                                         dslContext,
+                                         BRICKLINK_TOKENS.ID_ACCOUNT,
+                                         account.getId()));
   }
 
 }
@@ -73,10 +73,10 @@ public final class BrickSetTokensRepository extends Repository<BrickSetTokens> {
    * @return an {@link Optional} instance, containing the existing {@link BrickSetTokens}.
    */
   private Optional<BrickSetTokens> findByAccount(final DSLContext dslContext, final Account account) {
-    return fetchOptional(BRICKSET_TOKENS_MAPPER,
-                         dslContext,
-                         ctx -> ctx.selectFrom(BRICKSET_TOKENS)
-                                   .where(BRICKSET_TOKENS.ID_ACCOUNT.eq(account.getId())));
+    return Optional.ofNullable(fetchById(BRICKSET_TOKENS_MAPPER,
+                                         dslContext,
+                                         BRICKSET_TOKENS.ID_ACCOUNT,
+                                         account.getId()));
   }
 
 }
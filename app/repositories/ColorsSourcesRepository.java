@@ -7,11 +7,15 @@ import org.jooq.DSLContext;
 import orm.Mapper;
 import orm.OptionalModelLoader;
 import orm.Repository;
+import orm.caches.RecordsCaches;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import static jooq.tables.ColorSource.COLOR_SOURCE;
 
@@ -29,6 +33,12 @@ public final class ColorsSourcesRepository extends Repository<ColorsSource> {
                                             colorSourceRecord.getName(),
                                             colorSourceRecord.getUrl());
 
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link BiFunction} that fetches all {@link ColorsSource} instances of a loading batch with one query. */
+  private final BiFunction<DSLContext, Set<Long>, Map<Long, ColorsSource>> batchFetcher = this::findByIds;
+
   // *******************************************************************************************************************
   // Construction & Initialization
   // *******************************************************************************************************************
@@ -37,10 +47,12 @@ public final class ColorsSourcesRepository extends Repository<ColorsSource> {
    * Creates a new {@link ColorsSourcesRepository} using injection.
    *
    * @param briventoryDB the {@link BriventoryDB} instance.
+   * @param recordsCaches the {@link RecordsCaches} instance.
    */
   @Inject
-  private ColorsSourcesRepository(final BriventoryDB briventoryDB) {
+  private ColorsSourcesRepository(final BriventoryDB briventoryDB, final RecordsCaches recordsCaches) {
     super(briventoryDB);
+    enableRecordsCache(recordsCaches.of(COLOR_SOURCE));
   }
 
   // *******************************************************************************************************************
@@ -50,6 +62,7 @@ public final class ColorsSourcesRepository extends Repository<ColorsSource> {
   /** @return the {@link OptionalModelLoader} that will handle the lazy loading of a {@link ColorsSource}. */
   public OptionalModelLoader<Long, ColorsSource> createOptionalModelLoader() {
     return createOptionalModelLoader(this::findById,
+                                     batchFetcher,
                                      (dslContext, idAccount, optionalColorsSource) -> Collections.emptyList());
   }
 
@@ -67,10 +80,19 @@ public final class ColorsSourcesRepository extends Repository<ColorsSource> {
    * not correspond to any color source.
    */
   private Optional<ColorsSource> findById(final DSLContext dslContext, final long id) {
-    return Optional.ofNullable(fetchOne(COLORS_SOURCE_MAPPER,
-                                        dslContext,
-                                        ctx -> ctx.selectFrom(COLOR_SOURCE)
-                                                  .where(COLOR_SOURCE.ID.eq(id))));
+    return Optional.ofNullable(fetchById(COLORS_SOURCE_MAPPER, dslContext, COLOR_SOURCE.ID, id));
+  }
+
+  /**
+   * Find the {@link ColorsSource} instances corresponding to the identifiers given.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param ids the identifiers of the {@link ColorsSource} instances to find.
+   *
+   * @return a {@link Map} of the {@link ColorsSource} instances found, indexed by their identifier.
+   */
+  private Map<Long, ColorsSource> findByIds(final DSLContext dslContext, final Set<Long> ids) {
+    return fetchByIds(COLORS_SOURCE_MAPPER, dslContext, COLOR_SOURCE.ID, ids);
   }
 
 }
@@ -5,15 +5,25 @@ import database.BriventoryDB;
 import jooq.tables.records.ContainerTypeRecord;
 import models.ContainerType;
 import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
 import orm.Mapper;
 import orm.ModelLoader;
+import orm.Page;
 import orm.PersistAction1;
 import orm.Repository;
+import orm.caches.RecordsCaches;
+import orm.models.DeletableModel;
 import play.data.validation.ValidationError;
 
 import javax.inject.Singleton;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
 
 import static jooq.Tables.CONTAINER;
 import static jooq.Tables.CONTAINER_TYPE;
@@ -28,13 +38,19 @@ public final class ContainerTypesRepository extends Repository<ContainerType> {
    * the {@link Mapper} that will create an instance of {@link ContainerType} from an instance of
    * {@link ContainerTypeRecord}.
    */
-  private static final Mapper<ContainerTypeRecord, ContainerType> CONTAINER_TYPE_MAPPER =
+  static final Mapper<ContainerTypeRecord, ContainerType> CONTAINER_TYPE_MAPPER =
       containerTypeRecord -> new ContainerType(containerTypeRecord.getId(),
                                                containerTypeRecord.getName(),
                                                containerTypeRecord.getMinLockers(),
                                                containerTypeRecord.getMaxLockers(),
                                                containerTypeRecord.getNumberFormatting());
 
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link BiFunction} that fetches all {@link ContainerType} instances of a loading batch with one query. */
+  private final BiFunction<DSLContext, Set<Long>, Map<Long, ContainerType>> batchFetcher = this::findByIds;
+
   // *******************************************************************************************************************
   // Construction & Initialization
   // *******************************************************************************************************************
@@ -43,10 +59,12 @@ public final class ContainerTypesRepository extends Repository<ContainerType> {
    * Creates a new instance of {@link ContainersRepository}.
    *
    * @param briventoryDB the {@link BriventoryDB}.
+   * @param recordsCaches the {@link RecordsCaches} instance.
    */
   @Inject
-  public ContainerTypesRepository(final BriventoryDB briventoryDB) {
+  public ContainerTypesRepository(final BriventoryDB briventoryDB, final RecordsCaches recordsCaches) {
     super(briventoryDB);
+    enableRecordsCache(recordsCaches.of(CONTAINER_TYPE));
   }
 
   // *******************************************************************************************************************
@@ -56,6 +74,7 @@ public final class ContainerTypesRepository extends Repository<ContainerType> {
   /** @return the {@link ModelLoader} to lazy load a {@link ContainerType} instance. */
   public ModelLoader<Long, ContainerType> createModelLoader() {
     return createModelLoader(this::findById,
+                             batchFetcher,
                              (dslContext, idContainer, containerType) -> Collections.singletonList(
                                  new PersistAction1<>(this, containerType)));
   }
@@ -78,6 +97,36 @@ public final class ContainerTypesRepository extends Repository<ContainerType> {
    */
   public void delete(final ContainerType containerType) { super.deleteInTransaction(containerType); }
 
+  /**
+   * Deletes the provided {@link ContainerType} instances from the database, in a single transaction.
+   *
+   * @param containerTypes the {@link List} of {@link ContainerType} instances to delete.
+   */
+  public void delete(final List<ContainerType> containerTypes) { super.deleteAllInTransaction(containerTypes); }
+
+  /**
+   * Validates the deletion of the {@link ContainerType} instances provided: none of them may be used by a
+   * {@link models.Container}. The rule is checked for all the instances with a single query.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param containerTypes the {@link ContainerType} instances to delete.
+   *
+   * @return a {@link List} of {@link ValidationError} or an empty list if the deletion can go on.
+   */
+  @Override
+  protected List<?> validateForDeletion(final DSLContext dslContext,
+                                        final List<? extends DeletableModel<ContainerType, ?, ?>> containerTypes) {
+    final List<Object> errors = new ArrayList<>(super.validateForDeletion(dslContext, containerTypes));
+
+    final Set<Long> ids = new HashSet<>();
+    for (DeletableModel<ContainerType, ?, ?> containerType : containerTypes)
+      ids.add(containerType.createDeletionRecord(dslContext).get(CONTAINER_TYPE.ID));
+    if (dslContext.fetchExists(DSL.selectOne().from(CONTAINER).where(CONTAINER.ID_CONTAINER_TYPE.in(ids))))
+      errors.add(new ValidationError("", "containerType.error.used"));
+
+    return errors;
+  }
+
   /**
    * Validates the provided {@link models.ContainerType}.
    *
@@ -93,11 +142,33 @@ public final class ContainerTypesRepository extends Repository<ContainerType> {
   // General Data Retrieval
   // *******************************************************************************************************************
 
+  /** @return a {@link CompletionStage} completed with all {@link ContainerType} instances, without blocking. */
+  public CompletionStage<List<ContainerType>> getAllAsync() { return asyncReadOnly(this::getAll); }
+
+  /** @return a {@link CompletionStage} completed with the unused {@link ContainerType} instances, without blocking. */
+  public CompletionStage<List<ContainerType>> getUnusedAsync() { return asyncReadOnly(this::getUnused); }
+
   /** @return all {@link ContainerType} instances that are stored in the database. */
   public List<ContainerType> getAll() {
     return fetch(CONTAINER_TYPE_MAPPER, dslContext -> dslContext.selectFrom(CONTAINER_TYPE));
   }
 
+  /**
+   * Retrieves a {@link Page} of {@link ContainerType} instances, ordered by identifier.
+   *
+   * @param pageSize the maximal number of {@link ContainerType} instances of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   *
+   * @return the {@link Page} of {@link ContainerType} instances.
+   */
+  public Page<ContainerType> getPage(final int pageSize, final String token) {
+    return fetchPage(CONTAINER_TYPE_MAPPER,
+                     dslContext -> dslContext.selectFrom(CONTAINER_TYPE),
+                     pageSize,
+                     token,
+                     CONTAINER_TYPE.ID);
+  }
+
   /**
    * find the {@link ContainerType} corresponding to the identifier given.
    *
@@ -108,11 +179,19 @@ public final class ContainerTypesRepository extends Repository<ContainerType> {
    * identifier does not correspond to any container type.
    */
   private ContainerType findById(final DSLContext dslContext, final Long id) {
-    if (id == null) return null;
-    return fetchOne(CONTAINER_TYPE_MAPPER,
-                    dslContext,
-                    ctx -> ctx.selectFrom(CONTAINER_TYPE)
-                              .where(CONTAINER_TYPE.ID.eq(id)));
+    return fetchById(CONTAINER_TYPE_MAPPER, dslContext, CONTAINER_TYPE.ID, id);
+  }
+
+  /**
+   * find the {@link ContainerType} instances corresponding to the identifiers given.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param ids the identifiers of the {@link ContainerType} instances to find.
+   *
+   * @return a {@link Map} of the {@link ContainerType} instances found, indexed by their identifier.
+   */
+  private Map<Long, ContainerType> findByIds(final DSLContext dslContext, final Set<Long> ids) {
+    return fetchByIds(CONTAINER_TYPE_MAPPER, dslContext, CONTAINER_TYPE.ID, ids);
   }
 
   /** @return all {@link ContainerType} instances that are not used by any {@link models.Container}. */
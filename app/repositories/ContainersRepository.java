@@ -1,15 +1,33 @@
 package repositories;
 
 import database.BriventoryDB;
+import jooq.tables.records.LockerSizeRecord;
 import models.Account;
 import models.Container;
+import models.ContainerType;
+import models.Locker;
+import models.LockerSize;
 import org.jooq.Name;
+import org.jooq.Record4;
+import org.jooq.Result;
 import org.jooq.impl.DSL;
+import orm.FetchPlan;
+import orm.Page;
 import orm.Repository;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static jooq.Tables.CONTAINER;
+import static jooq.Tables.CONTAINER_COMPOSITION;
+import static jooq.Tables.CONTAINER_TYPE;
+import static jooq.Tables.LOCKER;
+import static jooq.Tables.LOCKER_SIZE;
+import static models.LockerSize.LOCKER_SIZE_MAPPER;
 
 @Singleton
 public final class ContainersRepository extends Repository<Container> {
@@ -22,6 +40,45 @@ public final class ContainersRepository extends Repository<Container> {
    */
   static final Name LOCKER_ALIAS = DSL.unquotedName("locker");
 
+  // *******************************************************************************************************************
+  // Fetch Plans
+  // *******************************************************************************************************************
+  /** The {@link FetchPlan} loading the {@link ContainerType} and the lockers, with their size, of the containers. */
+  public static final FetchPlan<Container> WITH_TYPE_AND_LOCKERS =
+      FetchPlan.<Container>empty()
+               .with(DSL.multiset(DSL.selectFrom(CONTAINER_TYPE)
+                                     .where(CONTAINER_TYPE.ID.eq(CONTAINER.ID_CONTAINER_TYPE)))
+                        .convertFrom(containerTypes -> containerTypes.isEmpty()
+                                                       ? null
+                                                       : ContainerTypesRepository.CONTAINER_TYPE_MAPPER
+                                                             .map(containerTypes.get(0))),
+                     Container::setFetchedContainerType)
+               .with(DSL.multiset(DSL.select(LOCKER.ID,
+                                             LOCKER.ID_LOCKER_SIZE,
+                                             CONTAINER_COMPOSITION.POSITION,
+                                             DSL.multiset(DSL.selectFrom(LOCKER_SIZE)
+                                                             .where(LOCKER_SIZE.ID.eq(LOCKER.ID_LOCKER_SIZE))))
+                                     .from(CONTAINER_COMPOSITION)
+                                     .innerJoin(LOCKER).on(CONTAINER_COMPOSITION.ID_LOCKER.eq(LOCKER.ID))
+                                     .where(CONTAINER_COMPOSITION.ID_CONTAINER.eq(CONTAINER.ID)))
+                        .convertFrom(lockers -> lockers.map(ContainersRepository::lockerWithSize)),
+                     Container::setFetchedLockers);
+
+  /**
+   * Creates a {@link Locker}, with its {@link LockerSize}, from a row of the lockers of
+   * {@link ContainersRepository#WITH_TYPE_AND_LOCKERS}.
+   *
+   * @param r4 the row of the locker.
+   *
+   * @return the {@link Locker}.
+   */
+  private static Locker lockerWithSize(final Record4<Long, Long, Short, Result<LockerSizeRecord>> r4) {
+    final Locker locker =
+        LockersRepository.LOCKER_MAPPER.map(r4.into(LOCKER.ID, LOCKER.ID_LOCKER_SIZE, CONTAINER_COMPOSITION.POSITION));
+    if (r4.value4().isNotEmpty()) locker.setFetchedLockerSize(LOCKER_SIZE_MAPPER.map(r4.value4().get(0)));
+    return locker;
+  }
+
   // *******************************************************************************************************************
   // Attributes
   // *******************************************************************************************************************
@@ -70,11 +127,63 @@ public final class ContainersRepository extends Repository<Container> {
         sharedContainersRepository::getSharedContainersQuery);
   }
 
+  /**
+   * Retrieves all {@link Container}s, with the associations declared by the {@link FetchPlan}. The private and the
+   * shared containers, and their associations, are fetched by a single {@code UNION ALL}.
+   *
+   * @param fetchPlan the {@link FetchPlan}, e.g. {@link ContainersRepository#WITH_TYPE_AND_LOCKERS}.
+   *
+   * @return all {@link Container}s.
+   */
+  public List<Container> getAll(final FetchPlan<Container> fetchPlan) {
+    return unionAll(fetchPlan,
+        privateContainersRepository::getPrivateContainersQuery,
+        sharedContainersRepository::getSharedContainersQuery);
+  }
+
   public List<Container> getContainersWithLockers() {
     return unionAll(privateContainersRepository::getPrivateContainersWithLockersQuery,
         sharedContainersRepository::getSharedContainersWithLockersQuery);
   }
 
+  /**
+   * Streams all {@link Container}s, without materialising them all in memory.
+   *
+   * @param fetchSize the number of containers fetched per round trip.
+   * @param consumer the {@link Consumer} of the {@link Stream} of {@link Container}s, only valid during its call.
+   */
+  public void streamAll(final int fetchSize, final Consumer<? super Stream<Container>> consumer) {
+    streamAll(fetchSize, consumer,
+        privateContainersRepository::getPrivateContainersQuery,
+        sharedContainersRepository::getSharedContainersQuery);
+  }
+
+  /**
+   * Streams all {@link Container}s with their lockers, without materialising them all in memory.
+   *
+   * @param fetchSize the number of containers fetched per round trip.
+   * @param consumer the {@link Consumer} of the {@link Stream} of {@link Container}s, only valid during its call.
+   */
+  public void streamContainersWithLockers(final int fetchSize, final Consumer<? super Stream<Container>> consumer) {
+    streamAll(fetchSize, consumer,
+        privateContainersRepository::getPrivateContainersWithLockersQuery,
+        sharedContainersRepository::getSharedContainersWithLockersQuery);
+  }
+
+  /**
+   * Retrieves a {@link Page} of {@link Container}s, ordered by identifier.
+   *
+   * @param pageSize the maximal number of {@link Container}s of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   *
+   * @return the {@link Page} of {@link Container}s.
+   */
+  public Page<Container> getPage(final int pageSize, final String token) {
+    return unionAllPage(pageSize, token, CONTAINER.ID,
+        privateContainersRepository::getPrivateContainersQuery,
+        sharedContainersRepository::getSharedContainersQuery);
+  }
+
   public List<Container> findAll(final Account account,
                                  final boolean alsoSharedContainers,
                                  final boolean alsoPrivateContainers,
@@ -91,4 +200,91 @@ public final class ContainersRepository extends Repository<Container> {
             idLockerSize));
   }
 
+  /**
+   * Retrieves the {@link Container}s matching the criteria given, with the associations declared by the
+   * {@link FetchPlan}. The private and the shared containers, and their associations, are fetched by a single
+   * {@code UNION ALL}.
+   *
+   * @param account the {@link Account} owning the private containers.
+   * @param alsoSharedContainers should the shared containers be retrieved ?
+   * @param alsoPrivateContainers should the private containers be retrieved ?
+   * @param idContainerType the identifier of the container type, or {@code null} for any type.
+   * @param idLockerSize the identifier of the locker size, or {@code null} for any size.
+   * @param fetchPlan the {@link FetchPlan}, e.g. {@link ContainersRepository#WITH_TYPE_AND_LOCKERS}.
+   *
+   * @return the {@link List} of {@link Container}s.
+   */
+  public List<Container> findAll(final Account account,
+                                 final boolean alsoSharedContainers,
+                                 final boolean alsoPrivateContainers,
+                                 final Long idContainerType,
+                                 final Long idLockerSize,
+                                 final FetchPlan<Container> fetchPlan) {
+    return unionAll(fetchPlan,
+        dslContext -> privateContainersRepository.getPrivateContainersQuery(dslContext,
+            account,
+            alsoPrivateContainers,
+            idContainerType,
+            idLockerSize),
+        dslContext -> sharedContainersRepository.getSharedContainersQuery(dslContext,
+            alsoSharedContainers,
+            idContainerType,
+            idLockerSize));
+  }
+
+  /**
+   * Retrieves the {@link Container}s matching the criteria given, without blocking the calling thread.
+   *
+   * @param account the {@link Account} owning the private containers.
+   * @param alsoSharedContainers should the shared containers be retrieved ?
+   * @param alsoPrivateContainers should the private containers be retrieved ?
+   * @param idContainerType the identifier of the container type, or {@code null} for any type.
+   * @param idLockerSize the identifier of the locker size, or {@code null} for any size.
+   *
+   * @return a {@link CompletionStage} completed with the {@link List} of {@link Container}s.
+   */
+  public CompletionStage<List<Container>> findAllAsync(final Account account,
+                                                       final boolean alsoSharedContainers,
+                                                       final boolean alsoPrivateContainers,
+                                                       final Long idContainerType,
+                                                       final Long idLockerSize) {
+    return asyncReadOnly(() -> findAll(account,
+                                       alsoSharedContainers,
+                                       alsoPrivateContainers,
+                                       idContainerType,
+                                       idLockerSize));
+  }
+
+  /**
+   * Retrieves a {@link Page} of the {@link Container}s matching the criteria given, ordered by identifier.
+   *
+   * @param account the {@link Account} owning the private containers.
+   * @param alsoSharedContainers should the shared containers be retrieved ?
+   * @param alsoPrivateContainers should the private containers be retrieved ?
+   * @param idContainerType the identifier of the container type, or {@code null} for any type.
+   * @param idLockerSize the identifier of the locker size, or {@code null} for any size.
+   * @param pageSize the maximal number of {@link Container}s of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   *
+   * @return the {@link Page} of {@link Container}s.
+   */
+  public Page<Container> findPage(final Account account,
+                                  final boolean alsoSharedContainers,
+                                  final boolean alsoPrivateContainers,
+                                  final Long idContainerType,
+                                  final Long idLockerSize,
+                                  final int pageSize,
+                                  final String token) {
+    return unionAllPage(pageSize, token, CONTAINER.ID,
+        dslContext -> privateContainersRepository.getPrivateContainersQuery(dslContext,
+            account,
+            alsoPrivateContainers,
+            idContainerType,
+            idLockerSize),
+        dslContext -> sharedContainersRepository.getSharedContainersQuery(dslContext,
+            alsoSharedContainers,
+            idContainerType,
+            idLockerSize));
+  }
+
 }
@@ -5,12 +5,18 @@ import database.BriventoryDB;
 import models.LockerSize;
 import org.jooq.DSLContext;
 import orm.ModelLoader;
+import orm.Page;
 import orm.PersistAction1;
 import orm.Repository;
+import orm.caches.RecordsCaches;
 
 import javax.inject.Singleton;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
 
 import static jooq.Tables.LOCKER;
 import static jooq.tables.LockerSize.LOCKER_SIZE;
@@ -19,12 +25,19 @@ import static models.LockerSize.LOCKER_SIZE_MAPPER;
 @Singleton
 public final class LockerSizesRepository extends Repository<LockerSize> {
 
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link BiFunction} that fetches all {@link LockerSize} instances of a loading batch with one query. */
+  private final BiFunction<DSLContext, Set<Long>, Map<Long, LockerSize>> batchFetcher = this::findByIds;
+
   // *******************************************************************************************************************
   // Construction & Initialization
   // *******************************************************************************************************************
   @Inject
-  public LockerSizesRepository(final BriventoryDB briventoryDB) {
+  public LockerSizesRepository(final BriventoryDB briventoryDB, final RecordsCaches recordsCaches) {
     super(briventoryDB);
+    enableRecordsCache(recordsCaches.of(LOCKER_SIZE));
   }
 
   // *******************************************************************************************************************
@@ -34,6 +47,7 @@ public final class LockerSizesRepository extends Repository<LockerSize> {
   /** @return the {@link ModelLoader} to lazy load a {@link LockerSize} instance. */
   public ModelLoader<Long, LockerSize> createModelLoader() {
     return createModelLoader(this::findById,
+                             batchFetcher,
                              (dslContext, idLocker, lockerSize) -> Collections.singletonList(
                                  new PersistAction1<>(this, lockerSize)));
   }
@@ -52,17 +66,48 @@ public final class LockerSizesRepository extends Repository<LockerSize> {
    * does not correspond to any container type.
    */
   private LockerSize findById(final DSLContext dslContext, final Long id) {
-    return fetchOne(LOCKER_SIZE_MAPPER,
-                    dslContext,
-                    ctx -> ctx.selectFrom(LOCKER_SIZE)
-                              .where(LOCKER_SIZE.ID.eq(id)));
+    return fetchById(LOCKER_SIZE_MAPPER, dslContext, LOCKER_SIZE.ID, id);
+  }
+
+  /**
+   * find the {@link LockerSize} instances corresponding to the identifiers given.
+   *
+   * @param dslContext the {@link DSLContext}.
+   * @param ids the identifiers of the {@link LockerSize} instances to find.
+   *
+   * @return a {@link Map} of the {@link LockerSize} instances found, indexed by their identifier.
+   */
+  private Map<Long, LockerSize> findByIds(final DSLContext dslContext, final Set<Long> ids) {
+    return fetchByIds(LOCKER_SIZE_MAPPER, dslContext, LOCKER_SIZE.ID, ids);
   }
 
+  /** @return a {@link CompletionStage} completed with all {@link LockerSize} instances, without blocking. */
+  public CompletionStage<List<LockerSize>> getAllAsync() { return asyncReadOnly(this::getAll); }
+
+  /** @return a {@link CompletionStage} completed with the unused {@link LockerSize} instances, without blocking. */
+  public CompletionStage<List<LockerSize>> getUnusedAsync() { return asyncReadOnly(this::getUnused); }
+
   /** @return all {@link LockerSize} instances that are stored in the database. */
   public List<LockerSize> getAll() {
     return fetch(LOCKER_SIZE_MAPPER, dslContext -> dslContext.selectFrom(LOCKER_SIZE));
   }
 
+  /**
+   * Retrieves a {@link Page} of {@link LockerSize} instances, ordered by identifier.
+   *
+   * @param pageSize the maximal number of {@link LockerSize} instances of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   *
+   * @return the {@link Page} of {@link LockerSize} instances.
+   */
+  public Page<LockerSize> getPage(final int pageSize, final String token) {
+    return fetchPage(LOCKER_SIZE_MAPPER,
+                     dslContext -> dslContext.selectFrom(LOCKER_SIZE),
+                     pageSize,
+                     token,
+                     LOCKER_SIZE.ID);
+  }
+
   /** @return all {@link LockerSize} instances that are not used by any {@link models.Locker}. */
   public List<LockerSize> getUnused() {
     return fetch(LOCKER_SIZE_MAPPER, dslContext ->
@@ -44,15 +44,25 @@ public final class LockersRepository extends Repository<Locker> {
   // *******************************************************************************************************************
   // Lazy Loaders Creation
   // *******************************************************************************************************************
+  /**
+   * Creates the {@link ManyModelsLoader} that will handle the lockers of a container. Only the lockers that have been
+   * added, modified or removed since the fetch are written.
+   *
+   * @param container the {@link Container} concerned.
+   *
+   * @return a {@link ManyModelsLoader}.
+   */
   public ManyModelsLoader<Container, Locker> createLockersLoader(final Container container) {
     return createManyModelsLoader(container,
                                   this::findAll,
-                                  (dslContext, c, lockers) -> {
+                                  Locker::getId,
+                                  Locker::getIdLockerSize,
+                                  (dslContext, c, diff) -> {
                                     final List<Action> actions = new LinkedList<>();
-                                    List<Locker> dbLockers = findAll(dslContext, c);
-                                    dbLockers.removeAll(lockers);
-                                    actions.add(new DeleteAction<>(this, dbLockers));
-                                    actions.add(new PersistAction1<>(this, lockers));
+                                    if (!diff.deleted().isEmpty())
+                                      actions.add(new DeleteAction<>(this, diff.deleted()));
+                                    if (!diff.inserted().isEmpty() || !diff.updated().isEmpty())
+                                      actions.add(new PersistAction1<>(this, diff.merged()));
                                     return actions;
                                   });
   }
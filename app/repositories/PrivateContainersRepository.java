@@ -8,7 +8,7 @@ import models.PrivateContainer;
 import models.SharedContainer;
 import org.jooq.DSLContext;
 import org.jooq.Record4;
-import org.jooq.ResultQuery;
+import org.jooq.SelectOrderByStep;
 import org.jooq.lambda.tuple.Tuple;
 import org.jooq.lambda.tuple.Tuple2;
 import orm.Mapper;
@@ -58,7 +58,7 @@ public final class PrivateContainersRepository extends Repository<PrivateContain
 
   Tuple2<Mapper<Record4<Long, Long, List<Locker>, Long>,
       PrivateContainer>,
-      ResultQuery<Record4<Long, Long, List<Locker>, Long>>> getPrivateContainersQuery(
+      SelectOrderByStep<Record4<Long, Long, List<Locker>, Long>>> getPrivateContainersQuery(
       final DSLContext dslContext) {
     return Tuple.tuple(PRIVATE_CONTAINER_MAPPER,
                        dslContext.select(CONTAINER.ID,
@@ -71,7 +71,7 @@ public final class PrivateContainersRepository extends Repository<PrivateContain
 
   Tuple2<Mapper<Record4<Long, Long, List<Locker>, Long>,
       PrivateContainer>,
-      ResultQuery<Record4<Long, Long, List<Locker>, Long>>> getPrivateContainersQuery(
+      SelectOrderByStep<Record4<Long, Long, List<Locker>, Long>>> getPrivateContainersQuery(
       final DSLContext dslContext,
       final Account account,
       final boolean alsoPrivateContainer,
@@ -103,7 +103,7 @@ public final class PrivateContainersRepository extends Repository<PrivateContain
 
   Tuple2<Mapper<Record4<Long, Long, List<Locker>, Long>,
       PrivateContainer>,
-      ResultQuery<Record4<Long, Long, List<Locker>, Long>>> getPrivateContainersWithLockersQuery(
+      SelectOrderByStep<Record4<Long, Long, List<Locker>, Long>>> getPrivateContainersWithLockersQuery(
       final DSLContext dslContext) {
     return Tuple.tuple(PRIVATE_CONTAINER_MAPPER,
                        dslContext.select(CONTAINER.ID,
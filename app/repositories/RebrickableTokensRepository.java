@@ -76,10 +76,10 @@ public final class RebrickableTokensRepository extends Repository<RebrickableTok
    * @return an {@link Optional} instance, containing the existing {@link RebrickableTokens}.
    */
   private Optional<RebrickableTokens> findByAccount(final DSLContext dslContext, final Account account) {
-    return fetchOptional(REBRICKABLE_TOKENS_MAPPER,
-                         dslContext,
-                         ctx -> ctx.selectFrom(REBRICKABLE_TOKENS)
-                                   .where(REBRICKABLE_TOKENS.ID_ACCOUNT.eq(account.getId())));
+    return Optional.ofNullable(fetchById(REBRICKABLE_TOKENS_MAPPER,
+                                         dslContext,
+                                         REBRICKABLE_TOKENS.ID_ACCOUNT,
+                                         account.getId()));
   }
 
 }
@@ -7,7 +7,7 @@ import models.PrivateContainer;
 import models.SharedContainer;
 import org.jooq.DSLContext;
 import org.jooq.Record3;
-import org.jooq.ResultQuery;
+import org.jooq.SelectOrderByStep;
 import org.jooq.lambda.tuple.Tuple;
 import org.jooq.lambda.tuple.Tuple2;
 import orm.Mapper;
@@ -36,7 +36,7 @@ public final class SharedContainersRepository extends Repository<SharedContainer
   // Queries
   // *******************************************************************************************************************
   Tuple2<Mapper<Record3<Long, Long, List<Locker>>, SharedContainer>,
-      ResultQuery<Record3<Long, Long, List<Locker>>>> getSharedContainersQuery(
+      SelectOrderByStep<Record3<Long, Long, List<Locker>>>> getSharedContainersQuery(
       final DSLContext dslContext) {
     return Tuple.tuple(SHARED_CONTAINER_MAPPER,
                        dslContext.select(CONTAINER.ID,
@@ -47,7 +47,7 @@ public final class SharedContainersRepository extends Repository<SharedContainer
   }
 
   Tuple2<Mapper<Record3<Long, Long, List<Locker>>, SharedContainer>,
-      ResultQuery<Record3<Long, Long, List<Locker>>>> getSharedContainersQuery(
+      SelectOrderByStep<Record3<Long, Long, List<Locker>>>> getSharedContainersQuery(
       final DSLContext dslContext,
       final boolean alsoSharedContainers,
       final Long idContainerType,
@@ -76,7 +76,7 @@ public final class SharedContainersRepository extends Repository<SharedContainer
 
   Tuple2<Mapper<Record3<Long, Long, List<Locker>>,
       SharedContainer>,
-      ResultQuery<Record3<Long, Long, List<Locker>>>> getSharedContainersWithLockersQuery(
+      SelectOrderByStep<Record3<Long, Long, List<Locker>>>> getSharedContainersWithLockersQuery(
       final DSLContext dslContext) {
     return Tuple.tuple(SHARED_CONTAINER_MAPPER,
                        dslContext.select(CONTAINER.ID,
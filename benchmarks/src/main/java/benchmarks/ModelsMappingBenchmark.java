@@ -0,0 +1,131 @@
+package benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import jooq.tables.records.AccountRecord;
+import models.Account;
+import models.Locker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import orm.RepositoriesHandler;
+import orm.RepositoriesHandlerModule;
+import play.db.Database;
+import play.db.Databases;
+import repositories.AccountsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ModelsMappingBenchmark} measures the cost of mapping a result set into models: the resolution of the
+ * repositories by {@link RepositoriesHandler} and the allocation of the lazy loaders of each model.
+ * <p>To measure the latency and the allocation rate, run:</p>
+ * <pre><code>
+ *   sbt "benchmarks/Jmh/run -prof gc ModelsMappingBenchmark"
+ * </code></pre>
+ * <p>No query is executed: the models are mapped from records built in memory, and the database is only required to
+ * inject the repositories.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelsMappingBenchmark {
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The number of rows of the result set. */
+  @Param({"10000"})
+  public int rows;
+
+  /** The in-memory {@link Database}, to inject the repositories. */
+  private Database database;
+  /** The {@link AccountRecord} instances to map. */
+  private List<AccountRecord> accountRecords;
+
+  // *******************************************************************************************************************
+  // Setup
+  // *******************************************************************************************************************
+
+  /** Injects the repositories and builds the records to map. */
+  @Setup
+  public void setUp() {
+    database = Databases.createFrom("org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:benchmarks");
+    final Config config = ConfigFactory.load();
+    Guice.createInjector(new RepositoriesHandlerModule(), new AbstractModule() {
+      @Override
+      protected void configure() {
+        bind(Database.class).toInstance(database);
+        bind(Config.class).toInstance(config);
+      }
+    });
+
+    accountRecords = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++)
+      accountRecords.add(new AccountRecord().setId((long) i)
+                                            .setFirstname("Firstname " + i)
+                                            .setLastname("Lastname " + i)
+                                            .setEmail("account" + i + "@briventory.ch")
+                                            .setPassword("password"));
+  }
+
+  /** Shuts the in-memory database down. */
+  @TearDown
+  public void tearDown() { database.shutdown(); }
+
+  // *******************************************************************************************************************
+  // Benchmarks
+  // *******************************************************************************************************************
+
+  /**
+   * Maps the result set into {@link Account} instances.
+   *
+   * @param blackhole the {@link Blackhole}.
+   */
+  @Benchmark
+  public void mapAccounts(final Blackhole blackhole) {
+    for (AccountRecord accountRecord : accountRecords)
+      blackhole.consume(Account.ACCOUNT_MAPPER.map(accountRecord));
+  }
+
+  /**
+   * Maps the result set into {@link Locker} instances.
+   *
+   * @param blackhole the {@link Blackhole}.
+   */
+  @Benchmark
+  public void mapLockers(final Blackhole blackhole) {
+    for (int i = 0; i < rows; i++)
+      blackhole.consume(new Locker(i, 1L, (short) (i % Short.MAX_VALUE)));
+  }
+
+  /**
+   * Resolves a repository from several threads at once, as the models mapped by concurrent requests do.
+   *
+   * @param blackhole the {@link Blackhole}.
+   */
+  @Benchmark
+  @Threads(4)
+  public void resolveRepository(final Blackhole blackhole) {
+    blackhole.consume(RepositoriesHandler.of(AccountsRepository.class));
+  }
+
+}
@@ -0,0 +1,119 @@
+package benchmarks;
+
+import jooq.tables.records.AccountRecord;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record1;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import orm.NamedQuery;
+
+import java.util.concurrent.TimeUnit;
+
+import static jooq.Tables.ACCOUNT;
+import static jooq.Tables.ADMINISTRATOR;
+
+/**
+ * {@code NamedQueriesBenchmark} compares the execution of the hot queries of the repositories, when the query tree is
+ * built and rendered on each call, and when a {@link NamedQuery} only re-binds its pre-rendered SQL.
+ * <p>To measure the latency and the allocation rate, run:</p>
+ * <pre><code>
+ *   sbt "benchmarks/Jmh/run -prof gc NamedQueriesBenchmark"
+ * </code></pre>
+ * <p>The queries are executed on a {@link MockConnection}: the whole execution of jOOQ is measured (construction,
+ * rendering, binding and fetch), but not the database itself.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NamedQueriesBenchmark {
+
+  // *******************************************************************************************************************
+  // Constants
+  // *******************************************************************************************************************
+  /** The {@link NamedQuery} fetching an account by its identifier. */
+  private static final NamedQuery<AccountRecord> ACCOUNT_BY_ID =
+      NamedQuery.selectFrom("account.byId", ACCOUNT, ACCOUNT.ID.eq(DSL.param("id", Long.class)));
+  /** The {@link NamedQuery} checking if an account has administrator rights. */
+  private static final NamedQuery<Record1<Boolean>> IS_ADMINISTRATOR =
+      NamedQuery.exists("accounts.isAdministrator",
+                        DSL.selectOne()
+                           .from(ADMINISTRATOR)
+                           .where(ADMINISTRATOR.ID_ACCOUNT.eq(DSL.param("idAccount", Long.class))));
+  /** The column returned by the {@code exists} queries. */
+  private static final Field<Boolean> EXISTS = DSL.field(DSL.name("exists"), SQLDataType.BOOLEAN);
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link DSLContext}, executing the queries on a {@link MockConnection}. */
+  private DSLContext dslContext;
+  /** The identifier bound to the queries. */
+  private long id;
+
+  // *******************************************************************************************************************
+  // Setup
+  // *******************************************************************************************************************
+
+  /** Creates the {@link DSLContext} on a {@link MockConnection}, answering an account or {@code true}. */
+  @Setup
+  public void setUp() {
+    final DSLContext results = DSL.using(SQLDialect.POSTGRES);
+    final Result<AccountRecord> accounts = results.newResult(ACCOUNT);
+    accounts.add(results.newRecord(ACCOUNT).setId(1L)
+                        .setFirstname("Firstname")
+                        .setLastname("Lastname")
+                        .setEmail("account@briventory.ch")
+                        .setPassword("password"));
+    final Result<Record1<Boolean>> exists = results.newResult(EXISTS);
+    exists.add(results.newRecord(EXISTS).values(true));
+
+    dslContext = DSL.using(new MockConnection(context -> new MockResult[]{
+        context.sql().contains("exists") ? new MockResult(1, exists) : new MockResult(1, accounts)
+    }), SQLDialect.POSTGRES);
+  }
+
+  // *******************************************************************************************************************
+  // Benchmarks
+  // *******************************************************************************************************************
+
+  /** @return the account, fetched by a query built and rendered on each call. */
+  @Benchmark
+  public AccountRecord findByIdBuilt() {
+    return dslContext.selectFrom(ACCOUNT).where(ACCOUNT.ID.eq(++id)).fetchOne();
+  }
+
+  /** @return the account, fetched by a {@link NamedQuery}. */
+  @Benchmark
+  public AccountRecord findByIdNamed() { return ACCOUNT_BY_ID.bind(dslContext, ++id).fetchOne(); }
+
+  /** @return the administrator rights, checked by a query built and rendered on each call. */
+  @Benchmark
+  public boolean isAdministratorBuilt() {
+    return dslContext.fetchExists(dslContext.selectFrom(ADMINISTRATOR).where(ADMINISTRATOR.ID_ACCOUNT.eq(++id)));
+  }
+
+  /** @return the administrator rights, checked by a {@link NamedQuery}. */
+  @Benchmark
+  public boolean isAdministratorNamed() {
+    return Boolean.TRUE.equals(IS_ADMINISTRATOR.bind(dslContext, ++id).fetchSingle().value1());
+  }
+
+}
@@ -0,0 +1,70 @@
+package controllers.accounts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import junit5.J5WithAccount;
+import models.Account;
+import org.junit.jupiter.api.Test;
+import play.libs.Json;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.test.Helpers;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountsControllerTest extends J5WithAccount {
+
+  // *******************************************************************************************************************
+  // Test data
+  // *******************************************************************************************************************
+  private static final String STRENGTH_URI = "/account/settings/strength";
+
+  /**
+   * @param data the form data posted.
+   *
+   * @return a new {@link Http.RequestBuilder} posting the form data to the strength meter, on behalf of the
+   * {@link Account}.
+   */
+  private Http.RequestBuilder strengthRequest(final Map<String, String> data) {
+    return new Http.RequestBuilder().method(Helpers.POST)
+                                    .uri(STRENGTH_URI)
+                                    .session(signedInSession().data())
+                                    .header("Csrf-Token", "nocheck")
+                                    .bodyForm(data);
+  }
+
+  // *******************************************************************************************************************
+  // Test methods.
+  // *******************************************************************************************************************
+
+  /** Tests that the meter only needs the new password, and rates a strong one as sufficient. */
+  @Test
+  void estimateStrongPassword() {
+    final Result result = resultFrom(strengthRequest(Map.of("newPassword", "Correct Horse Battery Staple 42 !")));
+
+    assertEquals(Http.Status.OK, result.status());
+    final JsonNode strength = Json.parse(Helpers.contentAsString(result));
+    assertTrue(strength.get("sufficient").asBoolean());
+  }
+
+  /** Tests that the name of the user is excluded from the dictionaries, so that a password made of it is weak. */
+  @Test
+  void estimatePasswordMadeOfName() {
+    final Result result = resultFrom(strengthRequest(Map.of("newPassword", "SelinaKyleSelinaKyle")));
+
+    assertEquals(Http.Status.OK, result.status());
+    final JsonNode strength = Json.parse(Helpers.contentAsString(result));
+    assertFalse(strength.get("sufficient").asBoolean());
+    assertEquals(0, strength.get("score").asInt());
+  }
+
+  /** Tests that a request without the new password is rejected. */
+  @Test
+  void rejectMissingPassword() {
+    final Result result = resultFrom(strengthRequest(Map.of()));
+
+    assertEquals(Http.Status.BAD_REQUEST, result.status());
+  }
+
+}
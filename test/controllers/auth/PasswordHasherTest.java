@@ -0,0 +1,94 @@
+package controllers.auth;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import play.inject.ApplicationLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+  // *******************************************************************************************************************
+  // Test data
+  // *******************************************************************************************************************
+  private static final String SELINA_PASS = "I am Catwoman !!";
+  private static final int QUEUE_CAPACITY = 2;
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The stop hooks registered by the {@link PasswordHasher}. */
+  private final List<Callable<? extends CompletionStage<?>>> stopHooks = new ArrayList<>();
+  /** The {@link PasswordHasher} of the tests. */
+  private PasswordHasher passwordHasher;
+
+  // *******************************************************************************************************************
+  // Global test methods.
+  // *******************************************************************************************************************
+  @BeforeEach
+  public void setUp() {
+    final Config config = ConfigFactory.parseMap(Map.of("briventory.passwords.queue-capacity", QUEUE_CAPACITY,
+                                                        "briventory.passwords.report-interval", "1 hour"));
+    passwordHasher = new PasswordHasher(config, new ApplicationLifecycle() {
+      @Override
+      public void addStopHook(final Callable<? extends CompletionStage<?>> hook) { stopHooks.add(hook); }
+
+      @Override
+      public play.api.inject.ApplicationLifecycle asScala() { throw new UnsupportedOperationException(); }
+    });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    assertDoesNotThrow(() -> {
+      for (Callable<? extends CompletionStage<?>> hook : stopHooks)
+        hook.call().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    });
+  }
+
+  // *******************************************************************************************************************
+  // Test methods.
+  // *******************************************************************************************************************
+
+  /** A password is verified against its own hash only. */
+  @Test
+  void verifyHashedPassword() throws Exception {
+    final String hashed = passwordHasher.hash(SELINA_PASS).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+    assertTrue(passwordHasher.verify(SELINA_PASS, hashed).toCompletableFuture().get(10, TimeUnit.SECONDS));
+    assertFalse(passwordHasher.verify("I am Batman !!", hashed).toCompletableFuture().get(10, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Once every thread is busy and the queue is full, an operation is rejected at once, instead of waiting: a hash
+   * being much slower than a submission, the operations submitted in a row exceed the pool and its queue.
+   */
+  @Test
+  void rejectWhenQueueFull() {
+    final List<CompletableFuture<String>> hashes = new ArrayList<>();
+    for (int i = 0; i <= Runtime.getRuntime().availableProcessors() + QUEUE_CAPACITY; i++)
+      hashes.add(passwordHasher.hash(SELINA_PASS).toCompletableFuture());
+
+    final CompletableFuture<String> rejected = hashes.get(hashes.size() - 1);
+    assertTrue(rejected.isCompletedExceptionally());
+    final ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+    assertTrue(PasswordHasher.isRejection(e.getCause()));
+    assertTrue(PasswordHasher.isRejection(assertThrows(ExecutionException.class,
+                                                       () -> passwordHasher.verify(SELINA_PASS, "")
+                                                                           .toCompletableFuture()
+                                                                           .get()).getCause()));
+  }
+
+}
@@ -0,0 +1,70 @@
+package controllers.auth;
+
+import junit5.J5WithAccount;
+import models.Account;
+import models.AccountPrincipal;
+import org.junit.jupiter.api.Test;
+import play.mvc.Http;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionHelperTest extends J5WithAccount {
+
+  /** @return a new {@link Http.Request}, whose session holds the {@link Account}. */
+  private Http.Request signedInRequest() {
+    return new Http.RequestBuilder().session(signedInSession().data()).build();
+  }
+
+  // *******************************************************************************************************************
+  // Test methods.
+  // *******************************************************************************************************************
+
+  /**
+   * Each fetch materialises a new {@link Account}: the same instance is only returned if the second lookup reuses the
+   * first one, without querying the database.
+   */
+  @Test
+  void accountFetchedOncePerRequest() throws Exception {
+    final Http.Request request = sessionHelper.memoising(signedInRequest());
+
+    final Optional<Account> first = sessionHelper.retrieveAccountAsync(request)
+                                                 .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    final Optional<Account> second = sessionHelper.retrieveAccountAsync(request)
+                                                  .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertTrue(first.isPresent());
+    assertSame(first.get(), second.orElseThrow());
+    assertSame(first.get(), sessionHelper.retrieveAccount(request).orElseThrow());
+    assertEquals(SELINA_EMAIL, sessionHelper.retrievePrincipalAsync(request)
+                                            .toCompletableFuture().get(10, TimeUnit.SECONDS)
+                                            .map(AccountPrincipal::email).orElseThrow());
+  }
+
+  /** The principals are fetched as new instances too: the second lookup must reuse the first one. */
+  @Test
+  void principalFetchedOncePerRequest() throws Exception {
+    final Http.Request request = sessionHelper.memoising(signedInRequest());
+
+    final Optional<AccountPrincipal> first = sessionHelper.retrievePrincipalAsync(request)
+                                                          .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    final Optional<AccountPrincipal> second = sessionHelper.retrievePrincipalAsync(request)
+                                                           .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertTrue(first.isPresent());
+    assertSame(first.get(), second.orElseThrow());
+  }
+
+  /** Without the memo of the request, each lookup fetches its own {@link Account}. */
+  @Test
+  void accountFetchedByEachLookupWithoutMemo() throws Exception {
+    final Http.Request request = signedInRequest();
+
+    final Optional<Account> first = sessionHelper.retrieveAccountAsync(request)
+                                                 .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    final Optional<Account> second = sessionHelper.retrieveAccountAsync(request)
+                                                  .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertNotSame(first.orElseThrow(), second.orElseThrow());
+  }
+
+}
@@ -0,0 +1,112 @@
+package controllers.auth;
+
+import junit5.J5WithAccount;
+import models.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokensTest extends J5WithAccount {
+
+  // *******************************************************************************************************************
+  // Test data
+  // *******************************************************************************************************************
+  private static final String SELINA_NEW_EMAIL = "catwoman@city.gotham.com";
+  private static final String HARLEEN_EMAIL = "harleen.quinzel@city.gotham.com";
+
+  // *******************************************************************************************************************
+  // Injected Attributes
+  // *******************************************************************************************************************
+  /** The injected {@link SessionTokens} instance. */
+  private SessionTokens sessionTokens;
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The token issued for the {@link Account}. */
+  private String token;
+
+  // *******************************************************************************************************************
+  // Global test methods.
+  // *******************************************************************************************************************
+  @BeforeEach
+  public void setUp() {
+    assertDoesNotThrow(() -> {
+      sessionTokens = instanceOf(SessionTokens.class);
+      token = sessionTokens.issue(account).orElseThrow();
+    });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    assertDoesNotThrow(() -> {
+      for (String email : new String[]{SELINA_NEW_EMAIL, HARLEEN_EMAIL})
+        accountsRepository.findByEmail(email).ifPresent(accountsRepository::delete);
+    });
+  }
+
+  // *******************************************************************************************************************
+  // Test methods.
+  // *******************************************************************************************************************
+
+  /** A token is accepted as long as the claims of its account have not changed. */
+  @Test
+  void acceptUnchangedAccount() {
+    assertTrue(sessionTokens.verify(token).isPresent());
+    assertEquals(SELINA_EMAIL, sessionTokens.verify(token).orElseThrow().principal().email());
+  }
+
+  /** The change of another account evicts its own revocation version only, and does not revoke the token. */
+  @Test
+  void acceptAfterOtherAccountChange() {
+    final Account other = new Account().setFirstname("Harleen")
+                                       .setLastname("Quinzel")
+                                       .setEmail(HARLEEN_EMAIL)
+                                       .setClearPassword(SELINA_PASS);
+    accountsRepository.persist(other);
+    accountsRepository.persist(other.setFirstname("Harley"));
+
+    assertTrue(sessionTokens.verify(token).isPresent());
+  }
+
+  /** A token is revoked once the password of its account has changed. */
+  @Test
+  void rejectAfterPasswordChange() {
+    accountsRepository.persist(account.setClearPassword("I am not Catwoman !!"));
+
+    assertTrue(sessionTokens.verify(token).isEmpty());
+  }
+
+  /** A token is revoked once the e-mail address of its account has changed. */
+  @Test
+  void rejectAfterEmailChange() {
+    accountsRepository.persist(account.setEmail(SELINA_NEW_EMAIL));
+
+    assertTrue(sessionTokens.verify(token).isEmpty());
+  }
+
+  /** A token is revoked once the name of its account has changed. */
+  @Test
+  void rejectAfterNameChange() {
+    accountsRepository.persist(account.setLastname("Wayne"));
+
+    assertTrue(sessionTokens.verify(token).isEmpty());
+  }
+
+  /** A token is revoked once its account has been deleted. */
+  @Test
+  void rejectAfterDeletion() {
+    accountsRepository.delete(account);
+
+    assertTrue(sessionTokens.verify(token).isEmpty());
+  }
+
+  /** A token that has been tampered with is rejected. */
+  @Test
+  void rejectTamperedToken() {
+    assertTrue(sessionTokens.verify(token.substring(0, token.length() - 2) + "xx").isEmpty());
+  }
+
+}
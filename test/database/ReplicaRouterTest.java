@@ -0,0 +1,116 @@
+package database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import play.db.Database;
+import play.db.Databases;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the routing of the reads by {@link database.ReplicaRouter}, over H2 replicas. */
+final class ReplicaRouterTest {
+
+  /** The sticky primary window of the tests, in milliseconds. */
+  private static final long STICKY_PRIMARY_WINDOW = 200;
+  /** The delay between two health checks of the tests, long enough for them not to run, in milliseconds. */
+  private static final long HEALTH_CHECK_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+  /** The {@link Database}s of the replicas. */
+  private final List<Database> replicas = List.of(Databases.inMemory("replica_a"), Databases.inMemory("replica_b"));
+  /** The {@link ReplicaRouter} of the tests. */
+  private final ReplicaRouter router =
+      new ReplicaRouter(replicas, TimeUnit.MILLISECONDS.toNanos(STICKY_PRIMARY_WINDOW), HEALTH_CHECK_INTERVAL);
+
+  /** Shuts the replicas down. */
+  @AfterEach
+  void shutdown() {
+    router.shutdown();
+  }
+
+  /**
+   * Acquires a connection for a read, and releases it.
+   *
+   * @param sessionKey the key of the session reading, or {@code null}.
+   *
+   * @return the URL of the replica the read was routed to, or {@code null} if it was routed to the primary database.
+   */
+  private String route(final Object sessionKey) {
+    try (Connection connection = router.acquireConnection(sessionKey)) {
+      return connection == null ? null : connection.getMetaData().getURL();
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param count the amount of reads.
+   * @param sessionKey the key of the session reading, or {@code null}.
+   *
+   * @return the URLs of the replicas the reads were routed to, in order.
+   */
+  private List<String> route(final int count, final Object sessionKey) {
+    final List<String> urls = new ArrayList<>();
+    for (int i = 0; i < count; i++)
+      urls.add(route(sessionKey));
+    return urls;
+  }
+
+  /** Tests that the reads are routed to the replicas in turn. */
+  @Test
+  void roundRobin() {
+    final List<String> urls = route(4, null);
+
+    assertTrue(urls.get(0).contains("replica_a"), urls.get(0));
+    assertTrue(urls.get(1).contains("replica_b"), urls.get(1));
+    assertEquals(urls.subList(0, 2), urls.subList(2, 4));
+  }
+
+  /** Tests that an unavailable replica is skipped, and that the reads go to the primary when none is available. */
+  @Test
+  void excludeUnhealthyReplicas() {
+    replicas.get(1).shutdown();
+
+    for (String url : route(4, null))
+      assertTrue(url.contains("replica_a"), url);
+
+    replicas.get(0).shutdown();
+
+    assertNull(route(null));
+  }
+
+  /** Tests that the reads of a session stick to the primary after a write, and only during the window. */
+  @Test
+  void stickyPrimaryWindow() throws InterruptedException {
+    router.written("writer");
+
+    assertNull(route("writer"));
+    assertNotNull(route("reader"));
+
+    Thread.sleep(STICKY_PRIMARY_WINDOW * 2);
+
+    assertNotNull(route("writer"));
+  }
+
+  /** Tests that the reads without session stick to the primary after any write, and only during the window. */
+  @Test
+  void unscopedReadsStickToPrimary() throws InterruptedException {
+    assertNotNull(route(null));
+
+    router.written("writer");
+
+    assertNull(route(null));
+
+    Thread.sleep(STICKY_PRIMARY_WINDOW * 2);
+    router.written(null);
+
+    assertNull(route(null));
+    assertNotNull(route("writer"));
+  }
+
+}
@@ -0,0 +1,147 @@
+package globalhandlers;
+
+import globalhandlers.MaintenanceState.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import play.inject.ApplicationLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaintenanceStateTest {
+
+  // *******************************************************************************************************************
+  // Test data
+  // *******************************************************************************************************************
+  private static final Status NO_ADMINISTRATOR = new Status(true, false);
+  private static final Status READY = new Status(true, true);
+  private static final long PROBE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The stop hooks registered by the {@link MaintenanceState}. */
+  private final List<Callable<? extends CompletionStage<?>>> stopHooks = new ArrayList<>();
+  /** The {@link ApplicationLifecycle} of the tests, recording the stop hooks. */
+  private final ApplicationLifecycle lifecycle = new ApplicationLifecycle() {
+    @Override
+    public void addStopHook(final Callable<? extends CompletionStage<?>> hook) { stopHooks.add(hook); }
+
+    @Override
+    public play.api.inject.ApplicationLifecycle asScala() { throw new UnsupportedOperationException(); }
+  };
+
+  // *******************************************************************************************************************
+  // Global test methods.
+  // *******************************************************************************************************************
+  @AfterEach
+  public void tearDown() {
+    assertDoesNotThrow(() -> {
+      for (Callable<? extends CompletionStage<?>> hook : stopHooks)
+        hook.call().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    });
+  }
+
+  /**
+   * @param probe the probe of the database.
+   *
+   * @return a new {@link MaintenanceState}, whose periodic probe does not run during the test.
+   */
+  private MaintenanceState maintenanceState(final Supplier<Status> probe) {
+    return new MaintenanceState(probe, PROBE_INTERVAL, lifecycle);
+  }
+
+  // *******************************************************************************************************************
+  // Test methods.
+  // *******************************************************************************************************************
+
+  /** The database is probed on creation, and the App is in maintenance until it has an active administrator. */
+  @Test
+  void probeOnCreation() {
+    final AtomicReference<Status> database = new AtomicReference<>(NO_ADMINISTRATOR);
+    final MaintenanceState maintenanceState = maintenanceState(database::get);
+    assertTrue(maintenanceState.isMaintenance());
+
+    database.set(READY);
+    assertTrue(maintenanceState.isMaintenance());
+    maintenanceState.refresh();
+
+    assertFalse(maintenanceState.isMaintenance());
+    assertEquals(READY, maintenanceState.getStatus());
+  }
+
+  /** A database that cannot be probed puts the App in maintenance. */
+  @Test
+  void maintenanceOnProbeFailure() {
+    final AtomicReference<Status> database = new AtomicReference<>(READY);
+    final MaintenanceState maintenanceState = maintenanceState(() -> {
+      final Status status = database.get();
+      if (status == null) throw new IllegalStateException("The database is unreachable.");
+      return status;
+    });
+    assertFalse(maintenanceState.isMaintenance());
+
+    database.set(null);
+    maintenanceState.refresh();
+
+    assertTrue(maintenanceState.isMaintenance());
+  }
+
+  /** A slow probe, completed after a newer one, does not overwrite the state of the newer probe. */
+  @Test
+  void newerProbeWins() throws Exception {
+    final CountDownLatch slowProbeStarted = new CountDownLatch(1);
+    final CountDownLatch slowProbeReleased = new CountDownLatch(1);
+    final AtomicReference<Supplier<Status>> database = new AtomicReference<>(() -> NO_ADMINISTRATOR);
+    final MaintenanceState maintenanceState = maintenanceState(() -> database.get().get());
+
+    database.set(() -> {
+      slowProbeStarted.countDown();
+      assertDoesNotThrow(() -> slowProbeReleased.await(10, TimeUnit.SECONDS));
+      return NO_ADMINISTRATOR;
+    });
+    final CompletableFuture<Void> slowProbe = CompletableFuture.runAsync(maintenanceState::refresh);
+    assertTrue(slowProbeStarted.await(10, TimeUnit.SECONDS));
+
+    database.set(() -> READY);
+    maintenanceState.refresh();
+    assertFalse(maintenanceState.isMaintenance());
+
+    slowProbeReleased.countDown();
+    slowProbe.get(10, TimeUnit.SECONDS);
+
+    assertFalse(maintenanceState.isMaintenance());
+  }
+
+  /** Once the asynchronous refresh has completed, e.g. after the sign-up of an administrator, the state is current. */
+  @Test
+  void refreshAsync() throws Exception {
+    final AtomicReference<Status> database = new AtomicReference<>(NO_ADMINISTRATOR);
+    final MaintenanceState maintenanceState = maintenanceState(database::get);
+
+    database.set(READY);
+    final Status status = maintenanceState.refreshAsync().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+    assertEquals(READY, status);
+    assertFalse(maintenanceState.isMaintenance());
+  }
+
+  /** Once the probe has been stopped, the asynchronous refresh completes with the current state. */
+  @Test
+  void refreshAsyncWhenStopped() throws Exception {
+    final MaintenanceState maintenanceState = maintenanceState(() -> READY);
+    tearDown();
+
+    assertEquals(READY, maintenanceState.refreshAsync().toCompletableFuture().get(10, TimeUnit.SECONDS));
+  }
+
+}
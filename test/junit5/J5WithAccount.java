@@ -0,0 +1,66 @@
+package junit5;
+
+import controllers.auth.SessionHelper;
+import models.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import play.mvc.Http;
+import repositories.AccountsRepository;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+/**
+ * {@code J5WithAccount} is the base of the tests acting on behalf of a user: an {@link Account} is persisted before
+ * each test, and deleted after it.
+ */
+public abstract class J5WithAccount extends J5WithApplication {
+
+  // *******************************************************************************************************************
+  // Test data
+  // *******************************************************************************************************************
+  protected static final String SELINA_EMAIL = "selina.kyle@city.gotham.com";
+  protected static final String SELINA_FIRSTNAME = "Selina";
+  protected static final String SELINA_LASTNAME = "Kyle";
+  protected static final String SELINA_PASS = "I am Catwoman !!";
+
+  // *******************************************************************************************************************
+  // Injected Attributes
+  // *******************************************************************************************************************
+  /** The injected {@link AccountsRepository} instance. */
+  protected AccountsRepository accountsRepository;
+  /** The injected {@link SessionHelper} instance. */
+  protected SessionHelper sessionHelper;
+
+  // *******************************************************************************************************************
+  // Attributes
+  // *******************************************************************************************************************
+  /** The {@link Account} of the user. */
+  protected Account account;
+
+  // *******************************************************************************************************************
+  // Global test methods.
+  // *******************************************************************************************************************
+  @BeforeEach
+  public void setUpAccount() {
+    assertDoesNotThrow(() -> {
+      accountsRepository = instanceOf(AccountsRepository.class);
+      sessionHelper = instanceOf(SessionHelper.class);
+      account = new Account().setFirstname(SELINA_FIRSTNAME)
+                             .setLastname(SELINA_LASTNAME)
+                             .setEmail(SELINA_EMAIL)
+                             .setClearPassword(SELINA_PASS);
+      accountsRepository.persist(account);
+    });
+  }
+
+  @AfterEach
+  public void tearDownAccount() {
+    assertDoesNotThrow(() -> accountsRepository.findByEmail(SELINA_EMAIL).ifPresent(accountsRepository::delete));
+  }
+
+  /** @return a new {@link Http.Session}, holding the {@link Account}. */
+  protected Http.Session signedInSession() {
+    return sessionHelper.withAccount(account, new Http.RequestBuilder().build());
+  }
+
+}
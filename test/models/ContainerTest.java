@@ -4,6 +4,7 @@ import junit5.J5WithApplication;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import orm.DeletionException;
 import repositories.*;
 
 import java.util.List;
@@ -86,6 +87,14 @@ class ContainerTest extends J5WithApplication {
     assertEquals(0, sharedContainersRepository.getSharedContainers().size());
   }
 
+  @Test
+  void containerTypeInUseDeletion() {
+    final SharedContainer sharedContainer = new SharedContainer(containerType);
+    sharedContainersRepository.persist(sharedContainer);
+    assertThrows(DeletionException.class, () -> containerTypesRepository.delete(List.of(containerType)));
+    assertEquals(1, sharedContainersRepository.getSharedContainers().size());
+  }
+
   @Test
   void containersGetAll() {
     List<Container> containers = containersRepository.getAll();
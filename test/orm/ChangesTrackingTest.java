@@ -0,0 +1,120 @@
+package orm;
+
+import com.typesafe.config.ConfigFactory;
+import org.jooq.exception.DataChangedException;
+import orm.caches.RecordsCaches;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static orm.Drawer.DRAWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the updates of the changed columns by {@link orm.Repository}, over H2. */
+final class ChangesTrackingTest {
+
+  /** The {@link H2PersistenceContext} of the tests. */
+  private static final H2PersistenceContext CONTEXT = new H2PersistenceContext("changes_tracking");
+  /** The {@link DrawersRepository} of the tests. */
+  private static final DrawersRepository DRAWERS = new DrawersRepository(CONTEXT);
+
+  /** Creates the table of the tests. */
+  @BeforeAll
+  static void createTable() {
+    CONTEXT.execute(Drawer.CREATE_TABLE);
+  }
+
+  /** Resets the content of the table. */
+  @BeforeEach
+  void resetTable() {
+    CONTEXT.execute("delete from drawer", "insert into drawer values (1, 'Top', 10)");
+  }
+
+  /**
+   * @param statements the SQL statements.
+   *
+   * @return the statements writing the drawers.
+   */
+  private static List<String> writes(final List<String> statements) {
+    return statements.stream().filter(sql -> sql.startsWith("update") || sql.contains("merge into")).toList();
+  }
+
+  /** Tests that only the changed columns of a loaded model are updated. */
+  @Test
+  void updateChangedColumns() {
+    final Drawer drawer = DRAWERS.findById(1L);
+    drawer.setSize(15);
+    CONTEXT.drainStatements();
+    DRAWERS.save(drawer);
+
+    final List<String> writes = writes(CONTEXT.drainStatements());
+    assertEquals(1, writes.size());
+    assertTrue(writes.get(0).startsWith("update"));
+    assertTrue(writes.get(0).contains("\"size\""));
+    assertFalse(writes.get(0).contains("\"name\""));
+    assertEquals(15, DRAWERS.findById(1L).getSize());
+  }
+
+  /** Tests that a loaded model that has not changed is not written. */
+  @Test
+  void skipUnchangedModel() {
+    final Drawer drawer = DRAWERS.findById(1L);
+    CONTEXT.drainStatements();
+    DRAWERS.save(drawer);
+
+    assertTrue(writes(CONTEXT.drainStatements()).isEmpty());
+  }
+
+  /** Tests that a model tells which of its values differ from the stored ones, until it is stored again. */
+  @Test
+  void detectChangedValues() {
+    final Drawer drawer = DRAWERS.findById(1L);
+    assertFalse(drawer.hasChanged(DRAWER.name, drawer.getName()));
+
+    drawer.setName("Bottom");
+    assertTrue(drawer.hasChanged(DRAWER.name, drawer.getName()));
+    assertFalse(drawer.hasChanged(DRAWER.size, drawer.getSize()));
+
+    DRAWERS.save(drawer);
+    assertFalse(drawer.hasChanged(DRAWER.name, drawer.getName()));
+  }
+
+  /** Tests that the update of a model whose row has been deleted meanwhile fails. */
+  @Test
+  void failOnDeletedRow() {
+    final Drawer drawer = DRAWERS.findById(1L);
+    CONTEXT.execute("delete from drawer where id = 1");
+    drawer.setName("Bottom");
+
+    assertThrows(DataChangedException.class, () -> DRAWERS.save(drawer));
+    assertNull(DRAWERS.findById(1L));
+  }
+
+  /** Tests that the values of a record held by the second-level cache are not trusted, as they may be stale. */
+  @Test
+  void ignoreCachedValues() {
+    final RecordsCaches recordsCaches =
+        new RecordsCaches(ConfigFactory.parseString("briventory.caches.records.heap-entries = 10\n"
+                                                    + "briventory.caches.records.time-to-live = 1h"));
+    try {
+      final DrawersRepository cachedDrawers = new DrawersRepository(CONTEXT, recordsCaches.of(DRAWER));
+      cachedDrawers.findById(1L);
+      CONTEXT.execute("update drawer set name = 'Renamed' where id = 1");
+
+      // The cached record still holds the former name: setting it back must be written.
+      final Drawer drawer = cachedDrawers.findById(1L);
+      assertEquals("Top", drawer.getName());
+      drawer.setName("Top");
+      CONTEXT.drainStatements();
+      cachedDrawers.save(drawer);
+
+      assertEquals(1, writes(CONTEXT.drainStatements()).size());
+      assertEquals("Top", DRAWERS.findById(1L).getName());
+    } finally {
+      recordsCaches.close();
+    }
+  }
+
+}
@@ -0,0 +1,158 @@
+package orm;
+
+import org.jooq.Record1;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import static orm.Drawer.DRAWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the connection scopes of {@link orm.PersistenceContext}, over H2 without replica. */
+final class ConnectionScopeTest {
+
+  /** The {@link H2PersistenceContext} of the tests. */
+  private static final H2PersistenceContext CONTEXT = new H2PersistenceContext("connection_scopes");
+  /** The {@link DrawersRepository} of the tests. */
+  private static final DrawersRepository DRAWERS = new DrawersRepository(CONTEXT);
+
+  /** Creates the table of the tests. */
+  @BeforeAll
+  static void createTable() {
+    CONTEXT.execute(Drawer.CREATE_TABLE);
+  }
+
+  /** Resets the content of the table and the counters. */
+  @BeforeEach
+  void resetTable() {
+    CONTEXT.execute("delete from drawer", "insert into drawer values (1, 'Top', 10)");
+    CONTEXT.drainAcquiredConnections();
+    CONTEXT.drainWritingSessions();
+    CONTEXT.drainReadingSessions();
+  }
+
+  /** Tests that a scope reading then writing holds a single connection when the reads are not routed. */
+  @Test
+  void readThenWriteOnOneConnection() {
+    CONTEXT.withinConnectionScope(() -> {
+      final Drawer drawer = DRAWERS.findById(1L);
+      drawer.setSize(15);
+      DRAWERS.save(drawer);
+      return DRAWERS.findById(1L);
+    });
+
+    assertEquals(1, CONTEXT.drainAcquiredConnections());
+  }
+
+  /** Tests that a read-only scope holds a single connection when the reads are not routed. */
+  @Test
+  void readOnlyOnOneConnection() {
+    CONTEXT.withinReadOnlyConnectionScope(() -> {
+      DRAWERS.findById(1L);
+      return DRAWERS.findAll(FetchPlan.empty());
+    });
+
+    assertEquals(1, CONTEXT.drainAcquiredConnections());
+  }
+
+  /** Tests that a scope reading from the primary database ignores the routing of the reads. */
+  @Test
+  void readFromPrimary() {
+    final H2PersistenceContext replica = new H2PersistenceContext("connection_scopes_replica");
+    replica.execute(Drawer.CREATE_TABLE, "insert into drawer values (1, 'Top', 10)");
+    try {
+      final H2PersistenceContext routed = new H2PersistenceContext("connection_scopes", "connection_scopes_replica");
+      final DrawersRepository routedDrawers = new DrawersRepository(routed);
+      CONTEXT.execute("update drawer set name = 'Renamed' where id = 1");
+
+      // The replica lags behind: it still holds the former name.
+      assertEquals("Top", routedDrawers.findById(1L).getName());
+      assertEquals("Renamed", routed.withinPrimaryConnectionScope(() -> routedDrawers.findById(1L)).getName());
+    } finally {
+      replica.execute("drop table drawer");
+    }
+  }
+
+  /**
+   * Tests that an asynchronous task started outside any scope writes on behalf of the session provided.
+   *
+   * @throws Exception if the task fails.
+   */
+  @Test
+  void writeOnBehalfOfSession() throws Exception {
+    CONTEXT.supplyAsync("42", () -> {
+      final Drawer drawer = DRAWERS.findById(1L);
+      drawer.setName("Bottom");
+      DRAWERS.save(drawer);
+      return null;
+    }).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+    assertEquals(List.of("42"), CONTEXT.drainWritingSessions());
+  }
+
+  /**
+   * Tests that a reactive read performed within a scope is executed at once, on the connection of the scope.
+   *
+   * @throws Exception if the read fails.
+   */
+  @Test
+  void reactiveReadInScope() throws Exception {
+    final CompletionStage<List<Record1<String>>> names = CONTEXT.withinConnectionScope(() -> {
+      DRAWERS.findById(1L);
+      final CompletionStage<List<Record1<String>>> stage =
+          CONTEXT.fetchReactive(dslContext -> dslContext.select(DRAWER.name).from(DRAWER));
+      assertTrue(stage.toCompletableFuture().isDone());
+      return stage;
+    });
+
+    assertEquals("Top", names.toCompletableFuture().get(10, TimeUnit.SECONDS).get(0).value1());
+    assertEquals(1, CONTEXT.drainAcquiredConnections());
+  }
+
+  /**
+   * Tests that a reactive read performed outside any scope is routed like the reads of the session provided.
+   *
+   * @throws Exception if the read fails.
+   */
+  @Test
+  void reactiveReadRouted() throws Exception {
+    final H2PersistenceContext replica = new H2PersistenceContext("connection_scopes_replica");
+    replica.execute(Drawer.CREATE_TABLE, "insert into drawer values (1, 'Top', 10)");
+    try {
+      final H2PersistenceContext routed = new H2PersistenceContext("connection_scopes", "connection_scopes_replica");
+      CONTEXT.execute("update drawer set name = 'Renamed' where id = 1");
+
+      final List<Record1<String>> names =
+          routed.fetchReactive("42", dslContext -> dslContext.select(DRAWER.name).from(DRAWER))
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      // The replica lags behind: it still holds the former name.
+      assertEquals("Top", names.get(0).value1());
+      assertEquals(List.of("42"), routed.drainReadingSessions());
+    } finally {
+      replica.execute("drop table drawer");
+    }
+  }
+
+  /**
+   * Tests that a reactive write notifies that the session has written, within a scope as outside any scope.
+   *
+   * @throws Exception if the write fails.
+   */
+  @Test
+  void reactiveWriteNotifiesSession() throws Exception {
+    CONTEXT.executeReactive(dslContext -> dslContext.update(DRAWER).set(DRAWER.size, 15))
+           .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    final int rows = CONTEXT.withinConnectionScope("42", () -> CONTEXT.executeReactive(
+        dslContext -> dslContext.update(DRAWER).set(DRAWER.size, 20))).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+    assertEquals(1, rows);
+    assertEquals(Arrays.asList(null, "42"), CONTEXT.drainWritingSessions());
+  }
+
+}
@@ -0,0 +1,119 @@
+package orm;
+
+import org.jooq.DSLContext;
+import org.jooq.TableField;
+import org.jooq.UniqueKey;
+import org.jooq.impl.DSL;
+import org.jooq.impl.Internal;
+import org.jooq.impl.SQLDataType;
+import org.jooq.impl.TableImpl;
+import org.jooq.impl.UpdatableRecordImpl;
+import orm.models.PersistableModel1;
+import orm.models.ValidatableModel;
+
+/** A {@code Drawer} is the {@link Model} of the tests of the repositories, stored into a single table. */
+final class Drawer extends Model implements PersistableModel1<Drawer, Drawer.DrawerRecord>, ValidatableModel<String> {
+
+  /** The table of the drawers. */
+  static final DrawerTable DRAWER = new DrawerTable();
+  /** The SQL statement creating the table of the drawers. */
+  static final String CREATE_TABLE = "create table drawer (id bigint primary key, name varchar(64), size int)";
+
+  /** The identifier. */
+  private final long id;
+  /** The name. */
+  private String name;
+  /** The size. */
+  private int size;
+  /** The amount of items, loaded by the fetch plans. */
+  private int itemsCount = -1;
+
+  /** The table of the drawers. */
+  static final class DrawerTable extends TableImpl<DrawerRecord> {
+    private static final long serialVersionUID = 1L;
+
+    /** The identifier. */
+    final TableField<DrawerRecord, Long> id = createField(DSL.name("id"), SQLDataType.BIGINT.notNull(), this, "");
+    /** The name. */
+    final TableField<DrawerRecord, String> name = createField(DSL.name("name"), SQLDataType.VARCHAR(64), this, "");
+    /** The size. */
+    final TableField<DrawerRecord, Integer> size = createField(DSL.name("size"), SQLDataType.INTEGER, this, "");
+
+    /** Creates a new instance of {@link DrawerTable}. */
+    private DrawerTable() {
+      super(DSL.name("drawer"));
+    }
+
+    @Override
+    public Class<DrawerRecord> getRecordType() { return DrawerRecord.class; }
+
+    @Override
+    public UniqueKey<DrawerRecord> getPrimaryKey() { return Internal.createUniqueKey(this, id); }
+  }
+
+  /** The record of the drawers. */
+  static final class DrawerRecord extends UpdatableRecordImpl<DrawerRecord> {
+    private static final long serialVersionUID = 1L;
+
+    /** Creates a new instance of {@link DrawerRecord}. */
+    public DrawerRecord() {
+      super(DRAWER);
+    }
+  }
+
+  /**
+   * Creates a new instance of {@link Drawer}.
+   *
+   * @param id the identifier.
+   * @param name the name.
+   * @param size the size.
+   */
+  Drawer(final long id, final String name, final int size) {
+    this.id = id;
+    this.name = name;
+    this.size = size;
+  }
+
+  /**
+   * Creates a new instance of {@link Drawer} from its record.
+   *
+   * @param drawerRecord the {@link DrawerRecord}.
+   */
+  Drawer(final DrawerRecord drawerRecord) {
+    this(drawerRecord.get(DRAWER.id), drawerRecord.get(DRAWER.name), drawerRecord.get(DRAWER.size));
+  }
+
+  @Override
+  public DrawerRecord createRecord1(final DSLContext dslContext) {
+    final DrawerRecord drawerRecord = dslContext.newRecord(DRAWER);
+    drawerRecord.set(DRAWER.id, id);
+    drawerRecord.set(DRAWER.name, name);
+    drawerRecord.set(DRAWER.size, size);
+    return drawerRecord;
+  }
+
+  @Override
+  public void refresh1(final DrawerRecord drawerRecord) { /* No generated value */ }
+
+  /** @return the identifier. */
+  long getId() { return id; }
+
+  /** @return the name. */
+  String getName() { return name; }
+
+  /** @param name the name. */
+  void setName(final String name) { this.name = name; }
+
+  /** @return the size. */
+  int getSize() { return size; }
+
+  /** @param size the size. */
+  void setSize(final int size) { this.size = size; }
+
+  /** @return the amount of items, or {@code -1} if it has not been loaded. */
+  int getItemsCount() { return itemsCount; }
+
+  /** @param itemsCount the amount of items. */
+  void setItemsCount(final int itemsCount) { this.itemsCount = itemsCount; }
+
+}
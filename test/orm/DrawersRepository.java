@@ -0,0 +1,148 @@
+package orm;
+
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Record2;
+import org.jooq.SelectFinalStep;
+import org.jooq.impl.DSL;
+import org.jooq.lambda.tuple.Tuple;
+import orm.caches.RecordsCache;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static orm.Drawer.DRAWER;
+
+/** The {@link Repository} of the {@link Drawer} instances, used by the tests of the repositories. */
+final class DrawersRepository extends Repository<Drawer> {
+
+  /**
+   * Creates a new instance of {@link DrawersRepository}.
+   *
+   * @param persistenceContext the {@link PersistenceContext}.
+   */
+  DrawersRepository(final PersistenceContext persistenceContext) {
+    super(persistenceContext);
+  }
+
+  /**
+   * Creates a new instance of {@link DrawersRepository}, holding the records of the drawers into a second-level cache.
+   *
+   * @param persistenceContext the {@link PersistenceContext}.
+   * @param recordsCache the {@link RecordsCache}.
+   */
+  DrawersRepository(final PersistenceContext persistenceContext, final RecordsCache recordsCache) {
+    this(persistenceContext);
+    enableRecordsCache(recordsCache);
+  }
+
+  /**
+   * @param id the identifier.
+   *
+   * @return the drawer, or {@code null} if it does not exist.
+   */
+  Drawer findById(final long id) { return fetchById(Drawer::new, DRAWER.id, id); }
+
+  /**
+   * @param fetchPlan the {@link FetchPlan}.
+   *
+   * @return all the drawers, with the associations of the {@link FetchPlan}.
+   */
+  List<Drawer> findAll(final FetchPlan<Drawer> fetchPlan) {
+    return fetch(Drawer::new, DRAWER, DSL.trueCondition(), fetchPlan);
+  }
+
+  /**
+   * @param mapper the {@link Mapper} of the identifiers and names of the drawers.
+   * @param fetchPlan the {@link FetchPlan}.
+   *
+   * @return the drawers, built from their identifiers and names, with the associations of the {@link FetchPlan}.
+   */
+  List<Drawer> findNames(final Mapper<Record2<Long, String>, Drawer> mapper, final FetchPlan<Drawer> fetchPlan) {
+    return fetch(dslContext -> Tuple.tuple(mapper, dslContext.select(DRAWER.id, DRAWER.name)
+                                                             .from(DRAWER)
+                                                             .orderBy(DRAWER.id)), fetchPlan);
+  }
+
+  /**
+   * @param mapper the {@link Mapper} of the rows of the query.
+   * @param select the query.
+   * @param fetchPlan the {@link FetchPlan}.
+   * @param <R> the type of the rows of the query.
+   *
+   * @return the drawers, built from the rows of the query, with the associations of the {@link FetchPlan}.
+   */
+  <R extends Record> List<Drawer> find(final Mapper<R, Drawer> mapper,
+                                       final Function<DSLContext, ? extends SelectFinalStep<R>> select,
+                                       final FetchPlan<Drawer> fetchPlan) {
+    return fetch(dslContext -> Tuple.tuple(mapper, select.apply(dslContext)), fetchPlan);
+  }
+
+  /**
+   * @param limit the size separating the small drawers from the large ones.
+   *
+   * @return the drawers, fetched by a single {@code UNION ALL} of the small ones, built from their identifiers and
+   * sizes, and of the large ones, built from their identifiers and names.
+   */
+  List<Drawer> findBySize(final int limit) {
+    final Mapper<Record2<Long, Integer>, Drawer> small = r -> new Drawer(r.value1(), null, r.value2());
+    final Mapper<Record2<Long, String>, Drawer> large = r -> new Drawer(r.value1(), r.value2(), 0);
+    return unionAll(dslContext -> Tuple.tuple(small, dslContext.select(DRAWER.id, DRAWER.size)
+                                                                .from(DRAWER)
+                                                                .where(DRAWER.size.lt(limit))),
+                    dslContext -> Tuple.tuple(large, dslContext.select(DRAWER.id, DRAWER.name)
+                                                                .from(DRAWER)
+                                                                .where(DRAWER.size.ge(limit))));
+  }
+
+  /**
+   * @param limit the size separating the small drawers from the large ones.
+   * @param fetchPlan the {@link FetchPlan}.
+   *
+   * @return the drawers, fetched as by {@link DrawersRepository#findBySize(int)}, with the associations of the
+   * {@link FetchPlan}.
+   */
+  List<Drawer> findBySize(final int limit, final FetchPlan<Drawer> fetchPlan) {
+    final Mapper<Record2<Long, Integer>, Drawer> small = r -> new Drawer(r.value1(), null, r.value2());
+    final Mapper<Record2<Long, String>, Drawer> large = r -> new Drawer(r.value1(), r.value2(), 0);
+    return unionAll(fetchPlan,
+                    dslContext -> Tuple.tuple(small, dslContext.select(DRAWER.id, DRAWER.size)
+                                                                .from(DRAWER)
+                                                                .where(DRAWER.size.lt(limit))),
+                    dslContext -> Tuple.tuple(large, dslContext.select(DRAWER.id, DRAWER.name)
+                                                                .from(DRAWER)
+                                                                .where(DRAWER.size.ge(limit))));
+  }
+
+  /**
+   * @param pageSize the maximal number of drawers of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   *
+   * @return the {@link Page} of the drawers, ordered by identifier.
+   */
+  Page<Drawer> findPage(final int pageSize, final String token) {
+    return fetchPage(Drawer::new, dslContext -> dslContext.selectFrom(DRAWER), pageSize, token, DRAWER.id);
+  }
+
+  /**
+   * @param pageSize the maximal number of drawers of the page.
+   * @param token the continuation token of the page, or {@code null} for the first page.
+   * @param limit the size under which the drawers are also fetched by a second query.
+   *
+   * @return the {@link Page} of the drawers, ordered by identifier, fetched by a single {@code UNION ALL} of all the
+   * drawers, built from their identifiers and names, and of the small ones, built from their identifiers and sizes.
+   */
+  Page<Drawer> findUnionPage(final int pageSize, final String token, final int limit) {
+    final Mapper<Record2<Long, String>, Drawer> all = r -> new Drawer(r.value1(), r.value2(), 0);
+    final Mapper<Record2<Long, Integer>, Drawer> small = r -> new Drawer(r.value1(), null, r.value2());
+    return unionAllPage(pageSize, token, DRAWER.id,
+                        dslContext -> Tuple.tuple(all, dslContext.select(DRAWER.id, DRAWER.name).from(DRAWER)),
+                        dslContext -> Tuple.tuple(small, dslContext.select(DRAWER.id, DRAWER.size)
+                                                                   .from(DRAWER)
+                                                                   .where(DRAWER.size.lt(limit))));
+  }
+
+  /** @param drawer the {@link Drawer} to persist. */
+  void save(final Drawer drawer) { persist(drawer); }
+
+}
@@ -0,0 +1,130 @@
+package orm;
+
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.Record3;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static orm.Drawer.DRAWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the fetch plans of {@link orm.Repository}, over an in-memory H2 database. */
+final class FetchPlanTest {
+
+  /** The table of the items stored into the drawers. */
+  private static final Table<?> ITEM = DSL.table(DSL.name("item"));
+  /** The identifier of the items. */
+  private static final Field<Long> ID = DSL.field(DSL.name("item", "id"), SQLDataType.BIGINT);
+  /** The identifier of the drawer of the items. */
+  private static final Field<Long> ID_DRAWER = DSL.field(DSL.name("item", "id_drawer"), SQLDataType.BIGINT);
+  /** The {@link FetchPlan} loading the amount of items of the drawers. */
+  private static final FetchPlan<Drawer> WITH_ITEMS_COUNT =
+      FetchPlan.<Drawer>empty().with(DSL.selectCount().from(ITEM).where(ID_DRAWER.eq(DRAWER.id)).asField(),
+                                     Drawer::setItemsCount);
+
+  /** The {@link H2PersistenceContext} of the tests. */
+  private static final H2PersistenceContext CONTEXT = new H2PersistenceContext("fetch_plans");
+  /** The {@link DrawersRepository} of the tests. */
+  private static final DrawersRepository DRAWERS = new DrawersRepository(CONTEXT);
+
+  /** Creates and fills the tables of the tests. */
+  @BeforeAll
+  static void createTables() {
+    CONTEXT.execute(Drawer.CREATE_TABLE,
+                    "create table item (id bigint primary key, id_drawer bigint)",
+                    "insert into drawer values (1, 'Top', 10), (2, 'Bottom', 20)",
+                    "insert into item values (1, 1), (2, 1), (99, 2)");
+  }
+
+  /** Forgets the statements of the previous test. */
+  @BeforeEach
+  void clearStatements() {
+    CONTEXT.drainStatements();
+  }
+
+  /** Tests that the rows of a table and their associations are fetched in a single query. */
+  @Test
+  void fetchTable() {
+    final List<Drawer> drawers = new ArrayList<>(DRAWERS.findAll(WITH_ITEMS_COUNT));
+    drawers.sort(Comparator.comparingLong(Drawer::getId));
+
+    assertEquals(1, CONTEXT.drainStatements().size());
+    assertEquals(List.of("Top", "Bottom"), drawers.stream().map(Drawer::getName).toList());
+    assertEquals(List.of(2, 1), drawers.stream().map(Drawer::getItemsCount).toList());
+  }
+
+  /** Tests that the rows of a query are narrowed back to its fields, while their associations are loaded. */
+  @Test
+  void fetchQuery() {
+    final List<Integer> degrees = new ArrayList<>();
+    final List<Drawer> drawers = DRAWERS.findNames(r -> {
+      degrees.add(r.size());
+      return new Drawer(r.value1(), r.value2(), 0);
+    }, WITH_ITEMS_COUNT);
+
+    assertEquals(1, CONTEXT.drainStatements().size());
+    assertEquals(List.of(2, 2), degrees);
+    assertEquals(List.of("Top", "Bottom"), drawers.stream().map(Drawer::getName).toList());
+    assertEquals(List.of(2, 1), drawers.stream().map(Drawer::getItemsCount).toList());
+  }
+
+  /** Tests that an empty plan adds no field to the query. */
+  @Test
+  void fetchWithoutAssociation() {
+    final List<Drawer> drawers = DRAWERS.findNames(r -> new Drawer(r.value1(), r.value2(), 0), FetchPlan.empty());
+
+    final List<String> statements = CONTEXT.drainStatements();
+    assertEquals(1, statements.size());
+    assertFalse(statements.get(0).contains("item"));
+    assertEquals(List.of(-1, -1), drawers.stream().map(Drawer::getItemsCount).toList());
+  }
+
+  /** Tests that the narrowed rows are typed by the query, and are not marked as changed. */
+  @Test
+  void narrowedRows() {
+    final List<Record2<Long, String>> rows = new ArrayList<>();
+    DRAWERS.findNames(r -> {
+      rows.add(r);
+      return new Drawer(r.value1(), r.value2(), 0);
+    }, WITH_ITEMS_COUNT);
+
+    assertEquals(2, rows.size());
+    for (Record2<Long, String> row : rows) {
+      assertEquals(DRAWER.id.getName(), row.field1().getName());
+      assertEquals(DRAWER.name.getName(), row.field2().getName());
+      assertFalse(row.changed());
+    }
+  }
+
+  /** Tests that the rows are narrowed by position, when the query selects several columns of the same name. */
+  @Test
+  void narrowDuplicateNames() {
+    final List<Long> itemIds = new ArrayList<>();
+    final List<Drawer> drawers = DRAWERS.find(
+        (Record3<Long, String, Long> r) -> {
+          itemIds.add(r.value3());
+          return new Drawer(r.value1(), r.value2(), 0);
+        },
+        dslContext -> dslContext.select(DRAWER.id, DRAWER.name, ID)
+                                .from(DRAWER)
+                                .innerJoin(ITEM).on(ID_DRAWER.eq(DRAWER.id))
+                                .where(DRAWER.id.eq(2L)),
+        WITH_ITEMS_COUNT);
+
+    assertEquals(1, CONTEXT.drainStatements().size());
+    assertEquals(List.of(99L), itemIds);
+    assertEquals(2L, drawers.get(0).getId());
+    assertEquals("Bottom", drawers.get(0).getName());
+    assertEquals(1, drawers.get(0).getItemsCount());
+  }
+
+}
@@ -0,0 +1,204 @@
+package orm;
+
+import jooq.tables.records.AccountRecord;
+import jooq.tables.records.AdministratorRecord;
+import org.jooq.DSLContext;
+import org.jooq.ForeignKey;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.TableField;
+import org.jooq.UniqueKey;
+import org.jooq.exception.DataChangedException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.Internal;
+import org.jooq.impl.SQLDataType;
+import org.jooq.impl.TableImpl;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static jooq.Tables.ACCOUNT;
+import static jooq.Tables.ADMINISTRATOR;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the ordering of the writes of {@link orm.Flush}, over a mocked connection. */
+final class FlushTest {
+
+  /** The SQL statements executed, in order. */
+  private final List<String> statements = new ArrayList<>();
+  /** The {@link DSLContext} of the tests. */
+  private DSLContext dslContext;
+
+  /** A table whose foreign keys are declared by the tests. */
+  private static final class Node extends TableImpl<Record> {
+    private static final long serialVersionUID = 1L;
+
+    /** The identifier. */
+    private final TableField<Record, Long> id = createField(DSL.name("id"), SQLDataType.BIGINT, this, "");
+    /** The identifier of the referenced node. */
+    private final TableField<Record, Long> idReferenced =
+        createField(DSL.name("id_referenced"), SQLDataType.BIGINT, this, "");
+    /** The foreign keys. */
+    private final List<ForeignKey<Record, ?>> references = new ArrayList<>();
+
+    /**
+     * Creates a new instance of {@link Node}.
+     *
+     * @param name the name of the table.
+     */
+    Node(final String name) {
+      super(DSL.name(name));
+    }
+
+    @Override
+    public UniqueKey<Record> getPrimaryKey() { return Internal.createUniqueKey(this, id); }
+
+    @Override
+    public List<ForeignKey<Record, ?>> getReferences() { return references; }
+
+    /**
+     * Declares a foreign key to the {@link Node} provided.
+     *
+     * @param referenced the referenced {@link Node}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void references(final Node referenced) {
+      references.add(Internal.createForeignKey(this, DSL.name("fk_" + getName() + "_" + references.size()),
+                                               new TableField[] { idReferenced }, referenced.getPrimaryKey(),
+                                               new TableField[] { referenced.id }, true));
+    }
+  }
+
+  /** Creates the {@link DSLContext}, recording the statements instead of executing them. */
+  @BeforeEach
+  void createContext() {
+    statements.clear();
+    dslContext = DSL.using(new MockConnection(context -> {
+      statements.add(context.sql());
+      final MockResult[] results = new MockResult[Math.max(1, context.batchBindings().length)];
+      Arrays.fill(results, new MockResult(1));
+      return results;
+    }), SQLDialect.POSTGRES);
+  }
+
+  /** @return a new {@link AccountRecord}. */
+  private AccountRecord account() {
+    final AccountRecord accountRecord = dslContext.newRecord(ACCOUNT);
+    accountRecord.setId(1L);
+    return accountRecord;
+  }
+
+  /** @return a new {@link AdministratorRecord}, referencing the account. */
+  private AdministratorRecord administrator() {
+    final AdministratorRecord administratorRecord = dslContext.newRecord(ADMINISTRATOR);
+    administratorRecord.setIdAccount(1L);
+    return administratorRecord;
+  }
+
+  /**
+   * @param table the quoted name of the table.
+   *
+   * @return the index of the first statement writing the table.
+   */
+  private int indexOf(final String table) {
+    for (int i = 0; i < statements.size(); i++)
+      if (statements.get(i).contains(table)) return i;
+    return -1;
+  }
+
+  /** Tests that the referenced tables are merged before the tables referencing them. */
+  @Test
+  void mergeParentsFirst() {
+    final Flush flush = new Flush(dslContext);
+    flush.merge(administrator(), null);
+    flush.merge(account(), null);
+    flush.execute();
+
+    assertEquals(2, statements.size());
+    assertTrue(indexOf("\"account\"") < indexOf("\"administrator\""));
+  }
+
+  /** Tests that the referenced tables are deleted after the tables referencing them. */
+  @Test
+  void deleteChildrenFirst() {
+    final Flush flush = new Flush(dslContext);
+    flush.delete(account(), null);
+    flush.delete(administrator(), null);
+    flush.execute();
+
+    assertEquals(2, statements.size());
+    assertTrue(indexOf("\"administrator\"") < indexOf("\"account\""));
+  }
+
+  /** Tests that the callbacks run once the writes added before them have been executed. */
+  @Test
+  void runCallbacksAfterWrites() {
+    final List<Integer> executedBefore = new ArrayList<>();
+    final Flush flush = new Flush(dslContext);
+    flush.merge(account(), null);
+    flush.afterExecution(() -> executedBefore.add(statements.size()));
+    assertTrue(executedBefore.isEmpty());
+
+    flush.execute();
+    assertEquals(List.of(1), executedBefore);
+  }
+
+  /** Tests that an update matching no row fails, as its changed columns would be lost. */
+  @Test
+  void failMissingUpdate() {
+    dslContext = DSL.using(new MockConnection(context -> {
+      statements.add(context.sql());
+      final MockResult[] results = new MockResult[Math.max(1, context.batchBindings().length)];
+      Arrays.fill(results, new MockResult(0));
+      return results;
+    }), SQLDialect.POSTGRES);
+    final AccountRecord accountRecord = account();
+    accountRecord.changed(false);
+    accountRecord.setEmail("new@example.com");
+    final Flush flush = new Flush(dslContext);
+    flush.update(accountRecord, null);
+
+    assertThrows(DataChangedException.class, flush::execute);
+    assertEquals(1, statements.size());
+  }
+
+  /** Tests that a cycle of foreign keys is cut, and that a table referencing the cycle is deeper than its members. */
+  @Test
+  void cutCycles() {
+    final Node first = new Node("flush_cycle_first");
+    final Node second = new Node("flush_cycle_second");
+    final Node dependent = new Node("flush_cycle_dependent");
+    first.references(second);
+    second.references(first);
+    dependent.references(second);
+    dependent.references(first);
+
+    // Starting with a member of the cycle leaves a partial depth for the other one, which must not be cached.
+    final int firstDepth = Flush.depthOf(first);
+    final int dependentDepth = Flush.depthOf(dependent);
+    final int secondDepth = Flush.depthOf(second);
+    assertTrue(dependentDepth > firstDepth);
+    assertTrue(dependentDepth > secondDepth);
+    assertEquals(firstDepth, Flush.depthOf(first));
+  }
+
+  /** Tests that a chain of foreign keys is ordered from the root to the leaf, whatever the order of the computation. */
+  @Test
+  void orderChains() {
+    final Node root = new Node("flush_chain_root");
+    final Node middle = new Node("flush_chain_middle");
+    final Node leaf = new Node("flush_chain_leaf");
+    middle.references(root);
+    leaf.references(middle);
+
+    assertEquals(2, Flush.depthOf(leaf));
+    assertEquals(1, Flush.depthOf(middle));
+    assertEquals(0, Flush.depthOf(root));
+  }
+
+}
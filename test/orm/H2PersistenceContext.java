@@ -0,0 +1,221 @@
+package orm;
+
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.DefaultConnection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link PersistenceContext} over an in-memory H2 database, through JDBC, that records the SQL statements it
+ * prepares, the connections it acquires and the sessions that have written.
+ */
+final class H2PersistenceContext extends PersistenceContext {
+
+  /** The name of the database. */
+  private final String databaseName;
+  /** The name of the database standing for a read replica, or {@code null} if the reads are not routed. */
+  private final String replicaName;
+  /** The SQL statements prepared, in order. */
+  private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+  /** The amount of connections acquired. */
+  private final AtomicInteger acquiredConnections = new AtomicInteger();
+  /** The keys of the sessions that have written, in order. */
+  private final List<Object> writingSessions = Collections.synchronizedList(new ArrayList<>());
+  /** The keys of the sessions that have acquired a read connection, in order. */
+  private final List<Object> readingSessions = Collections.synchronizedList(new ArrayList<>());
+
+  /**
+   * Creates a new instance of {@link H2PersistenceContext}.
+   *
+   * @param databaseName the name of the in-memory database, kept until the end of the tests.
+   */
+  H2PersistenceContext(final String databaseName) {
+    this(databaseName, null);
+  }
+
+  /**
+   * Creates a new instance of {@link H2PersistenceContext}, routing the reads to another in-memory database.
+   *
+   * @param databaseName the name of the in-memory database, kept until the end of the tests.
+   * @param replicaName the name of the in-memory database standing for a read replica, or {@code null}.
+   */
+  H2PersistenceContext(final String databaseName, final String replicaName) {
+    this.databaseName = databaseName;
+    this.replicaName = replicaName;
+  }
+
+  @Override
+  protected SQLDialect getDialect() { return SQLDialect.H2; }
+
+  @Override
+  protected String getDatabaseName() { return databaseName; }
+
+  @Override
+  protected String getDatabaseURL() { return urlOf(databaseName); }
+
+  /**
+   * @param name the name of an in-memory database.
+   *
+   * @return the JDBC URL of the database.
+   */
+  private static String urlOf(final String name) {
+    return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+  }
+
+  @Override
+  protected Connection acquireConnection() { return connect(databaseName); }
+
+  @Override
+  protected Connection acquireReadConnection(final Object sessionKey) {
+    readingSessions.add(sessionKey);
+    return replicaName == null ? null : connect(replicaName);
+  }
+
+  /**
+   * Connects to an in-memory database, recording the statements prepared by the connection.
+   *
+   * @param name the name of the database.
+   *
+   * @return the connection.
+   */
+  private Connection connect(final String name) {
+    acquiredConnections.incrementAndGet();
+    try {
+      return new DefaultConnection(DriverManager.getConnection(urlOf(name))) {
+        @Override
+        public PreparedStatement prepareStatement(final String sql) throws SQLException {
+          statements.add(sql);
+          return super.prepareStatement(sql);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
+                                                  final int resultSetConcurrency) throws SQLException {
+          statements.add(sql);
+          return super.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+          statements.add(sql);
+          return super.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+          statements.add(sql);
+          return super.prepareStatement(sql, columnNames);
+        }
+      };
+    } catch (SQLException e) {
+      throw new DataAccessException("Cannot connect to " + name, e);
+    }
+  }
+
+  @Override
+  protected void consumeInNewTransaction(final Consumer<DSLContext> usingTransaction) {
+    produceInNewTransaction(dslContext -> {
+      usingTransaction.accept(dslContext);
+      return null;
+    });
+  }
+
+  @Override
+  protected <T> T produceInNewTransaction(final Function<DSLContext, T> usingTransaction) {
+    return produceInNewConnection(dslContext -> dslContext.transactionResult(
+        configuration -> usingTransaction.apply(configuration.dsl())));
+  }
+
+  @Override
+  protected <T> T produceInNewConnection(final Function<DSLContext, T> usingConnection) {
+    return produceIn(acquireConnection(), usingConnection);
+  }
+
+  @Override
+  protected <T> T produceInNewReadConnection(final Object sessionKey, final Function<DSLContext, T> usingConnection) {
+    final Connection readConnection = acquireReadConnection(sessionKey);
+    if (readConnection == null) return produceInNewConnection(usingConnection);
+    return produceIn(readConnection, usingConnection);
+  }
+
+  /**
+   * Executes the {@link Function} provided with the connection provided, then closes it.
+   *
+   * @param connection the connection.
+   * @param usingConnection the {@link Function} that will provide a {@link DSLContext}.
+   * @param <T> the return type of the {@link Function}.
+   *
+   * @return an instance of {@link T}.
+   */
+  private static <T> T produceIn(final Connection connection, final Function<DSLContext, T> usingConnection) {
+    try (connection) {
+      return usingConnection.apply(DSL.using(connection, SQLDialect.H2));
+    } catch (SQLException e) {
+      throw new DataAccessException("Cannot close the connection", e);
+    }
+  }
+
+  @Override
+  protected Executor getExecutor() { return Runnable::run; }
+
+  @Override
+  protected void written(final Object sessionKey) { writingSessions.add(sessionKey); }
+
+  /**
+   * Executes the SQL statements provided, without recording them.
+   *
+   * @param sqls the SQL statements.
+   */
+  void execute(final String... sqls) {
+    produceInNewConnection(dslContext -> {
+      for (String sql : sqls)
+        dslContext.execute(sql);
+      return null;
+    });
+    statements.clear();
+  }
+
+  /** @return the SQL statements prepared since the last call, and forgets them. */
+  List<String> drainStatements() {
+    synchronized (statements) {
+      final List<String> drained = new ArrayList<>(statements);
+      statements.clear();
+      return drained;
+    }
+  }
+
+  /** @return the amount of connections acquired since the last call, and resets it. */
+  int drainAcquiredConnections() { return acquiredConnections.getAndSet(0); }
+
+  /** @return the keys of the sessions that have written since the last call, and forgets them. */
+  List<Object> drainWritingSessions() {
+    synchronized (writingSessions) {
+      final List<Object> drained = new ArrayList<>(writingSessions);
+      writingSessions.clear();
+      return drained;
+    }
+  }
+
+  /** @return the keys of the sessions that have acquired a read connection since the last call, and forgets them. */
+  List<Object> drainReadingSessions() {
+    synchronized (readingSessions) {
+      final List<Object> drained = new ArrayList<>(readingSessions);
+      readingSessions.clear();
+      return drained;
+    }
+  }
+
+}
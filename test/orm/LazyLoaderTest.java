@@ -1,5 +1,13 @@
 package orm;
 
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /** This test suite is focused on {@link orm.LazyLoader}. */
 final class LazyLoaderTest {
 
@@ -54,4 +62,36 @@ final class LazyLoaderTest {
      */
   }
 
+  /** @return a {@link RecordLoader} of a {@link List}, that never fetches anything nor produces any write. */
+  private static RecordLoader<Long, List<String>> createListLoader() {
+    return new RecordLoader<>(null, 1L,
+                              (dslContext, key) -> Collections.emptyList(),
+                              (dslContext, key, value) -> Collections.emptyList());
+  }
+
+  /** Tests that the elements added in place to a fetched {@link List} are detected. */
+  @Test
+  void detectInPlaceChange() {
+    final RecordLoader<Long, List<String>> lazyLoader = createListLoader();
+    final List<String> values = new ArrayList<>(List.of("a", "b"));
+    lazyLoader.setFetchedValue(values);
+    assertFalse(lazyLoader.hasChanged());
+
+    values.add("c");
+    assertTrue(lazyLoader.hasChanged());
+  }
+
+  /** Tests that a value set without being fetched is not considered as changed anymore, once it has been persisted. */
+  @Test
+  void snapshotOnPersistence() {
+    final RecordLoader<Long, List<String>> lazyLoader = createListLoader();
+    lazyLoader.setValue(new ArrayList<>(List.of("a")));
+    assertTrue(lazyLoader.hasChanged());
+
+    for (Action action : lazyLoader.createActions(null))
+      action.perform(null);
+    assertFalse(lazyLoader.hasChanged());
+    assertTrue(lazyLoader.createActions(null).isEmpty());
+  }
+
 }
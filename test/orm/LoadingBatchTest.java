@@ -0,0 +1,65 @@
+package orm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on {@link orm.LoadingBatch}. */
+final class LoadingBatchTest {
+
+  /** Tests that all the registered keys are resolved with only one fetch. */
+  @Test
+  void resolveAllPendingKeysAtOnce() {
+    final List<Set<Long>> fetches = new LinkedList<>();
+    final LoadingBatch<Long, String> loadingBatch = new LoadingBatch<>((dslContext, keys) -> {
+      fetches.add(keys);
+      final Map<Long, String> values = new HashMap<>();
+      keys.stream().filter(key -> key != 3L).forEach(key -> values.put(key, "value" + key));
+      return values;
+    }, "absent");
+
+    loadingBatch.register(1L);
+    loadingBatch.register(2L);
+    loadingBatch.register(3L);
+    assertFalse(loadingBatch.isResolved(1L));
+
+    assertEquals("value2", loadingBatch.resolve(null, 2L));
+    assertEquals(1, fetches.size());
+    assertEquals(Set.of(1L, 2L, 3L), fetches.get(0));
+
+    assertTrue(loadingBatch.isResolved(1L));
+    assertEquals("value1", loadingBatch.resolve(null, 1L));
+    assertEquals("absent", loadingBatch.resolve(null, 3L));
+    assertEquals(1, fetches.size());
+
+    assertEquals("value4", loadingBatch.resolve(null, 4L));
+    assertEquals(2, fetches.size());
+    assertEquals(Set.of(4L), fetches.get(1));
+  }
+
+  /** Tests that a scope is only bound to the thread during the execution of the supplier. */
+  @Test
+  void scopeBoundToExecution() {
+    final Object batchKey = new Object();
+    assertNull(LoadingBatches.join(batchKey, (dslContext, keys) -> Map.of(), null));
+
+    LoadingBatches.within(() -> {
+      final LoadingBatch<Long, String> first = LoadingBatches.join(batchKey, (dslContext, keys) -> Map.of(), null);
+      assertNotNull(first);
+      assertSame(first, LoadingBatches.join(batchKey, (dslContext, keys) -> Map.of(), null));
+      assertSame(first, LoadingBatches.within(() -> LoadingBatches.join(batchKey,
+                                                                        (dslContext, keys) -> Map.of(),
+                                                                        null)));
+      return first;
+    });
+
+    assertNull(LoadingBatches.join(batchKey, (dslContext, keys) -> Map.of(), null));
+  }
+
+}
@@ -0,0 +1,112 @@
+package orm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on {@link orm.ManyModelsLoader}. */
+final class ManyModelsLoaderTest {
+
+  /** A mutable model, identified by its id. */
+  private static final class Drawer extends Model {
+    /** The identifier, or {@code null} if the drawer is new. */
+    private Long id;
+    /** The size. */
+    private long size;
+
+    /**
+     * Creates a new instance of {@link Drawer}.
+     *
+     * @param id the identifier.
+     * @param size the size.
+     */
+    Drawer(final Long id, final long size) {
+      this.id = id;
+      this.size = size;
+    }
+  }
+
+  /** @return a {@link ManyModelsLoader} of {@link Drawer} instances, that never fetches anything. */
+  private static ManyModelsLoader<Long, Drawer> createLoader() {
+    return new ManyModelsLoader<>(null, 1L,
+                                  (dslContext, key) -> Collections.emptyList(),
+                                  drawer -> drawer.id,
+                                  drawer -> drawer.size,
+                                  (dslContext, key, diff) -> Collections.emptyList());
+  }
+
+  /** @return 60 fetched drawers. */
+  private static List<Drawer> fetchedDrawers() {
+    final List<Drawer> drawers = new ArrayList<>();
+    for (long i = 1; i <= 60; i++)
+      drawers.add(new Drawer(i, 1L));
+    return drawers;
+  }
+
+  /** Tests that an untouched collection does not produce any write. */
+  @Test
+  void untouchedCollection() {
+    final ManyModelsLoader<Long, Drawer> loader = createLoader();
+    loader.setFetchedValue(fetchedDrawers());
+    assertFalse(loader.hasChanged());
+    assertTrue(loader.diff().isEmpty());
+  }
+
+  /** Tests that editing one model in place only updates this model. */
+  @Test
+  void editOneModel() {
+    final ManyModelsLoader<Long, Drawer> loader = createLoader();
+    final List<Drawer> drawers = fetchedDrawers();
+    loader.setFetchedValue(drawers);
+    drawers.get(41).size = 2L;
+
+    assertTrue(loader.hasChanged());
+    final ModelsDiff<Drawer> diff = loader.diff();
+    assertEquals(List.of(drawers.get(41)), diff.updated());
+    assertTrue(diff.inserted().isEmpty());
+    assertTrue(diff.deleted().isEmpty());
+  }
+
+  /** Tests that added and removed models are respectively inserted and deleted. */
+  @Test
+  void addAndRemoveModels() {
+    final ManyModelsLoader<Long, Drawer> loader = createLoader();
+    final List<Drawer> drawers = fetchedDrawers();
+    loader.setFetchedValue(drawers);
+    final Drawer removed = drawers.remove(0);
+    final Drawer added = new Drawer(null, 3L);
+    drawers.add(added);
+
+    final ModelsDiff<Drawer> diff = loader.diff();
+    assertEquals(List.of(added), diff.inserted());
+    assertTrue(diff.updated().isEmpty());
+    assertEquals(List.of(removed), diff.deleted());
+    assertEquals(List.of(added), diff.merged());
+  }
+
+  /** Tests that a persisted collection does not produce any write anymore, including its inserted models. */
+  @Test
+  void persistedCollection() {
+    final ManyModelsLoader<Long, Drawer> loader = createLoader();
+    final List<Drawer> drawers = fetchedDrawers();
+    loader.setFetchedValue(drawers);
+    final Drawer added = new Drawer(null, 3L);
+    drawers.add(added);
+    drawers.get(0).size = 2L;
+
+    final List<Action> actions = loader.createActions(null);
+    assertFalse(actions.isEmpty());
+    added.id = 61L;
+    for (Action action : actions)
+      action.perform(null);
+
+    assertFalse(loader.hasChanged());
+    assertTrue(loader.diff().isEmpty());
+    assertTrue(loader.createActions(null).isEmpty());
+  }
+
+}
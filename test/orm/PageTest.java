@@ -0,0 +1,60 @@
+package orm;
+
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the continuation tokens of {@link orm.Page}. */
+final class PageTest {
+
+  /** A key of type {@code BIGINT}. */
+  private static final Field<Long> ID = DSL.field(DSL.name("id"), SQLDataType.BIGINT);
+  /** A key of type {@code VARCHAR}. */
+  private static final Field<String> NAME = DSL.field(DSL.name("name"), SQLDataType.VARCHAR);
+
+  /** Tests that the values of the keys are decoded back from their token, with the types of the keys. */
+  @Test
+  void roundTrip() {
+    final String token = Page.encode(42L, "Top.Drawer \u00e9/+");
+
+    assertArrayEquals(new Object[]{42L, "Top.Drawer \u00e9/+"}, Page.decode(token, ID, NAME));
+  }
+
+  /** Tests that a token only holds URL-safe characters, whatever the values of the keys. */
+  @Test
+  void urlSafeToken() {
+    assertTrue(Page.encode(42L, "a/b+c?d=e&f").matches("[A-Za-z0-9_.-]+"));
+  }
+
+  /** Tests that the token of the first page is decoded as no value. */
+  @Test
+  void decodeFirstPage() {
+    assertNull(Page.decode(null, ID));
+  }
+
+  /** Tests that a token for another number of keys is rejected. */
+  @Test
+  void rejectWrongNumberOfKeys() {
+    final String token = Page.encode(42L, "Top");
+
+    assertThrows(IllegalArgumentException.class, () -> Page.decode(token, ID));
+  }
+
+  /** Tests that a token whose value does not match the type of its key is rejected. */
+  @Test
+  void rejectWrongType() {
+    final String token = Page.encode("Top");
+
+    assertThrows(IllegalArgumentException.class, () -> Page.decode(token, ID));
+  }
+
+  /** Tests that a token that is not encoded is rejected. */
+  @Test
+  void rejectInvalidEncoding() {
+    assertThrows(IllegalArgumentException.class, () -> Page.decode("not base64!", ID));
+  }
+
+}
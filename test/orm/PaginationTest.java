@@ -0,0 +1,93 @@
+package orm;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the keyset pagination of {@link orm.Repository}, over an in-memory H2 database. */
+final class PaginationTest {
+
+  /** The {@link H2PersistenceContext} of the tests. */
+  private static final H2PersistenceContext CONTEXT = new H2PersistenceContext("pagination");
+  /** The {@link DrawersRepository} of the tests. */
+  private static final DrawersRepository DRAWERS = new DrawersRepository(CONTEXT);
+
+  /** Creates and fills the table of the tests. */
+  @BeforeAll
+  static void createTable() {
+    CONTEXT.execute(Drawer.CREATE_TABLE,
+                    "insert into drawer values (3, 'Left', 30), (1, 'Top', 10), (2, 'Bottom', 20)");
+  }
+
+  /** Forgets the statements of the previous test. */
+  @BeforeEach
+  void clearStatements() {
+    CONTEXT.drainStatements();
+  }
+
+  /**
+   * @param page the {@link Page}.
+   *
+   * @return the identifiers of the drawers of the page.
+   */
+  private static List<Long> ids(final Page<Drawer> page) {
+    return page.getItems().stream().map(Drawer::getId).toList();
+  }
+
+  /** Tests that the pages follow each other, and that the last one has no continuation token. */
+  @Test
+  void fetchPages() {
+    final Page<Drawer> first = DRAWERS.findPage(2, null);
+    final Page<Drawer> second = DRAWERS.findPage(2, first.getNextToken());
+
+    assertEquals(List.of(1L, 2L), ids(first));
+    assertTrue(first.hasNext());
+    assertEquals(List.of(3L), ids(second));
+    assertFalse(second.hasNext());
+    assertNull(second.getNextToken());
+  }
+
+  /** Tests that a page holding exactly the remaining rows is detected as the last one. */
+  @Test
+  void fetchLastFullPage() {
+    final Page<Drawer> page = DRAWERS.findPage(3, null);
+
+    assertEquals(List.of(1L, 2L, 3L), ids(page));
+    assertFalse(page.hasNext());
+  }
+
+  /** Tests that a page size that is not positive is rejected. */
+  @Test
+  void rejectPageSize() {
+    assertThrows(IllegalArgumentException.class, () -> DRAWERS.findPage(0, null));
+  }
+
+  /** Tests that the pages of several queries are fetched by a single statement each, ordered by key. */
+  @Test
+  void fetchUnionPages() {
+    final Page<Drawer> first = DRAWERS.findUnionPage(2, null, 0);
+    final Page<Drawer> second = DRAWERS.findUnionPage(2, first.getNextToken(), 0);
+
+    assertEquals(2, CONTEXT.drainStatements().size());
+    assertEquals(List.of(1L, 2L), ids(first));
+    assertTrue(first.hasNext());
+    assertEquals(List.of(3L), ids(second));
+    assertFalse(second.hasNext());
+  }
+
+  /** Tests that a key returned by several queries is mapped once, by the first query, and counted once. */
+  @Test
+  void fetchUnionPageWithDuplicates() {
+    final Page<Drawer> page = DRAWERS.findUnionPage(2, null, 25);
+
+    assertEquals(List.of(1L, 2L), ids(page));
+    assertEquals(List.of("Top", "Bottom"), page.getItems().stream().map(Drawer::getName).toList());
+    assertTrue(page.hasNext());
+    assertEquals(List.of(3L), ids(DRAWERS.findUnionPage(2, page.getNextToken(), 25)));
+  }
+
+}
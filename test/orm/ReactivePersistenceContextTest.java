@@ -0,0 +1,126 @@
+package orm;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the reactive operations of {@link orm.PersistenceContext}, over in-memory R2DBC. */
+final class ReactivePersistenceContextTest {
+
+  /** The table of the tests. */
+  private static final Table<?> DRAWER = DSL.table(DSL.name("drawer"));
+  /** The identifier of the drawers. */
+  private static final Field<Long> ID = DSL.field(DSL.name("id"), SQLDataType.BIGINT.notNull());
+  /** The size of the drawers. */
+  private static final Field<Integer> SIZE = DSL.field(DSL.name("size"), SQLDataType.INTEGER.notNull());
+
+  /** A {@link PersistenceContext} executing only the reactive operations, on an in-memory H2 database. */
+  private static final class InMemoryPersistenceContext extends PersistenceContext {
+    /** The {@link ConnectionFactory} of the in-memory database. */
+    private final ConnectionFactory connectionFactory =
+        ConnectionFactories.get("r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1");
+
+    @Override
+    protected SQLDialect getDialect() { return SQLDialect.H2; }
+
+    @Override
+    protected String getDatabaseName() { return "reactive"; }
+
+    @Override
+    protected String getDatabaseURL() { return "r2dbc:h2:mem:///reactive"; }
+
+    @Override
+    protected Connection acquireConnection() { throw new UnsupportedOperationException(); }
+
+    @Override
+    protected void consumeInNewTransaction(final Consumer<DSLContext> usingTransaction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected <T> T produceInNewTransaction(final Function<DSLContext, T> usingTransaction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected <T> T produceInNewConnection(final Function<DSLContext, T> usingConnection) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Executor getExecutor() { throw new UnsupportedOperationException(); }
+
+    @Override
+    protected ConnectionFactory getConnectionFactory() { return connectionFactory; }
+  }
+
+  /** The {@link PersistenceContext} of the tests. */
+  private static final InMemoryPersistenceContext CONTEXT = new InMemoryPersistenceContext();
+
+  /**
+   * Creates and fills the table of the tests.
+   *
+   * @throws Exception if the table cannot be created.
+   */
+  @BeforeAll
+  static void createTable() throws Exception {
+    CONTEXT.executeReactive(dslContext -> dslContext.createTableIfNotExists(DRAWER).columns(ID, SIZE))
+           .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    CONTEXT.executeReactive(dslContext -> dslContext.insertInto(DRAWER, ID, SIZE)
+                                                    .values(1L, 10)
+                                                    .values(2L, 20)
+                                                    .values(3L, 30))
+           .toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Tests that all the records of a query are collected.
+   *
+   * @throws Exception if the query fails.
+   */
+  @Test
+  void fetchReactive() throws Exception {
+    assertTrue(CONTEXT.isReactive());
+    final List<Record2<Long, Integer>> drawers =
+        CONTEXT.fetchReactive(dslContext -> dslContext.select(ID, SIZE).from(DRAWER).where(SIZE.ge(20)).orderBy(ID))
+               .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertEquals(List.of(2L, 3L), drawers.stream().map(Record2::value1).toList());
+  }
+
+  /**
+   * Tests that a query without any row produces an empty {@link Optional}, and that a query with one row produces it.
+   *
+   * @throws Exception if the query fails.
+   */
+  @Test
+  void fetchOptionalReactive() throws Exception {
+    final Optional<Record2<Long, Integer>> missing =
+        CONTEXT.fetchOptionalReactive(dslContext -> dslContext.select(ID, SIZE).from(DRAWER).where(ID.eq(42L)))
+               .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertTrue(missing.isEmpty());
+
+    final Optional<Record2<Long, Integer>> drawer =
+        CONTEXT.fetchOptionalReactive(dslContext -> dslContext.select(ID, SIZE).from(DRAWER).where(ID.eq(1L)))
+               .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertEquals(Optional.of(10), drawer.map(Record2::value2));
+  }
+
+}
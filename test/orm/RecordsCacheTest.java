@@ -0,0 +1,120 @@
+package orm;
+
+import com.typesafe.config.ConfigFactory;
+import orm.caches.RecordsCache;
+import orm.caches.RecordsCaches;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static orm.Drawer.DRAWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the second-level cache of the records of {@link orm.Repository}, over H2. */
+final class RecordsCacheTest {
+
+  /** The {@link H2PersistenceContext} of the tests. */
+  private static final H2PersistenceContext CONTEXT = new H2PersistenceContext("records_cache");
+
+  /** The {@link RecordsCaches} of the test. */
+  private RecordsCaches recordsCaches;
+  /** The {@link RecordsCache} of the drawers. */
+  private RecordsCache recordsCache;
+  /** The {@link DrawersRepository} of the test, going through the {@link RecordsCache}. */
+  private DrawersRepository drawers;
+
+  /** Creates the table of the tests. */
+  @BeforeAll
+  static void createTable() {
+    CONTEXT.execute(Drawer.CREATE_TABLE);
+  }
+
+  /** Resets the content of the table, and creates an empty cache. */
+  @BeforeEach
+  void resetTable() {
+    CONTEXT.execute("delete from drawer", "insert into drawer values (1, 'Top', 10)");
+    recordsCaches = new RecordsCaches(ConfigFactory.parseString("briventory.caches.records.heap-entries = 10\n"
+                                                                + "briventory.caches.records.time-to-live = 1h"));
+    recordsCache = recordsCaches.of(DRAWER);
+    drawers = new DrawersRepository(CONTEXT, recordsCache);
+    CONTEXT.drainStatements();
+  }
+
+  /** Closes the cache. */
+  @AfterEach
+  void closeCache() {
+    recordsCaches.close();
+  }
+
+  /** Tests that a record fetched by primary key is then found in the cache, without querying the database. */
+  @Test
+  void hit() {
+    drawers.findById(1L);
+    assertEquals(1, CONTEXT.drainStatements().size());
+
+    final Drawer drawer = drawers.findById(1L);
+
+    assertTrue(CONTEXT.drainStatements().isEmpty());
+    assertEquals("Top", drawer.getName());
+    assertEquals(1, recordsCache.getHits());
+    assertEquals(1, recordsCache.getMisses());
+  }
+
+  /** Tests that a primary key without any row queries the database each time, as no row is cached. */
+  @Test
+  void miss() {
+    assertNull(drawers.findById(2L));
+    assertNull(drawers.findById(2L));
+
+    assertEquals(2, CONTEXT.drainStatements().size());
+    assertEquals(0, recordsCache.getHits());
+    assertEquals(2, recordsCache.getMisses());
+  }
+
+  /** Tests that a persisted record is invalidated, so that the next lookup reads the written values. */
+  @Test
+  void invalidateOnPersist() {
+    final Drawer drawer = drawers.findById(1L);
+    drawer.setName("Renamed");
+    drawers.save(drawer);
+    CONTEXT.drainStatements();
+
+    assertNull(recordsCache.get(1L));
+    assertEquals("Renamed", drawers.findById(1L).getName());
+    assertEquals(1, CONTEXT.drainStatements().size());
+  }
+
+  /**
+   * Tests that a record stored by a concurrent reader while the transaction was running, i.e. its former version, is
+   * invalidated again once the transaction has ended.
+   */
+  @Test
+  void invalidateAfterTransaction() {
+    drawers.findById(1L);
+    final Drawer.DrawerRecord former = recordsCache.get(1L);
+    final Drawer drawer = drawers.findById(1L);
+    drawer.setName("Renamed");
+
+    RecordsCache.invalidatingAfterTransaction(() -> {
+      drawers.save(drawer);
+      recordsCache.put(1L, former);
+      assertSame(former, recordsCache.get(1L));
+      return null;
+    });
+
+    assertNull(recordsCache.get(1L));
+    assertEquals("Renamed", drawers.findById(1L).getName());
+  }
+
+  /** Tests that the records of another table are not invalidated by the cache of the drawers. */
+  @Test
+  void ignoreOtherTables() {
+    drawers.findById(1L);
+
+    recordsCache.invalidate(new WriteChainTest.LabelRecord());
+
+    assertNotNull(recordsCache.get(1L));
+  }
+
+}
@@ -0,0 +1,102 @@
+package orm;
+
+import org.jooq.Field;
+import org.jooq.Result;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static orm.Drawer.DRAWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on the {@code UNION ALL} queries of {@link orm.Repository}, over H2. */
+final class UnionAllTest {
+
+  /** The table of the items stored into the drawers. */
+  private static final Table<?> ITEM = DSL.table(DSL.name("item"));
+  /** The identifier of the items. */
+  private static final Field<Long> ID = DSL.field(DSL.name("item", "id"), SQLDataType.BIGINT);
+  /** The identifier of the drawer of the items. */
+  private static final Field<Long> ID_DRAWER = DSL.field(DSL.name("item", "id_drawer"), SQLDataType.BIGINT);
+  /** The {@link FetchPlan} loading the amount of items of the drawers, from the multiset of their items. */
+  private static final FetchPlan<Drawer> WITH_ITEMS =
+      FetchPlan.<Drawer>empty().with(DSL.multiset(DSL.select(ID).from(ITEM).where(ID_DRAWER.eq(DRAWER.id)))
+                                        .convertFrom(Result::size),
+                                     Drawer::setItemsCount);
+
+  /** The {@link H2PersistenceContext} of the tests. */
+  private static final H2PersistenceContext CONTEXT = new H2PersistenceContext("union_all");
+  /** The {@link DrawersRepository} of the tests. */
+  private static final DrawersRepository DRAWERS = new DrawersRepository(CONTEXT);
+
+  /** Creates and fills the tables of the tests. */
+  @BeforeAll
+  static void createTables() {
+    CONTEXT.execute(Drawer.CREATE_TABLE,
+                    "create table item (id bigint primary key, id_drawer bigint)",
+                    "insert into drawer values (1, 'Top', 10), (2, 'Bottom', 20)",
+                    "insert into item values (1, 1), (2, 1), (3, 2)");
+  }
+
+  /** Forgets the statements of the previous test. */
+  @BeforeEach
+  void clearStatements() {
+    CONTEXT.drainStatements();
+  }
+
+  /** Tests that the queries are fetched in a single statement, each row being given to the mapper of its query. */
+  @Test
+  void fetchInOneStatement() {
+    final List<Drawer> drawers = new ArrayList<>(DRAWERS.findBySize(15));
+    drawers.sort(Comparator.comparingLong(Drawer::getId));
+
+    assertEquals(1, CONTEXT.drainStatements().size());
+    assertEquals(2, drawers.size());
+    assertNull(drawers.get(0).getName());
+    assertEquals(10, drawers.get(0).getSize());
+    assertEquals("Bottom", drawers.get(1).getName());
+    assertEquals(0, drawers.get(1).getSize());
+  }
+
+  /** Tests that the columns filling the other queries are typed, so that the database does not infer their types. */
+  @Test
+  void typedPadding() {
+    DRAWERS.findBySize(15);
+
+    final String statement = CONTEXT.drainStatements().get(0).toLowerCase();
+    assertTrue(statement.contains("cast(null as bigint)"), statement);
+    assertTrue(statement.contains("cast(null as int)"), statement);
+    assertTrue(statement.contains("cast(null as varchar)"), statement);
+  }
+
+  /** Tests that the associations of a fetch plan are fetched by the same statement, and loaded into each model. */
+  @Test
+  void fetchWithPlan() {
+    final List<Drawer> drawers = new ArrayList<>(DRAWERS.findBySize(15, WITH_ITEMS));
+    drawers.sort(Comparator.comparingLong(Drawer::getId));
+
+    assertEquals(1, CONTEXT.drainStatements().size());
+    assertEquals(10, drawers.get(0).getSize());
+    assertEquals("Bottom", drawers.get(1).getName());
+    assertEquals(List.of(2, 1), drawers.stream().map(Drawer::getItemsCount).toList());
+  }
+
+  /** Tests that an empty plan adds no column to the queries. */
+  @Test
+  void fetchWithEmptyPlan() {
+    final List<Drawer> drawers = DRAWERS.findBySize(15, FetchPlan.empty());
+
+    final List<String> statements = CONTEXT.drainStatements();
+    assertEquals(1, statements.size());
+    assertFalse(statements.get(0).contains("item"));
+    assertEquals(List.of(-1, -1), drawers.stream().map(Drawer::getItemsCount).toList());
+  }
+
+}
@@ -0,0 +1,149 @@
+package orm;
+
+import org.jooq.DSLContext;
+import org.jooq.ForeignKey;
+import org.jooq.Record5;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.TableField;
+import org.jooq.UniqueKey;
+import org.jooq.impl.DSL;
+import org.jooq.impl.Internal;
+import org.jooq.impl.SQLDataType;
+import org.jooq.impl.TableImpl;
+import org.jooq.impl.UpdatableRecordImpl;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static orm.Drawer.DRAWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test suite is focused on the statements rendered by {@link orm.WriteChain}. The data-modifying common table
+ * expressions are not supported by H2: the statements are rendered for PostgreSQL, and answered by a mock connection.
+ */
+final class WriteChainTest {
+
+  /** The table of the labels of the drawers. */
+  private static final LabelTable LABEL = new LabelTable();
+
+  /** The table of the labels of the drawers, referencing the drawers. */
+  private static final class LabelTable extends TableImpl<LabelRecord> {
+    private static final long serialVersionUID = 1L;
+
+    /** The identifier. */
+    final TableField<LabelRecord, Long> id = createField(DSL.name("id"), SQLDataType.BIGINT.notNull(), this, "");
+    /** The identifier of the drawer. */
+    final TableField<LabelRecord, Long> idDrawer = createField(DSL.name("id_drawer"), SQLDataType.BIGINT, this, "");
+
+    /** Creates a new instance of {@link LabelTable}. */
+    private LabelTable() {
+      super(DSL.name("label"));
+    }
+
+    @Override
+    public Class<LabelRecord> getRecordType() { return LabelRecord.class; }
+
+    @Override
+    public UniqueKey<LabelRecord> getPrimaryKey() { return Internal.createUniqueKey(this, id); }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<ForeignKey<LabelRecord, ?>> getReferences() {
+      return List.of(Internal.createForeignKey(this, DSL.name("fk_label_drawer"), new TableField[]{idDrawer},
+                                               DRAWER.getPrimaryKey(), new TableField[]{DRAWER.id}, true));
+    }
+  }
+
+  /** The record of the labels. */
+  static final class LabelRecord extends UpdatableRecordImpl<LabelRecord> {
+    private static final long serialVersionUID = 1L;
+
+    /** Creates a new instance of {@link LabelRecord}. */
+    public LabelRecord() {
+      super(LABEL);
+    }
+  }
+
+  /** The SQL statements executed, in order. */
+  private final List<String> statements = new ArrayList<>();
+  /** The {@link DSLContext} of the tests, answering the drawer (1, 'Top', 10) and the label (5, 1). */
+  private DSLContext dslContext;
+
+  /** Creates the {@link DSLContext}, recording the statements. */
+  @BeforeEach
+  void createContext() {
+    final DSLContext rendering = DSL.using(SQLDialect.POSTGRES);
+    dslContext = DSL.using(new MockConnection(ctx -> {
+      statements.add(ctx.sql());
+      final Result<Record5<Long, String, Integer, Long, Long>> result =
+          rendering.newResult(DRAWER.id, DRAWER.name, DRAWER.size, LABEL.id, LABEL.idDrawer);
+      result.add(rendering.newRecord(DRAWER.id, DRAWER.name, DRAWER.size, LABEL.id, LABEL.idDrawer)
+                          .values(1L, "Top", 10, 5L, 1L));
+      return new MockResult[]{new MockResult(1, result)};
+    }), SQLDialect.POSTGRES);
+  }
+
+  /** Tests that the records are merged by a single statement, and refreshed with the returned rows. */
+  @Test
+  void mergeInOneStatement() {
+    final Drawer.DrawerRecord drawer = dslContext.newRecord(DRAWER);
+    drawer.set(DRAWER.id, 1L);
+    drawer.set(DRAWER.name, "Top");
+    final LabelRecord label = dslContext.newRecord(LABEL);
+    label.set(LABEL.id, 5L);
+
+    new WriteChain(dslContext).merge(drawer).merge(label).execute();
+
+    assertEquals(1, statements.size());
+    final String statement = statements.get(0);
+    assertTrue(statement.startsWith("with \"merge_0\" as (insert into \"drawer\" (\"id\", \"name\") select"),
+               statement);
+    assertTrue(statement.contains("on conflict (\"id\") do update set \"id\" = excluded.\"id\", "
+                                  + "\"name\" = excluded.\"name\" returning"), statement);
+    assertEquals(10, drawer.get(DRAWER.size));
+    assertFalse(drawer.changed());
+    assertEquals(1L, label.get(LABEL.idDrawer));
+    assertFalse(label.changed());
+  }
+
+  /** Tests that the foreign key of a record is taken from the row returned by the merge of the record it references. */
+  @Test
+  void propagateForeignKey() {
+    final Drawer.DrawerRecord drawer = dslContext.newRecord(DRAWER);
+    drawer.set(DRAWER.id, 1L);
+    final LabelRecord label = dslContext.newRecord(LABEL);
+    label.set(LABEL.id, 5L);
+
+    new WriteChain(dslContext).merge(drawer).merge(label).execute();
+
+    final String statement = statements.get(0);
+    assertTrue(statement.contains("\"merge_1\" as (insert into \"label\" (\"id\", \"id_drawer\") select "
+                                  + "?, \"merge_0\".\"id\" from \"merge_0\""), statement);
+  }
+
+  /** Tests that an unchanged record is not written, but selected by primary key, so that it still flows down. */
+  @Test
+  void selectUnchangedRecord() {
+    final Drawer.DrawerRecord drawer = dslContext.newRecord(DRAWER);
+    drawer.set(DRAWER.id, 1L);
+    drawer.changed(false);
+    final LabelRecord label = dslContext.newRecord(LABEL);
+    label.set(LABEL.id, 5L);
+
+    new WriteChain(dslContext).merge(drawer).merge(label).execute();
+
+    final String statement = statements.get(0);
+    assertTrue(statement.startsWith("with \"merge_0\" as (select \"drawer\".\"id\", \"drawer\".\"name\", "
+                                    + "\"drawer\".\"size\" from \"drawer\" where \"drawer\".\"id\" = ?)"), statement);
+    assertTrue(statement.contains("select ?, \"merge_0\".\"id\" from \"merge_0\""), statement);
+    assertEquals("Top", drawer.get(DRAWER.name));
+    assertEquals(1L, label.get(LABEL.idDrawer));
+  }
+
+}
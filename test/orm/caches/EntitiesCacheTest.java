@@ -0,0 +1,50 @@
+package orm.caches;
+
+import jooq.tables.records.ContainerTypeRecord;
+import org.junit.jupiter.api.Test;
+import orm.Mapper;
+import orm.Model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jooq.Tables.CONTAINER_TYPE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This test suite is focused on {@link orm.caches.EntitiesCache}. */
+final class EntitiesCacheTest {
+
+  /** A minimal {@link Model}, only used by this test suite. */
+  private static final class Foo extends Model { }
+
+  /** Tests that a row is only materialised once per unit of work. */
+  @Test
+  void mapOncePerUnitOfWork() {
+    final AtomicInteger mappings = new AtomicInteger();
+    final Mapper<ContainerTypeRecord, Foo> mapper = r -> {
+      mappings.incrementAndGet();
+      return new Foo();
+    };
+    final ContainerTypeRecord first = new ContainerTypeRecord(1L, "First", (short) 1, (short) 2, null);
+    final ContainerTypeRecord second = new ContainerTypeRecord(2L, "Second", (short) 1, (short) 2, null);
+
+    assertNotSame(EntitiesCache.map(first, mapper), EntitiesCache.map(first, mapper));
+    assertEquals(2, mappings.get());
+
+    EntitiesCache.within(() -> {
+      final Foo foo = EntitiesCache.map(first, mapper);
+      assertSame(foo, EntitiesCache.map(new ContainerTypeRecord(1L, "Again", (short) 1, (short) 2, null), mapper));
+      assertSame(foo, EntitiesCache.find(CONTAINER_TYPE, 1L));
+      assertNotSame(foo, EntitiesCache.map(second, mapper));
+      assertEquals(4, mappings.get());
+
+      EntitiesCache.evict(first);
+      assertNull(EntitiesCache.find(CONTAINER_TYPE, 1L));
+      assertNotSame(foo, EntitiesCache.map(first, mapper));
+      assertEquals(5, mappings.get());
+      return foo;
+    });
+
+    assertNull(EntitiesCache.find(CONTAINER_TYPE, 1L));
+  }
+
+}